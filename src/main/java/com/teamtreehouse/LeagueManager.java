@@ -1,19 +1,55 @@
 package com.teamtreehouse;
 import com.teamtreehouse.controller.MainMenuPrompter;
 import com.teamtreehouse.controller.TeamChangePrompter;
+import com.teamtreehouse.model.DiskPlayerStore;
 import com.teamtreehouse.model.Player;
-import com.teamtreehouse.model.Players;
+import com.teamtreehouse.model.PlayerRepository;
 import com.teamtreehouse.model.Team;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 
 public class LeagueManager {
+    // optional first argument is path to registrations CSV file, see
+    // PlayersFileLoader for format. Without it built-in Players.load()
+    // database is used. With "--off-heap" before path, players are kept
+    // out of heap, see OffHeapPlayerStore. With "--on-disk" before path
+    // players are read from disk on demand, optional number after path is
+    // size of cache, see DiskPlayerStore, and optional path after it is
+    // indexed file to write, that must not exist. Without it temporary file
+    // is used
     public static void main(String[] args) throws IOException {
-        Player[] players = Players.load();
-        System.out.printf("There are currently %d registered players.%n", players.length);
-        // Creating new MainMenuPrompter controller class where all our menus
-        MainMenuPrompter prompter = new MainMenuPrompter();
-        // main menu call
-        prompter.presentMenuWithPossibleOptions();
+        // players are loaded only here, prompters share this repository
+        PlayerRepository playerRepository;
+        if (args.length > 1 && args[0].equals("--off-heap")) {
+            playerRepository = PlayerRepository.loadOffHeap(Paths.get(args[1]));
+            System.out.println(playerRepository.getLoadReport());
+        } else if (args.length > 1 && args[0].equals("--on-disk")) {
+            int cacheSize = args.length > 2 ? Integer.parseInt(args[2])
+                    : DiskPlayerStore.DEFAULT_CACHE_SIZE;
+            playerRepository = args.length > 3
+                    ? PlayerRepository.loadOnDisk(Paths.get(args[1]),
+                            Paths.get(args[3]), cacheSize)
+                    : PlayerRepository.loadOnDisk(Paths.get(args[1]),
+                            cacheSize);
+            System.out.println(playerRepository.getLoadReport());
+        } else if (args.length > 0) {
+            playerRepository = PlayerRepository.load(Paths.get(args[0]));
+            System.out.println(playerRepository.getLoadReport());
+        } else {
+            playerRepository = PlayerRepository.builtIn();
+        }
+        // repository is closed on exit: store on disk keeps file open
+        try (PlayerRepository openedRepository = playerRepository) {
+            System.out.printf("There are currently %d registered players.%n", openedRepository.size());
+            // Creating new MainMenuPrompter controller class where all our menus
+            MainMenuPrompter prompter = new MainMenuPrompter(openedRepository);
+            // main menu call
+            prompter.presentMenuWithPossibleOptions();
+            if (openedRepository.getPlayerStore() instanceof DiskPlayerStore) {
+                System.out.println("Players cache: " + ((DiskPlayerStore)
+                        openedRepository.getPlayerStore()).getCache());
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,21 +1,44 @@
 package com.teamtreehouse.controller;
 
+import com.teamtreehouse.model.AutoAssigner;
+import com.teamtreehouse.model.DraftSimulator;
+import com.teamtreehouse.model.FairnessReport;
+import com.teamtreehouse.model.FixtureScheduler;
+import com.teamtreehouse.model.HeightSketch;
+import com.teamtreehouse.model.LeagueReport;
+import com.teamtreehouse.model.MatchResult;
+import com.teamtreehouse.model.MatchResultsFileLoader;
 import com.teamtreehouse.model.Player;
-import com.teamtreehouse.model.Players;
+import com.teamtreehouse.model.PlayerPool;
+import com.teamtreehouse.model.PlayerRepository;
+import com.teamtreehouse.model.RankedTreeSet;
+import com.teamtreehouse.model.ReportCache;
+import com.teamtreehouse.model.ResultsFeed;
+import com.teamtreehouse.model.Standings;
+import com.teamtreehouse.model.StandardPickStrategy;
 import com.teamtreehouse.model.Team;
+import com.teamtreehouse.model.TeamRegistry;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class MainMenuPrompter extends Prompter {
 
     // This players Set is the unique collection of players that is generated
-    // from database: Players.load(). It is changing upon removal and addition
-    // of players to team
-    private Set<Player> mPlayersSet;
+    // from database: PlayerRepository. It is changing upon removal and addition
+    // of players to team. IndexedSet is used so that player can be picked
+    // by id in TeamChangePrompter without copying the whole set. PlayerPool
+    // also keeps index of players by height, see HeightIndex
+    private PlayerPool mPlayersSet;
+    // repository, that players come from, its columns are used by "filter"
+    // in TeamChangePrompter. Is null, when players set is passed directly
+    private PlayerRepository mPlayerRepository;
     // This team will point to team in mTeamsSet, will be sent to
     // TeamChangePrompter to add players and returned back
     private Team mPickedTeam;
@@ -29,21 +52,46 @@ public class MainMenuPrompter extends Prompter {
     private int mNumberOfPlayersInDatabase;
 
 
-    // Set of teams, will be implemented as TreeSet sorted by name, see
-    // Team.compareTo(Team otherTeam)
-    private Set<Team> mTeamsSet;
+    // number of threads for distribution reports, see LeagueReport
+    private int mReportParallelism = LeagueReport.getDefaultParallelism();
+    // 1 makes reports sequential
+    // @throws IllegalArgumentException if parallelism is less than 1
+    public void setReportParallelism(int reportParallelism) {
+        if (reportParallelism < 1) {
+            throw new IllegalArgumentException(
+                    "Parallelism should be at least 1: " + reportParallelism);
+        }
+        mReportParallelism = reportParallelism;
+    }
+
+    // results of "show", "height" and "experience" reports, served until
+    // teams change, see ReportCache
+    private ReportCache mReportCache = new ReportCache();
+    // protected, because used in testing
+    protected ReportCache getReportCache() {
+        return mReportCache;
+    }
+
+    // last schedule, created upon "schedule", and number of its rounds
+    // already played upon "feed"
+    private FixtureScheduler.Schedule mSchedule;
+    private int mNumberOfPlayedRounds;
+    // league table, results come from file or feed
+    private Standings mStandings = new Standings();
+    // protected, because used in testing
+    protected Standings getStandings() {
+        return mStandings;
+    }
+
+    // Set of teams, TeamRegistry is sorted by name, see
+    // Team.compareTo(Team otherTeam), and has index by name to check
+    // for duplicates
+    private TeamRegistry mTeamsSet;
     // protected, because used in testing, not in the actual implementation
-    protected Set<Team> getTeamsSet() {
+    protected TeamRegistry getTeamsSet() {
         return mTeamsSet;
     }
 
-    // fills players from database: Players.load() to mPlayersSet: our dynamic
-    // database. Used in default constructor: MainMenuPrompter()
-    private void fillPlayersSetWithPlayersDatabase() {
-        for (Player player : Players.load()) {
-            mPlayersSet.add(player);
-        }
-    }
     // constructor used in Testing with additional arguments, that let us
     // track proper messages and control user input:
     // BufferedReader and Logger will be mocked
@@ -51,51 +99,83 @@ public class MainMenuPrompter extends Prompter {
     // Logger - to mock output
     // for the description of types see parent class Prompter
     // mBufferedReader and mLogger are inherited from Prompter class
+    // Database is built-in Players.load(), loaded once, see PlayerRepository
     protected MainMenuPrompter(BufferedReader bufferedReader, Logger logger) {
+        this(bufferedReader, logger, PlayerRepository.builtIn());
+    }
+    // constructor with already loaded database, e.g. from registration file.
+    // mPlayersSet is made from shared snapshot of repository, players are
+    // not loaded again
+    protected MainMenuPrompter(BufferedReader bufferedReader, Logger logger,
+                               PlayerRepository playerRepository) {
         mBufferedReader = bufferedReader;
         mLogger = logger;
         mMenu = new HashMap<>();
         fillMenuMapWithOptions();
-        mTeamsSet = new TreeSet<>();
-        mPlayersSet = new TreeSet<>();
-        fillPlayersSetWithPlayersDatabase();
+        mTeamsSet = new TeamRegistry();
+        mPlayerRepository = playerRepository;
+        mPlayersSet = playerRepository.newAvailablePlayersSet();
         mNumberOfPlayersInDatabase = mPlayersSet.size();
     }
     // constructor used in testing case when there are not enough players
-    // in database to create a team, we can pass here our own database
+    // in database to create a team, we can pass here our own database,
+    // it is copied to RankedTreeSet in PlayerPool
     protected MainMenuPrompter(BufferedReader bufferedReader, Logger logger,
         Set<Player> playersSet) {
         mBufferedReader = bufferedReader;
         mLogger = logger;
         mMenu = new HashMap<>();
         fillMenuMapWithOptions();
-        mTeamsSet = new TreeSet<>();
-        mPlayersSet = playersSet;
+        mTeamsSet = new TeamRegistry();
+        mPlayersSet = new PlayerPool(new RankedTreeSet<>(playersSet));
         mNumberOfPlayersInDatabase = mPlayersSet.size();
     }
-    // default constructor, used in Main LeagueManager Method
+    // default constructor with built-in database Players.load()
     public MainMenuPrompter() {
         this(new BufferedReader(new InputStreamReader(System.in)),
                 new Logger());
     }
+    // used in Main LeagueManager Method, with database loaded from file
+    // or built-in one
+    public MainMenuPrompter(PlayerRepository playerRepository) {
+        this(new BufferedReader(new InputStreamReader(System.in)),
+                new Logger(), playerRepository);
+    }
 
     // is executed upon  "show" choice in main menu, shows available teams.
     // toString() method is used to print Teams. If no mTeamsSet is empty,
-    // simple message is returned
+    // simple message is returned. Listing of each team is cached until its
+    // roster changes, whole listing - until any team changes
     private void showAvailableTeams() {
         if (mTeamsSet.size() > 0) {
-            System.out.println("---- List of available teams:");
-            for (Team team : mTeamsSet) {
-                System.out.println(team);
-                team.getPlayersSet().stream().forEach(System.out::println);
-                System.out.println("--");
-            }
-            System.out.println("---- ");
+            System.out.print(mReportCache.get("show", null,
+                    mTeamsSet.getLeagueVersion(), this::renderAvailableTeams));
         } else {
             mLogger.setSimpleMessage("No teams available");
         }
     }
 
+    private String renderAvailableTeams() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("---- List of available teams:%n"));
+        for (Team team : mTeamsSet) {
+            report.append(mReportCache.get("show", team, team.getVersion(),
+                    () -> renderTeamWithPlayers(team)));
+        }
+        report.append(String.format("---- %n"));
+        return report.toString();
+    }
+
+    private static String renderTeamWithPlayers(Team team) {
+        StringBuilder report = new StringBuilder();
+        report.append(team).append(String.format("%n"));
+        for (Player player : team.getPlayersSet()) {
+            report.append(player).append(String.format("%n"));
+        }
+        report.append(String.format("--%n"));
+        return report.toString();
+    }
+
     // this method checks inside createNewTeam() that possible number
     // of players is more than
     // max number of players in team, by removing
@@ -133,15 +213,10 @@ public class MainMenuPrompter extends Prompter {
                         "Please enter team name " +
                                 "(One word, no digits, like 'Sharks')",
                         "Invalid team name");
-        // here we create set of team names because we consider teams
-        // to be compared by names, see compareTo(Team otherTeam) in Team class
-        Set<String> teamNamesSet =
-                new HashSet<>(mTeamsSet
-                        .stream()
-                        .map(Team::getName)
-                        .collect(Collectors.toCollection(HashSet::new)));
-        // and we check whether team is already in set, to avoid duplicates
-        if (teamNamesSet.contains(teamName)) {
+        // we consider teams to be compared by names, see
+        // compareTo(Team otherTeam) in Team class, so we check whether
+        // team name is already in registry, to avoid duplicates
+        if (mTeamsSet.containsName(teamName)) {
             mLogger.setErrorMessage("team " + teamName + " already exists");
         } else {
             // see implementation above
@@ -160,13 +235,6 @@ public class MainMenuPrompter extends Prompter {
         }
     }
 
-    // get team at specific index from mTeamsSet converting Set to ArrayList
-    // used in removeTeamIfExists() method
-    private Team getTeamAtIndexOfSetConvertedToList(int index) {
-        List<Team> teamList = new ArrayList<>(mTeamsSet);
-        return teamList.get(index);
-    }
-
     // is executed upon "remove" choice in main menu,
     // shows available teams first with ids, for user to choose
     private void removeTeamIfExists() throws IOException {
@@ -178,9 +246,11 @@ public class MainMenuPrompter extends Prompter {
         if (parsedIntIsInRangeOfGivenSet(parsedTeamId, mTeamsSet)) {
             // get team at id
             // id - 1, because we want user to pick a number from 1, not zero
-            Team team = getTeamAtIndexOfSetConvertedToList(parsedTeamId - 1);
-            // remove team from TeamsSet
+            Team team = mTeamsSet.get(parsedTeamId - 1);
+            // remove team from TeamsSet, and its cached reports
             mTeamsSet.remove(team);
+            mReportCache.invalidate(team);
+            mStandings.removeTeam(team);
             mLogger.setSuccessMessage("Team " + team
                     + " is successfully removed");
         }
@@ -200,57 +270,371 @@ public class MainMenuPrompter extends Prompter {
             // set mPickedTeam
             // ids presented to user will be from 1 to teams.size(), which is natural
             // for user. That's why we pass int with minus one to
-            // getTeamAtIndexOfSetConvertedToList
-            mPickedTeam = getTeamAtIndexOfSetConvertedToList(parsedTeamId - 1);
+            // TeamRegistry.get()
+            mPickedTeam = mTeamsSet.get(parsedTeamId - 1);
             // run TeamChangePrompter with picked team, also passing
             // Buffered Reader, Logger - for testing purposes, and PlayersSet
-            // because it is our dynamic database
+            // because it is our dynamic database, and repository for filters
             TeamChangePrompter teamChangePrompter =
                     new TeamChangePrompter(
-                            mPickedTeam, mBufferedReader, mLogger,mPlayersSet);
+                            mPickedTeam, mBufferedReader, mLogger,mPlayersSet,
+                            mPlayerRepository);
             // do stuff with picked team, and return it afterwards
             mPickedTeam = teamChangePrompter.presentMenuWithPossibleOptions();
         } // else is implemented in Prompter.parsedIntIsInRangeOfGivenSet()
     }
 
     // is executed upon "experience" choice in main menu
-    // shows experience distribution given a Map from
-    // Team.getMapOfPlayersWithDifferentExperience()
+    // shows experience distribution of each team, given a Map from
+    // Team.getMapOfPlayersWithDifferentExperience(), and league total.
+    // Everything is computed first in LeagueReport, then printed at once
     private void showExperienceCountOnTeams() {
-        System.out.println("---- List of available teams:");
-        System.out.println("-- Experience distribution " +
-                "- Experience level: # of players with this experience");
-        for (Team team: mTeamsSet) {
-            System.out.println(team);
-            team.getMapOfPlayersWithDifferentExperience().entrySet()
-                    .stream()
-                    .forEach(
-                            object -> System.out.printf("%s: %s, ",
-                                    object.getKey(),object.getValue())
-                    );
-            System.out.printf("%n--%n");
+        System.out.print(mReportCache.get("experience", null,
+                mTeamsSet.getLeagueVersion(), this::renderExperienceCountOnTeams));
+    }
+
+    private String renderExperienceCountOnTeams() {
+        LeagueReport leagueReport = LeagueReport.compute(
+                mTeamsSet, mReportParallelism, mReportCache);
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("---- List of available teams:%n"));
+        report.append(String.format("-- Experience distribution " +
+                "- Experience level: # of players with this experience%n"));
+        for (LeagueReport.TeamDistribution teamDistribution :
+                leagueReport.getTeamDistributions()) {
+            appendDistribution(report, teamDistribution.getTeam().toString(),
+                    teamDistribution.getExperience());
         }
-        System.out.println("---- ");
+        appendDistribution(report, " League",
+                leagueReport.getLeagueExperience());
+        report.append(String.format("---- %n"));
+        return report.toString();
     }
 
     // is executed upon "height" option in main menu
-    // very similar to height distribution, but I don't know how
-    // to makes them DRY. I guess more reading is needed
+    // very similar to experience distribution, both are rendered with
+    // appendDistribution() from LeagueReport, computed before printing
     private void showHeightDistributionOnTeams() {
-        System.out.println("---- List of available teams:");
-        System.out.println("-- Height distribution " +
-                "- height: # of players this high");
-        for (Team team: mTeamsSet) {
-            System.out.println(team);
-            team.getMapOfNumberOfPlayersWithSpecificHeight().entrySet()
-                    .stream()
-                    .forEach(
-                            object -> System.out.printf("%s: %s, ",
-                                    object.getKey(),object.getValue())
-                    );
-            System.out.printf("%n--%n");
+        System.out.print(mReportCache.get("height", null,
+                mTeamsSet.getLeagueVersion(), this::renderHeightDistributionOnTeams));
+    }
+
+    private String renderHeightDistributionOnTeams() {
+        LeagueReport leagueReport = LeagueReport.compute(
+                mTeamsSet, mReportParallelism, mReportCache);
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("---- List of available teams:%n"));
+        report.append(String.format("-- Height distribution " +
+                "- height: # of players this high%n"));
+        for (LeagueReport.TeamDistribution teamDistribution :
+                leagueReport.getTeamDistributions()) {
+            appendDistribution(report, teamDistribution.getTeam().toString(),
+                    teamDistribution.getHeights());
+        }
+        appendDistribution(report, " League",
+                leagueReport.getLeagueHeights());
+        report.append(String.format("----%n"));
+        return report.toString();
+    }
+
+    // renders one distribution: name, then "key: value, " pairs
+    private static void appendDistribution(StringBuilder report, String name,
+                                           Map<?,Integer> distribution) {
+        report.append(name).append(String.format("%n"));
+        for (Map.Entry<?,Integer> entry : distribution.entrySet()) {
+            report.append(String.format("%s: %s, ",
+                    entry.getKey(), entry.getValue()));
+        }
+        report.append(String.format("%n--%n"));
+    }
+
+    // is executed upon "fairness" option in main menu. Shows teams ranked
+    // from most to least deviating from league average, see FairnessReport.
+    // Only running statistics of teams are used, rosters are not scanned
+    private void showFairnessOfTeams() {
+        FairnessReport fairnessReport = new FairnessReport(mTeamsSet);
+        if (fairnessReport.getEntries().isEmpty()) {
+            mLogger.setSimpleMessage("No players in teams yet");
+            return;
+        }
+        System.out.printf("---- League: height %s, experienced: %.0f%%%n",
+                fairnessReport.getLeagueHeightStatistics(),
+                100 * fairnessReport.getLeagueExperienceRatio());
+        System.out.println("-- Teams from least to most fair " +
+                "- deviations from league average in standard deviations");
+        int rank = 1;
+        for (FairnessReport.Entry entry : fairnessReport.getEntries()) {
+            Team team = entry.getTeam();
+            System.out.printf("%2d:%s%n", rank, team);
+            System.out.printf("    height %s, min: %d, max: %d, " +
+                            "experienced: %.0f%%%n",
+                    team.getHeightStatistics(), team.getMinHeight(),
+                    team.getMaxHeight(), 100 * team.getExperienceRatio());
+            System.out.printf("    deviation: %.2f (height: %+.2f, " +
+                            "experience: %+.2f)%n",
+                    entry.getScore(), entry.getHeightDeviation(),
+                    entry.getExperienceDeviation());
+            rank++;
+        }
+        System.out.println("----");
+    }
+
+    // is executed upon "percentiles" option in main menu. Shows p10, p50
+    // and p90 of height for each team and for the whole league. League
+    // sketch is merged from sketches of teams, so it takes time proportional
+    // to number of teams, not players
+    private void showHeightPercentilesOnTeams() {
+        HeightSketch leagueHeightSketch = new HeightSketch();
+        System.out.println("---- Height percentiles in inches:");
+        for (Team team : mTeamsSet) {
+            HeightSketch heightSketch = team.getHeightSketch();
+            System.out.printf("%s: %s%n", team, heightSketch);
+            leagueHeightSketch.merge(heightSketch);
+        }
+        System.out.printf("-- League: %s%n", leagueHeightSketch);
+        System.out.println("----");
+    }
+
+    // is executed upon "auto" option in main menu. Asks for seed, then fills
+    // teams with players from database, so that teams are balanced, see
+    // AutoAssigner. Players already in teams stay there
+    private void assignPlayersAutomatically() throws IOException {
+        String seed =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^\\d{1,18}$",
+                        "Please enter seed, same seed gives same teams " +
+                                "(One integer, like '42')",
+                        "Invalid seed");
+        AutoAssigner autoAssigner = new AutoAssigner(Long.parseLong(seed));
+        AutoAssigner.Result result = autoAssigner.assign(mTeamsSet, mPlayersSet);
+        int numberOfMovedPlayers = result.apply(mPlayersSet);
+        mLogger.setSuccessMessage(numberOfMovedPlayers +
+                " players are assigned to teams. " + result);
+    }
+
+    // is executed upon "draft" option in main menu. Asks for order of picks
+    // and strategy, then teams pick players from database in turns until
+    // teams are full, see DraftSimulator. Final rosters are shown
+    private void draftPlayers() throws IOException {
+        String draftOrder =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^(snake|round)$",
+                        "Please enter order of picks: 'snake' or 'round'",
+                        "Invalid order");
+        String pickStrategy =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^(tallest|experience)$",
+                        "Please enter strategy of teams: 'tallest' or " +
+                                "'experience' (experienced, then tallest)",
+                        "Invalid strategy");
+        DraftSimulator draftSimulator = new DraftSimulator(
+                draftOrder.equals("snake") ? DraftSimulator.DraftOrder.SNAKE
+                        : DraftSimulator.DraftOrder.ROUND_ROBIN);
+        DraftSimulator.Result result = draftSimulator.run(mTeamsSet,
+                mPlayersSet, pickStrategy.equals("tallest")
+                        ? StandardPickStrategy.TALLEST
+                        : StandardPickStrategy.EXPERIENCE_FIRST);
+        showAvailableTeams();
+        mLogger.setSuccessMessage("Draft is over. " + result);
+    }
+
+    // is executed upon "schedule" option in main menu. Asks for single or
+    // double round, max number of away games in a row, date of first round
+    // and blocked dates, then prints fixtures of weekly rounds, see
+    // FixtureScheduler
+    private void scheduleFixtures() throws IOException {
+        String numberOfRounds =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^(single|double)$",
+                        "Please enter 'single' or 'double' round",
+                        "Invalid round");
+        String maxConsecutiveAwayGames =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^[1-9]$",
+                        "Please enter max number of away games in a row " +
+                                "(One digit, like '2')",
+                        "Invalid number");
+        String firstDate =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^\\d{4}-\\d{2}-\\d{2}$",
+                        "Please enter date of first round " +
+                                "(like '2026-09-05')",
+                        "Invalid date");
+        String blockedDates =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^(none|\\d{4}-\\d{2}-\\d{2}(\\s*,\\s*\\d{4}-\\d{2}-\\d{2})*)$",
+                        "Please enter blocked dates, without games " +
+                                "(like '2026-12-26, 2027-01-02', or 'none')",
+                        "Invalid dates");
+        FixtureScheduler.Schedule schedule;
+        try {
+            Set<LocalDate> blockedDatesSet = new HashSet<>();
+            if (!blockedDates.equals("none")) {
+                for (String blockedDate : blockedDates.split("\\s*,\\s*")) {
+                    blockedDatesSet.add(LocalDate.parse(blockedDate));
+                }
+            }
+            schedule = new FixtureScheduler(numberOfRounds.equals("double"),
+                    Integer.parseInt(maxConsecutiveAwayGames))
+                    .schedule(mTeamsSet, LocalDate.parse(firstDate), 7,
+                            blockedDatesSet);
+        } catch (DateTimeParseException dateTimeParseException) {
+            mLogger.setErrorMessage("No such date: " +
+                    dateTimeParseException.getParsedString());
+            return;
+        }
+        mSchedule = schedule;
+        mNumberOfPlayedRounds = 0;
+        for (int round = 0; round < schedule.getNumberOfRounds(); round++) {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("---- Round %d, %s%n", round + 1,
+                    schedule.getDateOfRound(round)));
+            for (FixtureScheduler.Fixture fixture :
+                    schedule.getFixturesOfRound(round)) {
+                report.append(fixture).append(String.format("%n"));
+            }
+            if (schedule.getTeamWithBye(round) != null) {
+                report.append(String.format("Bye:%s%n",
+                        schedule.getTeamWithBye(round)));
+            }
+            System.out.print(report);
         }
         System.out.println("----");
+        if (schedule.isFeasible()) {
+            mLogger.setSuccessMessage("Schedule is ready. " + schedule);
+        } else {
+            mLogger.setHintMessage("Some teams play more than " +
+                    maxConsecutiveAwayGames + " away games in a row. " +
+                    schedule);
+        }
+    }
+
+    // is executed upon "results" option in main menu. Asks for path to CSV
+    // file with results and adds them to standings, see
+    // MatchResultsFileLoader
+    private void loadResults() throws IOException {
+        String path =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^.+$",
+                        "Please enter path to results file, lines like " +
+                                "'Sharks,Dragons,2,1'",
+                        "Invalid path");
+        try {
+            MatchResultsFileLoader.Report report = new MatchResultsFileLoader()
+                    .load(Paths.get(path), mTeamsSet, mStandings::add);
+            mLogger.setSuccessMessage(report.toString());
+        } catch (IOException | InvalidPathException exception) {
+            mLogger.setErrorMessage("Can't read results file: " +
+                    exception.getMessage());
+        }
+    }
+
+    // is executed upon "feed" option in main menu. Plays next rounds of
+    // schedule: random results are published to live ResultsFeed, like
+    // they would come from fields, and feed updates standings
+    private void playRoundsOnFeed() throws IOException {
+        if (mSchedule == null
+                || mNumberOfPlayedRounds == mSchedule.getNumberOfRounds()) {
+            mLogger.setErrorMessage("No rounds to play, create new schedule");
+            return;
+        }
+        String numberOfRounds =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^[1-9]\\d{0,3}$",
+                        "Please enter number of rounds to play " +
+                                "(like '3')",
+                        "Invalid number");
+        int lastRound = Math.min(mSchedule.getNumberOfRounds(),
+                mNumberOfPlayedRounds + Integer.parseInt(numberOfRounds));
+        // feed is closed in any case, otherwise its thread would wait for
+        // results forever
+        ResultsFeed resultsFeed = new ResultsFeed(mStandings);
+        try (ResultsFeed openedFeed = resultsFeed) {
+            for (; mNumberOfPlayedRounds < lastRound; mNumberOfPlayedRounds++) {
+                // same round gives same results
+                Random random = new Random(mNumberOfPlayedRounds);
+                for (FixtureScheduler.Fixture fixture :
+                        mSchedule.getFixturesOfRound(mNumberOfPlayedRounds)) {
+                    // teams removed after schedule was created don't play
+                    if (mTeamsSet.contains(fixture.getHomeTeam())
+                            && mTeamsSet.contains(fixture.getAwayTeam())) {
+                        openedFeed.publish(new MatchResult(
+                                fixture.getHomeTeam(), fixture.getAwayTeam(),
+                                random.nextInt(5), random.nextInt(4)));
+                    }
+                }
+            }
+        } catch (InterruptedException | IllegalStateException exception) {
+            // close() sets interrupt flag itself, publish() does not
+            Thread.currentThread().interrupt();
+            mLogger.setErrorMessage("Feed is interrupted");
+            return;
+        }
+        mLogger.setSuccessMessage(mNumberOfPlayedRounds + " of " +
+                mSchedule.getNumberOfRounds() + " rounds are played: " +
+                resultsFeed);
+    }
+
+    // is executed upon "standings" option in main menu. Asks for number
+    // of rows and prints top of league table
+    private void showStandings() throws IOException {
+        String numberOfRows =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^[1-9]\\d{0,3}$",
+                        "Please enter number of rows to show (like '10')",
+                        "Invalid number");
+        // teams without games are in table too
+        for (Team team : mTeamsSet) {
+            mStandings.addTeam(team);
+        }
+        List<Standings.Row> rows =
+                mStandings.getTop(Integer.parseInt(numberOfRows));
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("---- Standings after %d results:%n",
+                mStandings.getNumberOfResults()));
+        for (int i = 0; i < rows.size(); i++) {
+            report.append(String.format("%4d. %s%n", i + 1, rows.get(i)));
+        }
+        report.append(String.format("----%n"));
+        System.out.print(report);
+    }
+
+    // is executed upon "rank" option in main menu. Asks for team name and
+    // shows its position in league table
+    private void showRankOfTeam() throws IOException {
+        String teamName =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^[a-zA-Z]+$",
+                        "Please enter team name (like 'Sharks')",
+                        "Invalid team name");
+        Team team = mTeamsSet.getByName(teamName);
+        if (team == null) {
+            mLogger.setErrorMessage("team " + teamName + " does not exist");
+            return;
+        }
+        mStandings.addTeam(team);
+        mLogger.setSimpleMessage(String.format("Position %d of %d: %s",
+                mStandings.rankOf(team), mTeamsSet.size(),
+                mStandings.getRow(team)));
+    }
+
+    // is executed upon "where is" option in main menu. Asks for player
+    // name and shows team of player, looked up in TeamRegistry in O(1)
+    private void showTeamOfPlayer() throws IOException {
+        String playerName =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^\\S+\\s+\\S+$",
+                        "Please enter first and last name of player " +
+                                "(Two words, like 'Joe Smith')",
+                        "Invalid player name");
+        String[] names = playerName.split("\\s+");
+        Team team = mTeamsSet.getTeamOf(names[0], names[1]);
+        if (team == null) {
+            mLogger.setErrorMessage("Player " + playerName +
+                    " is on no team");
+            return;
+        }
+        mLogger.setSimpleMessage("Player " + playerName + " is on team" + team);
     }
 
     // fill menu map with options, used in constructor
@@ -259,6 +643,17 @@ public class MainMenuPrompter extends Prompter {
     private void fillMenuMapWithOptions() {
         mMenu.put("height", "Show height distribution on teams");
         mMenu.put("experience", "Show experience distributions in teams");
+        mMenu.put("fairness", "Rank teams by deviation from league average");
+        mMenu.put("percentiles", "Show height percentiles on teams and league");
+        mMenu.put("cache", "Show hits and misses of reports cache");
+        mMenu.put("auto", "Fill teams with players, balancing teams");
+        mMenu.put("draft", "Fill teams with players in draft, pick by pick");
+        mMenu.put("schedule", "Create round-robin schedule of games");
+        mMenu.put("results", "Add results of games from file to standings");
+        mMenu.put("feed", "Play next rounds of schedule on live results feed");
+        mMenu.put("standings", "Show top of league table");
+        mMenu.put("rank", "Show position of team in league table");
+        mMenu.put("where is", "Show team of player");
         mMenu.put("choose", "choose team and go to team Menu");
         mMenu.put("show", "List available teams");
         mMenu.put("create", "Create new team");
@@ -276,6 +671,39 @@ public class MainMenuPrompter extends Prompter {
                 case "experience":
                     showExperienceCountOnTeams();
                     break;
+                case "fairness":
+                    showFairnessOfTeams();
+                    break;
+                case "percentiles":
+                    showHeightPercentilesOnTeams();
+                    break;
+                case "cache":
+                    mLogger.setSimpleMessage("Reports cache: " + mReportCache);
+                    break;
+                case "auto":
+                    assignPlayersAutomatically();
+                    break;
+                case "draft":
+                    draftPlayers();
+                    break;
+                case "schedule":
+                    scheduleFixtures();
+                    break;
+                case "results":
+                    loadResults();
+                    break;
+                case "feed":
+                    playRoundsOnFeed();
+                    break;
+                case "standings":
+                    showStandings();
+                    break;
+                case "rank":
+                    showRankOfTeam();
+                    break;
+                case "where is":
+                    showTeamOfPlayer();
+                    break;
                 case "create":
                     createNewTeam();
                     break;
@@ -1,46 +1,65 @@
 package com.teamtreehouse.controller;
 
+import com.teamtreehouse.model.HeightIndex;
 import com.teamtreehouse.model.Player;
-import com.teamtreehouse.model.Players;
+import com.teamtreehouse.model.PlayerColumns;
+import com.teamtreehouse.model.PlayerFilter;
+import com.teamtreehouse.model.PlayerPool;
+import com.teamtreehouse.model.PlayerRecommender;
+import com.teamtreehouse.model.PlayerRepository;
+import com.teamtreehouse.model.PlayerSearchIndex;
+import com.teamtreehouse.model.RosterTransaction;
 import com.teamtreehouse.model.Team;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
 
 public class TeamChangePrompter extends Prompter{
+    // at most this number of found players is printed upon "find"
+    private static final int MAX_NUMBER_OF_SHOWN_MATCHES = 50;
+
     // This team is passed in constructor, we'll add and remove players to it
     private Team mTeam;
 
     // our database - is passed in constructor, so that we keep track of
     // players leaving and coming. Upon addition to team, player is removed
-    // from here, upon removal from team, player is added her
-    private Set<Player> mPlayersSet;
+    // from here, upon removal from team, player is added her. PlayerPool
+    // keeps its HeightIndex in sync on both
+    private PlayerPool mPlayersSet;
     // protected, used in testing
-    protected Set<Player> getPlayersSet() {
+    protected PlayerPool getPlayersSet() {
         return mPlayersSet;
     }
 
-    // Simply fills mPlayersSet - our dynamic database with Players.load()
-    // used for testing, so that we can independently from MainMenuPrompter
-    // test this class
-    private void fillPlayersSetWithPlayersDatabase() {
-        for (Player player : Players.load()) {
-            mPlayersSet.add(player);
-        }
+    // repository of players, its PlayerColumns make "filter" faster.
+    // May be null, then filter tests Player objects
+    private PlayerRepository mPlayerRepository;
+
+    // players found by last "filter" or "filter team", used by
+    // "add selected" and "remove selected"
+    private List<Player> mSelectedPlayers = Collections.emptyList();
+    private boolean mIsTeamSelected;
+    // protected, used in testing
+    protected List<Player> getSelectedPlayers() {
+        return mSelectedPlayers;
     }
+
     // used in testing, with mocked BufferedReader to control user input
     // and mocked Logger to control output. Database mPlayerSet is created
-    // from Players.load()
+    // from built-in database, so that we can independently from
+    // MainMenuPrompter test this class. Built-in players are loaded only
+    // once, see PlayerRepository
     protected TeamChangePrompter(Team team, BufferedReader bufferedReader,
                               Logger logger) {
-        mBufferedReader = bufferedReader;
-        mLogger = logger;
-        fillMenuWithOptions();
-        mPlayersSet = new TreeSet<>();
-        fillPlayersSetWithPlayersDatabase();
-        mTeam = team;
+        this(team, bufferedReader, logger,
+                PlayerRepository.builtIn().newAvailablePlayersSet(),
+                PlayerRepository.builtIn());
     }
     // constructor used in actual implementation in
     // MainMenuPrompter.switchToTeamMenu() method
@@ -48,32 +67,33 @@ public class TeamChangePrompter extends Prompter{
     // through MainMenuPrompter. PlayersSet is passed from MainMenuPrompter
     protected TeamChangePrompter(Team team, BufferedReader bufferedReader,
                                  Logger logger,
-                                 Set<Player> playersSet) {
+                                 PlayerPool playersSet) {
+        this(team, bufferedReader, logger, playersSet, null);
+    }
+    // the same, with repository, that players set was made of, so that
+    // filters can use its columns
+    protected TeamChangePrompter(Team team, BufferedReader bufferedReader,
+                                 Logger logger,
+                                 PlayerPool playersSet,
+                                 PlayerRepository playerRepository) {
         mBufferedReader = bufferedReader;
         mLogger = logger;
         fillMenuWithOptions();
         mPlayersSet = playersSet;
+        mPlayerRepository = playerRepository;
         mTeam = team;
     }
 
     // can be used in testing TeamChangePrompter without
     // MainMenuPrompter. Not used anywhere right now...
     public TeamChangePrompter(Team team,
-                              Set<Player> databasePlayersMap) {
+                              PlayerPool databasePlayersMap) {
         this(team,
                 new BufferedReader(new InputStreamReader(System.in)),
                 new Logger(),
                 databasePlayersMap);
     }
 
-    // helpful function used in addPlayersToTeam and removePlayersFromTeam,
-    // returns Player at specific index, if you convert given Set to ArrayList
-    private Player getPlayerAtIndexOfSetConvertedToList(
-            int index, Set<Player> set) {
-        List<Player> playerList = new ArrayList<>(set);
-        return playerList.get(index);
-    }
-
     // is executed upon "remove" choice
     private void removePlayersFromTeam() throws IOException {
         showAvailableObjectsWithIdsInSet(
@@ -86,16 +106,15 @@ public class TeamChangePrompter extends Prompter{
             // I make sure that no IndexOutOfBoundsIsThrown by if above
             // get player at index from Team. id given to user starts from one,
             // that's why we pass parsedPlayerId - 1 here
-            Player playerToBeRemoved =
-                    getPlayerAtIndexOfSetConvertedToList(
-                            parsedPlayerId - 1, mTeam.getPlayersSet());
-            // finally remove. No ifs here - left for testing
-            mTeam.remove(playerToBeRemoved);
-            // put player back to database - again no ifs
-            mPlayersSet.add(playerToBeRemoved);
-            mLogger.setSuccessMessage("Player "
-                    + playerToBeRemoved +
-                    "is back in database");
+            Player playerToBeRemoved = mTeam.getPlayer(parsedPlayerId - 1);
+            // player is removed from team and put back to database in one
+            // transaction: both or none
+            if (commit(new RosterTransaction(mPlayersSet)
+                    .moveToPool(playerToBeRemoved, mTeam))) {
+                mLogger.setSuccessMessage("Player "
+                        + playerToBeRemoved +
+                        "is back in database");
+            }
         } // error message is thrown in parsedIntIsInRangeOfGivenSet() method
     }
 
@@ -108,18 +127,108 @@ public class TeamChangePrompter extends Prompter{
         int parsedPlayerId = promptUserForId();
         // if number is in the right range
         if (parsedIntIsInRangeOfGivenSet(parsedPlayerId, mPlayersSet)) {
-            // player is taken at the number, asked by player
-            Player playerToAdd =
-                    getPlayerAtIndexOfSetConvertedToList(
-                            parsedPlayerId - 1, mPlayersSet);
-            // no ifs - left for testing
-            mTeam.addPlayer(playerToAdd);
-            // remove player from database
-            mPlayersSet.remove(playerToAdd);
-            mLogger.setSuccessMessage("Player " + playerToAdd + " is on team");
+            // player is taken at the number, asked by player. mPlayersSet
+            // is IndexedSet, so no copying of the whole set is needed
+            Player playerToAdd = mPlayersSet.get(parsedPlayerId - 1);
+            // player is removed from database and added to team in one
+            // transaction, so player is not lost when team is full or
+            // player is on other team, see TeamRegistry
+            if (commit(new RosterTransaction(mPlayersSet)
+                    .moveToTeam(playerToAdd, mTeam))) {
+                mLogger.setSuccessMessage("Player " + playerToAdd +
+                        " is on team");
+            }
         } // error is coded in parsedIntIsRangeOfGivenSet
     }
 
+    // is executed upon "trade" choice: asks for other team, ids of players
+    // of this team, that go there, and ids of players of other team, that
+    // come here. All players are moved in one transaction, so full teams
+    // can swap players, and nothing is changed if some move is not possible
+    private void tradePlayersWithOtherTeam() throws IOException {
+        if (mTeam.getRegistry() == null) {
+            mLogger.setErrorMessage("Team is not in league, no one to trade with");
+            return;
+        }
+        String teamName =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^[a-zA-Z]+$",
+                        "Please enter name of other team (like 'Sharks')",
+                        "Invalid team name");
+        Team otherTeam = mTeam.getRegistry().getByName(teamName);
+        if (otherTeam == null || otherTeam == mTeam) {
+            mLogger.setErrorMessage("team " + teamName +
+                    " does not exist or is this team");
+            return;
+        }
+        showAvailableObjectsWithIdsInSet(
+                mTeam.getPlayersSet(), "Team players", "Player");
+        List<Player> playersToGive = promptForPlayersOfTeam(mTeam,
+                "Please enter ids of players of this team, that go to " +
+                        teamName + " (like '1,3', or 'none')");
+        if (playersToGive == null) {
+            return;
+        }
+        showAvailableObjectsWithIdsInSet(
+                otherTeam.getPlayersSet(), "Players of " + teamName, "Player");
+        List<Player> playersToTake = promptForPlayersOfTeam(otherTeam,
+                "Please enter ids of players of " + teamName +
+                        ", that come to this team (like '2', or 'none')");
+        if (playersToTake == null) {
+            return;
+        }
+        RosterTransaction rosterTransaction;
+        try {
+            rosterTransaction = new RosterTransaction(mPlayersSet)
+                    .trade(mTeam, playersToGive, otherTeam, playersToTake);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            mLogger.setErrorMessage(illegalArgumentException.getMessage());
+            return;
+        }
+        if (rosterTransaction.getNumberOfMoves() == 0) {
+            mLogger.setErrorMessage("No players to trade");
+            return;
+        }
+        if (commit(rosterTransaction)) {
+            mLogger.setSuccessMessage(rosterTransaction.getNumberOfMoves() +
+                    " players are traded with team " + teamName);
+        }
+    }
+
+    // asks for ids of players of team, like '1,3' or 'none'
+    // @return players at these ids, or null if some id is out of range
+    private List<Player> promptForPlayersOfTeam(Team team, String message)
+            throws IOException {
+        String ids = promptForStringWithPatternUntilUserInputMatchingOne(
+                "^(none|\\d+(\\s*,\\s*\\d+)*)$", message, "Invalid ids");
+        List<Player> players = new ArrayList<>();
+        if (ids.equals("none")) {
+            return players;
+        }
+        for (String id : ids.split("\\s*,\\s*")) {
+            int parsedPlayerId = Integer.parseInt(id);
+            if (!parsedIntIsInRangeOfGivenSet(
+                    parsedPlayerId, team.getPlayersSet())) {
+                return null;
+            }
+            players.add(team.getPlayer(parsedPlayerId - 1));
+        }
+        return players;
+    }
+
+    // commits transaction, or shows why it was rolled back
+    // @return true if all moves of transaction are done
+    private boolean commit(RosterTransaction rosterTransaction) {
+        try {
+            rosterTransaction.commit();
+            return true;
+        } catch (IllegalStateException illegalStateException) {
+            mLogger.setErrorMessage("Nothing is changed: " +
+                    illegalStateException.getMessage());
+            return false;
+        }
+    }
+
     // is executed upon "height" in main menu, shows height distribution as
     // map of height to number of players this high
     // untested, because it is a view function
@@ -139,10 +248,227 @@ public class TeamChangePrompter extends Prompter{
     }
 
 
+    // is executed upon "count" choice: asks for range of heights like
+    // '40-44' and shows how many players in database and in team are that
+    // high, and how many of them are experienced. Counts are taken from
+    // HeightIndex of pool and team, O(log H), players are not scanned
+    private void showNumberOfPlayersInHeightRange() throws IOException {
+        String range =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^\\d+\\s*-\\s*\\d+$",
+                        "Please enter range of heights in inches " +
+                                "(Two integers, like '40-44')",
+                        "Invalid range of heights");
+        String[] heights = range.split("-");
+        int minHeight = Integer.parseInt(heights[0].trim());
+        int maxHeight = Integer.parseInt(heights[1].trim());
+        if (minHeight > maxHeight) {
+            mLogger.setErrorMessage("Min height is more than max height");
+            return;
+        }
+        printNumberOfPlayersInHeightRange("Players database",
+                mPlayersSet.getHeightIndex(), minHeight, maxHeight);
+        printNumberOfPlayersInHeightRange("Team" + mTeam,
+                mTeam.getHeightIndex(), minHeight, maxHeight);
+    }
+
+    // untested, because it is a view function
+    private void printNumberOfPlayersInHeightRange(
+            String name, HeightIndex heightIndex, int minHeight, int maxHeight) {
+        int numberOfPlayers =
+                heightIndex.countPlayersWithHeightBetween(minHeight, maxHeight);
+        int numberOfExperiencedPlayers =
+                heightIndex.countExperiencedPlayersWithHeightBetween(
+                        minHeight, maxHeight);
+        System.out.printf("-- %s: %d players %d-%d inches high, " +
+                        "Experienced: %d, Beginner: %d%n",
+                name, numberOfPlayers, minHeight, maxHeight,
+                numberOfExperiencedPlayers,
+                numberOfPlayers - numberOfExperiencedPlayers);
+    }
+
+    // is executed upon "recommend" choice: asks how many players to show,
+    // and shows players from database, that would balance team best, with
+    // their ids, so that they can be added with "add". See PlayerRecommender
+    private void recommendPlayersForTeam() throws IOException {
+        String numberOfPlayers =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^[1-9]\\d{0,3}$",
+                        "Please enter number of players to recommend " +
+                                "(One integer from 1 to 9999, like '5')",
+                        "Invalid number of players");
+        List<PlayerRecommender.Recommendation> recommendations =
+                new PlayerRecommender(mTeam, mPlayersSet)
+                        .recommend(Integer.parseInt(numberOfPlayers));
+        if (recommendations.isEmpty()) {
+            mLogger.setErrorMessage("Team is full or there are no players " +
+                    "in database");
+            return;
+        }
+        System.out.println("-- Recommended players, best first");
+        System.out.println("'id' : 'Player'");
+        for (PlayerRecommender.Recommendation recommendation : recommendations) {
+            // ids are the same as in "show all" and "add"
+            System.out.printf("%2d: %s%n",
+                    mPlayersSet.rankOf(recommendation.getPlayer()) + 1,
+                    recommendation);
+        }
+        System.out.println("-- Recommended players");
+    }
+
+    // is executed upon "find" and "find team" choices: asks for search,
+    // like 'last Sm', 'first Jo', 'height 40-44', 'experienced' or
+    // 'beginner', and shows found players in database or in team with ids,
+    // that can be used in "add" and "remove". See PlayerSearchIndex
+    private void findPlayers(String name, PlayerSearchIndex searchIndex)
+            throws IOException {
+        String search =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^((last|first)\\s+\\S+|height\\s+\\d+\\s*-\\s*\\d+" +
+                                "|experienced|beginner)$",
+                        "Please enter search: 'last Sm', 'first Jo', " +
+                                "'height 40-44', 'experienced' or 'beginner'",
+                        "Invalid search");
+        String[] words = search.split("\\s+", 2);
+        PlayerSearchIndex.Range players;
+        switch (words[0]) {
+            case "last":
+                players = searchIndex.findByLastNamePrefix(words[1]);
+                break;
+            case "first":
+                players = searchIndex.findByFirstNamePrefix(words[1]);
+                break;
+            case "height":
+                String[] heights = words[1].split("-");
+                players = searchIndex.findByHeight(
+                        Integer.parseInt(heights[0].trim()),
+                        Integer.parseInt(heights[1].trim()));
+                break;
+            default:
+                players = searchIndex.findByExperience(
+                        words[0].equals("experienced"));
+                break;
+        }
+        System.out.printf("-- %s: %d players found%n", name, players.size());
+        System.out.println("'id' : 'Player'");
+        int numberOfShownPlayers =
+                Math.min(players.size(), MAX_NUMBER_OF_SHOWN_MATCHES);
+        for (int i = 0; i < numberOfShownPlayers; i++) {
+            // each match has its position in set, no lookup is needed
+            System.out.printf("%2d: %s%n",
+                    players.getPosition(i) + 1, players.get(i));
+        }
+        if (numberOfShownPlayers < players.size()) {
+            System.out.printf("... and %d more%n",
+                    players.size() - numberOfShownPlayers);
+        }
+        System.out.printf("-- %s%n", name);
+    }
+
+    // is executed upon "filter" and "filter team" choices: asks for filter,
+    // like 'height >= 42 and experienced and lastName startsWith "S"', and
+    // shows matching players in database or in team with ids. Matches
+    // are kept as selection for "add selected" and "remove selected".
+    // Filter is parsed and compiled once, see PlayerFilter
+    // @param rankOf - position of player in database or team, for its id
+    private void filterPlayers(String name, Collection<Player> players,
+                               ToIntFunction<Player> rankOf,
+                               boolean isTeam) throws IOException {
+        String expression =
+                promptForStringWithPatternUntilUserInputMatchingOne(
+                        "^.*\\S.*$",
+                        "Please enter filter, like 'height >= 42 and " +
+                                "experienced and lastName startsWith \"S\"'",
+                        "Filter can't be empty");
+        PlayerFilter playerFilter;
+        try {
+            playerFilter = PlayerFilter.parse(expression);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            mLogger.setErrorMessage("Invalid filter: " +
+                    illegalArgumentException.getMessage());
+            return;
+        }
+        // columns are made once per repository, on first filter
+        PlayerColumns playerColumns = mPlayerRepository == null
+                ? null : mPlayerRepository.getColumns();
+        mSelectedPlayers = playerFilter.select(players, playerColumns,
+                MAX_NUMBER_OF_SHOWN_MATCHES);
+        mIsTeamSelected = isTeam;
+        System.out.printf("-- %s: %d players selected%n",
+                name, mSelectedPlayers.size());
+        System.out.println("'id' : 'Player'");
+        for (Player player : mSelectedPlayers) {
+            System.out.printf("%2d: %s%n",
+                    rankOf.applyAsInt(player) + 1, player);
+        }
+        if (mSelectedPlayers.size() == MAX_NUMBER_OF_SHOWN_MATCHES) {
+            System.out.printf("... only first %d matches are selected%n",
+                    MAX_NUMBER_OF_SHOWN_MATCHES);
+        }
+        System.out.printf("-- %s%n", name);
+    }
+
+    // is executed upon "add selected": moves first players selected by
+    // "filter", as many as team has free places for, from database to team
+    // in one transaction: all of them or none
+    private void addSelectedPlayersToTeam() {
+        if (mIsTeamSelected || mSelectedPlayers.isEmpty()) {
+            mLogger.setErrorMessage("No players selected, use \"filter\" " +
+                    "first");
+            return;
+        }
+        int numberOfPlayersToAdd = Math.min(mSelectedPlayers.size(),
+                Team.MAX_NUMBER_OF_PLAYERS - mTeam.size());
+        if (numberOfPlayersToAdd == 0) {
+            mLogger.setErrorMessage("Team is full");
+            return;
+        }
+        RosterTransaction rosterTransaction =
+                new RosterTransaction(mPlayersSet);
+        for (Player player : mSelectedPlayers.subList(0, numberOfPlayersToAdd)) {
+            rosterTransaction.moveToTeam(player, mTeam);
+        }
+        if (commit(rosterTransaction)) {
+            mLogger.setSuccessMessage(numberOfPlayersToAdd + " of " +
+                    mSelectedPlayers.size() + " selected players are on team");
+            mSelectedPlayers = Collections.emptyList();
+        }
+    }
+
+    // is executed upon "remove selected": moves players selected by
+    // "filter team" from team back to database in one transaction
+    private void removeSelectedPlayersFromTeam() {
+        if (!mIsTeamSelected || mSelectedPlayers.isEmpty()) {
+            mLogger.setErrorMessage("No players selected, use " +
+                    "\"filter team\" first");
+            return;
+        }
+        RosterTransaction rosterTransaction =
+                new RosterTransaction(mPlayersSet);
+        for (Player player : mSelectedPlayers) {
+            rosterTransaction.moveToPool(player, mTeam);
+        }
+        if (commit(rosterTransaction)) {
+            mLogger.setSuccessMessage(mSelectedPlayers.size() +
+                    " selected players are back in database");
+            mSelectedPlayers = Collections.emptyList();
+        }
+    }
+
     // used in constructor to fill menu map with possible options
     private void fillMenuWithOptions() {
         mMenu.put("experience", "Show experience distribution");
         mMenu.put("height", "Show height distribution");
+        mMenu.put("count", "Count players in range of heights");
+        mMenu.put("recommend", "Show players that would balance team best");
+        mMenu.put("find", "Find available players by name, height or experience");
+        mMenu.put("find team", "Find players in team");
+        mMenu.put("filter", "Select available players, like " +
+                "'height >= 42 and experienced'");
+        mMenu.put("filter team", "Select players in team");
+        mMenu.put("add selected", "Add players selected by filter");
+        mMenu.put("remove selected", "Remove players selected by filter");
+        mMenu.put("trade", "Trade players with other team");
         mMenu.put("show all", "List available players");
         mMenu.put("show team", "Show players in team");
         mMenu.put("add", "Add new players");
@@ -164,6 +490,36 @@ public class TeamChangePrompter extends Prompter{
                     showAvailableObjectsWithIdsInSet(
                             mPlayersSet, "Players database", "Player");
                     break;
+                case "count":
+                    showNumberOfPlayersInHeightRange();
+                    break;
+                case "recommend":
+                    recommendPlayersForTeam();
+                    break;
+                case "find":
+                    findPlayers("Players database",
+                            mPlayersSet.getSearchIndex());
+                    break;
+                case "find team":
+                    findPlayers("Team players", mTeam.getSearchIndex());
+                    break;
+                case "filter":
+                    filterPlayers("Players database", mPlayersSet,
+                            mPlayersSet::rankOf, false);
+                    break;
+                case "filter team":
+                    filterPlayers("Team players", mTeam.getPlayersSet(),
+                            mTeam::rankOf, true);
+                    break;
+                case "add selected":
+                    addSelectedPlayersToTeam();
+                    break;
+                case "remove selected":
+                    removeSelectedPlayersFromTeam();
+                    break;
+                case "trade":
+                    tradePlayersWithOtherTeam();
+                    break;
                 case "show team":
                     showAvailableObjectsWithIdsInSet(
                             mTeam.getPlayersSet(), "Team players", "Player");
@@ -183,13 +539,33 @@ public class TeamChangePrompter extends Prompter{
                     break;
             }
         } else {
-            // when no players are in team, one is limited to "add", "show all"
-            // and "quit"
+            // when no players are in team, one is limited to "add", "show all",
+            // "count", "recommend", "find", "filter", "trade" and "quit"
             switch (userChoice) {
                 case "show all":
                     showAvailableObjectsWithIdsInSet(
                             mPlayersSet, "Players database", "Player");
                     break;
+                case "count":
+                    showNumberOfPlayersInHeightRange();
+                    break;
+                case "recommend":
+                    recommendPlayersForTeam();
+                    break;
+                case "find":
+                    findPlayers("Players database",
+                            mPlayersSet.getSearchIndex());
+                    break;
+                case "filter":
+                    filterPlayers("Players database", mPlayersSet,
+                            mPlayersSet::rankOf, false);
+                    break;
+                case "add selected":
+                    addSelectedPlayersToTeam();
+                    break;
+                case "trade":
+                    tradePlayersWithOtherTeam();
+                    break;
                 case "add":
                     addPlayersToTeam();
                     break;
@@ -0,0 +1,492 @@
+package com.teamtreehouse.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Assigns available players to teams, so that teams are balanced: spread of
+// number of experienced players and spread of mean height between teams
+// should be as small as possible. Players, that are already in teams, stay
+// there, teams are filled up to Team.MAX_NUMBER_OF_PLAYERS.
+// Search is simulated annealing: players are moved between teams and pool
+// of not assigned players, or swapped, and worse assignments are accepted
+// with probability, that goes down with temperature. Several independent
+// restarts run on different threads, the best one wins.
+// Balance score is standard deviation of number of experienced players in
+// teams plus standard deviation of mean height (in inches) of teams, see
+// BalanceScore. Change of score after move is computed in O(1).
+// Each search does maxIterations, and temperature depends only on number
+// of iterations, so the same seed gives the same result on any machine:
+// number of restarts is fixed, and threads only decide which restarts run
+// at the same time, see assign().
+// Time budget is optional limit: search stops then, even if not all
+// iterations are done, so result depends on speed and load of machine and
+// is not reproducible
+public class AutoAssigner {
+    public static final int DEFAULT_NUMBER_OF_RESTARTS = 4;
+    public static final int DEFAULT_MAX_ITERATIONS = 2000000;
+    // search is not stopped by time, all iterations are done
+    public static final long NO_TIME_BUDGET = 0;
+    private static final double FINAL_TEMPERATURE_RATIO = 1e-4;
+
+    private final long mSeed;
+    private final long mTimeBudgetMillis;
+    private final int mNumberOfRestarts;
+    private final int mMaxIterations;
+    private final int mNumberOfThreads;
+
+    // default restarts and iterations, without time budget: the same seed
+    // gives the same teams
+    public AutoAssigner(long seed) {
+        this(seed, NO_TIME_BUDGET, DEFAULT_NUMBER_OF_RESTARTS,
+                DEFAULT_MAX_ITERATIONS);
+    }
+
+    // restarts run on thread per processor, at most one thread per restart
+    // @param timeBudgetMillis - NO_TIME_BUDGET, or time after which all
+    //                           searches stop, result is not reproducible
+    //                           then
+    public AutoAssigner(long seed, long timeBudgetMillis, int numberOfRestarts,
+                        int maxIterations) {
+        this(seed, timeBudgetMillis, numberOfRestarts, maxIterations,
+                Math.min(numberOfRestarts,
+                        Runtime.getRuntime().availableProcessors()));
+    }
+
+    // @throws IllegalArgumentException if time budget is negative, or other
+    //         number is not positive
+    public AutoAssigner(long seed, long timeBudgetMillis, int numberOfRestarts,
+                        int maxIterations, int numberOfThreads) {
+        if (timeBudgetMillis < 0 || numberOfRestarts <= 0
+                || maxIterations <= 0 || numberOfThreads <= 0) {
+            throw new IllegalArgumentException("Time budget can't be " +
+                    "negative, number of restarts, iterations and threads " +
+                    "should be more than 0");
+        }
+        mSeed = seed;
+        mTimeBudgetMillis = timeBudgetMillis;
+        mNumberOfRestarts = numberOfRestarts;
+        mMaxIterations = maxIterations;
+        mNumberOfThreads = numberOfThreads;
+    }
+
+    // assignment found by search, nothing is changed until apply()
+    public static class Result {
+        private final Map<Team, List<Player>> mPlayersByTeam;
+        private final double mInitialScore;
+        private final double mScore;
+        private final long mNumberOfIterations;
+        private final int mNumberOfRestarts;
+        private final long mElapsedMillis;
+
+        private Result(Map<Team, List<Player>> playersByTeam,
+                       double initialScore, double score,
+                       long numberOfIterations, int numberOfRestarts,
+                       long elapsedMillis) {
+            mPlayersByTeam = Collections.unmodifiableMap(playersByTeam);
+            mInitialScore = initialScore;
+            mScore = score;
+            mNumberOfIterations = numberOfIterations;
+            mNumberOfRestarts = numberOfRestarts;
+            mElapsedMillis = elapsedMillis;
+        }
+
+        // new players of each team
+        public Map<Team, List<Player>> getPlayersByTeam() {
+            return mPlayersByTeam;
+        }
+
+        public int getNumberOfAssignedPlayers() {
+            int numberOfAssignedPlayers = 0;
+            for (List<Player> players : mPlayersByTeam.values()) {
+                numberOfAssignedPlayers += players.size();
+            }
+            return numberOfAssignedPlayers;
+        }
+
+        // score of best random assignment, that search started from
+        public double getInitialScore() {
+            return mInitialScore;
+        }
+
+        // balance score of found assignment, less is better
+        public double getScore() {
+            return mScore;
+        }
+
+        // of all restarts together
+        public long getNumberOfIterations() {
+            return mNumberOfIterations;
+        }
+
+        public int getNumberOfRestarts() {
+            return mNumberOfRestarts;
+        }
+
+        public long getElapsedMillis() {
+            return mElapsedMillis;
+        }
+
+        // adds players to teams and removes them from pool
+        // @return number of players moved
+        public int apply(Set<Player> playersPool) {
+            int numberOfMovedPlayers = 0;
+            for (Map.Entry<Team, List<Player>> entry : mPlayersByTeam.entrySet()) {
+                for (Player player : entry.getValue()) {
+                    if (entry.getKey().addPlayer(player)) {
+                        playersPool.remove(player);
+                        numberOfMovedPlayers++;
+                    }
+                }
+            }
+            return numberOfMovedPlayers;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Balance score: %.3f (random assignment: " +
+                            "%.3f), players assigned: %d, restarts: %d, " +
+                            "iterations: %d, time: %d ms",
+                    mScore, mInitialScore, getNumberOfAssignedPlayers(),
+                    mNumberOfRestarts, mNumberOfIterations, mElapsedMillis);
+        }
+    }
+
+    // searches for balanced assignment of players from pool to teams.
+    // Teams and pool are only read, see Result.apply()
+    public Result assign(Collection<Team> teams, Collection<Player> playersPool) {
+        long startTime = System.currentTimeMillis();
+        long deadline = mTimeBudgetMillis == NO_TIME_BUDGET ? Long.MAX_VALUE
+                : startTime + mTimeBudgetMillis;
+        Problem problem = new Problem(teams, playersPool);
+        ExecutorService executorService =
+                Executors.newFixedThreadPool(mNumberOfThreads);
+        List<Future<Search>> futures = new ArrayList<>();
+        try {
+            for (int restart = 0; restart < mNumberOfRestarts; restart++) {
+                final long seed = mSeed + restart * 0x9E3779B97F4A7C15L;
+                futures.add(executorService.submit(() -> {
+                    Search search = new Search(problem, new Random(seed));
+                    search.run(mMaxIterations, deadline);
+                    return search;
+                }));
+            }
+            // first of best searches, so that result does not depend on
+            // which thread finished first
+            Search bestSearch = null;
+            double bestInitialScore = Double.MAX_VALUE;
+            long numberOfIterations = 0;
+            for (Future<Search> future : futures) {
+                Search search = future.get();
+                numberOfIterations += search.mNumberOfIterations;
+                bestInitialScore = Math.min(bestInitialScore, search.mInitialScore);
+                if (bestSearch == null || search.mBestScore < bestSearch.mBestScore) {
+                    bestSearch = search;
+                }
+            }
+            return new Result(problem.toPlayersByTeam(bestSearch.mBestAssignment),
+                    bestInitialScore, bestSearch.mBestScore, numberOfIterations,
+                    mNumberOfRestarts, System.currentTimeMillis() - startTime);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Assignment was interrupted", ie);
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException("Assignment failed", ee.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    // teams and players as arrays, shared read only by all searches
+    private static class Problem {
+        private final Team[] mTeams;
+        private final Player[] mPlayers;
+        private final int[] mHeights;
+        private final boolean[] mExperience;
+        // players already in teams
+        private final int[] mBaseSizes;
+        private final long[] mBaseHeightSums;
+        private final int[] mBaseExperiencedCounts;
+        private final int[] mCapacities;
+        private final int mNumberOfSlots;
+
+        private Problem(Collection<Team> teams, Collection<Player> playersPool) {
+            mTeams = teams.toArray(new Team[teams.size()]);
+            mPlayers = playersPool.toArray(new Player[playersPool.size()]);
+            mHeights = new int[mPlayers.length];
+            mExperience = new boolean[mPlayers.length];
+            for (int i = 0; i < mPlayers.length; i++) {
+                mHeights[i] = mPlayers[i].getHeightInInches();
+                mExperience[i] = mPlayers[i].hasPreviousExperience();
+            }
+            mBaseSizes = new int[mTeams.length];
+            mBaseHeightSums = new long[mTeams.length];
+            mBaseExperiencedCounts = new int[mTeams.length];
+            mCapacities = new int[mTeams.length];
+            int numberOfSlots = 0;
+            for (int t = 0; t < mTeams.length; t++) {
+                Team team = mTeams[t];
+                for (Player player : team.getPlayersSet()) {
+                    mBaseHeightSums[t] += player.getHeightInInches();
+                }
+                mBaseSizes[t] = team.size();
+                mBaseExperiencedCounts[t] = team.getNumberOfExperiencedPlayers();
+                mCapacities[t] = Math.max(0,
+                        Team.MAX_NUMBER_OF_PLAYERS - mBaseSizes[t]);
+                numberOfSlots += mCapacities[t];
+            }
+            mNumberOfSlots = numberOfSlots;
+        }
+
+        // @param assignment - team index of each player, or -1
+        private Map<Team, List<Player>> toPlayersByTeam(int[] assignment) {
+            Map<Team, List<Player>> playersByTeam = new LinkedHashMap<>();
+            for (Team team : mTeams) {
+                playersByTeam.put(team, new ArrayList<>());
+            }
+            for (int p = 0; p < assignment.length; p++) {
+                if (assignment[p] >= 0) {
+                    playersByTeam.get(mTeams[assignment[p]]).add(mPlayers[p]);
+                }
+            }
+            return playersByTeam;
+        }
+    }
+
+    // standard deviation of experienced counts of teams plus standard
+    // deviation of mean heights of teams with players. Sums of values and
+    // their squares are kept, so change of one team is O(1)
+    private static class BalanceScore {
+        private final int mNumberOfTeams;
+        private double mExperienceSum;
+        private double mExperienceSquaresSum;
+        private int mNumberOfNonEmptyTeams;
+        private double mMeanHeightSum;
+        private double mMeanHeightSquaresSum;
+
+        private BalanceScore(int numberOfTeams) {
+            mNumberOfTeams = numberOfTeams;
+        }
+
+        private void update(int size, long heightSum, int experiencedCount,
+                            int sign) {
+            mExperienceSum += sign * experiencedCount;
+            mExperienceSquaresSum +=
+                    sign * (double) experiencedCount * experiencedCount;
+            if (size > 0) {
+                double meanHeight = (double) heightSum / size;
+                mNumberOfNonEmptyTeams += sign;
+                mMeanHeightSum += sign * meanHeight;
+                mMeanHeightSquaresSum += sign * meanHeight * meanHeight;
+            }
+        }
+
+        private static double standardDeviation(double sum, double squaresSum,
+                                                int count) {
+            if (count == 0) {
+                return 0;
+            }
+            double mean = sum / count;
+            return Math.sqrt(Math.max(0, squaresSum / count - mean * mean));
+        }
+
+        private double get() {
+            return standardDeviation(mExperienceSum, mExperienceSquaresSum,
+                    mNumberOfTeams)
+                    + standardDeviation(mMeanHeightSum, mMeanHeightSquaresSum,
+                    mNumberOfNonEmptyTeams);
+        }
+    }
+
+    // one restart of simulated annealing
+    private static class Search {
+        private final Problem mProblem;
+        private final Random mRandom;
+        private final int[] mAssignment;
+        private final int[] mSizes;
+        private final long[] mHeightSums;
+        private final int[] mExperiencedCounts;
+        private final BalanceScore mBalanceScore;
+        private double mInitialScore;
+        private double mBestScore;
+        private int[] mBestAssignment;
+        private long mNumberOfIterations;
+
+        private Search(Problem problem, Random random) {
+            mProblem = problem;
+            mRandom = random;
+            int numberOfTeams = problem.mTeams.length;
+            mAssignment = new int[problem.mPlayers.length];
+            mSizes = problem.mBaseSizes.clone();
+            mHeightSums = problem.mBaseHeightSums.clone();
+            mExperiencedCounts = problem.mBaseExperiencedCounts.clone();
+            mBalanceScore = new BalanceScore(numberOfTeams);
+            assignRandomly();
+            for (int t = 0; t < numberOfTeams; t++) {
+                mBalanceScore.update(mSizes[t], mHeightSums[t],
+                        mExperiencedCounts[t], 1);
+            }
+            mInitialScore = mBalanceScore.get();
+            mBestScore = mInitialScore;
+            mBestAssignment = mAssignment.clone();
+        }
+
+        // random players take all free slots, or all players are assigned
+        // if there are less players than slots
+        private void assignRandomly() {
+            int[] order = new int[mAssignment.length];
+            for (int p = 0; p < order.length; p++) {
+                order[p] = p;
+                mAssignment[p] = -1;
+            }
+            for (int p = order.length - 1; p > 0; p--) {
+                int other = mRandom.nextInt(p + 1);
+                int swapped = order[p];
+                order[p] = order[other];
+                order[other] = swapped;
+            }
+            int next = 0;
+            for (int t = 0; t < mProblem.mTeams.length; t++) {
+                for (int slot = 0; slot < mProblem.mCapacities[t]
+                        && next < order.length; slot++) {
+                    placePlayer(order[next++], t, 1);
+                }
+            }
+        }
+
+        private void placePlayer(int player, int team, int sign) {
+            mSizes[team] += sign;
+            mHeightSums[team] += sign * mProblem.mHeights[player];
+            if (mProblem.mExperience[player]) {
+                mExperiencedCounts[team] += sign;
+            }
+            mAssignment[player] = sign > 0 ? team : -1;
+        }
+
+        // moves player to team, or to pool if team is -1, and keeps score
+        private void movePlayer(int player, int team) {
+            int oldTeam = mAssignment[player];
+            if (oldTeam >= 0) {
+                changeTeam(oldTeam, player, -1);
+            }
+            if (team >= 0) {
+                changeTeam(team, player, 1);
+            } else {
+                mAssignment[player] = -1;
+            }
+        }
+
+        private void changeTeam(int team, int player, int sign) {
+            mBalanceScore.update(mSizes[team], mHeightSums[team],
+                    mExperiencedCounts[team], -1);
+            placePlayer(player, team, sign);
+            mBalanceScore.update(mSizes[team], mHeightSums[team],
+                    mExperiencedCounts[team], 1);
+        }
+
+        private boolean hasFreeSlot(int team) {
+            return mSizes[team] - mProblem.mBaseSizes[team]
+                    < mProblem.mCapacities[team];
+        }
+
+        // temperature goes down with share of iterations done, time is only
+        // checked to stop: otherwise the same seed would give different
+        // assignments on each run
+        private void run(int maxIterations, long deadline) {
+            int numberOfPlayers = mAssignment.length;
+            int numberOfTeams = mProblem.mTeams.length;
+            if (numberOfPlayers == 0 || numberOfTeams == 0
+                    || mProblem.mNumberOfSlots == 0) {
+                return;
+            }
+            double startTemperature = Math.max(mInitialScore * 0.1, 1e-3);
+            double score = mInitialScore;
+            double temperature = startTemperature;
+            for (int iteration = 0; iteration < maxIterations; iteration++) {
+                // checking time is not free, so it is checked every 1024
+                // iterations, temperature is updated then as well
+                if ((iteration & 1023) == 0) {
+                    if (deadline != Long.MAX_VALUE
+                            && System.currentTimeMillis() > deadline) {
+                        break;
+                    }
+                    double progress = (double) iteration / maxIterations;
+                    temperature = startTemperature * Math.pow(
+                            FINAL_TEMPERATURE_RATIO, progress);
+                }
+                mNumberOfIterations++;
+                int first = mRandom.nextInt(numberOfPlayers);
+                int firstTeam = mAssignment[first];
+                int second = -1;
+                int secondTeam;
+                // move to team with free slot, or swap with other player
+                int team = mRandom.nextInt(numberOfTeams);
+                if (team != firstTeam && hasFreeSlot(team)
+                        && mRandom.nextBoolean()) {
+                    secondTeam = team;
+                    movePlayer(first, secondTeam);
+                } else {
+                    second = mRandom.nextInt(numberOfPlayers);
+                    secondTeam = mAssignment[second];
+                    if (secondTeam == firstTeam) {
+                        continue;
+                    }
+                    movePlayer(first, secondTeam);
+                    movePlayer(second, firstTeam);
+                }
+                double newScore = mBalanceScore.get();
+                double delta = newScore - score;
+                if (delta <= 0 || mRandom.nextDouble()
+                        < Math.exp(-delta / temperature)) {
+                    score = newScore;
+                    if (score < mBestScore - 1e-12) {
+                        mBestScore = score;
+                        System.arraycopy(mAssignment, 0, mBestAssignment, 0,
+                                numberOfPlayers);
+                    }
+                } else {
+                    // move back
+                    if (second >= 0) {
+                        movePlayer(second, secondTeam);
+                    }
+                    movePlayer(first, firstTeam);
+                }
+            }
+            mBestScore = exactScore(mBestAssignment);
+        }
+
+        // score of assignment computed from scratch, without rounding
+        // errors of running sums
+        private double exactScore(int[] assignment) {
+            int numberOfTeams = mProblem.mTeams.length;
+            int[] sizes = mProblem.mBaseSizes.clone();
+            long[] heightSums = mProblem.mBaseHeightSums.clone();
+            int[] experiencedCounts = mProblem.mBaseExperiencedCounts.clone();
+            for (int p = 0; p < assignment.length; p++) {
+                int team = assignment[p];
+                if (team >= 0) {
+                    sizes[team]++;
+                    heightSums[team] += mProblem.mHeights[p];
+                    if (mProblem.mExperience[p]) {
+                        experiencedCounts[team]++;
+                    }
+                }
+            }
+            BalanceScore balanceScore = new BalanceScore(numberOfTeams);
+            for (int t = 0; t < numberOfTeams; t++) {
+                balanceScore.update(sizes[t], heightSums[t],
+                        experiencedCounts[t], 1);
+            }
+            return balanceScore.get();
+        }
+    }
+}
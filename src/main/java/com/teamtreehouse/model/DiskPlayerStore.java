@@ -0,0 +1,488 @@
+package com.teamtreehouse.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Players store for databases much larger than heap. Player records are
+// kept in indexed file, and only compact sorted key index is in memory:
+// file offset of each record and dictionary codes of names, so that
+// indexOf() does not touch the disk. Heights and experience are kept in
+// compact columns too, short and bit per player, so that scans over them,
+// like height index, recommendations or filters, don't read every record
+// and don't push players out of cache. Full Player is read from file on
+// demand and kept in bounded LRU cache.
+// File is written by Writer, records are in id order:
+//     magic, number of players: ints
+//     records: height int, experience boolean, first and last name UTF
+// Offsets of records are computed by open(), that reads all records anyway.
+// Store keeps file open, it is closed by close(), see PlayerRepository
+public class DiskPlayerStore implements PlayerStore, Closeable {
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+    // file had offsets after header before, such files are not read
+    private static final int MAGIC = 0x504c5953;
+    private static final int HEADER_SIZE = 8;
+
+    private final FileChannel mChannel;
+    private final int mSize;
+    private final long[] mOffsets;
+    private final int[] mFirstNameCodes;
+    private final int[] mLastNameCodes;
+    private final NameDictionary mNames;
+    // heights are at most Player.MAX_HEIGHT_IN_INCHES, short is enough
+    private final short[] mHeights;
+    private final BitSet mExperience;
+    private final LruCache<Integer, Player> mCache;
+
+    private DiskPlayerStore(FileChannel channel, long[] offsets,
+                            int[] firstNameCodes, int[] lastNameCodes,
+                            NameDictionary names, short[] heights,
+                            BitSet experience, int cacheSize) {
+        mChannel = channel;
+        mSize = firstNameCodes.length;
+        mOffsets = offsets;
+        mFirstNameCodes = firstNameCodes;
+        mLastNameCodes = lastNameCodes;
+        mNames = names;
+        mHeights = heights;
+        mExperience = experience;
+        mCache = new LruCache<>(cacheSize);
+    }
+
+    // writes all players of store to new indexed file, ids stay the same
+    // @throws java.nio.file.FileAlreadyExistsException if file exists
+    // @throws IOException if file can't be written
+    public static void write(PlayerStore playerStore, Path path)
+            throws IOException {
+        try (Writer writer = new Writer(path)) {
+            for (int id = 0; id < playerStore.size(); id++) {
+                writer.add(playerStore.get(id));
+            }
+            writer.finish();
+        }
+    }
+
+    // Writes players, given in any order, to new file for open(), with
+    // bounded memory, so that file can be bigger than heap: external merge
+    // sort. Players are collected in runs of at most runSize, each full run
+    // is sorted and written to temporary file next to target file, and
+    // finish() merges runs to target file in Player.compareTo() order.
+    // Players with the same names are written once, first of them is kept,
+    // like in sets. Memory is O(runSize + number of runs)
+    public static class Writer implements Closeable {
+        public static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+        private final Path mPath;
+        private final int mRunSize;
+        private final FileChannel mChannel;
+        private final List<Player> mRun = new ArrayList<>();
+        private final List<Path> mRunFiles = new ArrayList<>();
+        private boolean mIsFinished;
+
+        public Writer(Path path) throws IOException {
+            this(path, DEFAULT_RUN_SIZE);
+        }
+
+        // target file is created here, so that existing file is found
+        // before players are read
+        // @throws java.nio.file.FileAlreadyExistsException if file exists,
+        //         it is never overwritten
+        // @throws IllegalArgumentException if runSize is less than 1
+        public Writer(Path path, int runSize) throws IOException {
+            if (runSize < 1) {
+                throw new IllegalArgumentException(
+                        "Run size should be more than 0");
+            }
+            mPath = path;
+            mRunSize = runSize;
+            mChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE);
+        }
+
+        // @throws IOException if full run can't be written
+        // @throws IllegalStateException if writer is finished
+        public void add(Player player) throws IOException {
+            if (mIsFinished) {
+                throw new IllegalStateException("Writer is finished");
+            }
+            mRun.add(player);
+            if (mRun.size() == mRunSize) {
+                writeRun();
+            }
+        }
+
+        // sort is stable, so first of players with the same names comes
+        // first in run
+        private void writeRun() throws IOException {
+            mRun.sort(Comparator.naturalOrder());
+            Path runFile = Files.createTempFile(
+                    mPath.toAbsolutePath().getParent(), "players", ".run");
+            mRunFiles.add(runFile);
+            try (DataOutputStream records = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(runFile)))) {
+                for (Player player : mRun) {
+                    writeRecord(records, player);
+                }
+            }
+            mRun.clear();
+        }
+
+        // writes all players to file, sorted and without repeated names
+        // @return number of written players
+        // @throws IOException if file or runs can't be written or read
+        public int finish() throws IOException {
+            if (mIsFinished) {
+                throw new IllegalStateException("Writer is finished");
+            }
+            mIsFinished = true;
+            DataOutputStream records = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(mChannel)));
+            // number of players is not known yet, it is written at the end
+            records.writeInt(MAGIC);
+            records.writeInt(0);
+            int size = 0;
+            Player lastPlayer = null;
+            if (mRunFiles.isEmpty()) {
+                // all players fit in one run, it is not written to disk
+                mRun.sort(Comparator.naturalOrder());
+                for (Player player : mRun) {
+                    if (lastPlayer == null || lastPlayer.compareTo(player) != 0) {
+                        writeRecord(records, player);
+                        lastPlayer = player;
+                        size++;
+                    }
+                }
+                mRun.clear();
+            } else {
+                if (!mRun.isEmpty()) {
+                    writeRun();
+                }
+                size = mergeRuns(records);
+            }
+            records.flush();
+            ByteBuffer header = ByteBuffer.allocate(4).putInt(0, size);
+            mChannel.write(header, 4);
+            mChannel.force(false);
+            deleteRuns();
+            return size;
+        }
+
+        // k-way merge with heap of current players of runs. Of equal
+        // players, player of earlier run is taken first and kept
+        private int mergeRuns(DataOutputStream records) throws IOException {
+            PriorityQueue<RunReader> runReaders = new PriorityQueue<>(
+                    Comparator.comparing((RunReader runReader) ->
+                            runReader.mPlayer)
+                            .thenComparingInt(runReader -> runReader.mIndex));
+            List<RunReader> openedReaders = new ArrayList<>();
+            try {
+                for (int i = 0; i < mRunFiles.size(); i++) {
+                    RunReader runReader = new RunReader(mRunFiles.get(i), i);
+                    openedReaders.add(runReader);
+                    if (runReader.next()) {
+                        runReaders.add(runReader);
+                    }
+                }
+                int size = 0;
+                Player lastPlayer = null;
+                while (!runReaders.isEmpty()) {
+                    RunReader runReader = runReaders.poll();
+                    Player player = runReader.mPlayer;
+                    if (lastPlayer == null || lastPlayer.compareTo(player) != 0) {
+                        writeRecord(records, player);
+                        lastPlayer = player;
+                        size++;
+                    }
+                    if (runReader.next()) {
+                        runReaders.add(runReader);
+                    }
+                }
+                return size;
+            } finally {
+                for (RunReader runReader : openedReaders) {
+                    runReader.mInput.close();
+                }
+            }
+        }
+
+        private void deleteRuns() throws IOException {
+            for (Path runFile : mRunFiles) {
+                Files.deleteIfExists(runFile);
+            }
+            mRunFiles.clear();
+        }
+
+        // closes file. If writer was not finished, file is incomplete,
+        // so it is deleted
+        @Override
+        public void close() throws IOException {
+            mChannel.close();
+            deleteRuns();
+            if (!mIsFinished) {
+                Files.deleteIfExists(mPath);
+            }
+        }
+    }
+
+    // sorted run of players in temporary file, read one by one
+    private static class RunReader {
+        private final DataInputStream mInput;
+        private final int mIndex;
+        private Player mPlayer;
+
+        private RunReader(Path runFile, int index) throws IOException {
+            mInput = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(runFile)));
+            mIndex = index;
+        }
+
+        // @return false if there are no more players
+        private boolean next() throws IOException {
+            int height;
+            try {
+                height = mInput.readInt();
+            } catch (EOFException eofe) {
+                mPlayer = null;
+                return false;
+            }
+            boolean experience = mInput.readBoolean();
+            String firstName = mInput.readUTF();
+            String lastName = mInput.readUTF();
+            mPlayer = new Player(firstName, lastName, height, experience);
+            return true;
+        }
+    }
+
+    private static void writeRecord(DataOutputStream records, Player player)
+            throws IOException {
+        records.writeInt(player.getHeightInInches());
+        records.writeBoolean(player.hasPreviousExperience());
+        records.writeUTF(player.getFirstName());
+        records.writeUTF(player.getLastName());
+    }
+
+    // number of bytes, written by DataOutputStream.writeUTF(): length
+    // and modified UTF-8 characters. Offsets of records are computed with
+    // it in long, DataOutputStream.size() stops counting at
+    // Integer.MAX_VALUE
+    static int utfLength(String string) {
+        int length = 2;
+        for (int i = 0; i < string.length(); i++) {
+            char character = string.charAt(i);
+            if (character >= 0x0001 && character <= 0x007F) {
+                length++;
+            } else if (character <= 0x07FF) {
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    // opens file written by Writer, reads names, heights and experience
+    // to memory and computes offsets of records. Players are read later,
+    // on demand
+    // @param cacheSize - maximum number of players kept in memory
+    // @throws IOException if file can't be read or has wrong format
+    public static DiskPlayerStore open(Path path, int cacheSize)
+            throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(
+                            Channels.newInputStream(channel.position(0))));
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a players file: " + path);
+            }
+            int size = input.readInt();
+            long[] offsets = new long[size + 1];
+            offsets[0] = HEADER_SIZE;
+            int[] firstNameCodes = new int[size];
+            int[] lastNameCodes = new int[size];
+            NameDictionary names = new NameDictionary();
+            short[] heights = new short[size];
+            BitSet experience = new BitSet(size);
+            for (int id = 0; id < size; id++) {
+                int height = input.readInt();
+                if (height < 0 || height > Player.MAX_HEIGHT_IN_INCHES) {
+                    throw new IOException("Wrong height " + height +
+                            " of player " + id + " in " + path);
+                }
+                heights[id] = (short) height;
+                experience.set(id, input.readBoolean());
+                String firstName = input.readUTF();
+                String lastName = input.readUTF();
+                firstNameCodes[id] = names.encode(firstName);
+                lastNameCodes[id] = names.encode(lastName);
+                offsets[id + 1] = offsets[id] + 4 + 1
+                        + utfLength(firstName) + utfLength(lastName);
+            }
+            return new DiskPlayerStore(channel, offsets, firstNameCodes,
+                    lastNameCodes, names, heights, experience, cacheSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    // player from cache, or read from file and put to cache
+    // @throws UncheckedIOException if file can't be read
+    @Override
+    public Player get(int id) {
+        checkId(id);
+        Player player = mCache.get(id);
+        if (player == null) {
+            player = readPlayer(id);
+            mCache.put(id, player);
+        }
+        return player;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= mSize) {
+            throw new IndexOutOfBoundsException(
+                    "Id: " + id + ", Size: " + mSize);
+        }
+    }
+
+    private Player readPlayer(int id) {
+        ByteBuffer record =
+                ByteBuffer.allocate((int) (mOffsets[id + 1] - mOffsets[id]));
+        try {
+            // positional read, so that threads don't share position
+            while (record.hasRemaining()) {
+                int bytesRead = mChannel.read(record,
+                        mOffsets[id] + record.position());
+                if (bytesRead < 0) {
+                    throw new IOException("Players file is truncated");
+                }
+            }
+            DataInputStream input = new DataInputStream(
+                    new ByteBufferInputStream(record.array()));
+            int height = input.readInt();
+            boolean experience = input.readBoolean();
+            // names are taken from dictionary, so they are shared
+            input.readUTF();
+            input.readUTF();
+            Player player = new Player(mNames.decode(mFirstNameCodes[id]),
+                    mNames.decode(mLastNameCodes[id]), height, experience);
+            player.assignId(id);
+            return player;
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    // simple InputStream over byte array, without synchronization
+    private static class ByteBufferInputStream extends InputStream {
+        private final byte[] mBytes;
+        private int mPosition;
+
+        ByteBufferInputStream(byte[] bytes) {
+            mBytes = bytes;
+        }
+
+        @Override
+        public int read() {
+            return mPosition < mBytes.length ? mBytes[mPosition++] & 0xff : -1;
+        }
+    }
+
+    // names, heights and experience are read from memory, disk and cache
+    // are not used
+    @Override
+    public String getFirstName(int id) {
+        checkId(id);
+        return mNames.decode(mFirstNameCodes[id]);
+    }
+
+    @Override
+    public String getLastName(int id) {
+        checkId(id);
+        return mNames.decode(mLastNameCodes[id]);
+    }
+
+    @Override
+    public int getHeightInInches(int id) {
+        checkId(id);
+        return mHeights[id];
+    }
+
+    @Override
+    public boolean hasPreviousExperience(int id) {
+        checkId(id);
+        return mExperience.get(id);
+    }
+
+    // binary search over names in memory, disk is not used
+    @Override
+    public int indexOf(Player player) {
+        int id = player.getId();
+        if (id >= 0 && id < mSize && compareWithKey(id, player) == 0) {
+            return id;
+        }
+        int low = 0;
+        int high = mSize - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareWithKey(middle, player);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int compareWithKey(int id, Player player) {
+        int comparison = mNames.decode(mLastNameCodes[id])
+                .compareTo(player.getLastName());
+        if (comparison != 0) {
+            return comparison;
+        }
+        return mNames.decode(mFirstNameCodes[id])
+                .compareTo(player.getFirstName());
+    }
+
+    // set is bitmap over ids out of heap, players are read only when shown
+    @Override
+    public IndexedSet<Player> newPlayersSet() {
+        return new OffHeapPlayerSet(this, true);
+    }
+
+    // cache with hit and miss counters
+    public LruCache<Integer, Player> getCache() {
+        return mCache;
+    }
+
+    @Override
+    public void close() throws IOException {
+        mChannel.close();
+    }
+}
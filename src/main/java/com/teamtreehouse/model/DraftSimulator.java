@@ -0,0 +1,186 @@
+package com.teamtreehouse.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Runs whole draft: teams pick players from pool in turns, until teams are
+// full or pool is empty. Each team picks with its PickStrategy.
+// Pool is kept in one RankedTreeSet per distinct strategy, sorted by its
+// order, so pick is first() of set of team strategy, and picked player is
+// removed from each set: O(number of strategies * log n) per pick. Sets are
+// bulk loaded once, O(n log n).
+// Teams and pool are changed through Team.addPlayer() and pool remove(), so
+// all statistics and indexes of them stay right
+public class DraftSimulator {
+    // order of teams in rounds
+    public enum DraftOrder {
+        // 1, 2 ... n, then n ... 2, 1, and so on
+        SNAKE,
+        // 1, 2 ... n in each round
+        ROUND_ROBIN
+    }
+
+    private final DraftOrder mDraftOrder;
+
+    public DraftSimulator(DraftOrder draftOrder) {
+        mDraftOrder = draftOrder;
+    }
+
+    // one pick of draft
+    public static class Pick {
+        private final int mRound;
+        private final Team mTeam;
+        private final Player mPlayer;
+
+        private Pick(int round, Team team, Player player) {
+            mRound = round;
+            mTeam = team;
+            mPlayer = player;
+        }
+
+        // rounds start from 1
+        public int getRound() {
+            return mRound;
+        }
+
+        public Team getTeam() {
+            return mTeam;
+        }
+
+        public Player getPlayer() {
+            return mPlayer;
+        }
+
+        @Override
+        public String toString() {
+            return "Round " + mRound + ":" + mTeam + " picks " + mPlayer;
+        }
+    }
+
+    // picks in order, and timings
+    public static class Result {
+        private final List<Pick> mPicks;
+        private final int mNumberOfRounds;
+        private final long mPreparationNanos;
+        private final long mDraftNanos;
+
+        private Result(List<Pick> picks, int numberOfRounds,
+                       long preparationNanos, long draftNanos) {
+            mPicks = Collections.unmodifiableList(picks);
+            mNumberOfRounds = numberOfRounds;
+            mPreparationNanos = preparationNanos;
+            mDraftNanos = draftNanos;
+        }
+
+        public List<Pick> getPicks() {
+            return mPicks;
+        }
+
+        public int getNumberOfRounds() {
+            return mNumberOfRounds;
+        }
+
+        // time of loading pool to priority sets
+        public long getPreparationNanos() {
+            return mPreparationNanos;
+        }
+
+        // time of picks only
+        public long getDraftNanos() {
+            return mDraftNanos;
+        }
+
+        public double getPicksPerSecond() {
+            return mDraftNanos == 0 ? 0 : mPicks.size() * 1e9 / mDraftNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Picks: %d in %d rounds, %.0f picks/s, " +
+                            "draft: %.1f ms, preparation: %.1f ms",
+                    mPicks.size(), mNumberOfRounds, getPicksPerSecond(),
+                    mDraftNanos / 1e6, mPreparationNanos / 1e6);
+        }
+    }
+
+    // all teams pick with the same strategy
+    public Result run(Collection<Team> teams, Collection<Player> playersPool,
+                      PickStrategy pickStrategy) {
+        Map<Team, PickStrategy> pickStrategies = new LinkedHashMap<>();
+        for (Team team : teams) {
+            pickStrategies.put(team, pickStrategy);
+        }
+        return run(pickStrategies, playersPool);
+    }
+
+    // @param pickStrategies - teams in order of picks, with their strategies
+    // @param playersPool - available players, picked players are removed
+    public Result run(Map<Team, PickStrategy> pickStrategies,
+                      Collection<Player> playersPool) {
+        long startTime = System.nanoTime();
+        Map<PickStrategy, RankedTreeSet<Player>> prioritySets = new HashMap<>();
+        for (PickStrategy pickStrategy : pickStrategies.values()) {
+            if (!prioritySets.containsKey(pickStrategy)) {
+                RankedTreeSet<Player> prioritySet =
+                        new RankedTreeSet<>(pickStrategy.getOrder());
+                prioritySet.addAll(playersPool);
+                prioritySets.put(pickStrategy, prioritySet);
+            }
+        }
+        List<Team> teams = new ArrayList<>(pickStrategies.keySet());
+        long draftStartTime = System.nanoTime();
+        List<Pick> picks = new ArrayList<>();
+        int round = 0;
+        boolean somebodyPicked = true;
+        while (somebodyPicked && !playersPool.isEmpty()) {
+            round++;
+            somebodyPicked = false;
+            boolean isReversed = mDraftOrder == DraftOrder.SNAKE
+                    && round % 2 == 0;
+            for (int i = 0; i < teams.size() && !playersPool.isEmpty(); i++) {
+                Team team = teams.get(isReversed ? teams.size() - 1 - i : i);
+                if (team.size() >= Team.MAX_NUMBER_OF_PLAYERS) {
+                    continue;
+                }
+                Player player = pick(team,
+                        prioritySets.get(pickStrategies.get(team)));
+                if (player == null) {
+                    continue;
+                }
+                removeFromPool(player, prioritySets, playersPool);
+                picks.add(new Pick(round, team, player));
+                somebodyPicked = true;
+            }
+        }
+        long endTime = System.nanoTime();
+        return new Result(picks, somebodyPicked ? round : round - 1,
+                draftStartTime - startTime, endTime - draftStartTime);
+    }
+
+    // adds to team first player of priority set, that team can take
+    // @return added player, or null if team can't take anybody. Player
+    //         equal by name to one already in team, e.g. added before
+    //         draft, is skipped only for that team and stays in pool
+    private static Player pick(Team team, RankedTreeSet<Player> prioritySet) {
+        for (Player player : prioritySet) {
+            if (team.addPlayer(player)) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    private static void removeFromPool(
+            Player player, Map<PickStrategy, RankedTreeSet<Player>> prioritySets,
+            Collection<Player> playersPool) {
+        for (RankedTreeSet<Player> prioritySet : prioritySets.values()) {
+            prioritySet.remove(player);
+        }
+        playersPool.remove(player);
+    }
+}
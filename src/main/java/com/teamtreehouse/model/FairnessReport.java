@@ -0,0 +1,105 @@
+package com.teamtreehouse.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+// How far each team is from the league average, made only from running
+// statistics of teams, so no roster is scanned: O(number of teams).
+// League average is pooled over all players in teams, see
+// RunningStatistics.combine(). Deviation of team is sum of:
+// - difference of mean height from league mean, in league standard
+//   deviations of height
+// - difference of experience ratio from league ratio, in standard
+//   deviations of experience (sqrt(p * (1 - p)) for league ratio p)
+// so that both parts are measured in the same units. Teams are ranked from
+// most to least deviating, teams without players are not ranked
+public class FairnessReport {
+    private final RunningStatistics mLeagueHeightStatistics;
+    private final double mLeagueExperienceRatio;
+    private final List<Entry> mEntries;
+
+    // deviation of one team from league average
+    public static class Entry {
+        private final Team mTeam;
+        private final double mHeightDeviation;
+        private final double mExperienceDeviation;
+
+        private Entry(Team team, double heightDeviation,
+                      double experienceDeviation) {
+            mTeam = team;
+            mHeightDeviation = heightDeviation;
+            mExperienceDeviation = experienceDeviation;
+        }
+
+        public Team getTeam() {
+            return mTeam;
+        }
+
+        // signed: positive if team is taller than league on average
+        public double getHeightDeviation() {
+            return mHeightDeviation;
+        }
+
+        // signed: positive if team is more experienced than league
+        public double getExperienceDeviation() {
+            return mExperienceDeviation;
+        }
+
+        // total deviation, teams are ranked by it
+        public double getScore() {
+            return Math.abs(mHeightDeviation) + Math.abs(mExperienceDeviation);
+        }
+    }
+
+    public FairnessReport(Collection<Team> teams) {
+        RunningStatistics leagueHeightStatistics = new RunningStatistics();
+        int numberOfExperiencedPlayers = 0;
+        for (Team team : teams) {
+            leagueHeightStatistics =
+                    leagueHeightStatistics.combine(team.getHeightStatistics());
+            numberOfExperiencedPlayers += team.getNumberOfExperiencedPlayers();
+        }
+        mLeagueHeightStatistics = leagueHeightStatistics;
+        int numberOfPlayers = leagueHeightStatistics.getCount();
+        mLeagueExperienceRatio = numberOfPlayers == 0 ? 0
+                : (double) numberOfExperiencedPlayers / numberOfPlayers;
+        double heightDeviation = leagueHeightStatistics.getStandardDeviation();
+        double experienceDeviation = Math.sqrt(
+                mLeagueExperienceRatio * (1 - mLeagueExperienceRatio));
+        List<Entry> entries = new ArrayList<>();
+        for (Team team : teams) {
+            if (team.size() == 0) {
+                continue;
+            }
+            entries.add(new Entry(team,
+                    standardize(team.getHeightStatistics().getMean()
+                            - leagueHeightStatistics.getMean(), heightDeviation),
+                    standardize(team.getExperienceRatio()
+                            - mLeagueExperienceRatio, experienceDeviation)));
+        }
+        // stable sort, so teams with same score stay sorted by name
+        entries.sort(Comparator.comparingDouble(Entry::getScore).reversed());
+        mEntries = Collections.unmodifiableList(entries);
+    }
+
+    // all players in league are the same, when deviation is zero
+    private static double standardize(double difference, double deviation) {
+        return deviation == 0 ? 0 : difference / deviation;
+    }
+
+    public RunningStatistics getLeagueHeightStatistics() {
+        return new RunningStatistics(mLeagueHeightStatistics);
+    }
+
+    public double getLeagueExperienceRatio() {
+        return mLeagueExperienceRatio;
+    }
+
+    // teams with players, from most to least deviating
+    public List<Entry> getEntries() {
+        return mEntries;
+    }
+}
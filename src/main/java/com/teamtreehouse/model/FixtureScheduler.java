@@ -0,0 +1,383 @@
+package com.teamtreehouse.model;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+// Builds round-robin season schedule for all teams with circle method: one
+// team stays, others rotate, and in each round team at position k plays
+// team at position n-1-k. Venues alternate, so that each team plays at
+// most 2 games in a row at home or away. With odd number of teams dummy
+// team is added, and team that plays it has bye in that round.
+// In double round-robin second half repeats first one with swapped venues.
+// Order of rounds can be shifted or reversed, that gives candidate
+// schedules: they are evaluated in parallel, without creating fixtures,
+// against max number of consecutive away games, then by number of breaks
+// (two home or two away games in a row), and only the best one is built.
+// Rounds are played every daysBetweenRounds days, blocked dates are bye
+// weeks for all teams. Schedule is kept in int arrays, so memory grows
+// linearly with number of fixtures
+public class FixtureScheduler {
+    public static final int DEFAULT_NUMBER_OF_CANDIDATES = 16;
+
+    private final boolean mIsDoubleRound;
+    private final int mMaxConsecutiveAwayGames;
+    private final int mNumberOfCandidates;
+
+    public FixtureScheduler(boolean isDoubleRound, int maxConsecutiveAwayGames) {
+        this(isDoubleRound, maxConsecutiveAwayGames,
+                DEFAULT_NUMBER_OF_CANDIDATES);
+    }
+
+    // @throws IllegalArgumentException if max number of consecutive away
+    //         games or number of candidates is less than 1
+    public FixtureScheduler(boolean isDoubleRound, int maxConsecutiveAwayGames,
+                            int numberOfCandidates) {
+        if (maxConsecutiveAwayGames < 1) {
+            throw new IllegalArgumentException(
+                    "Max number of consecutive away games should be positive");
+        }
+        if (numberOfCandidates < 1) {
+            throw new IllegalArgumentException(
+                    "Number of candidates should be positive");
+        }
+        mIsDoubleRound = isDoubleRound;
+        mMaxConsecutiveAwayGames = maxConsecutiveAwayGames;
+        mNumberOfCandidates = numberOfCandidates;
+    }
+
+    // one game of schedule, is created on demand from Schedule arrays
+    public static class Fixture {
+        private final int mRound;
+        private final LocalDate mDate;
+        private final Team mHomeTeam;
+        private final Team mAwayTeam;
+
+        private Fixture(int round, LocalDate date, Team homeTeam, Team awayTeam) {
+            mRound = round;
+            mDate = date;
+            mHomeTeam = homeTeam;
+            mAwayTeam = awayTeam;
+        }
+
+        // rounds start from 0
+        public int getRound() {
+            return mRound;
+        }
+
+        public LocalDate getDate() {
+            return mDate;
+        }
+
+        public Team getHomeTeam() {
+            return mHomeTeam;
+        }
+
+        public Team getAwayTeam() {
+            return mAwayTeam;
+        }
+
+        @Override
+        public String toString() {
+            return mDate + ": '" + mHomeTeam.getName() + "' - '" +
+                    mAwayTeam.getName() + "'";
+        }
+    }
+
+    // built schedule: fixtures of round r are at positions from
+    // r * getNumberOfFixturesPerRound() in home and away arrays of team
+    // indexes
+    public static class Schedule {
+        private final List<Team> mTeams;
+        private final int mNumberOfFixturesPerRound;
+        private final int[] mHomeTeams;
+        private final int[] mAwayTeams;
+        // index of team with bye in round, or -1
+        private final int[] mTeamsWithBye;
+        private final LocalDate[] mDates;
+        private final Evaluation mEvaluation;
+        private final int mNumberOfCandidates;
+        private final long mElapsedMillis;
+
+        private Schedule(List<Team> teams, int numberOfFixturesPerRound,
+                         int[] homeTeams, int[] awayTeams, int[] teamsWithBye,
+                         LocalDate[] dates, Evaluation evaluation,
+                         int numberOfCandidates, long elapsedMillis) {
+            mTeams = teams;
+            mNumberOfFixturesPerRound = numberOfFixturesPerRound;
+            mHomeTeams = homeTeams;
+            mAwayTeams = awayTeams;
+            mTeamsWithBye = teamsWithBye;
+            mDates = dates;
+            mEvaluation = evaluation;
+            mNumberOfCandidates = numberOfCandidates;
+            mElapsedMillis = elapsedMillis;
+        }
+
+        public int getNumberOfRounds() {
+            return mDates.length;
+        }
+
+        public int getNumberOfFixtures() {
+            return mHomeTeams.length;
+        }
+
+        public int getNumberOfFixturesPerRound() {
+            return mNumberOfFixturesPerRound;
+        }
+
+        public LocalDate getDateOfRound(int round) {
+            return mDates[round];
+        }
+
+        // @return team that does not play in round, or null if all teams
+        //         play
+        public Team getTeamWithBye(int round) {
+            return mTeamsWithBye[round] < 0 ? null
+                    : mTeams.get(mTeamsWithBye[round]);
+        }
+
+        // read only view, fixtures are created on each get()
+        public List<Fixture> getFixturesOfRound(final int round) {
+            final int start = round * mNumberOfFixturesPerRound;
+            return new AbstractList<Fixture>() {
+                @Override
+                public Fixture get(int index) {
+                    if (index < 0 || index >= mNumberOfFixturesPerRound) {
+                        throw new IndexOutOfBoundsException("Index: " + index);
+                    }
+                    return new Fixture(round, mDates[round],
+                            mTeams.get(mHomeTeams[start + index]),
+                            mTeams.get(mAwayTeams[start + index]));
+                }
+
+                @Override
+                public int size() {
+                    return mNumberOfFixturesPerRound;
+                }
+            };
+        }
+
+        // all fixtures in order of rounds, read only view
+        public List<Fixture> getFixtures() {
+            return new AbstractList<Fixture>() {
+                @Override
+                public Fixture get(int index) {
+                    return getFixturesOfRound(index / mNumberOfFixturesPerRound)
+                            .get(index % mNumberOfFixturesPerRound);
+                }
+
+                @Override
+                public int size() {
+                    return mHomeTeams.length;
+                }
+            };
+        }
+
+        // longest series of away games of any team, byes don't end series
+        public int getMaxConsecutiveAwayGames() {
+            return mEvaluation.mMaxAwayStreak;
+        }
+
+        // number of times team played second home or away game in a row
+        public int getNumberOfBreaks() {
+            return mEvaluation.mNumberOfBreaks;
+        }
+
+        // true if no team plays more consecutive away games than allowed
+        public boolean isFeasible() {
+            return mEvaluation.mNumberOfExcessAwayGames == 0;
+        }
+
+        public int getNumberOfCandidates() {
+            return mNumberOfCandidates;
+        }
+
+        public long getElapsedMillis() {
+            return mElapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Rounds: %d, fixtures: %d, " +
+                            "max consecutive away games: %d, breaks: %d, " +
+                            "candidates: %d, time: %d ms",
+                    getNumberOfRounds(), getNumberOfFixtures(),
+                    getMaxConsecutiveAwayGames(), getNumberOfBreaks(),
+                    mNumberOfCandidates, mElapsedMillis);
+        }
+    }
+
+    // score of candidate: away games over the limit, then breaks
+    private static class Evaluation {
+        private final int mCandidate;
+        private int mNumberOfExcessAwayGames;
+        private int mNumberOfBreaks;
+        private int mMaxAwayStreak;
+
+        private Evaluation(int candidate) {
+            mCandidate = candidate;
+        }
+    }
+
+    private static final Comparator<Evaluation> EVALUATION_ORDER =
+            Comparator.<Evaluation>comparingInt(
+                    evaluation -> evaluation.mNumberOfExcessAwayGames)
+                    .thenComparingInt(evaluation -> evaluation.mNumberOfBreaks)
+                    .thenComparingInt(evaluation -> evaluation.mCandidate);
+
+    // circle method for given number of teams, candidate is order of rounds
+    private class Rounds {
+        private final int mNumberOfTeams;
+        // even number of positions, last one is dummy for odd teams
+        private final int mNumberOfSlots;
+        private final int mNumberOfBaseRounds;
+        private final int mNumberOfRounds;
+        private final int mNumberOfCandidates;
+        private final int mShiftStep;
+
+        private Rounds(int numberOfTeams) {
+            mNumberOfTeams = numberOfTeams;
+            mNumberOfSlots = numberOfTeams % 2 == 0 ? numberOfTeams
+                    : numberOfTeams + 1;
+            mNumberOfBaseRounds = Math.max(mNumberOfSlots - 1, 0);
+            mNumberOfRounds = mIsDoubleRound ? 2 * mNumberOfBaseRounds
+                    : mNumberOfBaseRounds;
+            mNumberOfCandidates = Math.max(1,
+                    Math.min(FixtureScheduler.this.mNumberOfCandidates,
+                            2 * mNumberOfBaseRounds));
+            mShiftStep = Math.max(1, mNumberOfBaseRounds /
+                    ((mNumberOfCandidates + 1) / 2));
+        }
+
+        // base round and venue swap of round in candidate: even
+        // candidates reverse, then rounds are shifted. In double
+        // round-robin only second half is changed
+        private void fillRound(int candidate, int round,
+                               int[] homeTeams, int[] awayTeams,
+                               int offset, int[] teamsWithBye) {
+            boolean isMirrored = round >= mNumberOfBaseRounds;
+            int index = isMirrored ? round - mNumberOfBaseRounds : round;
+            if (isMirrored || !mIsDoubleRound) {
+                if (candidate % 2 == 0) {
+                    index = mNumberOfBaseRounds - 1 - index;
+                }
+                index = (index + (candidate / 2) * mShiftStep)
+                        % mNumberOfBaseRounds;
+            }
+            teamsWithBye[round] = -1;
+            int fixture = offset;
+            for (int k = 0; k < mNumberOfSlots / 2; k++) {
+                int team = teamAt(k, index);
+                int otherTeam = teamAt(mNumberOfSlots - 1 - k, index);
+                if (team < 0) {
+                    teamsWithBye[round] = otherTeam;
+                    continue;
+                }
+                boolean isTeamAtHome = k == 0 ? index % 2 == 0 : k % 2 == 1;
+                if (isTeamAtHome != isMirrored) {
+                    homeTeams[fixture] = team;
+                    awayTeams[fixture] = otherTeam;
+                } else {
+                    homeTeams[fixture] = otherTeam;
+                    awayTeams[fixture] = team;
+                }
+                fixture++;
+            }
+        }
+
+        // team at position in base round, position 0 stays. With odd number
+        // of teams dummy team stays there, it is -1: so other teams have
+        // byes in turn, and their venues still alternate
+        private int teamAt(int position, int baseRound) {
+            int slot = position == 0 ? 0
+                    : (position - 1 + baseRound) % (mNumberOfSlots - 1) + 1;
+            return mNumberOfSlots == mNumberOfTeams ? slot : slot - 1;
+        }
+
+        // walks rounds of candidate with one round of fixtures in memory
+        private Evaluation evaluate(int candidate) {
+            Evaluation evaluation = new Evaluation(candidate);
+            int numberOfFixturesPerRound = mNumberOfTeams / 2;
+            int[] homeTeams = new int[numberOfFixturesPerRound];
+            int[] awayTeams = new int[numberOfFixturesPerRound];
+            int[] teamsWithBye = new int[mNumberOfRounds];
+            int[] awayStreaks = new int[mNumberOfTeams];
+            // 0 - no games yet, 1 - last game at home, 2 - away
+            byte[] lastVenues = new byte[mNumberOfTeams];
+            for (int round = 0; round < mNumberOfRounds; round++) {
+                fillRound(candidate, round, homeTeams, awayTeams, 0,
+                        teamsWithBye);
+                for (int i = 0; i < numberOfFixturesPerRound; i++) {
+                    int homeTeam = homeTeams[i];
+                    int awayTeam = awayTeams[i];
+                    if (lastVenues[homeTeam] == 1) {
+                        evaluation.mNumberOfBreaks++;
+                    }
+                    if (lastVenues[awayTeam] == 2) {
+                        evaluation.mNumberOfBreaks++;
+                    }
+                    lastVenues[homeTeam] = 1;
+                    lastVenues[awayTeam] = 2;
+                    awayStreaks[homeTeam] = 0;
+                    awayStreaks[awayTeam]++;
+                    if (awayStreaks[awayTeam] > mMaxConsecutiveAwayGames) {
+                        evaluation.mNumberOfExcessAwayGames++;
+                    }
+                    evaluation.mMaxAwayStreak = Math.max(
+                            evaluation.mMaxAwayStreak, awayStreaks[awayTeam]);
+                }
+            }
+            return evaluation;
+        }
+    }
+
+    // builds schedule for teams, in order of collection
+    // @param firstDate - date of first round
+    // @param daysBetweenRounds - days from one round to next
+    // @param blockedDates - dates without games, e.g. holidays: round is
+    //                       moved by daysBetweenRounds until date is free,
+    //                       so it is bye week for whole league
+    // @throws IllegalArgumentException if daysBetweenRounds is less than 1
+    public Schedule schedule(Collection<Team> teams, LocalDate firstDate,
+                             int daysBetweenRounds, Set<LocalDate> blockedDates) {
+        if (daysBetweenRounds < 1) {
+            throw new IllegalArgumentException(
+                    "Days between rounds should be positive");
+        }
+        long startTime = System.currentTimeMillis();
+        List<Team> teamsList =
+                Collections.unmodifiableList(new ArrayList<>(teams));
+        final Rounds rounds = new Rounds(teamsList.size());
+        Evaluation bestEvaluation = IntStream.range(0, rounds.mNumberOfCandidates)
+                .parallel()
+                .mapToObj(rounds::evaluate)
+                .min(EVALUATION_ORDER)
+                .get();
+        int numberOfFixturesPerRound = teamsList.size() / 2;
+        int[] homeTeams = new int[rounds.mNumberOfRounds * numberOfFixturesPerRound];
+        int[] awayTeams = new int[homeTeams.length];
+        int[] teamsWithBye = new int[rounds.mNumberOfRounds];
+        LocalDate[] dates = new LocalDate[rounds.mNumberOfRounds];
+        LocalDate date = firstDate;
+        for (int round = 0; round < rounds.mNumberOfRounds; round++) {
+            rounds.fillRound(bestEvaluation.mCandidate, round, homeTeams,
+                    awayTeams, round * numberOfFixturesPerRound, teamsWithBye);
+            while (blockedDates.contains(date)) {
+                date = date.plusDays(daysBetweenRounds);
+            }
+            dates[round] = date;
+            date = date.plusDays(daysBetweenRounds);
+        }
+        return new Schedule(teamsList, numberOfFixturesPerRound, homeTeams,
+                awayTeams, teamsWithBye, dates, bestEvaluation,
+                rounds.mNumberOfCandidates,
+                System.currentTimeMillis() - startTime);
+    }
+}
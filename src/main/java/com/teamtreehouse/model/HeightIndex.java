@@ -0,0 +1,303 @@
+package com.teamtreehouse.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Number of players by height, split by experience, in two Fenwick trees
+// over heights in inches: one for experienced players and one for
+// beginners. Adding or removing player and counting players in range of
+// heights, like "how many players are 40 to 44 inches high, and how many of
+// them are experienced", are O(log H), where H is max height, no matter how
+// many players there are.
+// Is kept for pool of available players, see PlayerPool, and for each Team.
+// Only they change index, others can only query it.
+// Other height summaries of team are derived from it, not kept separately:
+// - asMap() is live view of counts by height
+// - min, max and percentiles are heights of ranks, O(log H)
+// - mean and variance come from sums of heights and their squares, kept
+//   in longs: heights are whole inches, so sums are exact
+public class HeightIndex {
+    private static final int EXPERIENCED = 1;
+    private static final int BEGINNER = 0;
+
+    // [experience][height] - plain counts, used to rebuild trees when
+    // bigger height comes
+    private int[][] mCounts = new int[2][64];
+    // [experience][1..bound] - Fenwick trees, 1-based: tree[i] keeps number
+    // of players with heights in [i - lowestOneBit(i), i)
+    private int[][] mTrees = new int[2][65];
+    private int mNumberOfPlayers;
+    private int mNumberOfExperiencedPlayers;
+    private int mNumberOfDistinctHeights;
+    private long mSumOfHeights;
+    private long mSumOfSquaredHeights;
+    private final Map<Integer, Integer> mMapView = new MapView();
+
+    // @throws IllegalArgumentException if height is negative or more than
+    //         Player.MAX_HEIGHT_IN_INCHES
+    void add(int height, boolean isExperienced) {
+        if (height < 0) {
+            throw new IllegalArgumentException("Height can't be negative");
+        }
+        if (height > Player.MAX_HEIGHT_IN_INCHES) {
+            throw new IllegalArgumentException("Height can't be more than "
+                    + Player.MAX_HEIGHT_IN_INCHES + ": " + height);
+        }
+        if (height >= getHeightBound()) {
+            grow(height + 1);
+        }
+        update(isExperienced ? EXPERIENCED : BEGINNER, height, 1);
+    }
+
+    // @throws IllegalStateException if there is no such player in index
+    void remove(int height, boolean isExperienced) {
+        int experience = isExperienced ? EXPERIENCED : BEGINNER;
+        if (height < 0 || height >= getHeightBound()
+                || mCounts[experience][height] == 0) {
+            throw new IllegalStateException("There are no players "
+                    + height + " inches high with this experience");
+        }
+        update(experience, height, -1);
+    }
+
+    void clear() {
+        for (int experience = 0; experience < 2; experience++) {
+            Arrays.fill(mCounts[experience], 0);
+            Arrays.fill(mTrees[experience], 0);
+        }
+        mNumberOfPlayers = 0;
+        mNumberOfExperiencedPlayers = 0;
+        mNumberOfDistinctHeights = 0;
+        mSumOfHeights = 0;
+        mSumOfSquaredHeights = 0;
+    }
+
+    private void update(int experience, int height, int delta) {
+        int countBefore = countPlayersWithHeight(height);
+        mCounts[experience][height] += delta;
+        if (countBefore == 0) {
+            mNumberOfDistinctHeights++;
+        } else if (countBefore + delta == 0) {
+            mNumberOfDistinctHeights--;
+        }
+        mSumOfHeights += delta * height;
+        mSumOfSquaredHeights += delta * (long) height * height;
+        int[] tree = mTrees[experience];
+        for (int i = height + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+        mNumberOfPlayers += delta;
+        if (experience == EXPERIENCED) {
+            mNumberOfExperiencedPlayers += delta;
+        }
+    }
+
+    // trees are rebuilt from counts in O(H), bound is at least doubled, so
+    // it happens only few times
+    private void grow(int minimumBound) {
+        int bound = Math.max(2 * getHeightBound(), minimumBound);
+        for (int experience = 0; experience < 2; experience++) {
+            int[] counts = Arrays.copyOf(mCounts[experience], bound);
+            int[] tree = new int[bound + 1];
+            for (int i = 1; i <= bound; i++) {
+                tree[i] += counts[i - 1];
+                int parent = i + (i & -i);
+                if (parent <= bound) {
+                    tree[parent] += tree[i];
+                }
+            }
+            mCounts[experience] = counts;
+            mTrees[experience] = tree;
+        }
+    }
+
+    // all heights in index are less than this bound
+    public int getHeightBound() {
+        return mCounts[0].length;
+    }
+
+    public int getNumberOfPlayers() {
+        return mNumberOfPlayers;
+    }
+
+    public int getNumberOfExperiencedPlayers() {
+        return mNumberOfExperiencedPlayers;
+    }
+
+    // number of players with height less than given one, in one tree
+    private int countBelow(int experience, int height) {
+        int[] tree = mTrees[experience];
+        int count = 0;
+        for (int i = Math.min(height, tree.length - 1); i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private int countInRange(int experience, int minHeight, int maxHeight) {
+        if (maxHeight < minHeight || maxHeight < 0) {
+            return 0;
+        }
+        return countBelow(experience, maxHeight + 1)
+                - countBelow(experience, Math.max(0, minHeight));
+    }
+
+    // @return number of players of given height and experience, O(1)
+    public int countPlayersWithHeight(int height, boolean isExperienced) {
+        if (height < 0 || height >= getHeightBound()) {
+            return 0;
+        }
+        return mCounts[isExperienced ? EXPERIENCED : BEGINNER][height];
+    }
+
+    // @return number of players of given height, O(1)
+    public int countPlayersWithHeight(int height) {
+        return countPlayersWithHeight(height, true)
+                + countPlayersWithHeight(height, false);
+    }
+
+    // height of player with given rank, when players are sorted by height:
+    // descent over both trees at once, O(log H)
+    // @param rank - from 1 to number of players
+    // @return height in inches, or -1 if there is no such rank
+    public int getHeightOfRank(int rank) {
+        if (rank < 1 || rank > mNumberOfPlayers) {
+            return -1;
+        }
+        int[] experiencedTree = mTrees[EXPERIENCED];
+        int[] beginnerTree = mTrees[BEGINNER];
+        // players with height less than position are fewer than rank
+        int position = 0;
+        for (int step = Integer.highestOneBit(experiencedTree.length - 1);
+             step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < experiencedTree.length) {
+                int count = experiencedTree[next] + beginnerTree[next];
+                if (count < rank) {
+                    position = next;
+                    rank -= count;
+                }
+            }
+        }
+        return position;
+    }
+
+    // @return min height of players, or -1 if there are no players
+    public int getMinHeight() {
+        return getHeightOfRank(1);
+    }
+
+    // @return max height of players, or -1 if there are no players
+    public int getMaxHeight() {
+        return getHeightOfRank(mNumberOfPlayers);
+    }
+
+    public int getNumberOfDistinctHeights() {
+        return mNumberOfDistinctHeights;
+    }
+
+    // count, mean and variance of heights, new object made from sums, O(1)
+    public RunningStatistics getHeightStatistics() {
+        if (mNumberOfPlayers == 0) {
+            return new RunningStatistics();
+        }
+        double mean = (double) mSumOfHeights / mNumberOfPlayers;
+        return new RunningStatistics(mNumberOfPlayers, mean,
+                Math.max(0, mSumOfSquaredHeights - mSumOfHeights * mean));
+    }
+
+    // live read only view: height to number of players this high, sorted
+    // by height, with heights having at least one player
+    public Map<Integer, Integer> asMap() {
+        return mMapView;
+    }
+
+    private class MapView extends AbstractMap<Integer, Integer> {
+        @Override
+        public int size() {
+            return mNumberOfDistinctHeights;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            if (!(key instanceof Integer)) {
+                return null;
+            }
+            int count = countPlayersWithHeight((Integer) key);
+            return count == 0 ? null : count;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Entry<Integer, Integer>> entrySet() {
+            return new AbstractSet<Entry<Integer, Integer>>() {
+                @Override
+                public int size() {
+                    return mNumberOfDistinctHeights;
+                }
+
+                @Override
+                public Iterator<Entry<Integer, Integer>> iterator() {
+                    return new Iterator<Entry<Integer, Integer>>() {
+                        private int mNextHeight = findHeightFrom(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return mNextHeight >= 0;
+                        }
+
+                        @Override
+                        public Entry<Integer, Integer> next() {
+                            if (mNextHeight < 0) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<Integer, Integer> entry =
+                                    new SimpleImmutableEntry<>(mNextHeight,
+                                            countPlayersWithHeight(mNextHeight));
+                            mNextHeight = findHeightFrom(mNextHeight + 1);
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    // @return first height from given one with players, or -1
+    private int findHeightFrom(int height) {
+        for (int i = height; i < getHeightBound(); i++) {
+            if (countPlayersWithHeight(i) > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // prefix sum: number of players not higher than given height
+    public int countPlayersUpToHeight(int maxHeight) {
+        return countPlayersWithHeightBetween(0, maxHeight);
+    }
+
+    // @return number of players from minHeight to maxHeight inclusive,
+    //         0 if minHeight is more than maxHeight
+    public int countPlayersWithHeightBetween(int minHeight, int maxHeight) {
+        return countInRange(EXPERIENCED, minHeight, maxHeight)
+                + countInRange(BEGINNER, minHeight, maxHeight);
+    }
+
+    // @return number of experienced players from minHeight to maxHeight
+    //         inclusive
+    public int countExperiencedPlayersWithHeightBetween(int minHeight,
+                                                        int maxHeight) {
+        return countInRange(EXPERIENCED, minHeight, maxHeight);
+    }
+}
@@ -0,0 +1,150 @@
+package com.teamtreehouse.model;
+
+import java.util.Arrays;
+
+// Mergeable sketch of height distribution with bounded memory, for height
+// percentiles (p10, p50, p90) of teams and whole league.
+// Heights are non-negative whole inches, so instead of t-digest or KLL,
+// that can't forget values when players leave team, sketch is histogram of
+// at most NUMBER_OF_BUCKETS buckets of the same width: bucket i keeps number
+// of players from i * width to (i + 1) * width - 1 inches high. Width is 1
+// while heights fit, so percentiles are exact for real heights. When taller
+// player comes, width is doubled and pairs of buckets are merged, so memory
+// never grows, and percentile error is less than bucket width.
+// Sketch doesn't keep exact heights, so after tall player is removed, width
+// can't be narrowed back from buckets. Owners with exact counts make sketch
+// with of(HeightIndex) instead, with width for current max height: Team
+// does that, so its sketch is exact again when tall player leaves.
+// - add() and remove() are O(1), apart from rare doubling of width
+// - of() is O(max height)
+// - merge() is O(NUMBER_OF_BUCKETS), so league summary made from sketches of
+//   teams takes time proportional to number of teams, not players
+public class HeightSketch {
+    public static final int NUMBER_OF_BUCKETS = 128;
+
+    private final long[] mCounts = new long[NUMBER_OF_BUCKETS];
+    private int mBucketWidth = 1;
+    private long mNumberOfPlayers;
+
+    public HeightSketch() {
+    }
+
+    // copy, so that sketch can be given away without being changed
+    public HeightSketch(HeightSketch other) {
+        System.arraycopy(other.mCounts, 0, mCounts, 0, NUMBER_OF_BUCKETS);
+        mBucketWidth = other.mBucketWidth;
+        mNumberOfPlayers = other.mNumberOfPlayers;
+    }
+
+    // sketch of players in index, with the narrowest width, that fits
+    // their max height
+    public static HeightSketch of(HeightIndex heightIndex) {
+        HeightSketch heightSketch = new HeightSketch();
+        int maxHeight = heightIndex.getMaxHeight();
+        while ((long) maxHeight
+                >= (long) heightSketch.mBucketWidth * NUMBER_OF_BUCKETS) {
+            heightSketch.mBucketWidth *= 2;
+        }
+        for (int height = 0; height <= maxHeight; height++) {
+            heightSketch.mCounts[height / heightSketch.mBucketWidth] +=
+                    heightIndex.countPlayersWithHeight(height);
+        }
+        heightSketch.mNumberOfPlayers = heightIndex.getNumberOfPlayers();
+        return heightSketch;
+    }
+
+    // @throws IllegalArgumentException if height is negative
+    public void add(int height) {
+        if (height < 0) {
+            throw new IllegalArgumentException("Height can't be negative");
+        }
+        while ((long) height >= (long) mBucketWidth * NUMBER_OF_BUCKETS) {
+            doubleBucketWidth();
+        }
+        mCounts[height / mBucketWidth]++;
+        mNumberOfPlayers++;
+    }
+
+    // height is expected to be added before
+    // @throws IllegalStateException if there is no player of this height
+    public void remove(int height) {
+        int bucket = height < 0 ? -1 : height / mBucketWidth;
+        if (bucket < 0 || bucket >= NUMBER_OF_BUCKETS || mCounts[bucket] == 0) {
+            throw new IllegalStateException(
+                    "There are no players " + height + " inches high");
+        }
+        mCounts[bucket]--;
+        mNumberOfPlayers--;
+        // nothing is left to merge, so sketch is exact again
+        if (mNumberOfPlayers == 0) {
+            mBucketWidth = 1;
+        }
+    }
+
+    // adds all players of other sketch to this one, other is not changed
+    public void merge(HeightSketch other) {
+        while (mBucketWidth < other.mBucketWidth) {
+            doubleBucketWidth();
+        }
+        int bucketsPerOtherBucket = mBucketWidth / other.mBucketWidth;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            mCounts[i / bucketsPerOtherBucket] += other.mCounts[i];
+        }
+        mNumberOfPlayers += other.mNumberOfPlayers;
+    }
+
+    private void doubleBucketWidth() {
+        for (int i = 0; i < NUMBER_OF_BUCKETS / 2; i++) {
+            mCounts[i] = mCounts[2 * i] + mCounts[2 * i + 1];
+        }
+        Arrays.fill(mCounts, NUMBER_OF_BUCKETS / 2, NUMBER_OF_BUCKETS, 0);
+        mBucketWidth *= 2;
+    }
+
+    public long getNumberOfPlayers() {
+        return mNumberOfPlayers;
+    }
+
+    // percentile is at most this far from the exact one, 0 when exact
+    public int getMaxError() {
+        return mBucketWidth - 1;
+    }
+
+    // height, that fraction of players is not higher than: "nearest rank"
+    // percentile. In bucket wider than one inch, heights are taken as
+    // evenly spread over bucket
+    // @param fraction - from 0 to 1, e.g. 0.9 for p90
+    // @return height in inches, or -1 if there are no players
+    // @throws IllegalArgumentException if fraction is not from 0 to 1
+    public int getPercentile(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException(
+                    "Fraction should be from 0 to 1: " + fraction);
+        }
+        if (mNumberOfPlayers == 0) {
+            return -1;
+        }
+        // 1-based rank of player with wanted height
+        long rank = Math.max(1, (long) Math.ceil(fraction * mNumberOfPlayers));
+        long playersBefore = 0;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            if (playersBefore + mCounts[i] >= rank) {
+                long rankInBucket = rank - playersBefore - 1;
+                return i * mBucketWidth
+                        + (int) (rankInBucket * mBucketWidth / mCounts[i]);
+            }
+            playersBefore += mCounts[i];
+        }
+        throw new IllegalStateException("Counts of sketch are broken");
+    }
+
+    @Override
+    public String toString() {
+        if (mNumberOfPlayers == 0) {
+            return "no players";
+        }
+        return String.format("p10: %d, p50: %d, p90: %d%s",
+                getPercentile(0.1), getPercentile(0.5), getPercentile(0.9),
+                mBucketWidth == 1 ? "" : " (+-" + getMaxError() + ")");
+    }
+}
@@ -0,0 +1,22 @@
+package com.teamtreehouse.model;
+
+import java.util.Set;
+
+// Sorted Set, where element can be picked by its position, and position of
+// element can be found. Is used in prompters, where user picks objects by
+// ids: id is position plus one. Implemented by RankedTreeSet on heap, and by
+// OffHeapPlayerSet for players kept out of heap
+public interface IndexedSet<E> extends Set<E> {
+    // returns element at given position in sorted order, starting from zero
+    // @throws IndexOutOfBoundsException if index is not in 0..size()-1
+    E get(int index);
+
+    // returns position of element in sorted order, starting from zero
+    // @return index of element, or -1 if there is no such element
+    int rankOf(Object object);
+
+    // returns number of elements less than given object, that is position
+    // of first element not less than it. Object doesn't have to be in set,
+    // so range of elements from one bound to another is found by two calls
+    int countLessThan(Object object);
+}
@@ -0,0 +1,216 @@
+package com.teamtreehouse.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Height and experience distributions of all teams and of whole league,
+// computed before anything is printed, so that prompter renders report in
+// one pass. For big leagues teams are split between threads of ForkJoinPool:
+// each task takes copies of distributions of its teams and sums them to
+// league totals, totals of halves are merged on join.
+// Leagues with less than SEQUENTIAL_THRESHOLD teams, or parallelism of 1,
+// are computed in calling thread, threads are not worth it there.
+// Distributions of teams can be taken from ReportCache, then only teams
+// changed since last report are copied again.
+// Teams should not be changed while report is computed
+public class LeagueReport {
+    // type of cached distributions of team in ReportCache
+    public static final String DISTRIBUTION_REPORT_TYPE = "distribution";
+
+    // leagues with less teams are computed sequentially, also it is the
+    // number of teams, that one task computes without splitting
+    public static final int SEQUENTIAL_THRESHOLD = 64;
+    // system property with default parallelism, e.g. -Dleague.parallelism=4
+    public static final String PARALLELISM_PROPERTY = "league.parallelism";
+
+    // one shared pool for each parallelism, that was asked for, made on
+    // first report: threads are not started again for every report. Threads
+    // of ForkJoinPool are daemons, so pools don't keep application running
+    private static final ConcurrentMap<Integer, ForkJoinPool> FORK_JOIN_POOLS =
+            new ConcurrentHashMap<>();
+
+    private final List<TeamDistribution> mTeamDistributions;
+    private final Map<Integer,Integer> mLeagueHeights;
+    private final Map<String,Integer> mLeagueExperience;
+
+    // distributions of one team, copied, so they don't change with team
+    public static class TeamDistribution {
+        private final Team mTeam;
+        private final Map<Integer,Integer> mHeights;
+        private final Map<String,Integer> mExperience;
+
+        private TeamDistribution(Team team) {
+            mTeam = team;
+            mHeights = Collections.unmodifiableMap(new TreeMap<>(
+                    team.getMapOfNumberOfPlayersWithSpecificHeight()));
+            mExperience = Collections.unmodifiableMap(new TreeMap<>(
+                    team.getMapOfPlayersWithDifferentExperience()));
+        }
+
+        public Team getTeam() {
+            return mTeam;
+        }
+
+        // height to # of players this high, sorted by height
+        public Map<Integer,Integer> getHeights() {
+            return mHeights;
+        }
+
+        // 'Beginner' and 'Experienced' to # of players
+        public Map<String,Integer> getExperience() {
+            return mExperience;
+        }
+    }
+
+    // league totals of part of teams, merged when tasks are joined
+    private static class Totals {
+        private final TreeMap<Integer,Integer> mHeights = new TreeMap<>();
+        private final TreeMap<String,Integer> mExperience = new TreeMap<>();
+
+        private void add(TeamDistribution teamDistribution) {
+            addAll(teamDistribution.getHeights(), teamDistribution.getExperience());
+        }
+
+        private void add(Totals other) {
+            addAll(other.mHeights, other.mExperience);
+        }
+
+        private void addAll(Map<Integer,Integer> heights,
+                            Map<String,Integer> experience) {
+            heights.forEach((height, count) ->
+                    mHeights.merge(height, count, Integer::sum));
+            experience.forEach((level, count) ->
+                    mExperience.merge(level, count, Integer::sum));
+        }
+    }
+
+    // computes distributions of teams [from, to), each task writes to its
+    // own part of array, so only totals have to be merged
+    private static class DistributionTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final Team[] mTeams;
+        private final TeamDistribution[] mTeamDistributions;
+        private final ReportCache mReportCache;
+        private final int mFrom;
+        private final int mTo;
+
+        private DistributionTask(Team[] teams,
+                                 TeamDistribution[] teamDistributions,
+                                 ReportCache reportCache, int from, int to) {
+            mTeams = teams;
+            mTeamDistributions = teamDistributions;
+            mReportCache = reportCache;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (mTo - mFrom <= SEQUENTIAL_THRESHOLD) {
+                return computeSequentially(mTeams, mTeamDistributions,
+                        mReportCache, mFrom, mTo);
+            }
+            int middle = (mFrom + mTo) >>> 1;
+            DistributionTask left = new DistributionTask(
+                    mTeams, mTeamDistributions, mReportCache, mFrom, middle);
+            left.fork();
+            Totals totals = new DistributionTask(
+                    mTeams, mTeamDistributions, mReportCache, middle, mTo)
+                    .compute();
+            totals.add(left.join());
+            return totals;
+        }
+    }
+
+    private static Totals computeSequentially(
+            Team[] teams, TeamDistribution[] teamDistributions,
+            ReportCache reportCache, int from, int to) {
+        Totals totals = new Totals();
+        for (int i = from; i < to; i++) {
+            teamDistributions[i] = distributionOf(teams[i], reportCache);
+            totals.add(teamDistributions[i]);
+        }
+        return totals;
+    }
+
+    // @param reportCache - cache of distributions, or null
+    private static TeamDistribution distributionOf(Team team,
+                                                   ReportCache reportCache) {
+        if (reportCache == null) {
+            return new TeamDistribution(team);
+        }
+        return reportCache.get(DISTRIBUTION_REPORT_TYPE, team,
+                team.getVersion(), () -> new TeamDistribution(team));
+    }
+
+    private LeagueReport(TeamDistribution[] teamDistributions, Totals totals) {
+        mTeamDistributions =
+                Collections.unmodifiableList(Arrays.asList(teamDistributions));
+        mLeagueHeights = Collections.unmodifiableMap(totals.mHeights);
+        mLeagueExperience = Collections.unmodifiableMap(totals.mExperience);
+    }
+
+    // parallelism from PARALLELISM_PROPERTY, or number of processors
+    public static int getDefaultParallelism() {
+        return Math.max(1, Integer.getInteger(PARALLELISM_PROPERTY,
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    public static LeagueReport compute(Collection<Team> teams) {
+        return compute(teams, getDefaultParallelism());
+    }
+
+    // teams are kept in the same order in report
+    // @param parallelism - number of threads, 1 for sequential computation
+    // @throws IllegalArgumentException if parallelism is less than 1
+    public static LeagueReport compute(Collection<Team> teams, int parallelism) {
+        return compute(teams, parallelism, null);
+    }
+
+    // @param reportCache - distributions of teams not changed since they
+    //                      were cached are taken from here, can be null
+    public static LeagueReport compute(Collection<Team> teams, int parallelism,
+                                       ReportCache reportCache) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "Parallelism should be at least 1: " + parallelism);
+        }
+        Team[] teamsArray = teams.toArray(new Team[teams.size()]);
+        TeamDistribution[] teamDistributions =
+                new TeamDistribution[teamsArray.length];
+        if (parallelism == 1 || teamsArray.length < SEQUENTIAL_THRESHOLD) {
+            return new LeagueReport(teamDistributions, computeSequentially(
+                    teamsArray, teamDistributions, reportCache,
+                    0, teamsArray.length));
+        }
+        ForkJoinPool forkJoinPool =
+                FORK_JOIN_POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+        Totals totals = forkJoinPool.invoke(new DistributionTask(
+                teamsArray, teamDistributions, reportCache,
+                0, teamsArray.length));
+        return new LeagueReport(teamDistributions, totals);
+    }
+
+    public List<TeamDistribution> getTeamDistributions() {
+        return mTeamDistributions;
+    }
+
+    // height to # of players this high in all teams, sorted by height
+    public Map<Integer,Integer> getLeagueHeights() {
+        return mLeagueHeights;
+    }
+
+    // 'Beginner' and 'Experienced' to # of players in all teams
+    public Map<String,Integer> getLeagueExperience() {
+        return mLeagueExperience;
+    }
+}
@@ -0,0 +1,75 @@
+package com.teamtreehouse.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded cache: when there are more than maximum size entries, least
+// recently used one is removed. Counts hits and misses. Is thread safe,
+// because get() also changes order of entries
+public class LruCache<K, V> {
+    private final int mMaximumSize;
+    private final Map<K, V> mEntries;
+    private long mNumberOfHits;
+    private long mNumberOfMisses;
+
+    public LruCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(
+                    "Maximum size of cache should be positive");
+        }
+        mMaximumSize = maximumSize;
+        // access order: get() moves entry to the end
+        mEntries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > mMaximumSize;
+            }
+        };
+    }
+
+    // @return cached value, or null if there is no such key. Counts hit or
+    //         miss
+    public synchronized V get(K key) {
+        V value = mEntries.get(key);
+        if (value != null) {
+            mNumberOfHits++;
+        } else {
+            mNumberOfMisses++;
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        mEntries.put(key, value);
+    }
+
+    public synchronized void remove(K key) {
+        mEntries.remove(key);
+    }
+
+    public synchronized void clear() {
+        mEntries.clear();
+    }
+
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    public int getMaximumSize() {
+        return mMaximumSize;
+    }
+
+    public synchronized long getNumberOfHits() {
+        return mNumberOfHits;
+    }
+
+    public synchronized long getNumberOfMisses() {
+        return mNumberOfMisses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d of %d entries, %d hits, %d misses",
+                mEntries.size(), mMaximumSize, mNumberOfHits, mNumberOfMisses);
+    }
+}
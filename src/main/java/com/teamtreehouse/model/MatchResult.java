@@ -0,0 +1,47 @@
+package com.teamtreehouse.model;
+
+// final score of one game, see Standings
+public class MatchResult {
+    private final Team mHomeTeam;
+    private final Team mAwayTeam;
+    private final int mHomeGoals;
+    private final int mAwayGoals;
+
+    // @throws IllegalArgumentException if team plays itself or number of
+    //         goals is negative
+    public MatchResult(Team homeTeam, Team awayTeam,
+                       int homeGoals, int awayGoals) {
+        if (homeTeam.equals(awayTeam)) {
+            throw new IllegalArgumentException("Team can't play itself");
+        }
+        if (homeGoals < 0 || awayGoals < 0) {
+            throw new IllegalArgumentException("Goals can't be negative");
+        }
+        mHomeTeam = homeTeam;
+        mAwayTeam = awayTeam;
+        mHomeGoals = homeGoals;
+        mAwayGoals = awayGoals;
+    }
+
+    public Team getHomeTeam() {
+        return mHomeTeam;
+    }
+
+    public Team getAwayTeam() {
+        return mAwayTeam;
+    }
+
+    public int getHomeGoals() {
+        return mHomeGoals;
+    }
+
+    public int getAwayGoals() {
+        return mAwayGoals;
+    }
+
+    @Override
+    public String toString() {
+        return "'" + mHomeTeam.getName() + "' " + mHomeGoals + " - " +
+                mAwayGoals + " '" + mAwayTeam.getName() + "'";
+    }
+}
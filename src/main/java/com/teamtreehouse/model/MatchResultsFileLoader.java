@@ -0,0 +1,122 @@
+package com.teamtreehouse.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+// Loads match results from CSV file, each line is:
+//     homeTeam,awayTeam,homeGoals,awayGoals
+// Teams are looked up by name in TeamRegistry, case matters. First line
+// can be a header, it is skipped. Lines with unknown teams, team playing
+// itself or bad goals are skipped and counted in Report.
+// File is read line by line and each result is passed to consumer right
+// away, e.g. Standings.add(), so whole file is never kept in memory
+public class MatchResultsFileLoader {
+    private static final int NUMBER_OF_FIELDS = 4;
+
+    // Statistics of one load() call
+    public static class Report {
+        private final long mNumberOfResults;
+        private final long mNumberOfRejectedRows;
+        private final long mElapsedNanos;
+
+        Report(long numberOfResults, long numberOfRejectedRows,
+               long elapsedNanos) {
+            mNumberOfResults = numberOfResults;
+            mNumberOfRejectedRows = numberOfRejectedRows;
+            mElapsedNanos = elapsedNanos;
+        }
+
+        public long getNumberOfResults() {
+            return mNumberOfResults;
+        }
+
+        public long getNumberOfRejectedRows() {
+            return mNumberOfRejectedRows;
+        }
+
+        public long getElapsedNanos() {
+            return mElapsedNanos;
+        }
+
+        public double getResultsPerSecond() {
+            if (mElapsedNanos == 0) {
+                return 0;
+            }
+            return mNumberOfResults * 1e9 / mElapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d results loaded (%d rows rejected) " +
+                            "in %.3f s: %.0f results/s",
+                    mNumberOfResults, mNumberOfRejectedRows,
+                    mElapsedNanos / 1e9, getResultsPerSecond());
+        }
+    }
+
+    // @throws IOException if file can't be read
+    public Report load(Path path, TeamRegistry teamRegistry,
+                       Consumer<MatchResult> consumer) throws IOException {
+        long startNanos = System.nanoTime();
+        long numberOfResults = 0;
+        long numberOfRejectedRows = 0;
+        boolean isFirstLine = true;
+        try (BufferedReader reader =
+                     Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                MatchResult matchResult = parseLine(line, teamRegistry);
+                if (matchResult != null) {
+                    consumer.accept(matchResult);
+                    numberOfResults++;
+                } else if (!isFirstLine) {
+                    // first line that is not a result is a header
+                    numberOfRejectedRows++;
+                }
+                isFirstLine = false;
+            }
+        }
+        return new Report(numberOfResults, numberOfRejectedRows,
+                System.nanoTime() - startNanos);
+    }
+
+    // @return result or null, if line is malformed
+    private MatchResult parseLine(String line, TeamRegistry teamRegistry) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != NUMBER_OF_FIELDS) {
+            return null;
+        }
+        Team homeTeam = teamRegistry.getByName(fields[0].trim());
+        Team awayTeam = teamRegistry.getByName(fields[1].trim());
+        int homeGoals = parseGoals(fields[2].trim());
+        int awayGoals = parseGoals(fields[3].trim());
+        if (homeTeam == null || awayTeam == null || homeTeam.equals(awayTeam)
+                || homeGoals < 0 || awayGoals < 0) {
+            return null;
+        }
+        return new MatchResult(homeTeam, awayTeam, homeGoals, awayGoals);
+    }
+
+    // @return goals, or -1 if field is not a small number
+    private static int parseGoals(String field) {
+        if (field.isEmpty() || field.length() > 3) {
+            return -1;
+        }
+        int goals = 0;
+        for (int i = 0; i < field.length(); i++) {
+            char character = field.charAt(i);
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+            goals = goals * 10 + (character - '0');
+        }
+        return goals;
+    }
+}
@@ -0,0 +1,50 @@
+package com.teamtreehouse.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Dictionary encoding of names: each distinct name is stored once and gets
+// int code 0, 1, 2 ... in order of first appearance. There are a lot of
+// players named "Joe" and "Smith", so columns keep codes instead of Strings
+public class NameDictionary {
+    public static final int NO_CODE = -1;
+
+    private final Map<String, Integer> mCodesByName = new HashMap<>();
+    private String[] mNamesByCode = new String[16];
+    private int mSize;
+
+    // @return code of name, new code is created if name is not in dictionary
+    public int encode(String name) {
+        Integer code = mCodesByName.get(name);
+        if (code != null) {
+            return code;
+        }
+        if (mSize == mNamesByCode.length) {
+            mNamesByCode = Arrays.copyOf(mNamesByCode, 2 * mSize);
+        }
+        mNamesByCode[mSize] = name;
+        mCodesByName.put(name, mSize);
+        return mSize++;
+    }
+
+    // @return code of name, or NO_CODE if name is not in dictionary
+    public int codeOf(String name) {
+        Integer code = mCodesByName.get(name);
+        return code == null ? NO_CODE : code;
+    }
+
+    // @return name with given code, the same String object every time
+    public String decode(int code) {
+        if (code < 0 || code >= mSize) {
+            throw new IndexOutOfBoundsException(
+                    "Code: " + code + ", Size: " + mSize);
+        }
+        return mNamesByCode[code];
+    }
+
+    // number of distinct names
+    public int size() {
+        return mSize;
+    }
+}
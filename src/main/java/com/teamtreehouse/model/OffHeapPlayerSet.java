@@ -0,0 +1,274 @@
+package com.teamtreehouse.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+// Mutable set of players of some PlayerStore, where set itself is kept out
+// of heap. Ids of players in store are already in Player.compareTo() order,
+// so set is just a bitmap over ids in direct buffer:
+// - add(), remove(), contains(): find id in store and flip one bit
+// - iteration: walk set bits, players are taken from store on demand
+// - get(index) and rankOf(): Fenwick tree over number of set bits in each
+//   64 bit word of bitmap, also in direct buffer, gives O(log n)
+// Heap footprint does not depend on number of players
+public class OffHeapPlayerSet extends AbstractSet<Player>
+        implements IndexedSet<Player> {
+    private final PlayerStore mPlayerStore;
+    private final int mNumberOfWords;
+    // bit id is set if player with this id is in set
+    private final LongBuffer mBitmap;
+    // Fenwick tree, 1-based: mWordCounts[i] keeps sum of bit counts of
+    // words (i - lowestOneBit(i), i]
+    private final IntBuffer mWordCounts;
+    private int mSize;
+    private int mModificationCount;
+
+    // @param isFull - if true, set has all players of store, otherwise empty
+    public OffHeapPlayerSet(PlayerStore playerStore, boolean isFull) {
+        mPlayerStore = playerStore;
+        mNumberOfWords = (playerStore.size() + 63) >>> 6;
+        mBitmap = ByteBuffer.allocateDirect(8 * mNumberOfWords)
+                .order(ByteOrder.nativeOrder()).asLongBuffer();
+        mWordCounts = ByteBuffer.allocateDirect(4 * (mNumberOfWords + 1))
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        if (isFull) {
+            fill();
+        }
+    }
+
+    // sets all bits and builds Fenwick tree in O(n)
+    private void fill() {
+        int numberOfPlayers = mPlayerStore.size();
+        for (int word = 0; word < mNumberOfWords; word++) {
+            int bitsInWord = Math.min(64, numberOfPlayers - 64 * word);
+            mBitmap.put(word, bitsInWord == 64 ? -1L : (1L << bitsInWord) - 1);
+            mWordCounts.put(word + 1, bitsInWord);
+        }
+        for (int i = 1; i <= mNumberOfWords; i++) {
+            int parent = i + (i & -i);
+            if (parent <= mNumberOfWords) {
+                mWordCounts.put(parent,
+                        mWordCounts.get(parent) + mWordCounts.get(i));
+            }
+        }
+        mSize = numberOfPlayers;
+        mModificationCount++;
+    }
+
+    public PlayerStore getPlayerStore() {
+        return mPlayerStore;
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    private boolean isSet(int id) {
+        return (mBitmap.get(id >>> 6) & (1L << id)) != 0;
+    }
+
+    // flips bit of id and updates Fenwick tree with +1 or -1
+    private void flip(int id, int delta) {
+        int word = id >>> 6;
+        mBitmap.put(word, mBitmap.get(word) ^ (1L << id));
+        for (int i = word + 1; i <= mNumberOfWords; i += i & -i) {
+            mWordCounts.put(i, mWordCounts.get(i) + delta);
+        }
+        mSize += delta;
+        mModificationCount++;
+    }
+
+    // @return id of player in store, or -1 if it is not there
+    private int idOf(Object object) {
+        if (!(object instanceof Player)) {
+            return -1;
+        }
+        return mPlayerStore.indexOf((Player) object);
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        int id = idOf(object);
+        return id >= 0 && isSet(id);
+    }
+
+    // only players from store can be added
+    // @throws IllegalArgumentException if there is no such player in store
+    @Override
+    public boolean add(Player player) {
+        int id = idOf(player);
+        if (id < 0) {
+            throw new IllegalArgumentException(
+                    "Player" + player + " is not in players store");
+        }
+        if (isSet(id)) {
+            return false;
+        }
+        flip(id, 1);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        int id = idOf(object);
+        if (id < 0 || !isSet(id)) {
+            return false;
+        }
+        flip(id, -1);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (int word = 0; word < mNumberOfWords; word++) {
+            mBitmap.put(word, 0L);
+            mWordCounts.put(word + 1, 0);
+        }
+        mSize = 0;
+        mModificationCount++;
+    }
+
+    // number of players in words [0, word)
+    private int countBeforeWord(int word) {
+        int count = 0;
+        for (int i = word; i > 0; i -= i & -i) {
+            count += mWordCounts.get(i);
+        }
+        return count;
+    }
+
+    @Override
+    public int rankOf(Object object) {
+        int id = idOf(object);
+        if (id < 0 || !isSet(id)) {
+            return -1;
+        }
+        int word = id >>> 6;
+        long lowerBits = mBitmap.get(word) & ((1L << id) - 1);
+        return countBeforeWord(word) + Long.bitCount(lowerBits);
+    }
+
+    // binary search with get(), player can be not in store.
+    // O(log^2 n), and O(log n) players are taken from store
+    @Override
+    public int countLessThan(Object object) {
+        Player player = (Player) object;
+        int low = 0;
+        int high = mSize;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (get(middle).compareTo(player) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public Player get(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", Size: " + mSize);
+        }
+        // descend Fenwick tree to the word, having index-th set bit
+        int word = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(mNumberOfWords); step > 0;
+             step >>>= 1) {
+            int next = word + step;
+            if (next <= mNumberOfWords && mWordCounts.get(next) <= remaining) {
+                word = next;
+                remaining -= mWordCounts.get(next);
+            }
+        }
+        long bits = mBitmap.get(word);
+        for (int i = 0; i < remaining; i++) {
+            bits &= bits - 1;
+        }
+        return mPlayerStore.get(64 * word + Long.numberOfTrailingZeros(bits));
+    }
+
+    // @return first id in set, that is more or equal to fromId, or -1
+    private int nextId(int fromId) {
+        int word = fromId >>> 6;
+        if (word >= mNumberOfWords) {
+            return -1;
+        }
+        long bits = mBitmap.get(word) & (-1L << fromId);
+        while (bits == 0) {
+            word++;
+            if (word == mNumberOfWords) {
+                return -1;
+            }
+            bits = mBitmap.get(word);
+        }
+        return 64 * word + Long.numberOfTrailingZeros(bits);
+    }
+
+    // ids of players in set, in order. Is split by words of bitmap, so it
+    // can be used in parallel; no Player objects are made. Set should not be
+    // changed while stream is used
+    public IntStream ids() {
+        return IntStream.range(0, mNumberOfWords)
+                .filter(word -> mBitmap.get(word) != 0)
+                .flatMap(word -> {
+                    long bits = mBitmap.get(word);
+                    int[] ids = new int[Long.bitCount(bits)];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = 64 * word + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                    }
+                    return IntStream.of(ids);
+                });
+    }
+
+    @Override
+    public Iterator<Player> iterator() {
+        return new Iterator<Player>() {
+            private int mNextId = nextId(0);
+            private int mLastReturnedId = -1;
+            private int mExpectedModificationCount = mModificationCount;
+
+            @Override
+            public boolean hasNext() {
+                return mNextId >= 0;
+            }
+
+            @Override
+            public Player next() {
+                if (mExpectedModificationCount != mModificationCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (mNextId < 0) {
+                    throw new NoSuchElementException();
+                }
+                mLastReturnedId = mNextId;
+                mNextId = nextId(mNextId + 1);
+                return mPlayerStore.get(mLastReturnedId);
+            }
+
+            @Override
+            public void remove() {
+                if (mLastReturnedId < 0) {
+                    throw new IllegalStateException();
+                }
+                if (mExpectedModificationCount != mModificationCount) {
+                    throw new ConcurrentModificationException();
+                }
+                flip(mLastReturnedId, -1);
+                mLastReturnedId = -1;
+                mExpectedModificationCount = mModificationCount;
+            }
+        };
+    }
+}
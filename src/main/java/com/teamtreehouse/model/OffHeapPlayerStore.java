@@ -0,0 +1,304 @@
+package com.teamtreehouse.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+// Players store for leagues with millions of players, kept out of heap, so
+// that garbage collector does not have to walk millions of Player objects:
+// - fixed width records in direct ByteBuffer: record of player with id is
+//   at id * RECORD_SIZE
+// - names in separate direct ByteBuffer - string arena, as UTF-8 bytes.
+//   Each distinct name is stored once, records keep offset and length
+// Records are sorted like Player.compareTo(): by last name, then first
+// name, comparing UTF-8 bytes. For names without characters out of Basic
+// Multilingual Plane, this is the same order as String comparison.
+// Players with the same names are stored once, like in sets.
+// Is built with Builder, Player objects are created only in get(id)
+public class OffHeapPlayerStore implements PlayerStore {
+    // first name offset, first name length, last name offset, last name
+    // length, height: ints, and experience: byte
+    public static final int RECORD_SIZE = 5 * 4 + 1;
+    private static final int FIRST_NAME_OFFSET = 0;
+    private static final int FIRST_NAME_LENGTH = 4;
+    private static final int LAST_NAME_OFFSET = 8;
+    private static final int LAST_NAME_LENGTH = 12;
+    private static final int HEIGHT = 16;
+    private static final int EXPERIENCE = 20;
+
+    private final ByteBuffer mRecords;
+    private final ByteBuffer mNames;
+    private final int mSize;
+
+    private OffHeapPlayerStore(ByteBuffer records, ByteBuffer names, int size) {
+        mRecords = records;
+        mNames = names;
+        mSize = size;
+    }
+
+    // Collects players in any order, then sorts them in build(). Buffers
+    // grow twice, when they are full. Map of distinct names is on heap only
+    // while building, its size depends on number of distinct names only
+    public static class Builder {
+        private ByteBuffer mRecords = ByteBuffer.allocateDirect(1024 * RECORD_SIZE);
+        private ByteBuffer mNames = ByteBuffer.allocateDirect(16 * 1024);
+        private final Map<String, Integer> mNameOffsets = new HashMap<>();
+        private int mSize;
+
+        public Builder add(Player player) {
+            if (mRecords.remaining() < RECORD_SIZE) {
+                mRecords = grow(mRecords, RECORD_SIZE);
+            }
+            int recordStart = mSize * RECORD_SIZE;
+            putName(recordStart + FIRST_NAME_OFFSET, player.getFirstName());
+            putName(recordStart + LAST_NAME_OFFSET, player.getLastName());
+            mRecords.putInt(recordStart + HEIGHT, player.getHeightInInches());
+            mRecords.put(recordStart + EXPERIENCE,
+                    (byte) (player.hasPreviousExperience() ? 1 : 0));
+            mRecords.position(recordStart + RECORD_SIZE);
+            mSize++;
+            return this;
+        }
+
+        // writes offset and length of name to record, adding name to arena
+        // if it is not there yet
+        private void putName(int position, String name) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            Integer offset = mNameOffsets.get(name);
+            if (offset == null) {
+                if (mNames.remaining() < bytes.length) {
+                    mNames = grow(mNames, bytes.length);
+                }
+                offset = mNames.position();
+                mNames.put(bytes);
+                mNameOffsets.put(name, offset);
+            }
+            mRecords.putInt(position, offset);
+            mRecords.putInt(position + 4, bytes.length);
+        }
+
+        private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+            long newCapacity = Math.max(2L * buffer.capacity(),
+                    (long) buffer.position() + needed);
+            if (newCapacity > Integer.MAX_VALUE) {
+                throw new IllegalStateException(
+                        "Off heap buffer can't be more than 2GB");
+            }
+            ByteBuffer grown = ByteBuffer.allocateDirect((int) newCapacity);
+            buffer.flip();
+            grown.put(buffer);
+            return grown;
+        }
+
+        // sorts records, drops players with same names, and copies records
+        // to buffer of exact size
+        public OffHeapPlayerStore build() {
+            mNameOffsets.clear();
+            OffHeapPlayerStore unsortedStore =
+                    new OffHeapPlayerStore(mRecords, mNames, mSize);
+            int[] order = new int[mSize];
+            for (int i = 0; i < mSize; i++) {
+                order[i] = i;
+            }
+            // stable, so first of players with same names is kept
+            mergeSort(order, new int[mSize], 0, mSize, unsortedStore);
+            ByteBuffer sortedRecords =
+                    ByteBuffer.allocateDirect(Math.max(1, mSize * RECORD_SIZE));
+            int numberOfUniquePlayers = 0;
+            for (int i = 0; i < mSize; i++) {
+                if (i > 0 && unsortedStore.compareRecords(
+                        order[i - 1], order[i]) == 0) {
+                    continue;
+                }
+                for (int b = 0; b < RECORD_SIZE; b++) {
+                    sortedRecords.put(numberOfUniquePlayers * RECORD_SIZE + b,
+                            mRecords.get(order[i] * RECORD_SIZE + b));
+                }
+                numberOfUniquePlayers++;
+            }
+            return new OffHeapPlayerStore(
+                    sortedRecords, mNames, numberOfUniquePlayers);
+        }
+
+        private static void mergeSort(int[] order, int[] buffer, int from,
+                                      int to, OffHeapPlayerStore store) {
+            if (to - from < 2) {
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            mergeSort(order, buffer, from, middle, store);
+            mergeSort(order, buffer, middle, to, store);
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < middle
+                        && store.compareRecords(order[left], order[right]) <= 0)) {
+                    buffer[i] = order[left++];
+                } else {
+                    buffer[i] = order[right++];
+                }
+            }
+            System.arraycopy(buffer, from, order, from, to - from);
+        }
+    }
+
+    // copies all players of other store, e.g. loaded PlayerDirectory
+    public static OffHeapPlayerStore copyOf(PlayerStore playerStore) {
+        Builder builder = new Builder();
+        for (int id = 0; id < playerStore.size(); id++) {
+            builder.add(playerStore.get(id));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= mSize) {
+            throw new IndexOutOfBoundsException(
+                    "Id: " + id + ", Size: " + mSize);
+        }
+    }
+
+    private String readName(int recordStart, int fieldOffset) {
+        int offset = mRecords.getInt(recordStart + fieldOffset);
+        int length = mRecords.getInt(recordStart + fieldOffset + 4);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = mNames.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // new Player object with id, is not cached
+    @Override
+    public Player get(int id) {
+        checkId(id);
+        int recordStart = id * RECORD_SIZE;
+        Player player = new Player(
+                readName(recordStart, FIRST_NAME_OFFSET),
+                readName(recordStart, LAST_NAME_OFFSET),
+                mRecords.getInt(recordStart + HEIGHT),
+                mRecords.get(recordStart + EXPERIENCE) != 0);
+        player.assignId(id);
+        return player;
+    }
+
+    @Override
+    public String getFirstName(int id) {
+        checkId(id);
+        return readName(id * RECORD_SIZE, FIRST_NAME_OFFSET);
+    }
+
+    @Override
+    public String getLastName(int id) {
+        checkId(id);
+        return readName(id * RECORD_SIZE, LAST_NAME_OFFSET);
+    }
+
+    @Override
+    public int getHeightInInches(int id) {
+        checkId(id);
+        return mRecords.getInt(id * RECORD_SIZE + HEIGHT);
+    }
+
+    @Override
+    public boolean hasPreviousExperience(int id) {
+        checkId(id);
+        return mRecords.get(id * RECORD_SIZE + EXPERIENCE) != 0;
+    }
+
+    // binary search by names, O(log n) comparisons without creating
+    // Strings. Id of player is checked first, it is usually right
+    @Override
+    public int indexOf(Player player) {
+        byte[] lastName = player.getLastName().getBytes(StandardCharsets.UTF_8);
+        byte[] firstName = player.getFirstName().getBytes(StandardCharsets.UTF_8);
+        int id = player.getId();
+        if (id >= 0 && id < mSize
+                && compareWithRecord(id, lastName, firstName) == 0) {
+            return id;
+        }
+        int low = 0;
+        int high = mSize - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareWithRecord(middle, lastName, firstName);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // membership of players is kept out of heap as well
+    @Override
+    public IndexedSet<Player> newPlayersSet() {
+        return new OffHeapPlayerSet(this, true);
+    }
+
+    // compares player record with given names
+    private int compareWithRecord(int id, byte[] lastName, byte[] firstName) {
+        int recordStart = id * RECORD_SIZE;
+        int comparison = compareName(recordStart + LAST_NAME_OFFSET, lastName);
+        if (comparison != 0) {
+            return comparison;
+        }
+        return compareName(recordStart + FIRST_NAME_OFFSET, firstName);
+    }
+
+    private int compareName(int position, byte[] name) {
+        int offset = mRecords.getInt(position);
+        int length = mRecords.getInt(position + 4);
+        int commonLength = Math.min(length, name.length);
+        for (int i = 0; i < commonLength; i++) {
+            int comparison = Integer.compare(mNames.get(offset + i) & 0xff,
+                    name[i] & 0xff);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, name.length);
+    }
+
+    private int compareRecords(int firstId, int secondId) {
+        int firstStart = firstId * RECORD_SIZE;
+        int secondStart = secondId * RECORD_SIZE;
+        int comparison = compareNames(firstStart + LAST_NAME_OFFSET,
+                secondStart + LAST_NAME_OFFSET);
+        if (comparison != 0) {
+            return comparison;
+        }
+        return compareNames(firstStart + FIRST_NAME_OFFSET,
+                secondStart + FIRST_NAME_OFFSET);
+    }
+
+    private int compareNames(int firstPosition, int secondPosition) {
+        int firstOffset = mRecords.getInt(firstPosition);
+        int firstLength = mRecords.getInt(firstPosition + 4);
+        int secondOffset = mRecords.getInt(secondPosition);
+        int secondLength = mRecords.getInt(secondPosition + 4);
+        if (firstOffset == secondOffset && firstLength == secondLength) {
+            // same name in arena
+            return 0;
+        }
+        int commonLength = Math.min(firstLength, secondLength);
+        for (int i = 0; i < commonLength; i++) {
+            int comparison = Integer.compare(
+                    mNames.get(firstOffset + i) & 0xff,
+                    mNames.get(secondOffset + i) & 0xff);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(firstLength, secondLength);
+    }
+}
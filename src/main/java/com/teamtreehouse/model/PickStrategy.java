@@ -0,0 +1,13 @@
+package com.teamtreehouse.model;
+
+import java.util.Comparator;
+
+// Ranking policy of team in draft: team picks the first available player in
+// order of this comparator, see DraftSimulator. Comparator should be
+// consistent with Player.equals(), e.g. end with Player.compareTo(), so that
+// different players are never equal. Teams with equal strategies share one
+// priority structure, so strategies should implement equals(), or be single
+// instances, like StandardPickStrategy
+public interface PickStrategy {
+    Comparator<Player> getOrder();
+}
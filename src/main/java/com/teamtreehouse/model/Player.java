@@ -5,10 +5,33 @@ import java.io.Serializable;
 public class Player implements Comparable<Player>, Serializable {
     private static final long serialVersionUID = 1L;
 
+    // id of player that is not loaded to any PlayerDirectory yet
+    public static final int NO_ID = -1;
+
+    // greater heights are rejected: far above any real height, it keeps
+    // arrays indexed by height, like in HeightIndex and PlayerSearchIndex,
+    // small, whatever is in registration file
+    public static final int MAX_HEIGHT_IN_INCHES = 4096;
+
+    // separates last and first name in sortKey, is less than any character
+    // in names, so that "Smith" is still sorted before "Smithson"
+    private static final char SORT_KEY_SEPARATOR = '\u0000';
+
     private String firstName;
     private String lastName;
     private int heightInInches;
 
+    // last name, separator and first name: computed once in constructor, so
+    // that compareTo() is a single String comparison
+    private final String sortKey;
+    // computed once in constructor, fields never change
+    private final int hash;
+    // dense id, assigned by PlayerDirectory when database is loaded
+    private int id = NO_ID;
+    // directory, that assigned id, null for ids of other stores. Ids of one
+    // directory follow sort order, see compareTo()
+    private transient PlayerDirectory directory;
+
     // my toString() method, shows 'experienced' if previousExperience = true,
     // and 'beginner' is previousExperience = false. The rest is autogenerated
     @Override
@@ -37,6 +60,33 @@ public class Player implements Comparable<Player>, Serializable {
         this.lastName = lastName;
         this.heightInInches = heightInInches;
         this.previousExperience = previousExperience;
+        this.sortKey = lastName + SORT_KEY_SEPARATOR + firstName;
+        this.hash = computeHashCode();
+    }
+
+    // @return id in PlayerDirectory, or NO_ID if player is not loaded
+    public int getId() {
+        return id;
+    }
+
+    // is called only by PlayerStore, player gets id once
+    void assignId(int id) {
+        if (this.id != NO_ID && this.id != id) {
+            throw new IllegalStateException("Player" + this +
+                    " already has id " + this.id);
+        }
+        this.id = id;
+    }
+
+    // is called only by PlayerDirectory, id is in sort order of directory
+    void assignId(int id, PlayerDirectory directory) {
+        assignId(id);
+        this.directory = directory;
+    }
+
+    // key used to sort players: last name then first name
+    String getSortKey() {
+        return sortKey;
     }
 
     public String getFirstName() {
@@ -63,6 +113,8 @@ public class Player implements Comparable<Player>, Serializable {
 
         Player player = (Player) o;
 
+        // different hashes: cheap int comparison rejects most players
+        if (hash != player.hash) return false;
         if (heightInInches != player.heightInInches) return false;
         if (previousExperience != player.previousExperience) return false;
         if (!firstName.equals(player.firstName)) return false;
@@ -72,6 +124,10 @@ public class Player implements Comparable<Player>, Serializable {
 
     @Override
     public int hashCode() {
+        return hash;
+    }
+
+    private int computeHashCode() {
         int result = firstName.hashCode();
         result = 31 * result + lastName.hashCode();
         result = 31 * result + heightInInches;
@@ -79,17 +135,18 @@ public class Player implements Comparable<Player>, Serializable {
         return result;
     }
 
-    // We always want to sort by last name then first name
+    // We always want to sort by last name then first name. Players of one
+    // PlayerDirectory are compared by their ids, one int comparison, others
+    // by precomputed sortKey, so it is one pass over the characters
     @Override
     public int compareTo(Player otherPlayer) {
-        if (this.equals(otherPlayer)) {
+        if (this == otherPlayer) {
             return 0;
         }
-        if (!lastName.equals(otherPlayer.getLastName())) {
-            return lastName.compareTo(otherPlayer.getLastName());
-        } else {
-            return firstName.compareTo(otherPlayer.getFirstName());
+        if (directory != null && directory == otherPlayer.directory) {
+            return directory.compareIds(id, otherPlayer.id);
         }
+        return sortKey.compareTo(otherPlayer.sortKey);
     }
 
 }
@@ -0,0 +1,207 @@
+package com.teamtreehouse.model;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Struct of arrays players store: each field of Player is kept in its own
+// primitive column, index in column is player id:
+// - heights in int[]
+// - previous experience in BitSet
+// - first and last names as int codes in NameDictionary
+// Distributions of heights and experience are computed right over the
+// columns for a selection of ids, e.g. Team.getPlayerIds(), without
+// boxing and without going through Player objects
+public class PlayerColumns implements PlayerStore {
+    private final int mSize;
+    private final int[] mHeights;
+    private final BitSet mExperience;
+    private final int[] mFirstNameCodes;
+    private final int[] mLastNameCodes;
+    // one dictionary for first and last names
+    private final NameDictionary mNames;
+
+    // copies all players of other store, e.g. loaded PlayerDirectory, to
+    // columns, ids stay the same. Fields are copied one by one, so store on
+    // disk does not have to read its records
+    public PlayerColumns(PlayerStore playerStore) {
+        mSize = playerStore.size();
+        mHeights = new int[mSize];
+        mExperience = new BitSet(mSize);
+        mFirstNameCodes = new int[mSize];
+        mLastNameCodes = new int[mSize];
+        mNames = new NameDictionary();
+        for (int id = 0; id < mSize; id++) {
+            mHeights[id] = playerStore.getHeightInInches(id);
+            mExperience.set(id, playerStore.hasPreviousExperience(id));
+            mFirstNameCodes[id] = mNames.encode(playerStore.getFirstName(id));
+            mLastNameCodes[id] = mNames.encode(playerStore.getLastName(id));
+        }
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    // lightweight view of player: names are shared dictionary Strings, so
+    // only Player object itself is created
+    @Override
+    public Player get(int id) {
+        checkId(id);
+        Player player = new Player(
+                mNames.decode(mFirstNameCodes[id]),
+                mNames.decode(mLastNameCodes[id]),
+                mHeights[id],
+                mExperience.get(id));
+        player.assignId(id);
+        return player;
+    }
+
+    @Override
+    public String getFirstName(int id) {
+        checkId(id);
+        return mNames.decode(mFirstNameCodes[id]);
+    }
+
+    @Override
+    public String getLastName(int id) {
+        checkId(id);
+        return mNames.decode(mLastNameCodes[id]);
+    }
+
+    @Override
+    public int getHeightInInches(int id) {
+        checkId(id);
+        return mHeights[id];
+    }
+
+    @Override
+    public boolean hasPreviousExperience(int id) {
+        checkId(id);
+        return mExperience.get(id);
+    }
+
+    // binary search by names, ids are in Player.compareTo() order
+    @Override
+    public int indexOf(Player player) {
+        int low = 0;
+        int high = mSize - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = mNames.decode(mLastNameCodes[middle])
+                    .compareTo(player.getLastName());
+            if (comparison == 0) {
+                comparison = mNames.decode(mFirstNameCodes[middle])
+                        .compareTo(player.getFirstName());
+            }
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // set is bitmap over ids
+    @Override
+    public IndexedSet<Player> newPlayersSet() {
+        return new OffHeapPlayerSet(this, true);
+    }
+
+    public int getFirstNameCode(int id) {
+        checkId(id);
+        return mFirstNameCodes[id];
+    }
+
+    public int getLastNameCode(int id) {
+        checkId(id);
+        return mLastNameCodes[id];
+    }
+
+    public NameDictionary getNames() {
+        return mNames;
+    }
+
+    // raw columns for compiled filters in this package, see PlayerFilter.
+    // Must not be changed
+    int[] getHeightsColumn() {
+        return mHeights;
+    }
+
+    BitSet getExperienceColumn() {
+        return mExperience;
+    }
+
+    int[] getFirstNameCodesColumn() {
+        return mFirstNameCodes;
+    }
+
+    int[] getLastNameCodesColumn() {
+        return mLastNameCodes;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= mSize) {
+            throw new IndexOutOfBoundsException(
+                    "Id: " + id + ", Size: " + mSize);
+        }
+    }
+
+    // number of players with each height among selected ids:
+    // histogram[height] = # of players this high
+    public int[] getHeightHistogram(BitSet selectedIds) {
+        int maxHeight = -1;
+        for (int id = selectedIds.nextSetBit(0); id >= 0 && id < mSize;
+             id = selectedIds.nextSetBit(id + 1)) {
+            maxHeight = Math.max(maxHeight, mHeights[id]);
+        }
+        int[] histogram = new int[maxHeight + 1];
+        for (int id = selectedIds.nextSetBit(0); id >= 0 && id < mSize;
+             id = selectedIds.nextSetBit(id + 1)) {
+            histogram[mHeights[id]]++;
+        }
+        return histogram;
+    }
+
+    // number of experienced players among selected ids
+    public int getNumberOfExperiencedPlayers(BitSet selectedIds) {
+        BitSet experiencedIds = (BitSet) selectedIds.clone();
+        experiencedIds.and(mExperience);
+        return experiencedIds.cardinality();
+    }
+
+    // same map as Team.getMapOfNumberOfPlayersWithSpecificHeight(), but
+    // computed over the columns
+    public Map<Integer,Integer> getMapOfNumberOfPlayersWithSpecificHeight(
+            BitSet selectedIds) {
+        int[] histogram = getHeightHistogram(selectedIds);
+        Map<Integer,Integer> mapOfPlayersWithSpecificHeight = new TreeMap<>();
+        for (int height = 0; height < histogram.length; height++) {
+            if (histogram[height] > 0) {
+                mapOfPlayersWithSpecificHeight.put(height, histogram[height]);
+            }
+        }
+        return Collections.unmodifiableMap(mapOfPlayersWithSpecificHeight);
+    }
+
+    // same map as Team.getMapOfPlayersWithDifferentExperience(), but
+    // computed over the columns
+    public Map<String,Integer> getMapOfPlayersWithDifferentExperience(
+            BitSet selectedIds) {
+        BitSet validIds = selectedIds.get(0, mSize);
+        int numberOfExperiencedPlayers = getNumberOfExperiencedPlayers(validIds);
+        Map<String,Integer> mapOfExperienceLevelToNumberOfPlayers =
+                new TreeMap<>();
+        mapOfExperienceLevelToNumberOfPlayers
+                .put("Experienced", numberOfExperiencedPlayers);
+        mapOfExperienceLevelToNumberOfPlayers
+                .put("Beginner",
+                        validIds.cardinality() - numberOfExperiencedPlayers);
+        return Collections.unmodifiableMap(mapOfExperienceLevelToNumberOfPlayers);
+    }
+}
@@ -0,0 +1,122 @@
+package com.teamtreehouse.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Loaded players database with dense ids: players are sorted once by
+// Player.compareTo() and get ids 0, 1, 2 ... in that order. So id can be
+// used as index in arrays, and comparing ids of two loaded players gives the
+// same order as comparing players: Player.compareTo() does that.
+// get(id) is the lookup back from id to Player
+public class PlayerDirectory implements PlayerStore {
+    private final Player[] mPlayersById;
+    // id of first player with the same names for each id, null if names of
+    // all players are different, then ids are compared directly
+    private final int[] mFirstIdsOfNames;
+
+    // sorts copy of given players and assigns ids to them
+    // @throws IllegalStateException if some player already has other id
+    public PlayerDirectory(Player[] players) {
+        mPlayersById = players.clone();
+        Arrays.sort(mPlayersById);
+        int[] firstIdsOfNames = null;
+        for (int id = 1; id < mPlayersById.length; id++) {
+            if (mPlayersById[id].getSortKey().equals(
+                    mPlayersById[id - 1].getSortKey())) {
+                if (firstIdsOfNames == null) {
+                    firstIdsOfNames = new int[mPlayersById.length];
+                    for (int i = 0; i < id; i++) {
+                        firstIdsOfNames[i] = i;
+                    }
+                }
+                firstIdsOfNames[id] = firstIdsOfNames[id - 1];
+            } else if (firstIdsOfNames != null) {
+                firstIdsOfNames[id] = id;
+            }
+        }
+        mFirstIdsOfNames = firstIdsOfNames;
+        for (int id = 0; id < mPlayersById.length; id++) {
+            mPlayersById[id].assignId(id, this);
+        }
+    }
+
+    // compares players with given ids like Player.compareTo(): players with
+    // the same names are equal
+    int compareIds(int firstId, int secondId) {
+        if (mFirstIdsOfNames == null) {
+            return Integer.compare(firstId, secondId);
+        }
+        return Integer.compare(mFirstIdsOfNames[firstId],
+                mFirstIdsOfNames[secondId]);
+    }
+
+    @Override
+    public int size() {
+        return mPlayersById.length;
+    }
+
+    // @return player with given id
+    // @throws IndexOutOfBoundsException if there is no such id
+    @Override
+    public Player get(int id) {
+        if (id < 0 || id >= mPlayersById.length) {
+            throw new IndexOutOfBoundsException(
+                    "Id: " + id + ", Size: " + mPlayersById.length);
+        }
+        return mPlayersById[id];
+    }
+
+    @Override
+    public String getFirstName(int id) {
+        return get(id).getFirstName();
+    }
+
+    @Override
+    public String getLastName(int id) {
+        return get(id).getLastName();
+    }
+
+    @Override
+    public int getHeightInInches(int id) {
+        return get(id).getHeightInInches();
+    }
+
+    @Override
+    public boolean hasPreviousExperience(int id) {
+        return get(id).hasPreviousExperience();
+    }
+
+    // O(1) for loaded player, binary search for others
+    @Override
+    public int indexOf(Player player) {
+        if (contains(player)) {
+            return player.getId();
+        }
+        int index = Arrays.binarySearch(mPlayersById, player);
+        return index >= 0 ? index : -1;
+    }
+
+    // players are already sorted, so RankedTreeSet is bulk loaded in O(n)
+    @Override
+    public IndexedSet<Player> newPlayersSet() {
+        return new RankedTreeSet<>(asList());
+    }
+
+    // true if this exact player object was loaded to this directory, O(1)
+    public boolean contains(Player player) {
+        int id = player.getId();
+        return id >= 0 && id < mPlayersById.length
+                && mPlayersById[id] == player;
+    }
+
+    // read only list of all players, sorted by id. Nothing is copied
+    public List<Player> asList() {
+        return Collections.unmodifiableList(Arrays.asList(mPlayersById));
+    }
+
+    // copy of all players, sorted by id
+    public Player[] toArray() {
+        return mPlayersById.clone();
+    }
+}
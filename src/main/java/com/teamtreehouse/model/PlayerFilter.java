@@ -0,0 +1,458 @@
+package com.teamtreehouse.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Filter of players, written like:
+//     height >= 42 and experienced and lastName startsWith "S"
+// Conditions:
+//     height >= 42, also >, <=, <, = and !=
+//     experienced, beginner
+//     firstName startsWith "Jo", lastName = "Smith"
+// joined with 'and', 'or', 'not' and parentheses. 'and' binds stronger than
+// 'or', keywords are case insensitive, names are not.
+// Expression is parsed once to tree of conditions, then compiled once per
+// run: over PlayerColumns each condition becomes small predicate over
+// player id, that reads one primitive column, e.g. name prefix becomes set
+// of dictionary codes of names with that prefix, so no String is compared
+// per player. Players without id in columns are tested with predicate over
+// Player fields, compiled from the same tree.
+// select() runs filter in parallel and stops after limit matches: 'and'
+// and 'or' stop on first false or true condition
+public class PlayerFilter {
+    private final Condition mCondition;
+    private final String mExpression;
+
+    private PlayerFilter(Condition condition, String expression) {
+        mCondition = condition;
+        mExpression = expression;
+    }
+
+    // @throws IllegalArgumentException if expression can't be parsed, with
+    //         position of error
+    public static PlayerFilter parse(String expression) {
+        Parser parser = new Parser(expression);
+        Condition condition = parser.parseOr();
+        if (parser.mPosition < parser.mTokens.size()) {
+            throw parser.error("Unexpected '" +
+                    parser.mTokens.get(parser.mPosition).mText + "'");
+        }
+        return new PlayerFilter(condition, expression.trim());
+    }
+
+    // predicate over ids of players in columns
+    public IntPredicate compile(PlayerColumns playerColumns) {
+        return mCondition.compile(playerColumns);
+    }
+
+    // predicate over Player objects, for players that are not in columns
+    public Predicate<Player> compile() {
+        return mCondition.compile();
+    }
+
+    // players, that match, in order of given players, at most limit of
+    // them. Players are tested in parallel, ids of pool out of heap are
+    // scanned without making Player objects for players that don't match
+    // @param playerColumns - columns with ids of players, or null, then
+    //                        Player fields are tested
+    public List<Player> select(Collection<Player> players,
+                               PlayerColumns playerColumns, int limit) {
+        if (playerColumns == null) {
+            return inParallel(players)
+                    .filter(compile())
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+        IntPredicate idPredicate = compile(playerColumns);
+        if (players instanceof PlayerPool && ((PlayerPool) players)
+                .getPlayersSet() instanceof OffHeapPlayerSet) {
+            OffHeapPlayerSet offHeapPlayerSet = (OffHeapPlayerSet)
+                    ((PlayerPool) players).getPlayersSet();
+            if (offHeapPlayerSet.getPlayerStore().size() == playerColumns.size()) {
+                PlayerStore playerStore = offHeapPlayerSet.getPlayerStore();
+                return offHeapPlayerSet.ids()
+                        .parallel()
+                        .filter(idPredicate)
+                        .limit(limit)
+                        .mapToObj(playerStore::get)
+                        .collect(Collectors.toList());
+            }
+        }
+        Predicate<Player> playerPredicate = compile();
+        int numberOfIds = playerColumns.size();
+        return inParallel(players)
+                .filter(player -> player.getId() >= 0
+                        && player.getId() < numberOfIds
+                        ? idPredicate.test(player.getId())
+                        : playerPredicate.test(player))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    // parallel stream of players in order of iteration: sets here are
+    // sorted, but their spliterators may not say that they are ordered, and
+    // limit() should keep first matches
+    private static Stream<Player> inParallel(Collection<Player> players) {
+        return StreamSupport.stream(
+                Spliterators.spliterator(players, Spliterator.ORDERED), true);
+    }
+
+    // expression as it was given
+    @Override
+    public String toString() {
+        return mExpression;
+    }
+
+    // node of parsed expression
+    private interface Condition {
+        IntPredicate compile(PlayerColumns playerColumns);
+
+        Predicate<Player> compile();
+    }
+
+    // height from min to max, both included. All comparisons of height
+    // are ranges, != is 'not' of range
+    private static class HeightBetween implements Condition {
+        private final int mMinHeight;
+        private final int mMaxHeight;
+
+        private HeightBetween(int minHeight, int maxHeight) {
+            mMinHeight = minHeight;
+            mMaxHeight = maxHeight;
+        }
+
+        @Override
+        public IntPredicate compile(PlayerColumns playerColumns) {
+            final int[] heights = playerColumns.getHeightsColumn();
+            final int minHeight = mMinHeight;
+            final int maxHeight = mMaxHeight;
+            return id -> heights[id] >= minHeight && heights[id] <= maxHeight;
+        }
+
+        @Override
+        public Predicate<Player> compile() {
+            return player -> player.getHeightInInches() >= mMinHeight
+                    && player.getHeightInInches() <= mMaxHeight;
+        }
+    }
+
+    private static class ExperienceIs implements Condition {
+        private final boolean mPreviousExperience;
+
+        private ExperienceIs(boolean previousExperience) {
+            mPreviousExperience = previousExperience;
+        }
+
+        @Override
+        public IntPredicate compile(PlayerColumns playerColumns) {
+            final BitSet experience = playerColumns.getExperienceColumn();
+            return mPreviousExperience ? experience::get
+                    : id -> !experience.get(id);
+        }
+
+        @Override
+        public Predicate<Player> compile() {
+            return player ->
+                    player.hasPreviousExperience() == mPreviousExperience;
+        }
+    }
+
+    // first or last name equal to name, or starting with it
+    private static class NameMatches implements Condition {
+        private final boolean mIsLastName;
+        private final boolean mIsPrefix;
+        private final String mName;
+
+        private NameMatches(boolean isLastName, boolean isPrefix, String name) {
+            mIsLastName = isLastName;
+            mIsPrefix = isPrefix;
+            mName = name;
+        }
+
+        // codes of matching names are found once in dictionary
+        @Override
+        public IntPredicate compile(PlayerColumns playerColumns) {
+            final int[] codes = mIsLastName
+                    ? playerColumns.getLastNameCodesColumn()
+                    : playerColumns.getFirstNameCodesColumn();
+            NameDictionary names = playerColumns.getNames();
+            if (!mIsPrefix) {
+                final int code = names.codeOf(mName);
+                return id -> codes[id] == code;
+            }
+            final BitSet matchingCodes = new BitSet(names.size());
+            for (int code = 0; code < names.size(); code++) {
+                if (names.decode(code).startsWith(mName)) {
+                    matchingCodes.set(code);
+                }
+            }
+            return id -> matchingCodes.get(codes[id]);
+        }
+
+        @Override
+        public Predicate<Player> compile() {
+            return player -> {
+                String name = mIsLastName ? player.getLastName()
+                        : player.getFirstName();
+                return mIsPrefix ? name.startsWith(mName) : name.equals(mName);
+            };
+        }
+    }
+
+    private static class And implements Condition {
+        private final Condition mLeft;
+        private final Condition mRight;
+
+        private And(Condition left, Condition right) {
+            mLeft = left;
+            mRight = right;
+        }
+
+        @Override
+        public IntPredicate compile(PlayerColumns playerColumns) {
+            return mLeft.compile(playerColumns).and(mRight.compile(playerColumns));
+        }
+
+        @Override
+        public Predicate<Player> compile() {
+            return mLeft.compile().and(mRight.compile());
+        }
+    }
+
+    private static class Or implements Condition {
+        private final Condition mLeft;
+        private final Condition mRight;
+
+        private Or(Condition left, Condition right) {
+            mLeft = left;
+            mRight = right;
+        }
+
+        @Override
+        public IntPredicate compile(PlayerColumns playerColumns) {
+            return mLeft.compile(playerColumns).or(mRight.compile(playerColumns));
+        }
+
+        @Override
+        public Predicate<Player> compile() {
+            return mLeft.compile().or(mRight.compile());
+        }
+    }
+
+    private static class Not implements Condition {
+        private final Condition mCondition;
+
+        private Not(Condition condition) {
+            mCondition = condition;
+        }
+
+        @Override
+        public IntPredicate compile(PlayerColumns playerColumns) {
+            return mCondition.compile(playerColumns).negate();
+        }
+
+        @Override
+        public Predicate<Player> compile() {
+            return mCondition.compile().negate();
+        }
+    }
+
+    private static class Token {
+        private final String mText;
+        private final int mPosition;
+        private final boolean mIsString;
+
+        private Token(String text, int position, boolean isString) {
+            mText = text;
+            mPosition = position;
+            mIsString = isString;
+        }
+
+        // keywords are case insensitive
+        private boolean is(String keyword) {
+            return !mIsString && mText.toLowerCase(Locale.ROOT).equals(keyword);
+        }
+    }
+
+    // recursive descent parser:
+    //     or        := and ('or' and)*
+    //     and       := not ('and' not)*
+    //     not       := 'not' not | primary
+    //     primary   := '(' or ')' | 'experienced' | 'beginner'
+    //                | 'height' operator number
+    //                | ('firstName' | 'lastName') ('startsWith' | '=') string
+    private static class Parser {
+        private final String mExpression;
+        private final List<Token> mTokens = new ArrayList<>();
+        private int mPosition;
+
+        private Parser(String expression) {
+            mExpression = expression;
+            tokenize();
+        }
+
+        private void tokenize() {
+            int i = 0;
+            while (i < mExpression.length()) {
+                char character = mExpression.charAt(i);
+                int start = i;
+                if (Character.isWhitespace(character)) {
+                    i++;
+                } else if (character == '"') {
+                    int end = mExpression.indexOf('"', i + 1);
+                    if (end < 0) {
+                        throw new IllegalArgumentException(
+                                "String is not closed at position " + (i + 1));
+                    }
+                    mTokens.add(new Token(mExpression.substring(i + 1, end),
+                            start, true));
+                    i = end + 1;
+                } else if (Character.isLetterOrDigit(character)) {
+                    while (i < mExpression.length()
+                            && Character.isLetterOrDigit(mExpression.charAt(i))) {
+                        i++;
+                    }
+                    mTokens.add(new Token(mExpression.substring(start, i),
+                            start, false));
+                } else if ((character == '>' || character == '<'
+                        || character == '!') && i + 1 < mExpression.length()
+                        && mExpression.charAt(i + 1) == '=') {
+                    mTokens.add(new Token(mExpression.substring(i, i + 2),
+                            start, false));
+                    i += 2;
+                } else if ("()<>=".indexOf(character) >= 0) {
+                    mTokens.add(new Token(String.valueOf(character), start, false));
+                    i++;
+                } else {
+                    throw new IllegalArgumentException("Unexpected '" +
+                            character + "' at position " + (i + 1));
+                }
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            int position = mPosition < mTokens.size()
+                    ? mTokens.get(mPosition).mPosition + 1
+                    : mExpression.length() + 1;
+            return new IllegalArgumentException(
+                    message + " at position " + position);
+        }
+
+        private Token next(String expected) {
+            if (mPosition == mTokens.size()) {
+                throw error("Expected " + expected);
+            }
+            return mTokens.get(mPosition++);
+        }
+
+        private boolean accept(String keyword) {
+            if (mPosition < mTokens.size() && mTokens.get(mPosition).is(keyword)) {
+                mPosition++;
+                return true;
+            }
+            return false;
+        }
+
+        private Condition parseOr() {
+            Condition condition = parseAnd();
+            while (accept("or")) {
+                condition = new Or(condition, parseAnd());
+            }
+            return condition;
+        }
+
+        private Condition parseAnd() {
+            Condition condition = parseNot();
+            while (accept("and")) {
+                condition = new And(condition, parseNot());
+            }
+            return condition;
+        }
+
+        private Condition parseNot() {
+            if (accept("not")) {
+                return new Not(parseNot());
+            }
+            return parsePrimary();
+        }
+
+        private Condition parsePrimary() {
+            if (accept("(")) {
+                Condition condition = parseOr();
+                if (!accept(")")) {
+                    throw error("Expected ')'");
+                }
+                return condition;
+            }
+            if (accept("experienced")) {
+                return new ExperienceIs(true);
+            }
+            if (accept("beginner")) {
+                return new ExperienceIs(false);
+            }
+            if (accept("height")) {
+                return parseHeight();
+            }
+            boolean isLastName = accept("lastname");
+            if (isLastName || accept("firstname")) {
+                boolean isPrefix = accept("startswith");
+                if (!isPrefix && !accept("=")) {
+                    throw error("Expected 'startsWith' or '='");
+                }
+                Token name = next("name in quotes");
+                if (!name.mIsString) {
+                    mPosition--;
+                    throw error("Expected name in quotes");
+                }
+                return new NameMatches(isLastName, isPrefix, name.mText);
+            }
+            throw error(mPosition < mTokens.size()
+                    ? "Unexpected '" + mTokens.get(mPosition).mText + "'"
+                    : "Expected condition");
+        }
+
+        private Condition parseHeight() {
+            String operator = next("comparison").mText;
+            Token number = next("height in inches");
+            int height;
+            try {
+                height = Integer.parseInt(number.mText);
+            } catch (NumberFormatException numberFormatException) {
+                mPosition--;
+                throw error("Expected height in inches");
+            }
+            // heights of players are from 0 to Player.MAX_HEIGHT_IN_INCHES,
+            // so bound out of them is capped, and height + 1 or height - 1
+            // can't overflow
+            height = Math.max(-1,
+                    Math.min(height, Player.MAX_HEIGHT_IN_INCHES + 1));
+            switch (operator) {
+                case ">=":
+                    return new HeightBetween(height, Integer.MAX_VALUE);
+                case ">":
+                    return new HeightBetween(height + 1, Integer.MAX_VALUE);
+                case "<=":
+                    return new HeightBetween(Integer.MIN_VALUE, height);
+                case "<":
+                    return new HeightBetween(Integer.MIN_VALUE, height - 1);
+                case "=":
+                    return new HeightBetween(height, height);
+                case "!=":
+                    return new Not(new HeightBetween(height, height));
+                default:
+                    mPosition -= 2;
+                    throw error("Expected comparison");
+            }
+        }
+    }
+}
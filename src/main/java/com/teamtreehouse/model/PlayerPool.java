@@ -0,0 +1,182 @@
+package com.teamtreehouse.model;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+
+// Pool of available players: IndexedSet of players, that are not in any
+// team, together with HeightIndex and PlayerSearchIndex over them. Every
+// add and remove goes through this class, so indexes are always in sync
+// with players, and range counts by height are O(log H) instead of
+// scanning the whole pool.
+// HeightIndex is built on first use, with one pass over the set: for store
+// on disk reading heights of all players at startup would read every
+// record, and counting the set, not rows of store, keeps index right when
+// store has rows with the same names, that set keeps once.
+// Players themselves are kept in given set: RankedTreeSet on heap, or
+// OffHeapPlayerSet for big leagues
+public class PlayerPool extends AbstractSet<Player>
+        implements IndexedSet<Player> {
+    private final IndexedSet<Player> mPlayersSet;
+    // null until first getHeightIndex()
+    private HeightIndex mHeightIndex;
+    private final PlayerSearchIndex mSearchIndex;
+    // is changed when player is added or removed, see Versions
+    private long mVersion = Versions.next();
+
+    // set is not copied and must be changed only through pool afterwards
+    public PlayerPool(IndexedSet<Player> playersSet) {
+        mPlayersSet = playersSet;
+        mSearchIndex = new PlayerSearchIndex(playersSet);
+    }
+
+    // pool with all players of store. Nothing is read from store here,
+    // see getHeightIndex()
+    static PlayerPool ofAllPlayers(PlayerStore playerStore) {
+        return new PlayerPool(playerStore.newPlayersSet());
+    }
+
+    public long getVersion() {
+        return mVersion;
+    }
+
+    // set, that keeps players of pool, for scans in this package, that
+    // should not make Player objects, see PlayerRecommender. Must not be
+    // changed
+    IndexedSet<Player> getPlayersSet() {
+        return mPlayersSet;
+    }
+
+    // index over players in pool, kept up to date by pool. Is built on
+    // first call, O(n)
+    public HeightIndex getHeightIndex() {
+        if (mHeightIndex == null) {
+            HeightIndex heightIndex = new HeightIndex();
+            if (mPlayersSet instanceof OffHeapPlayerSet) {
+                // fields are read from store, without making players
+                PlayerStore playerStore =
+                        ((OffHeapPlayerSet) mPlayersSet).getPlayerStore();
+                ((OffHeapPlayerSet) mPlayersSet).ids().forEach(id ->
+                        heightIndex.add(playerStore.getHeightInInches(id),
+                                playerStore.hasPreviousExperience(id)));
+            } else {
+                for (Player player : mPlayersSet) {
+                    heightIndex.add(player.getHeightInInches(),
+                            player.hasPreviousExperience());
+                }
+            }
+            mHeightIndex = heightIndex;
+        }
+        return mHeightIndex;
+    }
+
+    // search by names, height and experience, kept up to date by pool
+    public PlayerSearchIndex getSearchIndex() {
+        return mSearchIndex;
+    }
+
+    @Override
+    public int size() {
+        return mPlayersSet.size();
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return mPlayersSet.contains(object);
+    }
+
+    @Override
+    public boolean add(Player player) {
+        if (player.getHeightInInches() < 0) {
+            throw new IllegalArgumentException("Height can't be negative");
+        }
+        if (player.getHeightInInches() > Player.MAX_HEIGHT_IN_INCHES) {
+            throw new IllegalArgumentException("Height can't be more than "
+                    + Player.MAX_HEIGHT_IN_INCHES);
+        }
+        if (!mPlayersSet.add(player)) {
+            return false;
+        }
+        if (mHeightIndex != null) {
+            mHeightIndex.add(player.getHeightInInches(),
+                    player.hasPreviousExperience());
+        }
+        mSearchIndex.add(player);
+        mVersion = Versions.next();
+        return true;
+    }
+
+    // index is updated with player, that was in pool: it is equal by
+    // names, but may be not the same object
+    @Override
+    public boolean remove(Object object) {
+        int rank = mPlayersSet.rankOf(object);
+        if (rank < 0) {
+            return false;
+        }
+        Player removedPlayer = mPlayersSet.get(rank);
+        mPlayersSet.remove(removedPlayer);
+        if (mHeightIndex != null) {
+            mHeightIndex.remove(removedPlayer.getHeightInInches(),
+                    removedPlayer.hasPreviousExperience());
+        }
+        mSearchIndex.remove(removedPlayer);
+        mVersion = Versions.next();
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        mPlayersSet.clear();
+        if (mHeightIndex != null) {
+            mHeightIndex.clear();
+        }
+        mSearchIndex.clear();
+        mVersion = Versions.next();
+    }
+
+    @Override
+    public Player get(int index) {
+        return mPlayersSet.get(index);
+    }
+
+    @Override
+    public int rankOf(Object object) {
+        return mPlayersSet.rankOf(object);
+    }
+
+    @Override
+    public int countLessThan(Object object) {
+        return mPlayersSet.countLessThan(object);
+    }
+
+    @Override
+    public Iterator<Player> iterator() {
+        Iterator<Player> iterator = mPlayersSet.iterator();
+        return new Iterator<Player>() {
+            private Player mLastReturned;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Player next() {
+                mLastReturned = iterator.next();
+                return mLastReturned;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                if (mHeightIndex != null) {
+                    mHeightIndex.remove(mLastReturned.getHeightInInches(),
+                            mLastReturned.hasPreviousExperience());
+                }
+                mSearchIndex.remove(mLastReturned);
+                mLastReturned = null;
+                mVersion = Versions.next();
+            }
+        };
+    }
+}
@@ -0,0 +1,221 @@
+package com.teamtreehouse.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Recommends players from pool, that would balance team best. Target is
+// average player of pool: mean height and share of experienced players.
+// Score of player is how far team would be from target after player is
+// added: difference of mean height in standard deviations of height of
+// pool, plus difference of experience share in its standard deviations,
+// like in FairnessReport. Less is better.
+// Score depends only on height and experience of player, so scores are
+// computed once for each height and experience in HeightIndex of pool. Then
+// pool is scanned in parallel, each thread keeps best k players in bounded
+// heap, and heaps are merged: O(n log k), whole pool is never sorted.
+// Players with score worse than k-th best by HeightIndex counts are skipped
+// right away. For pool out of heap ids are scanned, and Player objects are
+// made only for these candidates
+public class PlayerRecommender {
+    private final Team mTeam;
+    private final PlayerPool mPlayerPool;
+
+    // recommended player with its score and team stats after player is added
+    public static class Recommendation {
+        private final Player mPlayer;
+        private final double mScore;
+        private final double mMeanHeightAfter;
+        private final double mExperienceRatioAfter;
+
+        private Recommendation(Player player, double score,
+                               double meanHeightAfter,
+                               double experienceRatioAfter) {
+            mPlayer = player;
+            mScore = score;
+            mMeanHeightAfter = meanHeightAfter;
+            mExperienceRatioAfter = experienceRatioAfter;
+        }
+
+        public Player getPlayer() {
+            return mPlayer;
+        }
+
+        public double getScore() {
+            return mScore;
+        }
+
+        public double getMeanHeightAfter() {
+            return mMeanHeightAfter;
+        }
+
+        public double getExperienceRatioAfter() {
+            return mExperienceRatioAfter;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s score: %.3f, team after: mean height " +
+                            "%.2f, experienced %.0f%%", mPlayer, mScore,
+                    mMeanHeightAfter, 100 * mExperienceRatioAfter);
+        }
+    }
+
+    // better first: smaller score, then player order, so that result does
+    // not depend on order of threads
+    private static final Comparator<Recommendation> BETTER_FIRST =
+            Comparator.comparingDouble(Recommendation::getScore)
+                    .thenComparing(Recommendation::getPlayer);
+
+    public PlayerRecommender(Team team, PlayerPool playerPool) {
+        mTeam = team;
+        mPlayerPool = playerPool;
+    }
+
+    // keeps best k recommendations, worst of them on top, to be replaced
+    private static class BoundedHeap {
+        private final int mCapacity;
+        private final PriorityQueue<Recommendation> mHeap;
+
+        private BoundedHeap(int capacity) {
+            mCapacity = capacity;
+            mHeap = new PriorityQueue<>(capacity + 1, BETTER_FIRST.reversed());
+        }
+
+        private void offer(Recommendation recommendation) {
+            if (mHeap.size() < mCapacity) {
+                mHeap.add(recommendation);
+            } else if (BETTER_FIRST.compare(recommendation, mHeap.peek()) < 0) {
+                mHeap.poll();
+                mHeap.add(recommendation);
+            }
+        }
+
+        private BoundedHeap merge(BoundedHeap other) {
+            for (Recommendation recommendation : other.mHeap) {
+                offer(recommendation);
+            }
+            return this;
+        }
+    }
+
+    // @return up to k best players, best first. Empty, if team is full
+    // @throws IllegalArgumentException if k is less than 1
+    public List<Recommendation> recommend(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k should be at least 1: " + k);
+        }
+        if (mTeam.size() >= Team.MAX_NUMBER_OF_PLAYERS
+                || mPlayerPool.isEmpty()) {
+            return Collections.emptyList();
+        }
+        HeightIndex poolIndex = mPlayerPool.getHeightIndex();
+        int heightBound = poolIndex.getHeightBound();
+        // target: mean height and experience share of pool
+        double heightSum = 0;
+        double heightSquaresSum = 0;
+        for (int height = 0; height < heightBound; height++) {
+            int count = poolIndex.countPlayersWithHeight(height, true)
+                    + poolIndex.countPlayersWithHeight(height, false);
+            heightSum += (double) height * count;
+            heightSquaresSum += (double) height * height * count;
+        }
+        int poolSize = poolIndex.getNumberOfPlayers();
+        double targetMeanHeight = heightSum / poolSize;
+        double heightDeviation = Math.sqrt(Math.max(0,
+                heightSquaresSum / poolSize - targetMeanHeight * targetMeanHeight));
+        double targetExperienceRatio =
+                (double) poolIndex.getNumberOfExperiencedPlayers() / poolSize;
+        double experienceDeviation = Math.sqrt(
+                targetExperienceRatio * (1 - targetExperienceRatio));
+        // scores by [experience][height]
+        int teamSize = mTeam.size() + 1;
+        RunningStatistics teamHeights = mTeam.getHeightStatistics();
+        double teamHeightSum = teamHeights.getMean() * teamHeights.getCount();
+        double[][] scores = new double[2][heightBound];
+        double[][] meanHeights = new double[2][heightBound];
+        double[] experienceRatios = new double[2];
+        List<double[]> scoresWithCounts = new ArrayList<>();
+        for (int experience = 0; experience < 2; experience++) {
+            experienceRatios[experience] =
+                    (double) (mTeam.getNumberOfExperiencedPlayers() + experience)
+                            / teamSize;
+            double experienceScore = standardize(experienceRatios[experience]
+                    - targetExperienceRatio, experienceDeviation);
+            for (int height = 0; height < heightBound; height++) {
+                meanHeights[experience][height] =
+                        (teamHeightSum + height) / teamSize;
+                scores[experience][height] = experienceScore + standardize(
+                        meanHeights[experience][height] - targetMeanHeight,
+                        heightDeviation);
+                int count = poolIndex.countPlayersWithHeight(
+                        height, experience == 1);
+                if (count > 0) {
+                    scoresWithCounts.add(
+                            new double[] {scores[experience][height], count});
+                }
+            }
+        }
+        double scoreThreshold = kthBestScore(scoresWithCounts, k);
+        BoundedHeap bestPlayers;
+        IndexedSet<Player> playersSet = mPlayerPool.getPlayersSet();
+        if (playersSet instanceof OffHeapPlayerSet) {
+            PlayerStore playerStore =
+                    ((OffHeapPlayerSet) playersSet).getPlayerStore();
+            bestPlayers = ((OffHeapPlayerSet) playersSet).ids().parallel()
+                    .collect(() -> new BoundedHeap(k),
+                            (heap, id) -> {
+                                int experience =
+                                        playerStore.hasPreviousExperience(id) ? 1 : 0;
+                                int height = playerStore.getHeightInInches(id);
+                                if (scores[experience][height] <= scoreThreshold) {
+                                    heap.offer(new Recommendation(
+                                            playerStore.get(id),
+                                            scores[experience][height],
+                                            meanHeights[experience][height],
+                                            experienceRatios[experience]));
+                                }
+                            },
+                            BoundedHeap::merge);
+        } else {
+            bestPlayers = playersSet.parallelStream()
+                    .collect(() -> new BoundedHeap(k),
+                            (heap, player) -> {
+                                int experience =
+                                        player.hasPreviousExperience() ? 1 : 0;
+                                int height = player.getHeightInInches();
+                                if (scores[experience][height] <= scoreThreshold) {
+                                    heap.offer(new Recommendation(player,
+                                            scores[experience][height],
+                                            meanHeights[experience][height],
+                                            experienceRatios[experience]));
+                                }
+                            },
+                            BoundedHeap::merge);
+        }
+        List<Recommendation> recommendations = new ArrayList<>(bestPlayers.mHeap);
+        recommendations.sort(BETTER_FIRST);
+        return recommendations;
+    }
+
+    // score of k-th best player, found from counts of players with each
+    // score, O(H log H)
+    private static double kthBestScore(List<double[]> scoresWithCounts, int k) {
+        scoresWithCounts.sort(Comparator.comparingDouble(
+                scoreWithCount -> scoreWithCount[0]));
+        long numberOfPlayers = 0;
+        for (double[] scoreWithCount : scoresWithCounts) {
+            numberOfPlayers += (long) scoreWithCount[1];
+            if (numberOfPlayers >= k) {
+                return scoreWithCount[0];
+            }
+        }
+        return Double.MAX_VALUE;
+    }
+
+    private static double standardize(double difference, double deviation) {
+        return deviation == 0 ? Math.abs(difference) : Math.abs(difference) / deviation;
+    }
+}
@@ -0,0 +1,197 @@
+package com.teamtreehouse.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// League-wide players database: it is loaded once, from registration file
+// or built-in Players.load(), and then shared by all prompters as immutable
+// snapshot - PlayerDirectory. Players themselves never change after
+// loading, so every component can make its own mutable set of available
+// players from the snapshot, without loading or creating players again.
+// For very big leagues players can be kept out of heap instead, see
+// loadOffHeap(), or on disk, see loadOnDisk()
+// Store on disk keeps file open, so repository is closed after use
+public class PlayerRepository implements Closeable {
+    // snapshot of players on heap, null if players are kept out of heap
+    // or on disk
+    private final PlayerDirectory mSnapshot;
+    // PlayerDirectory snapshot, store out of heap or on disk
+    private final PlayerStore mPlayerStore;
+    // columnar copy of snapshot, is created on first use
+    private PlayerColumns mColumns;
+    // report of file loading, null for built-in database
+    private final PlayersFileLoader.Report mLoadReport;
+    // indexed file, made only for this repository, and its directory,
+    // deleted on close(), or null
+    private Path mTemporaryFile;
+
+    private PlayerRepository(PlayerDirectory snapshot,
+                             PlayersFileLoader.Report loadReport) {
+        mSnapshot = snapshot;
+        mPlayerStore = snapshot;
+        mLoadReport = loadReport;
+    }
+
+    // repository with players out of heap or on disk
+    private PlayerRepository(PlayerStore playerStore,
+                             PlayersFileLoader.Report loadReport) {
+        mSnapshot = null;
+        mPlayerStore = playerStore;
+        mLoadReport = loadReport;
+    }
+
+    // holder class: built-in database is loaded on first call to builtIn()
+    // and only once, class loading is thread safe
+    private static class BuiltInHolder {
+        private static final PlayerRepository INSTANCE =
+                new PlayerRepository(new PlayerDirectory(Players.load()), null);
+    }
+
+    // built-in database Players.load(), the same object on each call
+    public static PlayerRepository builtIn() {
+        return BuiltInHolder.INSTANCE;
+    }
+
+    // loads players from registration file, see PlayersFileLoader
+    // @throws IOException if file can't be read
+    public static PlayerRepository load(Path path) throws IOException {
+        List<Player> players = new ArrayList<>();
+        PlayersFileLoader.Report report =
+                new PlayersFileLoader().load(path, players::add);
+        return new PlayerRepository(
+                new PlayerDirectory(players.toArray(new Player[players.size()])),
+                report);
+    }
+
+    // loads players from registration file directly to OffHeapPlayerStore.
+    // Players are parsed chunk by chunk, and only kept out of heap, so heap
+    // footprint after loading does not depend on number of players
+    // @throws IOException if file can't be read
+    public static PlayerRepository loadOffHeap(Path path) throws IOException {
+        OffHeapPlayerStore.Builder builder = new OffHeapPlayerStore.Builder();
+        PlayersFileLoader.Report report =
+                new PlayersFileLoader().load(path, builder::add);
+        return new PlayerRepository(builder.build(), report);
+    }
+
+    // loads players from registration file and writes them, sorted, to
+    // temporary indexed file in new directory next to it. File and directory
+    // are deleted on close()
+    // @throws IOException if file can't be read or written
+    public static PlayerRepository loadOnDisk(Path path, int cacheSize)
+            throws IOException {
+        Path temporaryDirectory = Files.createTempDirectory(
+                path.toAbsolutePath().getParent(), path.getFileName() + ".");
+        Path indexedFile = temporaryDirectory.resolve("league.players");
+        PlayerRepository playerRepository;
+        try {
+            playerRepository = loadOnDisk(path, indexedFile, cacheSize);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(indexedFile);
+            Files.deleteIfExists(temporaryDirectory);
+            throw e;
+        }
+        playerRepository.mTemporaryFile = indexedFile;
+        return playerRepository;
+    }
+
+    // loads players from registration file and writes them, sorted, to new
+    // indexed file. Players go from file loader straight to
+    // DiskPlayerStore.Writer, that sorts them on disk, so file can be much
+    // bigger than heap. Only names and file offsets stay in memory, players
+    // are read on demand, and at most cacheSize of them are kept in memory,
+    // see DiskPlayerStore
+    // @throws java.nio.file.FileAlreadyExistsException if indexed file
+    //         exists, it is not overwritten
+    // @throws IOException if file can't be read or written
+    public static PlayerRepository loadOnDisk(Path path, Path indexedFile,
+                                              int cacheSize)
+            throws IOException {
+        PlayersFileLoader.Report report;
+        try (DiskPlayerStore.Writer writer =
+                     new DiskPlayerStore.Writer(indexedFile)) {
+            try {
+                report = new PlayersFileLoader().load(path, player -> {
+                    try {
+                        writer.add(player);
+                    } catch (IOException ioe) {
+                        throw new UncheckedIOException(ioe);
+                    }
+                });
+            } catch (UncheckedIOException uioe) {
+                throw uioe.getCause();
+            }
+            writer.finish();
+        }
+        return new PlayerRepository(
+                DiskPlayerStore.open(indexedFile, cacheSize), report);
+    }
+
+    // immutable snapshot of all loaded players
+    // @throws IllegalStateException if players are not kept on heap
+    public PlayerDirectory getSnapshot() {
+        if (mSnapshot == null) {
+            throw new IllegalStateException("Players are not kept on heap, " +
+                    "use getPlayerStore()");
+        }
+        return mSnapshot;
+    }
+
+    // immutable store of all loaded players: on heap, out of heap or on disk
+    public PlayerStore getPlayerStore() {
+        return mPlayerStore;
+    }
+
+    // false if players are kept out of heap or on disk
+    public boolean isOnHeap() {
+        return mSnapshot != null;
+    }
+
+    // struct of arrays copy of snapshot, with the same ids, see
+    // PlayerColumns. Is created once, on first call
+    public synchronized PlayerColumns getColumns() {
+        if (mColumns == null) {
+            mColumns = new PlayerColumns(mPlayerStore);
+        }
+        return mColumns;
+    }
+
+    // @return report of file loading, or null for built-in database
+    public PlayersFileLoader.Report getLoadReport() {
+        return mLoadReport;
+    }
+
+    public int size() {
+        return mPlayerStore.size();
+    }
+
+    // closes store, if it keeps file open, see DiskPlayerStore, and
+    // deletes temporary file of loadOnDisk(). Stores in memory have nothing
+    // to close
+    // @throws IOException if file can't be closed or deleted
+    @Override
+    public void close() throws IOException {
+        if (mPlayerStore instanceof Closeable) {
+            ((Closeable) mPlayerStore).close();
+        }
+        if (mTemporaryFile != null) {
+            Files.deleteIfExists(mTemporaryFile);
+            Files.deleteIfExists(mTemporaryFile.getParent());
+            mTemporaryFile = null;
+        }
+    }
+
+    // new mutable set of available players, filled with all players of
+    // store. For snapshot on heap players are shared, only the set itself
+    // is new, and as snapshot is already sorted, set is bulk loaded in
+    // O(n). For store out of heap, set is also kept out of heap.
+    // Set is wrapped in PlayerPool with index of players by height
+    public PlayerPool newAvailablePlayersSet() {
+        return PlayerPool.ofAllPlayers(mPlayerStore);
+    }
+}
@@ -0,0 +1,309 @@
+package com.teamtreehouse.model;
+
+import java.util.AbstractList;
+import java.util.PrimitiveIterator;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+// Search of players in some IndexedSet: pool or roster of team, by prefix
+// of last or first name, range of heights or experience. Each match comes
+// with its position in set, that is its id in "add" and "remove", so
+// search costs O(log n + matches).
+// Set itself is sorted by last name, then first name, so players with
+// last name prefix are already one range in it, and their positions follow
+// each other. For other searches sorted arrays are kept instead of prefix
+// trie: positions of players in set, sorted by first name, by height and
+// by experience, and players of set in its order. Players with the same
+// key stay in order of set. Range of matches is found with binary search
+// over these arrays, O(log n), or with start of each height, O(1), and
+// matches are read only view of that range, where each entry already has
+// its position.
+// Positions of all players after changed one move, so arrays are not
+// updated on add() and remove(): they are dropped, and built again from
+// set on next search, that needs them: O(n) for heights and experience,
+// O(n log n) for first names. Many changes in a row, like draft or auto
+// assignment, cost one rebuild.
+// OffHeapPlayerSet keeps no Player objects on heap, and arrays would make
+// them, so there first names, heights and experience are tested by scan
+// over ids of set, with fields read from PlayerStore, O(n). Matches are in
+// order of set then, and only their positions are kept.
+// Owner of set calls add() and remove() after each change of set
+public class PlayerSearchIndex {
+    // greater than any character in names, used for upper bound of prefix
+    private static final char MAX_CHARACTER = '\uffff';
+
+    private final IndexedSet<Player> mPlayersSet;
+    // null until search, that needs them, after last change of set
+    private Player[] mPlayers;
+    private int[] mPositionsByFirstName;
+    private int[] mPositionsByHeight;
+    // position in mPositionsByHeight of first player with each height,
+    // and number of players at the end
+    private int[] mHeightStarts;
+    // beginners, then experienced players
+    private int[] mPositionsByExperience;
+    private int mNumberOfBeginners;
+
+    // set is not copied, changes of it should be passed to index
+    PlayerSearchIndex(IndexedSet<Player> playersSet) {
+        mPlayersSet = playersSet;
+    }
+
+    // player was added to set
+    void add(Player player) {
+        clear();
+    }
+
+    // player was removed from set
+    void remove(Player player) {
+        clear();
+    }
+
+    // set was changed, positions of players are not valid any more
+    void clear() {
+        mPlayers = null;
+        mPositionsByFirstName = null;
+        mPositionsByHeight = null;
+        mHeightStarts = null;
+        mPositionsByExperience = null;
+    }
+
+    private Player[] getPlayers() {
+        if (mPlayers == null) {
+            mPlayers = mPlayersSet.toArray(new Player[mPlayersSet.size()]);
+        }
+        return mPlayers;
+    }
+
+    // sort is stable, so players with the same first name stay in order of
+    // set
+    private int[] getPositionsByFirstName() {
+        if (mPositionsByFirstName == null) {
+            Player[] players = getPlayers();
+            mPositionsByFirstName = IntStream.range(0, players.length)
+                    .boxed()
+                    .sorted((first, second) -> players[first].getFirstName()
+                            .compareTo(players[second].getFirstName()))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        return mPositionsByFirstName;
+    }
+
+    // counting sort by height, heights are from 0 to
+    // Player.MAX_HEIGHT_IN_INCHES, see Team and PlayerPool
+    private int[] getPositionsByHeight() {
+        if (mPositionsByHeight == null) {
+            Player[] players = getPlayers();
+            int[] heightStarts = new int[Player.MAX_HEIGHT_IN_INCHES + 2];
+            for (Player player : players) {
+                heightStarts[player.getHeightInInches() + 1]++;
+            }
+            for (int height = 1; height < heightStarts.length; height++) {
+                heightStarts[height] += heightStarts[height - 1];
+            }
+            int[] nextPositions = heightStarts.clone();
+            int[] positionsByHeight = new int[players.length];
+            for (int position = 0; position < players.length; position++) {
+                positionsByHeight[nextPositions[
+                        players[position].getHeightInInches()]++] = position;
+            }
+            mHeightStarts = heightStarts;
+            mPositionsByHeight = positionsByHeight;
+        }
+        return mPositionsByHeight;
+    }
+
+    private int[] getPositionsByExperience() {
+        if (mPositionsByExperience == null) {
+            Player[] players = getPlayers();
+            int numberOfBeginners = 0;
+            for (Player player : players) {
+                if (!player.hasPreviousExperience()) {
+                    numberOfBeginners++;
+                }
+            }
+            int[] positionsByExperience = new int[players.length];
+            int nextBeginner = 0;
+            int nextExperienced = numberOfBeginners;
+            for (int position = 0; position < players.length; position++) {
+                if (players[position].hasPreviousExperience()) {
+                    positionsByExperience[nextExperienced++] = position;
+                } else {
+                    positionsByExperience[nextBeginner++] = position;
+                }
+            }
+            mNumberOfBeginners = numberOfBeginners;
+            mPositionsByExperience = positionsByExperience;
+        }
+        return mPositionsByExperience;
+    }
+
+    // number of first positions, whose players are less than key
+    // @param isLess - true for players before key, they come first
+    private static int countLess(int[] positions, Player[] players,
+                                 Predicate<Player> isLess) {
+        int low = 0;
+        int high = positions.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (isLess.test(players[positions[middle]])) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // players with last name, starting with prefix, case matters. They are
+    // in the same order and at the same positions as in set
+    public Range findByLastNamePrefix(String prefix) {
+        return new Range(mPlayersSet,
+                mPlayersSet.countLessThan(new Player("", prefix, 0, false)),
+                mPlayersSet.countLessThan(
+                        new Player("", prefix + MAX_CHARACTER, 0, false)));
+    }
+
+    // positions of players in OffHeapPlayerSet, whose ids match, in order
+    // of set
+    private Range scanIds(IntPredicate idPredicate) {
+        IntStream.Builder positions = IntStream.builder();
+        PrimitiveIterator.OfInt ids =
+                ((OffHeapPlayerSet) mPlayersSet).ids().iterator();
+        for (int position = 0; ids.hasNext(); position++) {
+            if (idPredicate.test(ids.nextInt())) {
+                positions.add(position);
+            }
+        }
+        int[] matchedPositions = positions.build().toArray();
+        return new Range(mPlayersSet, matchedPositions, 0,
+                matchedPositions.length);
+    }
+
+    private PlayerStore getPlayerStore() {
+        return ((OffHeapPlayerSet) mPlayersSet).getPlayerStore();
+    }
+
+    // players with first name, starting with prefix, case matters, sorted
+    // by first name, or in order of OffHeapPlayerSet
+    public Range findByFirstNamePrefix(String prefix) {
+        if (mPlayersSet instanceof OffHeapPlayerSet) {
+            PlayerStore playerStore = getPlayerStore();
+            return scanIds(id ->
+                    playerStore.getFirstName(id).startsWith(prefix));
+        }
+        int[] positions = getPositionsByFirstName();
+        Player[] players = getPlayers();
+        String upperBound = prefix + MAX_CHARACTER;
+        return new Range(players, positions,
+                countLess(positions, players, player ->
+                        player.getFirstName().compareTo(prefix) < 0),
+                countLess(positions, players, player ->
+                        player.getFirstName().compareTo(upperBound) < 0));
+    }
+
+    // players with height from minHeight to maxHeight, both included,
+    // sorted by height, or in order of OffHeapPlayerSet
+    public Range findByHeight(int minHeight, int maxHeight) {
+        if (mPlayersSet instanceof OffHeapPlayerSet) {
+            PlayerStore playerStore = getPlayerStore();
+            return scanIds(id -> {
+                int height = playerStore.getHeightInInches(id);
+                return height >= minHeight && height <= maxHeight;
+            });
+        }
+        int[] positions = getPositionsByHeight();
+        if (maxHeight < minHeight) {
+            return new Range(getPlayers(), positions, 0, 0);
+        }
+        // bounds out of heights of players are clamped, so maxHeight + 1
+        // can't overflow
+        int start = mHeightStarts[Math.max(0,
+                Math.min(minHeight, Player.MAX_HEIGHT_IN_INCHES + 1))];
+        int end = mHeightStarts[Math.max(-1,
+                Math.min(maxHeight, Player.MAX_HEIGHT_IN_INCHES)) + 1];
+        return new Range(getPlayers(), positions, start, end);
+    }
+
+    // experienced players or beginners
+    public Range findByExperience(boolean previousExperience) {
+        if (mPlayersSet instanceof OffHeapPlayerSet) {
+            PlayerStore playerStore = getPlayerStore();
+            return scanIds(id -> playerStore.hasPreviousExperience(id)
+                    == previousExperience);
+        }
+        int[] positions = getPositionsByExperience();
+        if (previousExperience) {
+            return new Range(getPlayers(), positions, mNumberOfBeginners,
+                    positions.length);
+        }
+        return new Range(getPlayers(), positions, 0, mNumberOfBeginners);
+    }
+
+    // read only view of matches from start to end of sorted positions, or
+    // of set itself. Is valid until set is changed
+    public static class Range extends AbstractList<Player> {
+        // one of them is null: players are taken from set or from array
+        private final IndexedSet<Player> mPlayersSet;
+        private final Player[] mPlayers;
+        // null if matches are at positions from start to end of set
+        private final int[] mPositions;
+        private final int mStart;
+        private final int mEnd;
+
+        // matches are at positions from start to end of set, get() is
+        // O(log n)
+        private Range(IndexedSet<Player> playersSet, int start, int end) {
+            this(playersSet, null, null, start, end);
+        }
+
+        // matches are at positions[start..end) of set, get() is O(log n)
+        private Range(IndexedSet<Player> playersSet, int[] positions,
+                      int start, int end) {
+            this(playersSet, null, positions, start, end);
+        }
+
+        // matches are players at positions[start..end), get() is O(1)
+        private Range(Player[] players, int[] positions, int start, int end) {
+            this(null, players, positions, start, end);
+        }
+
+        private Range(IndexedSet<Player> playersSet, Player[] players,
+                      int[] positions, int start, int end) {
+            mPlayersSet = playersSet;
+            mPlayers = players;
+            mPositions = positions;
+            mStart = start;
+            mEnd = end;
+        }
+
+        // position in set of match with given index, O(1)
+        // @throws IndexOutOfBoundsException if index is not in 0..size()-1
+        public int getPosition(int index) {
+            checkIndex(index);
+            return mPositions == null ? mStart + index
+                    : mPositions[mStart + index];
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(
+                        "Index: " + index + ", Size: " + size());
+            }
+        }
+
+        @Override
+        public Player get(int index) {
+            int position = getPosition(index);
+            return mPlayers == null ? mPlayersSet.get(position)
+                    : mPlayers[position];
+        }
+
+        @Override
+        public int size() {
+            return mEnd - mStart;
+        }
+    }
+}
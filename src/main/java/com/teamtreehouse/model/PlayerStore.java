@@ -0,0 +1,29 @@
+package com.teamtreehouse.model;
+
+// Read only storage of loaded players, where player is found by its id
+// in PlayerDirectory: 0, 1, 2 ... in Player.compareTo() order.
+// Implementations keep player fields in their own format, and give
+// Player objects only on demand
+public interface PlayerStore {
+    int size();
+
+    // @return Player with fields of stored player and the same id
+    Player get(int id);
+
+    // fields of stored player, without making Player object
+    String getFirstName(int id);
+
+    String getLastName(int id);
+
+    int getHeightInInches(int id);
+
+    boolean hasPreviousExperience(int id);
+
+    // @return id of stored player with the same names (see
+    //         Player.compareTo()), or -1 if there is no such player
+    int indexOf(Player player);
+
+    // new mutable set with all stored players, kept in the way that suits
+    // this store best
+    IndexedSet<Player> newPlayersSet();
+}
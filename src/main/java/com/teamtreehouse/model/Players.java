@@ -2,6 +2,11 @@ package com.teamtreehouse.model;
 
 public class Players {
 
+    // loads database and assigns dense ids to players, see PlayerDirectory
+    public static PlayerDirectory loadDirectory() {
+        return new PlayerDirectory(load());
+    }
+
     public static Player[] load() {
         return new Player[] {
                 new Player("Joe", "Smith", 42, true),
@@ -0,0 +1,420 @@
+package com.teamtreehouse.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Loads players database from registration CSV file, instead of hard-coded
+// Players.load(). Each line is:
+//     firstName,lastName,heightInInches,previousExperience
+// where previousExperience is one of true/false, yes/no or 1/0. First line
+// can be a header, it is skipped.
+// File is memory mapped and split into line aligned chunks, that are parsed
+// in parallel. Height and experience are parsed right from the bytes,
+// Strings are created only for names, and same names in chunk share one
+// String object. Malformed lines are skipped and counted in Report, also
+// lines with height more than Player.MAX_HEIGHT_IN_INCHES.
+public class PlayersFileLoader {
+    // big enough chunk to keep all cores busy on multi-gigabyte files, and
+    // much less than 2GB limit of one mapped buffer
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte COMMA = ',';
+    private static final int NUMBER_OF_FIELDS = 4;
+
+    private final int mChunkSize;
+
+    public PlayersFileLoader() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    // smaller chunks are used in testing, to have many of them in small file
+    public PlayersFileLoader(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive");
+        }
+        mChunkSize = chunkSize;
+    }
+
+    // Statistics of one load() call
+    public static class Report {
+        private final long mNumberOfRows;
+        private final long mNumberOfMalformedRows;
+        private final long mNumberOfBytes;
+        private final long mElapsedNanos;
+
+        Report(long numberOfRows, long numberOfMalformedRows,
+               long numberOfBytes, long elapsedNanos) {
+            mNumberOfRows = numberOfRows;
+            mNumberOfMalformedRows = numberOfMalformedRows;
+            mNumberOfBytes = numberOfBytes;
+            mElapsedNanos = elapsedNanos;
+        }
+
+        // number of players loaded
+        public long getNumberOfRows() {
+            return mNumberOfRows;
+        }
+
+        public long getNumberOfMalformedRows() {
+            return mNumberOfMalformedRows;
+        }
+
+        public long getNumberOfBytes() {
+            return mNumberOfBytes;
+        }
+
+        public long getElapsedNanos() {
+            return mElapsedNanos;
+        }
+
+        public double getRowsPerSecond() {
+            if (mElapsedNanos == 0) {
+                return 0;
+            }
+            return mNumberOfRows * 1e9 / mElapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d players loaded (%d malformed rows " +
+                            "skipped) from %d bytes in %.3f s: %.0f rows/s",
+                    mNumberOfRows, mNumberOfMalformedRows, mNumberOfBytes,
+                    mElapsedNanos / 1e9, getRowsPerSecond());
+        }
+    }
+
+    // result of parsing one chunk
+    private static class ParsedChunk {
+        private final List<Player> mPlayers = new ArrayList<>();
+        private long mNumberOfMalformedRows;
+    }
+
+    // loads all players from file, passing them to consumer in the same
+    // order as in file. Chunks are parsed in parallel, but consumer is
+    // always called from one thread at a time, so it does not have to be
+    // thread safe
+    // @return Report with number of rows and rows per second
+    // @throws IOException if file can't be read
+    public Report load(Path path, Consumer<Player> consumer)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        try (FileChannel channel =
+                     FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            List<long[]> chunks = splitIntoLineAlignedChunks(channel, fileSize);
+            long[] counters = new long[2];
+            chunks.parallelStream()
+                    .map(chunk -> parseChunk(channel, chunk[0], chunk[1]))
+                    .forEachOrdered(parsedChunk -> {
+                        parsedChunk.mPlayers.forEach(consumer);
+                        counters[0] += parsedChunk.mPlayers.size();
+                        counters[1] += parsedChunk.mNumberOfMalformedRows;
+                    });
+            return new Report(counters[0], counters[1], fileSize,
+                    System.nanoTime() - startNanos);
+        } catch (UncheckedChunkException uce) {
+            throw uce.getCause();
+        }
+    }
+
+    // loads all players from file to array, in the same order as in file
+    // @throws IOException if file can't be read
+    public Player[] load(Path path) throws IOException {
+        List<Player> players = new ArrayList<>();
+        load(path, players::add);
+        return players.toArray(new Player[players.size()]);
+    }
+
+    // chunks are [start, end) byte ranges, each next chunk starts right
+    // after the new line character, ending previous one
+    private List<long[]> splitIntoLineAlignedChunks(
+            FileChannel channel, long fileSize) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        long start = 0;
+        while (start < fileSize) {
+            long end = Math.min(start + mChunkSize, fileSize);
+            if (end < fileSize) {
+                end = findNextLineStart(channel, end, fileSize);
+            }
+            chunks.add(new long[] {start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    // @return position after first new line at or after position - 1,
+    //         or file size if there is no new line
+    private long findNextLineStart(FileChannel channel, long position,
+                                   long fileSize) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long readPosition = position - 1;
+        while (readPosition < fileSize) {
+            buffer.clear();
+            int bytesRead = channel.read(buffer, readPosition);
+            if (bytesRead <= 0) {
+                break;
+            }
+            for (int i = 0; i < bytesRead; i++) {
+                if (buffer.get(i) == NEW_LINE) {
+                    return readPosition + i + 1;
+                }
+            }
+            readPosition += bytesRead;
+        }
+        return fileSize;
+    }
+
+    // IOException from parallel stream lambda is wrapped in this one and
+    // unwrapped back in load()
+    private static class UncheckedChunkException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UncheckedChunkException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    private ParsedChunk parseChunk(FileChannel channel, long start, long end) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                    start, end - start);
+        } catch (IOException ioe) {
+            throw new UncheckedChunkException(ioe);
+        }
+        ParsedChunk parsedChunk = new ParsedChunk();
+        NameCache nameCache = new NameCache();
+        // start and end of each field in line
+        int[] fieldBounds = new int[2 * NUMBER_OF_FIELDS];
+        int limit = buffer.limit();
+        int lineStart = 0;
+        boolean isFirstLineOfFile = start == 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != NEW_LINE) {
+                lineEnd++;
+            }
+            int nextLineStart = lineEnd + 1;
+            if (lineEnd > lineStart
+                    && buffer.get(lineEnd - 1) == CARRIAGE_RETURN) {
+                lineEnd--;
+            }
+            if (lineEnd > lineStart) {
+                Player player = parseLine(buffer, lineStart, lineEnd,
+                        fieldBounds, nameCache);
+                if (player != null) {
+                    parsedChunk.mPlayers.add(player);
+                } else if (!isFirstLineOfFile) {
+                    // first line that is not a player is a header
+                    parsedChunk.mNumberOfMalformedRows++;
+                }
+            }
+            isFirstLineOfFile = false;
+            lineStart = nextLineStart;
+        }
+        return parsedChunk;
+    }
+
+    // @return player or null, if line is malformed
+    private Player parseLine(ByteBuffer buffer, int lineStart, int lineEnd,
+                             int[] fieldBounds, NameCache nameCache) {
+        int field = 0;
+        int fieldStart = lineStart;
+        for (int i = lineStart; i <= lineEnd; i++) {
+            if (i == lineEnd || buffer.get(i) == COMMA) {
+                if (field == NUMBER_OF_FIELDS) {
+                    return null;
+                }
+                int trimmedStart = fieldStart;
+                int trimmedEnd = i;
+                while (trimmedStart < trimmedEnd
+                        && isSpace(buffer.get(trimmedStart))) {
+                    trimmedStart++;
+                }
+                while (trimmedEnd > trimmedStart
+                        && isSpace(buffer.get(trimmedEnd - 1))) {
+                    trimmedEnd--;
+                }
+                fieldBounds[2 * field] = trimmedStart;
+                fieldBounds[2 * field + 1] = trimmedEnd;
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+        if (field != NUMBER_OF_FIELDS) {
+            return null;
+        }
+        int height = parseHeight(buffer, fieldBounds[4], fieldBounds[5]);
+        int experience = parseExperience(buffer, fieldBounds[6], fieldBounds[7]);
+        if (height < 0 || experience < 0
+                || fieldBounds[0] == fieldBounds[1]
+                || fieldBounds[2] == fieldBounds[3]) {
+            return null;
+        }
+        return new Player(
+                nameCache.get(buffer, fieldBounds[0], fieldBounds[1]),
+                nameCache.get(buffer, fieldBounds[2], fieldBounds[3]),
+                height,
+                experience == 1);
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    // @return parsed non negative number, or -1 if it is not a number or
+    //         is more than Player.MAX_HEIGHT_IN_INCHES
+    private static int parseHeight(ByteBuffer buffer, int start, int end) {
+        // more than 9 digits can overflow int
+        if (start == end || end - start > 9) {
+            return -1;
+        }
+        int height = 0;
+        for (int i = start; i < end; i++) {
+            byte digit = buffer.get(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            height = height * 10 + (digit - '0');
+        }
+        return height <= Player.MAX_HEIGHT_IN_INCHES ? height : -1;
+    }
+
+    // @return 1 for true/yes/1, 0 for false/no/0 (any case), -1 otherwise
+    private static int parseExperience(ByteBuffer buffer, int start, int end) {
+        if (equalsIgnoreCase(buffer, start, end, "true")
+                || equalsIgnoreCase(buffer, start, end, "yes")
+                || equalsIgnoreCase(buffer, start, end, "1")) {
+            return 1;
+        }
+        if (equalsIgnoreCase(buffer, start, end, "false")
+                || equalsIgnoreCase(buffer, start, end, "no")
+                || equalsIgnoreCase(buffer, start, end, "0")) {
+            return 0;
+        }
+        return -1;
+    }
+
+    // word is lower case ASCII
+    private static boolean equalsIgnoreCase(ByteBuffer buffer, int start,
+                                            int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            int b = buffer.get(start + i);
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Open addressing table from name bytes to String, so that repeated
+    // names in chunk are looked up without allocation and share one String.
+    // Is used by one thread only
+    private static class NameCache {
+        // after that many distinct names, new names are not cached anymore
+        private static final int MAX_NUMBER_OF_NAMES = 1 << 16;
+
+        private byte[][] mKeys = new byte[1024][];
+        private String[] mValues = new String[1024];
+        private int mSize;
+
+        String get(ByteBuffer buffer, int start, int end) {
+            int hash = hash(buffer, start, end);
+            int mask = mKeys.length - 1;
+            int slot = hash & mask;
+            while (mKeys[slot] != null) {
+                if (bytesEqual(mKeys[slot], buffer, start, end)) {
+                    return mValues[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(start + i);
+            }
+            String name = new String(bytes, StandardCharsets.UTF_8);
+            if (mSize < MAX_NUMBER_OF_NAMES) {
+                mKeys[slot] = bytes;
+                mValues[slot] = name;
+                mSize++;
+                if (2 * mSize > mKeys.length) {
+                    grow();
+                }
+            }
+            return name;
+        }
+
+        private void grow() {
+            byte[][] oldKeys = mKeys;
+            String[] oldValues = mValues;
+            mKeys = new byte[oldKeys.length * 2][];
+            mValues = new String[oldValues.length * 2];
+            int mask = mKeys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = hash(oldKeys[i]) & mask;
+                    while (mKeys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    mKeys[slot] = oldKeys[i];
+                    mValues[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int hash(ByteBuffer buffer, int start, int end) {
+            int hash = 1;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            return mix(hash);
+        }
+
+        private static int hash(byte[] bytes) {
+            int hash = 1;
+            for (byte b : bytes) {
+                hash = 31 * hash + b;
+            }
+            return mix(hash);
+        }
+
+        // spreads bits, so that similar names don't land in one region
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16) ^ (hash >>> 7);
+        }
+
+        private static boolean bytesEqual(byte[] bytes, ByteBuffer buffer,
+                                          int start, int end) {
+            if (bytes.length != end - start) {
+                return false;
+            }
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] != buffer.get(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
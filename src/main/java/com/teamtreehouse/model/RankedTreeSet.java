@@ -0,0 +1,446 @@
+package com.teamtreehouse.model;
+
+import java.util.*;
+
+// Sorted set backed by AVL tree, where each node also knows the size of its
+// subtree. This way besides usual add(), remove() and contains() we can
+// pick element by its position: get(index), and find position of element:
+// rankOf(element) - all in O(log n). Is used in prompters, where user picks
+// player or team by id, so that we don't have to copy whole Set to ArrayList
+// every time.
+// Order is the same as for TreeSet: natural ordering (compareTo) or given
+// Comparator.
+public class RankedTreeSet<E> extends AbstractSet<E>
+        implements IndexedSet<E> {
+    // from this size input of bulk load is sorted with Arrays.parallelSort
+    public static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    // node of AVL tree, keeps height for balancing and size for ranks
+    private static final class Node<E> {
+        E mElement;
+        Node<E> mLeft;
+        Node<E> mRight;
+        int mHeight = 1;
+        int mSize = 1;
+
+        Node(E element) {
+            mElement = element;
+        }
+    }
+
+    private final Comparator<? super E> mComparator;
+    private Node<E> mRoot;
+    // incremented on every structural change, so that iterator can fail fast
+    private int mModificationCount;
+
+    // set sorted by natural ordering of elements, like new TreeSet<>()
+    public RankedTreeSet() {
+        this((Comparator<? super E>) null);
+    }
+
+    // set sorted by given comparator, like new TreeSet<>(comparator)
+    public RankedTreeSet(Comparator<? super E> comparator) {
+        mComparator = comparator;
+    }
+
+    // copy constructor, like new TreeSet<>(collection), uses bulk load,
+    // see addAll()
+    public RankedTreeSet(Collection<? extends E> collection) {
+        this();
+        addAll(collection);
+    }
+
+    public Comparator<? super E> comparator() {
+        return mComparator;
+    }
+
+    // comparator given in constructor, or natural ordering
+    @SuppressWarnings("unchecked")
+    private Comparator<? super E> effectiveComparator() {
+        if (mComparator != null) {
+            return mComparator;
+        }
+        return (Comparator<? super E>) Comparator.naturalOrder();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object first, E second) {
+        if (mComparator != null) {
+            return mComparator.compare((E) first, second);
+        }
+        return ((Comparable<? super E>) first).compareTo(second);
+    }
+
+    private static int heightOf(Node<?> node) {
+        return node == null ? 0 : node.mHeight;
+    }
+
+    private static int sizeOf(Node<?> node) {
+        return node == null ? 0 : node.mSize;
+    }
+
+    private static void update(Node<?> node) {
+        node.mHeight = 1 + Math.max(heightOf(node.mLeft), heightOf(node.mRight));
+        node.mSize = 1 + sizeOf(node.mLeft) + sizeOf(node.mRight);
+    }
+
+    private static <E> Node<E> rotateRight(Node<E> node) {
+        Node<E> left = node.mLeft;
+        node.mLeft = left.mRight;
+        left.mRight = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static <E> Node<E> rotateLeft(Node<E> node) {
+        Node<E> right = node.mRight;
+        node.mRight = right.mLeft;
+        right.mLeft = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    // restores AVL property in node, which children are already balanced
+    private static <E> Node<E> balance(Node<E> node) {
+        update(node);
+        int balanceFactor = heightOf(node.mLeft) - heightOf(node.mRight);
+        if (balanceFactor > 1) {
+            if (heightOf(node.mLeft.mLeft) < heightOf(node.mLeft.mRight)) {
+                node.mLeft = rotateLeft(node.mLeft);
+            }
+            return rotateRight(node);
+        }
+        if (balanceFactor < -1) {
+            if (heightOf(node.mRight.mRight) < heightOf(node.mRight.mLeft)) {
+                node.mRight = rotateRight(node.mRight);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(mRoot);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return mRoot == null;
+    }
+
+    @Override
+    public void clear() {
+        mRoot = null;
+        mModificationCount++;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return object != null && findNode(object) != null;
+    }
+
+    private Node<E> findNode(Object object) {
+        Node<E> node = mRoot;
+        while (node != null) {
+            int comparison = compare(object, node.mElement);
+            if (comparison == 0) {
+                return node;
+            }
+            node = comparison < 0 ? node.mLeft : node.mRight;
+        }
+        return null;
+    }
+
+    // adds element if there is no equal (by comparison) element in set
+    // @return true if set was changed
+    @Override
+    public boolean add(E element) {
+        if (element == null) {
+            throw new NullPointerException("null elements are not allowed");
+        }
+        int sizeBefore = size();
+        mRoot = insert(mRoot, element);
+        if (size() != sizeBefore) {
+            mModificationCount++;
+            return true;
+        }
+        return false;
+    }
+
+    private Node<E> insert(Node<E> node, E element) {
+        if (node == null) {
+            return new Node<>(element);
+        }
+        int comparison = compare(element, node.mElement);
+        if (comparison == 0) {
+            return node;
+        }
+        if (comparison < 0) {
+            node.mLeft = insert(node.mLeft, element);
+        } else {
+            node.mRight = insert(node.mRight, element);
+        }
+        return balance(node);
+    }
+
+    // When set is empty, elements are bulk loaded in O(n) after sorting:
+    // - input is sorted once (it is only checked, if already sorted,
+    //   e.g. PlayerDirectory snapshot), in parallel for large input
+    // - duplicates are dropped in one pass, first one is kept like in add()
+    // - balanced tree is built right from sorted array, no rebalancing
+    // Otherwise elements are added one by one
+    // @return true if set was changed
+    @Override
+    public boolean addAll(Collection<? extends E> collection) {
+        if (!isEmpty() || collection.isEmpty()) {
+            return super.addAll(collection);
+        }
+        @SuppressWarnings("unchecked")
+        E[] elements = (E[]) collection.toArray();
+        for (E element : elements) {
+            if (element == null) {
+                throw new NullPointerException("null elements are not allowed");
+            }
+        }
+        Comparator<? super E> comparator = effectiveComparator();
+        if (!isSorted(elements, comparator)) {
+            if (elements.length >= PARALLEL_SORT_THRESHOLD) {
+                Arrays.parallelSort(elements, comparator);
+            } else {
+                // stable, so first of equal elements stays first
+                Arrays.sort(elements, comparator);
+            }
+        }
+        int numberOfUniqueElements = removeAdjacentDuplicates(elements, comparator);
+        mRoot = buildBalanced(elements, 0, numberOfUniqueElements);
+        mModificationCount++;
+        return true;
+    }
+
+    private static <E> boolean isSorted(E[] elements,
+                                        Comparator<? super E> comparator) {
+        for (int i = 1; i < elements.length; i++) {
+            if (comparator.compare(elements[i - 1], elements[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // moves unique elements of sorted array to its beginning
+    // @return number of unique elements
+    private static <E> int removeAdjacentDuplicates(
+            E[] elements, Comparator<? super E> comparator) {
+        int numberOfUniqueElements = 1;
+        for (int i = 1; i < elements.length; i++) {
+            if (comparator.compare(
+                    elements[numberOfUniqueElements - 1], elements[i]) != 0) {
+                elements[numberOfUniqueElements++] = elements[i];
+            }
+        }
+        return numberOfUniqueElements;
+    }
+
+    // builds perfectly balanced tree from sorted range [from, to)
+    private static <E> Node<E> buildBalanced(E[] elements, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        Node<E> node = new Node<>(elements[middle]);
+        node.mLeft = buildBalanced(elements, from, middle);
+        node.mRight = buildBalanced(elements, middle + 1, to);
+        update(node);
+        return node;
+    }
+
+    // removes element equal (by comparison) to given one
+    // @return true if set was changed
+    @Override
+    public boolean remove(Object object) {
+        if (object == null || findNode(object) == null) {
+            return false;
+        }
+        mRoot = delete(mRoot, object);
+        mModificationCount++;
+        return true;
+    }
+
+    // element is known to be in the subtree, see remove()
+    private Node<E> delete(Node<E> node, Object object) {
+        int comparison = compare(object, node.mElement);
+        if (comparison < 0) {
+            node.mLeft = delete(node.mLeft, object);
+        } else if (comparison > 0) {
+            node.mRight = delete(node.mRight, object);
+        } else {
+            if (node.mLeft == null) {
+                return node.mRight;
+            }
+            if (node.mRight == null) {
+                return node.mLeft;
+            }
+            // replace with smallest element of right subtree
+            Node<E> successor = node.mRight;
+            while (successor.mLeft != null) {
+                successor = successor.mLeft;
+            }
+            node.mElement = successor.mElement;
+            node.mRight = deleteFirst(node.mRight);
+        }
+        return balance(node);
+    }
+
+    private Node<E> deleteFirst(Node<E> node) {
+        if (node.mLeft == null) {
+            return node.mRight;
+        }
+        node.mLeft = deleteFirst(node.mLeft);
+        return balance(node);
+    }
+
+    // returns element at given position in sorted order, starting from zero
+    // @throws IndexOutOfBoundsException if index is not in 0..size()-1
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", Size: " + size());
+        }
+        Node<E> node = mRoot;
+        while (true) {
+            int leftSize = sizeOf(node.mLeft);
+            if (index < leftSize) {
+                node = node.mLeft;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.mRight;
+            } else {
+                return node.mElement;
+            }
+        }
+    }
+
+    // returns position of element in sorted order, starting from zero
+    // @return index of element, or -1 if there is no such element
+    @Override
+    public int rankOf(Object object) {
+        if (object == null) {
+            return -1;
+        }
+        int rank = 0;
+        Node<E> node = mRoot;
+        while (node != null) {
+            int comparison = compare(object, node.mElement);
+            if (comparison < 0) {
+                node = node.mLeft;
+            } else if (comparison > 0) {
+                rank += sizeOf(node.mLeft) + 1;
+                node = node.mRight;
+            } else {
+                return rank + sizeOf(node.mLeft);
+            }
+        }
+        return -1;
+    }
+
+    // returns number of elements less than given object, O(log n)
+    @Override
+    public int countLessThan(Object object) {
+        int count = 0;
+        Node<E> node = mRoot;
+        while (node != null) {
+            if (compare(object, node.mElement) <= 0) {
+                node = node.mLeft;
+            } else {
+                count += sizeOf(node.mLeft) + 1;
+                node = node.mRight;
+            }
+        }
+        return count;
+    }
+
+    public E first() {
+        if (mRoot == null) {
+            throw new NoSuchElementException();
+        }
+        return get(0);
+    }
+
+    public E last() {
+        if (mRoot == null) {
+            throw new NoSuchElementException();
+        }
+        return get(size() - 1);
+    }
+
+    // in-order iterator, keeps path to next node in stack, so that whole
+    // iteration is O(n)
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private final Deque<Node<E>> mPath = new ArrayDeque<>();
+            private int mExpectedModificationCount = mModificationCount;
+            private E mLastReturned;
+
+            {
+                pushLeftPath(mRoot);
+            }
+
+            private void pushLeftPath(Node<E> node) {
+                while (node != null) {
+                    mPath.push(node);
+                    node = node.mLeft;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !mPath.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (mExpectedModificationCount != mModificationCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (mPath.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> node = mPath.pop();
+                pushLeftPath(node.mRight);
+                mLastReturned = node.mElement;
+                return mLastReturned;
+            }
+
+            // removing rebalances the tree, so the path to next element
+            // is searched again from the root
+            @Override
+            public void remove() {
+                if (mLastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                if (mExpectedModificationCount != mModificationCount) {
+                    throw new ConcurrentModificationException();
+                }
+                E removed = mLastReturned;
+                RankedTreeSet.this.remove(removed);
+                mLastReturned = null;
+                mExpectedModificationCount = mModificationCount;
+                mPath.clear();
+                Node<E> node = mRoot;
+                while (node != null) {
+                    if (compare(removed, node.mElement) < 0) {
+                        mPath.push(node);
+                        node = node.mLeft;
+                    } else {
+                        node = node.mRight;
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package com.teamtreehouse.model;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Cache of computed reports, keyed by report type, like "height", and team,
+// or null for report of the whole league. Each result is stored with the
+// version it was computed for: Team.getVersion() for team, or
+// TeamRegistry.getLeagueVersion() for league. Result is served while version
+// is the same, any roster change gives new version, and result is computed
+// again. Is thread safe, so parallel LeagueReport tasks can share it
+public class ReportCache {
+    private final ConcurrentMap<Key, Entry> mEntries = new ConcurrentHashMap<>();
+    private final AtomicLong mNumberOfHits = new AtomicLong();
+    private final AtomicLong mNumberOfMisses = new AtomicLong();
+
+    private static final class Key {
+        private final String mReportType;
+        private final Team mTeam;
+
+        private Key(String reportType, Team team) {
+            mReportType = reportType;
+            mTeam = team;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return mReportType.equals(key.mReportType)
+                    && Objects.equals(mTeam, key.mTeam);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mReportType.hashCode() + Objects.hashCode(mTeam);
+        }
+    }
+
+    private static final class Entry {
+        private final long mVersion;
+        private final Object mResult;
+
+        private Entry(long version, Object result) {
+            mVersion = version;
+            mResult = result;
+        }
+    }
+
+    // @param team - team of report, null for report of whole league
+    // @param version - version of team or league, that result is for
+    // @param computation - computes result, when there is no result for
+    //                      this version
+    // @return cached or computed result
+    @SuppressWarnings("unchecked")
+    public <R> R get(String reportType, Team team, long version,
+                     Supplier<R> computation) {
+        Key key = new Key(reportType, team);
+        Entry entry = mEntries.get(key);
+        if (entry != null && entry.mVersion == version) {
+            mNumberOfHits.incrementAndGet();
+            return (R) entry.mResult;
+        }
+        mNumberOfMisses.incrementAndGet();
+        R result = computation.get();
+        mEntries.put(key, new Entry(version, result));
+        return result;
+    }
+
+    // drops all results of team, e.g. when team is removed
+    public void invalidate(Team team) {
+        mEntries.keySet().removeIf(key -> team.equals(key.mTeam));
+    }
+
+    public void clear() {
+        mEntries.clear();
+    }
+
+    // number of cached results
+    public int size() {
+        return mEntries.size();
+    }
+
+    public long getNumberOfHits() {
+        return mNumberOfHits.get();
+    }
+
+    public long getNumberOfMisses() {
+        return mNumberOfMisses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "results: " + size() + ", hits: " + getNumberOfHits()
+                + ", misses: " + getNumberOfMisses();
+    }
+}
@@ -0,0 +1,113 @@
+package com.teamtreehouse.model;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Live feed of match results: producers publish() results to bounded
+// BlockingQueue, and one consumer thread applies them to Standings, one
+// by one, as they come. When queue is full, publish() waits, so fast
+// producer can't run out of memory. close() waits until all published
+// results are applied
+public class ResultsFeed implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // is put to queue by close(), consumer stops on it
+    private static final MatchResult END_OF_FEED = new MatchResult(
+            new Team("end", "of feed"), new Team("feed", "of feed"), 0, 0);
+
+    private final BlockingQueue<MatchResult> mQueue;
+    private final Standings mStandings;
+    private final Thread mConsumerThread;
+    private final long mStartNanos;
+    // are written by consumer thread only
+    private volatile long mNumberOfResults;
+    private volatile long mElapsedNanos;
+    private boolean mIsClosed;
+
+    public ResultsFeed(Standings standings) {
+        this(standings, DEFAULT_CAPACITY);
+    }
+
+    // starts consumer thread
+    // @throws IllegalArgumentException if capacity is less than 1
+    public ResultsFeed(Standings standings, int capacity) {
+        mQueue = new ArrayBlockingQueue<>(capacity);
+        mStandings = standings;
+        mStartNanos = System.nanoTime();
+        mConsumerThread = new Thread(this::consume, "results-feed");
+        mConsumerThread.setDaemon(true);
+        mConsumerThread.start();
+    }
+
+    private void consume() {
+        try {
+            while (true) {
+                MatchResult matchResult = mQueue.take();
+                if (matchResult == END_OF_FEED) {
+                    break;
+                }
+                mStandings.add(matchResult);
+                mNumberOfResults++;
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        mElapsedNanos = System.nanoTime() - mStartNanos;
+    }
+
+    // waits while queue is full
+    // @throws IllegalStateException if feed is closed
+    // @throws InterruptedException if interrupted while waiting
+    public synchronized void publish(MatchResult matchResult)
+            throws InterruptedException {
+        if (mIsClosed) {
+            throw new IllegalStateException("Feed is closed");
+        }
+        mQueue.put(matchResult);
+    }
+
+    // waits until all published results are in standings. Feed is closed
+    // even if waiting is interrupted: consumer thread is interrupted then
+    // too, so it does not wait for results forever, and results, that are
+    // still in queue, are not applied
+    // @throws IllegalStateException if interrupted while waiting, interrupt
+    //         flag of thread is set again then
+    @Override
+    public synchronized void close() {
+        boolean wasClosed = mIsClosed;
+        mIsClosed = true;
+        try {
+            if (!wasClosed) {
+                mQueue.put(END_OF_FEED);
+            }
+            mConsumerThread.join();
+        } catch (InterruptedException ie) {
+            mConsumerThread.interrupt();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Feed was interrupted", ie);
+        }
+    }
+
+    // number of results applied to standings so far
+    public long getNumberOfResults() {
+        return mNumberOfResults;
+    }
+
+    // from start of feed to close(), 0 while feed is open
+    public long getElapsedNanos() {
+        return mElapsedNanos;
+    }
+
+    public double getResultsPerSecond() {
+        if (mElapsedNanos == 0) {
+            return 0;
+        }
+        return mNumberOfResults * 1e9 / mElapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d results in %.3f s: %.0f results/s",
+                mNumberOfResults, mElapsedNanos / 1e9, getResultsPerSecond());
+    }
+}
@@ -0,0 +1,194 @@
+package com.teamtreehouse.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Moves of players between pool of available players and teams, that are
+// applied all together or not at all:
+// - moveToTeam(): from pool to team
+// - moveToPool(): from team back to pool
+// - move(): from one team to other
+// - trade(): players of two teams are swapped in one step
+// Moves are collected first, then commit() applies them in two phases:
+// all players are removed from where they are, then added where they go,
+// so that even full teams can swap players. If any step fails, steps that
+// were done are undone in reverse order, and nothing is changed.
+// Each step is one add or remove in sorted set, so cost is O(log n) per
+// moved player. Transaction can be committed once
+public class RosterTransaction {
+    private final PlayerPool mPlayersPool;
+    private final List<Move> mMoves = new ArrayList<>();
+    // sort keys of moved players, one player can be moved only once
+    private final Set<String> mMovedPlayers = new HashSet<>();
+    private boolean mIsCommitted;
+
+    // @param playersPool - pool of available players, players moved to
+    //                      pool are added there
+    public RosterTransaction(PlayerPool playersPool) {
+        mPlayersPool = playersPool;
+    }
+
+    // player goes from pool to team
+    public RosterTransaction moveToTeam(Player player, Team team) {
+        return addMove(player, null, team);
+    }
+
+    // player goes from team back to pool
+    public RosterTransaction moveToPool(Player player, Team team) {
+        return addMove(player, team, null);
+    }
+
+    // player goes from one team to other
+    public RosterTransaction move(Player player, Team fromTeam, Team toTeam) {
+        return addMove(player, fromTeam, toTeam);
+    }
+
+    // players of first team go to second team, and players of second team
+    // go to first team. Any of collections can be empty
+    public RosterTransaction trade(Team firstTeam,
+                                   Collection<Player> firstTeamPlayers,
+                                   Team secondTeam,
+                                   Collection<Player> secondTeamPlayers) {
+        for (Player player : firstTeamPlayers) {
+            addMove(player, firstTeam, secondTeam);
+        }
+        for (Player player : secondTeamPlayers) {
+            addMove(player, secondTeam, firstTeam);
+        }
+        return this;
+    }
+
+    // @throws IllegalArgumentException if player is already moved in this
+    //         transaction, or player would stay where it is
+    // @throws IllegalStateException if transaction is committed
+    private RosterTransaction addMove(Player player, Team fromTeam,
+                                      Team toTeam) {
+        checkNotCommitted();
+        if (fromTeam == toTeam) {
+            throw new IllegalArgumentException("Player" + player +
+                    " is moved to where it is");
+        }
+        if (!mMovedPlayers.add(player.getSortKey())) {
+            throw new IllegalArgumentException("Player" + player +
+                    " is already moved in this transaction");
+        }
+        mMoves.add(new Move(player, fromTeam, toTeam));
+        return this;
+    }
+
+    private void checkNotCommitted() {
+        if (mIsCommitted) {
+            throw new IllegalStateException("Transaction is already committed");
+        }
+    }
+
+    public int getNumberOfMoves() {
+        return mMoves.size();
+    }
+
+    // applies all moves, or none of them
+    // @return number of moved players
+    // @throws IllegalStateException with reason, if some move can't be
+    //         done: player is not where it is moved from, team is full or
+    //         player is on other team. Everything is rolled back then.
+    //         Also if transaction is already committed
+    public int commit() {
+        checkNotCommitted();
+        mIsCommitted = true;
+        int numberOfRemovedPlayers = 0;
+        int numberOfAddedPlayers = 0;
+        try {
+            // phase 1: take players from where they are. The player kept
+            // there is moved, it may be other object equal by names
+            for (Move move : mMoves) {
+                move.mMovedPlayer = takePlayer(move.mPlayer, move.mFromTeam);
+                numberOfRemovedPlayers++;
+            }
+            // phase 2: put players where they go
+            for (Move move : mMoves) {
+                putPlayer(move.mMovedPlayer, move.mToTeam);
+                numberOfAddedPlayers++;
+            }
+        } catch (IllegalStateException illegalStateException) {
+            for (int i = numberOfAddedPlayers - 1; i >= 0; i--) {
+                Move move = mMoves.get(i);
+                takePlayer(move.mMovedPlayer, move.mToTeam);
+            }
+            for (int i = numberOfRemovedPlayers - 1; i >= 0; i--) {
+                Move move = mMoves.get(i);
+                putPlayer(move.mMovedPlayer, move.mFromTeam);
+            }
+            throw illegalStateException;
+        }
+        return mMoves.size();
+    }
+
+    // removes player from team, or from pool if team is null
+    // @return player, that was in team or pool
+    // @throws IllegalStateException if player is not there
+    private Player takePlayer(Player player, Team team) {
+        if (team == null) {
+            int rank = mPlayersPool.rankOf(player);
+            if (rank < 0) {
+                throw new IllegalStateException("Player" + player +
+                        " is not in database");
+            }
+            Player playerInPool = mPlayersPool.get(rank);
+            mPlayersPool.remove(playerInPool);
+            return playerInPool;
+        }
+        int rank = team.rankOf(player);
+        if (rank < 0) {
+            throw new IllegalStateException("Player" + player +
+                    " is not on team" + team);
+        }
+        Player playerInTeam = team.getPlayer(rank);
+        team.remove(playerInTeam);
+        return playerInTeam;
+    }
+
+    // adds player to team, or to pool if team is null
+    // @throws IllegalStateException if player can't be added
+    private void putPlayer(Player player, Team team) {
+        if (team == null) {
+            if (!mPlayersPool.add(player)) {
+                throw new IllegalStateException("Player" + player +
+                        " is already in database");
+            }
+            return;
+        }
+        try {
+            if (team.addPlayer(player)) {
+                return;
+            }
+        } catch (IllegalArgumentException illegalArgumentException) {
+            throw new IllegalStateException("Player" + player + " can't " +
+                    "be added: " + illegalArgumentException.getMessage());
+        }
+        if (team.size() == Team.MAX_NUMBER_OF_PLAYERS) {
+            throw new IllegalStateException("Team" + team + " is full");
+        }
+        Team ownerTeam = team.getRegistry() == null ? null
+                : team.getRegistry().getTeamOf(player);
+        throw new IllegalStateException("Player" + player +
+                " is already on team" + (ownerTeam == null ? team : ownerTeam));
+    }
+
+    // player moved from team to team, null team is pool
+    private static class Move {
+        private final Player mPlayer;
+        private final Team mFromTeam;
+        private final Team mToTeam;
+        // player as it was found in team or pool, set upon commit
+        private Player mMovedPlayer;
+
+        private Move(Player player, Team fromTeam, Team toTeam) {
+            mPlayer = player;
+            mFromTeam = fromTeam;
+            mToTeam = toTeam;
+        }
+    }
+}
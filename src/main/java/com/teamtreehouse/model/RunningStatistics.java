@@ -0,0 +1,109 @@
+package com.teamtreehouse.model;
+
+// Count, mean and variance of values, updated in O(1) when value is added
+// or removed, with Welford's method: instead of sums of values and their
+// squares, that lose precision, mean and sum of squared differences from
+// mean (mSumOfSquaredDeviations) are updated. Removing is the same step
+// done backwards.
+// Statistics of several groups are merged with combine(), in O(1) as well,
+// e.g. league statistics from statistics of teams
+public class RunningStatistics {
+    private int mCount;
+    private double mMean;
+    private double mSumOfSquaredDeviations;
+
+    public RunningStatistics() {
+    }
+
+    // statistics computed elsewhere, see HeightIndex.getHeightStatistics()
+    RunningStatistics(int count, double mean, double sumOfSquaredDeviations) {
+        mCount = count;
+        mMean = mean;
+        mSumOfSquaredDeviations = sumOfSquaredDeviations;
+    }
+
+    // copy, so that statistics can be given away without being changed
+    public RunningStatistics(RunningStatistics other) {
+        mCount = other.mCount;
+        mMean = other.mMean;
+        mSumOfSquaredDeviations = other.mSumOfSquaredDeviations;
+    }
+
+    public void add(double value) {
+        mCount++;
+        double delta = value - mMean;
+        mMean += delta / mCount;
+        mSumOfSquaredDeviations += delta * (value - mMean);
+    }
+
+    // value is expected to be added before, otherwise statistics are wrong
+    // @throws IllegalStateException if there are no values
+    public void remove(double value) {
+        if (mCount == 0) {
+            throw new IllegalStateException("No values to remove");
+        }
+        if (mCount == 1) {
+            clear();
+            return;
+        }
+        double delta = value - mMean;
+        mCount--;
+        mMean -= delta / mCount;
+        mSumOfSquaredDeviations -= delta * (value - mMean);
+        // rounding may leave small negative number
+        if (mSumOfSquaredDeviations < 0) {
+            mSumOfSquaredDeviations = 0;
+        }
+    }
+
+    public void clear() {
+        mCount = 0;
+        mMean = 0;
+        mSumOfSquaredDeviations = 0;
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    // @return mean, or 0 if there are no values
+    public double getMean() {
+        return mMean;
+    }
+
+    // population variance, as team or league is the whole population
+    // @return variance, or 0 if there are no values
+    public double getVariance() {
+        return mCount == 0 ? 0 : mSumOfSquaredDeviations / mCount;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    // statistics of both groups of values together, none of two is changed
+    // @return new RunningStatistics
+    public RunningStatistics combine(RunningStatistics other) {
+        RunningStatistics combined = new RunningStatistics(this);
+        if (other.mCount == 0) {
+            return combined;
+        }
+        if (mCount == 0) {
+            return new RunningStatistics(other);
+        }
+        int count = mCount + other.mCount;
+        double delta = other.mMean - mMean;
+        combined.mCount = count;
+        combined.mMean = mMean + delta * other.mCount / count;
+        combined.mSumOfSquaredDeviations = mSumOfSquaredDeviations
+                + other.mSumOfSquaredDeviations
+                + delta * delta * ((double) mCount * other.mCount / count);
+        return combined;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count: %d, mean: %.2f, standard deviation: %.2f",
+                mCount, getMean(), getStandardDeviation());
+    }
+}
@@ -0,0 +1,26 @@
+package com.teamtreehouse.model;
+
+import java.util.Comparator;
+
+// Pick strategies used by commissioners. Ties are broken by name, so that
+// drafts are reproducible
+public enum StandardPickStrategy implements PickStrategy {
+    // tallest available player
+    TALLEST(Comparator.comparingInt(Player::getHeightInInches).reversed()),
+    // experienced players first, tallest of them
+    EXPERIENCE_FIRST(Comparator.comparing(Player::hasPreviousExperience)
+            .reversed()
+            .thenComparing(
+                    Comparator.comparingInt(Player::getHeightInInches).reversed()));
+
+    private final Comparator<Player> mOrder;
+
+    StandardPickStrategy(Comparator<Player> order) {
+        mOrder = order.thenComparing(Comparator.naturalOrder());
+    }
+
+    @Override
+    public Comparator<Player> getOrder() {
+        return mOrder;
+    }
+}
@@ -0,0 +1,358 @@
+package com.teamtreehouse.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// League table, updated with each MatchResult: win is 3 points, draw is 1.
+// Teams are ordered by points, then head-to-head points, goal difference
+// and goals among teams with the same points, then goal difference, goals
+// and name.
+// Rows are kept in RankedTreeSet sorted by points, goal difference, goals
+// and name, so result changes two rows in O(log n): they are removed and
+// added back, nothing is re-sorted. Head-to-head is not part of that order,
+// it depends on group of tied teams, so it is applied on query, only to
+// teams with the same points: they are next to each other in the set.
+// Sorted group is kept by its points until result, added or removed team
+// changes it: result changes only groups with old and new points of its two
+// teams, so queries between results don't sort again, rankOf() is
+// O(log^2 n) then, and getTop() adds O(1) for each row.
+// Methods are synchronized, so results can come from ResultsFeed thread
+// while table is shown
+public class Standings {
+    public static final int POINTS_FOR_WIN = 3;
+    public static final int POINTS_FOR_DRAW = 1;
+
+    // row of table, returned rows are copies
+    public static class Row {
+        private final Team mTeam;
+        private int mNumberOfGames;
+        private int mNumberOfWins;
+        private int mNumberOfDraws;
+        private int mNumberOfLosses;
+        private int mGoalsFor;
+        private int mGoalsAgainst;
+        private int mPoints;
+
+        private Row(Team team) {
+            mTeam = team;
+        }
+
+        private Row(Row row) {
+            mTeam = row.mTeam;
+            mNumberOfGames = row.mNumberOfGames;
+            mNumberOfWins = row.mNumberOfWins;
+            mNumberOfDraws = row.mNumberOfDraws;
+            mNumberOfLosses = row.mNumberOfLosses;
+            mGoalsFor = row.mGoalsFor;
+            mGoalsAgainst = row.mGoalsAgainst;
+            mPoints = row.mPoints;
+        }
+
+        private void add(int goalsFor, int goalsAgainst) {
+            mNumberOfGames++;
+            mGoalsFor += goalsFor;
+            mGoalsAgainst += goalsAgainst;
+            if (goalsFor > goalsAgainst) {
+                mNumberOfWins++;
+                mPoints += POINTS_FOR_WIN;
+            } else if (goalsFor == goalsAgainst) {
+                mNumberOfDraws++;
+                mPoints += POINTS_FOR_DRAW;
+            } else {
+                mNumberOfLosses++;
+            }
+        }
+
+        public Team getTeam() {
+            return mTeam;
+        }
+
+        public int getNumberOfGames() {
+            return mNumberOfGames;
+        }
+
+        public int getNumberOfWins() {
+            return mNumberOfWins;
+        }
+
+        public int getNumberOfDraws() {
+            return mNumberOfDraws;
+        }
+
+        public int getNumberOfLosses() {
+            return mNumberOfLosses;
+        }
+
+        public int getGoalsFor() {
+            return mGoalsFor;
+        }
+
+        public int getGoalsAgainst() {
+            return mGoalsAgainst;
+        }
+
+        public int getGoalDifference() {
+            return mGoalsFor - mGoalsAgainst;
+        }
+
+        public int getPoints() {
+            return mPoints;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s games: %d, W: %d, D: %d, L: %d, " +
+                            "goals: %d:%d, points: %d",
+                    "'" + mTeam.getName() + "'", mNumberOfGames,
+                    mNumberOfWins, mNumberOfDraws, mNumberOfLosses,
+                    mGoalsFor, mGoalsAgainst, mPoints);
+        }
+    }
+
+    private static final Comparator<Row> TABLE_ORDER =
+            Comparator.<Row>comparingInt(row -> -row.mPoints)
+                    .thenComparingInt(row -> -row.getGoalDifference())
+                    .thenComparingInt(row -> -row.mGoalsFor)
+                    .thenComparing(row -> row.mTeam);
+
+    private final Map<Team, Row> mRowsByTeam = new HashMap<>();
+    private final RankedTreeSet<Row> mTable = new RankedTreeSet<>(TABLE_ORDER);
+    // games of team against each opponent, rows are from point of view
+    // of team
+    private final Map<Team, Map<Team, Row>> mHeadToHead = new HashMap<>();
+    private long mNumberOfResults;
+    // groups of teams with the same points, sorted by head-to-head, by their
+    // points. Group is sorted on first query that needs it
+    private final Map<Integer, SortedGroup> mSortedGroups = new HashMap<>();
+
+    // rows of group in order of table and position of each team in it
+    private static class SortedGroup {
+        private final List<Row> mRows;
+        private final Map<Team, Integer> mPositions = new HashMap<>();
+
+        private SortedGroup(List<Row> rows) {
+            mRows = rows;
+            for (int i = 0; i < rows.size(); i++) {
+                mPositions.put(rows.get(i).mTeam, i);
+            }
+        }
+    }
+
+    // adds team with no games, if it is not in table yet
+    public synchronized void addTeam(Team team) {
+        if (!mRowsByTeam.containsKey(team)) {
+            Row row = new Row(team);
+            mRowsByTeam.put(team, row);
+            mTable.add(row);
+            mSortedGroups.remove(row.mPoints);
+        }
+    }
+
+    // removes row of team and its head-to-head games. Rows of opponents
+    // still count games against it
+    public synchronized boolean removeTeam(Team team) {
+        Row row = mRowsByTeam.remove(team);
+        if (row == null) {
+            return false;
+        }
+        mTable.remove(row);
+        // head-to-head of opponents with other points doesn't count team
+        mSortedGroups.remove(row.mPoints);
+        Map<Team, Row> opponents = mHeadToHead.remove(team);
+        if (opponents != null) {
+            for (Team opponent : opponents.keySet()) {
+                mHeadToHead.get(opponent).remove(team);
+            }
+        }
+        return true;
+    }
+
+    // updates rows of both teams, teams are added if needed. O(log n)
+    public synchronized void add(MatchResult matchResult) {
+        Team homeTeam = matchResult.getHomeTeam();
+        Team awayTeam = matchResult.getAwayTeam();
+        addTeam(homeTeam);
+        addTeam(awayTeam);
+        update(homeTeam, matchResult.getHomeGoals(), matchResult.getAwayGoals());
+        update(awayTeam, matchResult.getAwayGoals(), matchResult.getHomeGoals());
+        headToHeadRow(homeTeam, awayTeam).add(
+                matchResult.getHomeGoals(), matchResult.getAwayGoals());
+        headToHeadRow(awayTeam, homeTeam).add(
+                matchResult.getAwayGoals(), matchResult.getHomeGoals());
+        mNumberOfResults++;
+    }
+
+    // row is re-added, because its position in set depends on it. Groups
+    // with old and new points of team are sorted again on next query, that
+    // covers head-to-head games of team too
+    private void update(Team team, int goalsFor, int goalsAgainst) {
+        Row row = mRowsByTeam.get(team);
+        mTable.remove(row);
+        mSortedGroups.remove(row.mPoints);
+        row.add(goalsFor, goalsAgainst);
+        mTable.add(row);
+        mSortedGroups.remove(row.mPoints);
+    }
+
+    private Row headToHeadRow(Team team, Team opponent) {
+        Map<Team, Row> opponents = mHeadToHead.get(team);
+        if (opponents == null) {
+            opponents = new HashMap<>();
+            mHeadToHead.put(team, opponents);
+        }
+        Row row = opponents.get(opponent);
+        if (row == null) {
+            row = new Row(team);
+            opponents.put(opponent, row);
+        }
+        return row;
+    }
+
+    public synchronized int size() {
+        return mTable.size();
+    }
+
+    public synchronized long getNumberOfResults() {
+        return mNumberOfResults;
+    }
+
+    // copy of row of team, or null if team is not in table
+    public synchronized Row getRow(Team team) {
+        Row row = mRowsByTeam.get(team);
+        return row == null ? null : new Row(row);
+    }
+
+    // @return position of team in table, starting from 1, or -1 if team
+    //         is not in table. O(log^2 n) to find group of team, and size
+    //         of group, if it was changed after last query
+    public synchronized int rankOf(Team team) {
+        Row row = mRowsByTeam.get(team);
+        if (row == null) {
+            return -1;
+        }
+        int index = mTable.rankOf(row);
+        int groupStart = findGroupStart(index);
+        return groupStart + getSortedGroup(groupStart).mPositions.get(team)
+                + 1;
+    }
+
+    // first rows of table, in order, copies. Only groups of teams with the
+    // same points that reach top are sorted by head-to-head
+    public synchronized List<Row> getTop(int numberOfRows) {
+        List<Row> top = new ArrayList<>();
+        int index = 0;
+        while (top.size() < numberOfRows && index < mTable.size()) {
+            List<Row> group = getSortedGroup(index).mRows;
+            for (Row row : group) {
+                if (top.size() < numberOfRows) {
+                    top.add(new Row(row));
+                }
+            }
+            index += group.size();
+        }
+        return top;
+    }
+
+    // first index of row with the same points as row at index, binary
+    // search, O(log^2 n)
+    private int findGroupStart(int index) {
+        int points = mTable.get(index).mPoints;
+        int low = 0;
+        int high = index;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (mTable.get(middle).mPoints > points) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // index after last row with the same points as row at index
+    private int findGroupEnd(int index) {
+        int points = mTable.get(index).mPoints;
+        int low = index + 1;
+        int high = mTable.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (mTable.get(middle).mPoints == points) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // group, that starts at index, sorted on first call after it changed
+    private SortedGroup getSortedGroup(int groupStart) {
+        int points = mTable.get(groupStart).mPoints;
+        SortedGroup group = mSortedGroups.get(points);
+        if (group == null) {
+            group = new SortedGroup(
+                    sortGroup(groupStart, findGroupEnd(groupStart)));
+            mSortedGroups.put(points, group);
+        }
+        return group;
+    }
+
+    // rows from start to end, with the same points, sorted by head-to-head
+    // games between them. Sort is stable, so ties keep order of set
+    private List<Row> sortGroup(int start, int end) {
+        List<Row> group = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            group.add(mTable.get(i));
+        }
+        if (group.size() < 2) {
+            return group;
+        }
+        Set<Team> teams = new HashSet<>();
+        for (Row row : group) {
+            teams.add(row.mTeam);
+        }
+        final Map<Team, Row> headToHeadRows = new HashMap<>();
+        for (Row row : group) {
+            Row headToHeadRow = new Row(row.mTeam);
+            Map<Team, Row> opponents = mHeadToHead.get(row.mTeam);
+            if (opponents != null) {
+                // smaller of opponents and group is walked
+                if (opponents.size() <= teams.size()) {
+                    for (Map.Entry<Team, Row> opponent : opponents.entrySet()) {
+                        if (teams.contains(opponent.getKey())) {
+                            addHeadToHead(headToHeadRow, opponent.getValue());
+                        }
+                    }
+                } else {
+                    for (Team team : teams) {
+                        Row opponentRow = opponents.get(team);
+                        if (opponentRow != null) {
+                            addHeadToHead(headToHeadRow, opponentRow);
+                        }
+                    }
+                }
+            }
+            headToHeadRows.put(row.mTeam, headToHeadRow);
+        }
+        Collections.sort(group, Comparator.<Row>comparingInt(
+                row -> -headToHeadRows.get(row.mTeam).mPoints)
+                .thenComparingInt(
+                        row -> -headToHeadRows.get(row.mTeam).getGoalDifference())
+                .thenComparingInt(
+                        row -> -headToHeadRows.get(row.mTeam).mGoalsFor));
+        return group;
+    }
+
+    private static void addHeadToHead(Row headToHeadRow, Row opponentRow) {
+        headToHeadRow.mPoints += opponentRow.mPoints;
+        headToHeadRow.mGoalsFor += opponentRow.mGoalsFor;
+        headToHeadRow.mGoalsAgainst += opponentRow.mGoalsAgainst;
+    }
+}
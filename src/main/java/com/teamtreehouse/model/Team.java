@@ -1,7 +1,6 @@
 package com.teamtreehouse.model;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 // Team implements comparable, so that we can compare teams in Set
 // in prompter, so that administrator can see list of available teams
@@ -18,13 +17,30 @@ public class Team implements Comparable<Team> {
         }
     }
 
-    // primary collection of players, ensures that players are unique
+    // primary collection of players, ensures that players are unique.
+    // Is read only: players are added and removed only through addPlayer()
+    // and remove(), so that statistics below stay right
     public Set<Player> getPlayersSet() {
-        return mPlayersSet;
+        return Collections.unmodifiableSet(mPlayersSet);
     }
-    private Set<Player> mPlayersSet;
+    private RankedTreeSet<Player> mPlayersSet;
 
-    private String mName;
+    // statistics of team, updated in addPlayer() and remove() in O(log H),
+    // so that height and experience distributions are not recomputed. All
+    // height and experience summaries are derived from it
+    private HeightIndex mHeightIndex;
+    private PlayerSearchIndex mSearchIndex;
+    // registry, that team is in, keeps owner team of each player. Is set
+    // by TeamRegistry, null if team is in no registry
+    private TeamRegistry mRegistry;
+    // is changed on every roster change, see Versions and ReportCache
+    private long mVersion;
+    private final Map<String,Integer> mExperienceMapView =
+            new ExperienceMapView();
+
+    // identity of team, case matters: 'Sharks' and 'sharks' are two teams.
+    // Is set once in constructor
+    private final String mName;
     public String getName() {
         return mName;
     }
@@ -43,7 +59,10 @@ public class Team implements Comparable<Team> {
     public Team(String name, String coachName) {
         mName = name;
         mCoachName = coachName;
-        mPlayersSet = new TreeSet<>();
+        mPlayersSet = new RankedTreeSet<>();
+        mHeightIndex = new HeightIndex();
+        mSearchIndex = new PlayerSearchIndex(mPlayersSet);
+        mVersion = Versions.next();
     }
     // now used only in testing
     protected int getTeamSize() {
@@ -51,79 +70,160 @@ public class Team implements Comparable<Team> {
     }
 
     // add player, reuses Set's add ,method, but also returns false
-    // when there are more than MAX_NUMBER_OF_PLAYERS
+    // when there are more than MAX_NUMBER_OF_PLAYERS, or when player is
+    // already on other team of registry. Updates statistics and owner of
+    // player in registry
+    // @throws IllegalArgumentException if height of player is negative or
+    //         more than Player.MAX_HEIGHT_IN_INCHES
     public boolean addPlayer(Player player) {
        if (mPlayersSet.size() < MAX_NUMBER_OF_PLAYERS) {
-           return mPlayersSet.add(player);
+           if (player.getHeightInInches() < 0) {
+               throw new IllegalArgumentException("Height can't be negative");
+           }
+           if (player.getHeightInInches() > Player.MAX_HEIGHT_IN_INCHES) {
+               throw new IllegalArgumentException("Height can't be more than "
+                       + Player.MAX_HEIGHT_IN_INCHES);
+           }
+           if (mRegistry != null && !mRegistry.canOwn(this, player)) {
+               return false;
+           }
+           if (!mPlayersSet.add(player)) {
+               return false;
+           }
+           if (mRegistry != null) {
+               mRegistry.playerAdded(this, player);
+           }
+           mHeightIndex.add(player.getHeightInInches(),
+                   player.hasPreviousExperience());
+           mSearchIndex.add(player);
+           mVersion = Versions.next();
+           return true;
        } else {
            return false;
        }
     }
-    // reuses Set's remove
+    // reuses Set's remove. Statistics are updated with the player that was
+    // in team: it is equal by names, but may be not the same object. Player
+    // is owned by no team of registry after that
     public boolean remove(Player player) {
-        return mPlayersSet.remove(player);
-    }
-
-    // Get the Set of heights of player in team, used in
-    // getListOfNumberOfPlayersWithSpecificHeight
-    private Set<Integer> getSetOfPlayerHeights() {
-        return mPlayersSet
-                .stream()
-                .map(Player::getHeightInInches)
-                .collect(Collectors.toCollection(TreeSet::new));
+        int rank = mPlayersSet.rankOf(player);
+        if (rank < 0) {
+            return false;
+        }
+        Player removedPlayer = mPlayersSet.get(rank);
+        mPlayersSet.remove(removedPlayer);
+        mHeightIndex.remove(removedPlayer.getHeightInInches(),
+                removedPlayer.hasPreviousExperience());
+        mSearchIndex.remove(removedPlayer);
+        if (mRegistry != null) {
+            mRegistry.playerRemoved(removedPlayer);
+        }
+        mVersion = Versions.next();
+        return true;
     }
 
-    // this methods takes tree set of height Integers from method
-    // getSetOfPlayerHeights() and creates Map<Integer,Integer> of
-    // "'height' : '# of players with this height'"
-    // that will help to show the distribution of height throughout the team
-    // and other teams
-    // @return Map<Integer,Integer> map with heights to number of players
+    // "'height' : '# of players with this height'" map, that will help to
+    // show the distribution of height throughout the team and other teams.
+    // Is read only view of height index, that is kept up to date in
+    // addPlayer() and remove(), so nothing is computed here
+    // @return Map<Integer,Integer> map with heights to number of players,
+    //         sorted by height
     public Map<Integer,Integer> getMapOfNumberOfPlayersWithSpecificHeight() {
-        // tree map is used
-        Map<Integer,Integer> mapOfPlayersWithSpecificHeight = new TreeMap<>();
-        // get unique set of heights
-        for (Integer height: getSetOfPlayerHeights()) {
-            int numberOfPlayersWithThisHeight = 0;
-            // calculate # of players with this height
-            for (Player player : mPlayersSet) {
-                if (player.getHeightInInches() == height) {
-                    numberOfPlayersWithThisHeight++;
-                }
-            }
-            // put number of players this high with height key to map
-            mapOfPlayersWithSpecificHeight
-                    .put(height,numberOfPlayersWithThisHeight);
-        }
-        return mapOfPlayersWithSpecificHeight;
+        return mHeightIndex.asMap();
     }
 
-    // maps experience level String : 'experienced' or 'beginner'
-    // to Integer # of players with that experience
+    // maps experience level String : 'Experienced' or 'Beginner'
+    // to Integer # of players with that experience. Is read only view of
+    // height index, kept up to date in addPlayer() and remove()
     // @return Map<String,Integer> : experience level to # of players
     public Map<String,Integer> getMapOfPlayersWithDifferentExperience() {
-        // tree map is used
-        Map<String,Integer> mapOfExperienceLevelToNumberOfPlayers =
-                new TreeMap<>();
-        int numberOfExperiencedPlayers = 0;
-        // calculate players who has experience
-        for (Player player : mPlayersSet) {
-            if (player.hasPreviousExperience()) {
-                numberOfExperiencedPlayers++;
-            }
+        return mExperienceMapView;
+    }
+
+    public int getNumberOfExperiencedPlayers() {
+        return mHeightIndex.getNumberOfExperiencedPlayers();
+    }
+
+    // version of roster: changes when player is added or removed
+    public long getVersion() {
+        return mVersion;
+    }
+
+    // count, mean and variance of heights of players, made from sums in
+    // height index, so statistics of team can't be changed from outside.
+    // O(1)
+    public RunningStatistics getHeightStatistics() {
+        return mHeightIndex.getHeightStatistics();
+    }
+
+    // index of players by height and experience, for range counts in
+    // O(log H). Is changed only by team
+    public HeightIndex getHeightIndex() {
+        return mHeightIndex;
+    }
+
+    // sketch of heights for percentiles, can be merged with sketches of
+    // other teams. Is made from height index, so its width fits current
+    // max height. O(max height), not number of players
+    public HeightSketch getHeightSketch() {
+        return HeightSketch.of(mHeightIndex);
+    }
+
+    // search of players in roster by names, height and experience, is
+    // changed only by team. Positions of last name matches are positions
+    // in getPlayer()
+    public PlayerSearchIndex getSearchIndex() {
+        return mSearchIndex;
+    }
+
+    // registry, that team is in, or null. Owner teams of players are
+    // looked up there, see TeamRegistry.getTeamOf()
+    public TeamRegistry getRegistry() {
+        return mRegistry;
+    }
+
+    // is called only by TeamRegistry, when team is added or removed
+    void setRegistry(TeamRegistry registry) {
+        mRegistry = registry;
+    }
+
+    // @return min height of players, or -1 if team is empty. O(log H)
+    public int getMinHeight() {
+        return mHeightIndex.getMinHeight();
+    }
+
+    // @return max height of players, or -1 if team is empty. O(log H)
+    public int getMaxHeight() {
+        return mHeightIndex.getMaxHeight();
+    }
+
+    // share of experienced players in team
+    // @return number from 0 to 1, 0 if team is empty
+    public double getExperienceRatio() {
+        if (mPlayersSet.isEmpty()) {
+            return 0;
+        }
+        return (double) getNumberOfExperiencedPlayers() / mPlayersSet.size();
+    }
+
+    // "Beginner" and "Experienced" entries, sorted like in TreeMap
+    private class ExperienceMapView extends AbstractMap<String,Integer> {
+        @Override
+        public Set<Entry<String,Integer>> entrySet() {
+            Set<Entry<String,Integer>> entries = new LinkedHashSet<>();
+            entries.add(new SimpleImmutableEntry<>("Beginner",
+                    mPlayersSet.size() - getNumberOfExperiencedPlayers()));
+            entries.add(new SimpleImmutableEntry<>("Experienced",
+                    getNumberOfExperiencedPlayers()));
+            return Collections.unmodifiableSet(entries);
         }
-        // put # of experienced players to map
-        mapOfExperienceLevelToNumberOfPlayers
-                .put("Experienced",numberOfExperiencedPlayers);
-        // put # of beginners to map, by subtracting # of players from
-        // number of experienced players
-        mapOfExperienceLevelToNumberOfPlayers
-                .put("Beginner",
-                        mPlayersSet.size() - numberOfExperiencedPlayers);
-        return mapOfExperienceLevelToNumberOfPlayers;
-    }
-
-    // automatically generated by IDE
+    }
+
+    // Teams are identified by their name only: it never changes, so
+    // equals(), hashCode() and compareTo() are O(1) and team can be safely
+    // kept in hash based and sorted collections while players are added
+    // and removed. To compare whole teams with coaches and players, see
+    // hasSameCoachAndPlayersAs(Team otherTeam)
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -131,33 +231,37 @@ public class Team implements Comparable<Team> {
 
         Team team = (Team) o;
 
-        if (mPlayersSet != null ? !mPlayersSet.equals(team.mPlayersSet) : team.mPlayersSet != null)
-            return false;
-        if (mName != null ? !mName.equals(team.mName) : team.mName != null)
-            return false;
-        return mCoachName != null ? mCoachName.equals(team.mCoachName) : team.mCoachName == null;
-
+        return mName.equals(team.mName);
     }
 
-    // automatically generated by IDE
     @Override
     public int hashCode() {
-        int result = mPlayersSet != null ? mPlayersSet.hashCode() : 0;
-        result = 31 * result + (mName != null ? mName.hashCode() : 0);
-        result = 31 * result + (mCoachName != null ? mCoachName.hashCode() : 0);
-        return result;
+        return mName.hashCode();
     }
 
     // We compare only team names, different coaches can't train one team,
     // so that we can show them alphabetically sorted by name
     @Override
     public int compareTo(Team otherTeam) {
-        if (this.equals(otherTeam)) {
-            return 0;
-        }
         return mName.compareTo(otherTeam.mName);
     }
 
+    // deep comparison of teams: name, coach and all players in roster.
+    // Is O(roster size), that's why it is not used in equals()
+    public boolean hasSameCoachAndPlayersAs(Team otherTeam) {
+        if (this == otherTeam) return true;
+        if (otherTeam == null) return false;
+        if (!mName.equals(otherTeam.mName)) return false;
+        if (mCoachName != null ? !mCoachName.equals(otherTeam.mCoachName)
+                : otherTeam.mCoachName != null) return false;
+        if (mPlayersSet.size() != otherTeam.mPlayersSet.size()) return false;
+        Iterator<Player> otherPlayers = otherTeam.mPlayersSet.iterator();
+        for (Player player : mPlayersSet) {
+            if (!player.equals(otherPlayers.next())) return false;
+        }
+        return true;
+    }
+
     // this method simply uses Set.contains() method, but is here to
     // be called from Team class, to hide implementation details..
     // Hope its a good policy
@@ -165,6 +269,30 @@ public class Team implements Comparable<Team> {
         return mPlayersSet.contains(player);
     }
 
+    // ids of loaded players in team, see PlayerDirectory. Is used to compute
+    // distributions over PlayerColumns. Players without id are skipped
+    public BitSet getPlayerIds() {
+        BitSet playerIds = new BitSet();
+        for (Player player : mPlayersSet) {
+            if (player.getId() != Player.NO_ID) {
+                playerIds.set(player.getId());
+            }
+        }
+        return playerIds;
+    }
+
+    // returns player at given position in alphabetical order of team,
+    // starting from zero. Is used in prompter, when user picks player by id
+    public Player getPlayer(int index) {
+        return mPlayersSet.get(index);
+    }
+
+    // position of player in alphabetical order of team, the same as in
+    // getPlayer(), or -1 if player is not in team
+    public int rankOf(Player player) {
+        return mPlayersSet.rankOf(player);
+    }
+
     public String getCoachName() {
         return mCoachName;
     }
@@ -0,0 +1,206 @@
+package com.teamtreehouse.model;
+
+import java.util.*;
+
+// All teams of the league. Teams are unique by name, see Team.equals(),
+// so registry keeps two indexes:
+// - HashMap from name to team: to check for duplicate name in O(1)
+// - RankedTreeSet of teams sorted by name: to show teams alphabetically
+//   and to pick team by id in O(log n)
+// It also keeps owner of each player in the league: HashMap from sort key
+// of player (names) to team, so "which team is Joe Smith on?" is O(1).
+// Team in registry reports each added and removed player in
+// Team.addPlayer() and Team.remove(), so map can't go out of sync
+// Is used in MainMenuPrompter instead of plain Set<Team>
+public class TeamRegistry extends AbstractSet<Team> {
+    private final Map<String, Team> mTeamsByName;
+    private final RankedTreeSet<Team> mTeamsSortedByName;
+    private final Map<String, Team> mTeamsByPlayer;
+    // is changed when team is added or removed, see Versions
+    private long mVersion;
+
+    public TeamRegistry() {
+        mTeamsByName = new HashMap<>();
+        mTeamsSortedByName = new RankedTreeSet<>();
+        mTeamsByPlayer = new HashMap<>();
+        mVersion = Versions.next();
+    }
+
+    // version of set of teams, rosters are not counted
+    public long getVersion() {
+        return mVersion;
+    }
+
+    // version of registry and rosters of all teams: newest of their
+    // versions. Versions are unique and only grow, so it changes on any
+    // team created or removed, and any player added or removed.
+    // O(number of teams), but no roster is scanned
+    public long getLeagueVersion() {
+        long leagueVersion = mVersion;
+        for (Team team : mTeamsSortedByName) {
+            leagueVersion = Math.max(leagueVersion, team.getVersion());
+        }
+        return leagueVersion;
+    }
+
+    @Override
+    public int size() {
+        return mTeamsByName.size();
+    }
+
+    // true if there is a team with this name (case matters), O(1)
+    public boolean containsName(String teamName) {
+        return mTeamsByName.containsKey(teamName);
+    }
+
+    // @return team with given name (case matters), or null if there is
+    //         no such team
+    public Team getByName(String teamName) {
+        return mTeamsByName.get(teamName);
+    }
+
+    // team, that player with the same names is on, O(1)
+    // @return team or null, if player is on no team of registry
+    public Team getTeamOf(Player player) {
+        return mTeamsByPlayer.get(player.getSortKey());
+    }
+
+    // @return team of player with these names, or null, if there is no
+    //         such player on teams
+    public Team getTeamOf(String firstName, String lastName) {
+        return getTeamOf(new Player(firstName, lastName, 0, false));
+    }
+
+    // number of players on all teams
+    public int getNumberOfPlayers() {
+        return mTeamsByPlayer.size();
+    }
+
+    // true if player can be added to team: it is on no other team
+    boolean canOwn(Team team, Player player) {
+        Team ownerTeam = mTeamsByPlayer.get(player.getSortKey());
+        return ownerTeam == null || ownerTeam == team;
+    }
+
+    // is called by team, after player was added to it
+    void playerAdded(Team team, Player player) {
+        mTeamsByPlayer.put(player.getSortKey(), team);
+    }
+
+    // is called by team, after player was removed from it
+    void playerRemoved(Player player) {
+        mTeamsByPlayer.remove(player.getSortKey());
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        if (!(object instanceof Team)) {
+            return false;
+        }
+        Team team = (Team) object;
+        return mTeamsByName.containsKey(team.getName());
+    }
+
+    // adds team if there is no team with the same name. Players of team
+    // become owned by it
+    // @return true if team was added, false if name is already taken
+    // @throws IllegalArgumentException if team is in other registry, or
+    //         some of its players is already on other team
+    @Override
+    public boolean add(Team team) {
+        if (mTeamsByName.containsKey(team.getName())) {
+            return false;
+        }
+        if (team.getRegistry() != null) {
+            throw new IllegalArgumentException("Team" + team +
+                    " is already in other registry");
+        }
+        for (Player player : team.getPlayersSet()) {
+            if (!canOwn(team, player)) {
+                throw new IllegalArgumentException("Player" + player +
+                        " is already on team" + getTeamOf(player));
+            }
+        }
+        for (Player player : team.getPlayersSet()) {
+            playerAdded(team, player);
+        }
+        team.setRegistry(this);
+        mTeamsByName.put(team.getName(), team);
+        mTeamsSortedByName.add(team);
+        mVersion = Versions.next();
+        return true;
+    }
+
+    // removes team, its players are owned by no team anymore
+    @Override
+    public boolean remove(Object object) {
+        if (!contains(object)) {
+            return false;
+        }
+        Team team = mTeamsByName.remove(((Team) object).getName());
+        mTeamsSortedByName.remove(team);
+        release(team);
+        mVersion = Versions.next();
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (Team team : mTeamsSortedByName) {
+            team.setRegistry(null);
+        }
+        mTeamsByName.clear();
+        mTeamsSortedByName.clear();
+        mTeamsByPlayer.clear();
+        mVersion = Versions.next();
+    }
+
+    // team leaves registry with its players
+    private void release(Team team) {
+        for (Player player : team.getPlayersSet()) {
+            playerRemoved(player);
+        }
+        team.setRegistry(null);
+    }
+
+    // returns team at given position in alphabetical order, starting
+    // from zero. Used when user picks team by id
+    public Team get(int index) {
+        return mTeamsSortedByName.get(index);
+    }
+
+    // returns position of team in alphabetical order, or -1 if team is
+    // not registered
+    public int rankOf(Team team) {
+        return contains(team) ? mTeamsSortedByName.rankOf(team) : -1;
+    }
+
+    // iterates teams alphabetically. Removal through iterator also
+    // removes team from the name index
+    @Override
+    public Iterator<Team> iterator() {
+        final Iterator<Team> sortedIterator = mTeamsSortedByName.iterator();
+        return new Iterator<Team>() {
+            private Team mLastReturned;
+
+            @Override
+            public boolean hasNext() {
+                return sortedIterator.hasNext();
+            }
+
+            @Override
+            public Team next() {
+                mLastReturned = sortedIterator.next();
+                return mLastReturned;
+            }
+
+            @Override
+            public void remove() {
+                sortedIterator.remove();
+                mTeamsByName.remove(mLastReturned.getName());
+                release(mLastReturned);
+                mVersion = Versions.next();
+            }
+        };
+    }
+}
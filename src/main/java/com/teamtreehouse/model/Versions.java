@@ -0,0 +1,19 @@
+package com.teamtreehouse.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Source of versions for teams, registry and pool of players: every change
+// takes next number from one counter, so versions are unique across all of
+// them and only grow. This way new team, created with the name of removed
+// one, never has version of the old team, and the newest change anywhere
+// in league has the biggest version, see TeamRegistry.getLeagueVersion()
+final class Versions {
+    private static final AtomicLong sLastVersion = new AtomicLong();
+
+    private Versions() {
+    }
+
+    static long next() {
+        return sLastVersion.incrementAndGet();
+    }
+}
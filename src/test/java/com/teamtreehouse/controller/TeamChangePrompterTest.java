@@ -125,4 +125,50 @@ public class TeamChangePrompterTest {
                 .contains(mFirstPlayerInPlayersDatabase));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void addingPlayerToFullTeamKeepsPlayerInPlayersSet() throws Exception {
+        // Given full team
+        for (int i = 0; i < Team.MAX_NUMBER_OF_PLAYERS; i++) {
+            Player player = mTeamChangePrompter.getPlayersSet().get(0);
+            mTeam.addPlayer(player);
+            mTeamChangePrompter.getPlayersSet().remove(player);
+        }
+        Player playerToAdd = mTeamChangePrompter.getPlayersSet().get(0);
+        // When user is trying to add one more player
+        when(mMockedBufferedReader.readLine())
+                .thenReturn("add")
+                .thenReturn(String.valueOf(1))
+                .thenReturn("quit");
+        mTeamChangePrompter.presentMenuWithPossibleOptions();
+        // Then player stays in players set, and error is shown
+        assertTrue(mTeamChangePrompter.getPlayersSet().contains(playerToAdd));
+        assertFalse(mTeam.contains(playerToAdd));
+        verify(mMockedLogger).setErrorMessage(contains("is full"));
+    }
+
+    @Test
+    public void addingSelectedPlayersIsAllOrNothing() throws Exception {
+        // Given players selected by filter, and first of them taken from
+        // players set since then
+        when(mMockedBufferedReader.readLine())
+                .thenReturn("filter")
+                .thenReturn("height >= 0")
+                .thenReturn("quit");
+        mTeamChangePrompter.presentMenuWithPossibleOptions();
+        List<Player> selectedPlayers =
+                new ArrayList<>(mTeamChangePrompter.getSelectedPlayers());
+        mTeamChangePrompter.getPlayersSet().remove(selectedPlayers.get(0));
+        int numberOfPlayersInSet = mTeamChangePrompter.getPlayersSet().size();
+        // When selected players are added
+        when(mMockedBufferedReader.readLine())
+                .thenReturn("add selected")
+                .thenReturn("quit");
+        mTeamChangePrompter.presentMenuWithPossibleOptions();
+        // Then nobody is moved, and error is shown
+        assertEquals(0, mTeam.size());
+        assertEquals(numberOfPlayersInSet,
+                mTeamChangePrompter.getPlayersSet().size());
+        verify(mMockedLogger).setErrorMessage(contains("Nothing is changed"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class AutoAssignerTest {
+    private List<Team> mTeams;
+    private Set<Player> mPlayersPool;
+
+    @Before
+    public void setUp() throws Exception {
+        mTeams = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            mTeams.add(new Team("team" + i, "coach name"));
+        }
+        mPlayersPool = new RankedTreeSet<>();
+        Random random = new Random(21);
+        for (int i = 0; i < 200; i++) {
+            mPlayersPool.add(new Player("first" + i, "last" + i,
+                    35 + random.nextInt(15), random.nextInt(3) == 0));
+        }
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    @Test
+    public void assignmentFillsTeamsAndIsBetterThanRandomOne()
+            throws Exception {
+        // Given 20 empty teams and 200 players, less than 20 * 11
+        // When players are assigned
+        AutoAssigner.Result result =
+                new AutoAssigner(42, 10000, 2, 100000).assign(mTeams, mPlayersPool);
+        // Then all players are assigned once, no team is over the limit,
+        // and teams are more balanced than at random
+        Set<Player> assignedPlayers = new HashSet<>();
+        for (List<Player> players : result.getPlayersByTeam().values()) {
+            assertTrue(players.size() <= Team.MAX_NUMBER_OF_PLAYERS);
+            assignedPlayers.addAll(players);
+        }
+        assertEquals(mPlayersPool, assignedPlayers);
+        assertTrue(result.getScore() < result.getInitialScore());
+    }
+
+    @Test
+    public void sameSeedGivesSameAssignment() throws Exception {
+        // Given two assigners with the same seed
+        // When both assign players
+        AutoAssigner.Result firstResult =
+                new AutoAssigner(7, 60000, 3, 20000).assign(mTeams, mPlayersPool);
+        AutoAssigner.Result secondResult =
+                new AutoAssigner(7, 60000, 3, 20000).assign(mTeams, mPlayersPool);
+        // Then assignments and scores are the same
+        assertEquals(firstResult.getPlayersByTeam(),
+                secondResult.getPlayersByTeam());
+        assertEquals(firstResult.getScore(), secondResult.getScore(), 0);
+    }
+
+    @Test
+    public void sameSeedGivesSameAssignmentOnAnyNumberOfThreads()
+            throws Exception {
+        // Given assigners with the same seed and default restarts, on one
+        // thread, on two threads and on thread per processor
+        // When they assign players
+        AutoAssigner.Result firstResult = new AutoAssigner(7)
+                .assign(mTeams, mPlayersPool);
+        AutoAssigner.Result secondResult = new AutoAssigner(7,
+                AutoAssigner.NO_TIME_BUDGET,
+                AutoAssigner.DEFAULT_NUMBER_OF_RESTARTS,
+                AutoAssigner.DEFAULT_MAX_ITERATIONS, 1)
+                .assign(mTeams, mPlayersPool);
+        AutoAssigner.Result thirdResult = new AutoAssigner(7,
+                AutoAssigner.NO_TIME_BUDGET,
+                AutoAssigner.DEFAULT_NUMBER_OF_RESTARTS,
+                AutoAssigner.DEFAULT_MAX_ITERATIONS, 2)
+                .assign(mTeams, mPlayersPool);
+        // Then assignments are the same, all iterations are done
+        assertEquals(firstResult.getPlayersByTeam(),
+                secondResult.getPlayersByTeam());
+        assertEquals(firstResult.getPlayersByTeam(),
+                thirdResult.getPlayersByTeam());
+        assertEquals(firstResult.getScore(), thirdResult.getScore(), 0);
+        assertEquals(AutoAssigner.DEFAULT_NUMBER_OF_RESTARTS,
+                firstResult.getNumberOfRestarts());
+    }
+
+    @Test
+    public void moreRestartsOnFewerThreadsGiveSameAssignment()
+            throws Exception {
+        // Given assigners with the same seed and 3 restarts, on one thread
+        // and on three threads
+        // When they assign players
+        AutoAssigner.Result firstResult = new AutoAssigner(7,
+                AutoAssigner.NO_TIME_BUDGET, 3, 20000, 1)
+                .assign(mTeams, mPlayersPool);
+        AutoAssigner.Result secondResult = new AutoAssigner(7,
+                AutoAssigner.NO_TIME_BUDGET, 3, 20000, 3)
+                .assign(mTeams, mPlayersPool);
+        // Then assignments are the same
+        assertEquals(firstResult.getPlayersByTeam(),
+                secondResult.getPlayersByTeam());
+        assertEquals(firstResult.getScore(), secondResult.getScore(), 0);
+    }
+
+    @Test
+    public void applyingResultRespectsPlayersAlreadyInTeams()
+            throws Exception {
+        // Given team with ten players, and two other teams
+        List<Team> teams = mTeams.subList(0, 3);
+        Team almostFullTeam = teams.get(0);
+        for (int i = 0; i < 10; i++) {
+            Player player = ((RankedTreeSet<Player>) mPlayersPool).get(0);
+            almostFullTeam.addPlayer(player);
+            mPlayersPool.remove(player);
+        }
+        // When players are assigned and result is applied
+        AutoAssigner.Result result =
+                new AutoAssigner(1, 10000, 1, 10000).assign(teams, mPlayersPool);
+        int numberOfPlayersInPool = mPlayersPool.size();
+        int numberOfMovedPlayers = result.apply(mPlayersPool);
+        // Then almost full team gets one player, others are filled up,
+        // and players are removed from pool
+        Map<Team, List<Player>> playersByTeam = result.getPlayersByTeam();
+        assertEquals(1, playersByTeam.get(almostFullTeam).size());
+        assertEquals(1 + 2 * Team.MAX_NUMBER_OF_PLAYERS, numberOfMovedPlayers);
+        for (Team team : teams) {
+            assertEquals(Team.MAX_NUMBER_OF_PLAYERS, team.size());
+        }
+        assertEquals(numberOfPlayersInPool - numberOfMovedPlayers,
+                mPlayersPool.size());
+    }
+}
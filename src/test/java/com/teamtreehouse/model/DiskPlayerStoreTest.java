@@ -0,0 +1,214 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class DiskPlayerStoreTest {
+    private PlayerDirectory mPlayerDirectory;
+    private DiskPlayerStore mDiskPlayerStore;
+
+    @Before
+    public void setUp() throws Exception {
+        mPlayerDirectory = Players.loadDirectory();
+        Path playersFile = newPlayersFile();
+        DiskPlayerStore.write(mPlayerDirectory, playersFile);
+        mDiskPlayerStore = DiskPlayerStore.open(playersFile, 4);
+    }
+
+    // path of file, that does not exist yet, in new temporary directory
+    private static Path newPlayersFile() throws Exception {
+        Path directory = Files.createTempDirectory("league");
+        directory.toFile().deleteOnExit();
+        Path playersFile = directory.resolve("league.players");
+        playersFile.toFile().deleteOnExit();
+        return playersFile;
+    }
+
+    @Test
+    public void playersReadFromDiskAreSameAsWritten() throws Exception {
+        // Given database written to disk
+        // When players are read by id
+        // Then they are equal to written ones, and found by indexOf
+        assertEquals(mPlayerDirectory.size(), mDiskPlayerStore.size());
+        for (int id = 0; id < mPlayerDirectory.size(); id++) {
+            Player player = mDiskPlayerStore.get(id);
+            assertEquals(mPlayerDirectory.get(id), player);
+            assertEquals(id, mDiskPlayerStore.indexOf(mPlayerDirectory.get(id)));
+        }
+        mDiskPlayerStore.close();
+    }
+
+    @Test
+    public void recentlyUsedPlayersAreTakenFromCache() throws Exception {
+        // Given store with cache of 4 players
+        // When 5 players are read, and then the last 4 of them again
+        for (int id = 0; id < 5; id++) {
+            mDiskPlayerStore.get(id);
+        }
+        for (int id = 1; id < 5; id++) {
+            mDiskPlayerStore.get(id);
+        }
+        // Then first read is all misses, second - all hits
+        assertEquals(5, mDiskPlayerStore.getCache().getNumberOfMisses());
+        assertEquals(4, mDiskPlayerStore.getCache().getNumberOfHits());
+        assertEquals(4, mDiskPlayerStore.getCache().size());
+        // And least recently used player was removed from cache
+        mDiskPlayerStore.get(0);
+        assertEquals(6, mDiskPlayerStore.getCache().getNumberOfMisses());
+        mDiskPlayerStore.close();
+    }
+
+    @Test
+    public void findingPlayerDoesNotReadFromDisk() throws Exception {
+        // Given store on disk
+        Player player = mPlayerDirectory.get(10);
+        // When player is found in full set of store
+        IndexedSet<Player> playersSet = mDiskPlayerStore.newPlayersSet();
+        assertTrue(playersSet.contains(player));
+        assertEquals(10, playersSet.rankOf(player));
+        // Then cache was not used
+        assertEquals(0, mDiskPlayerStore.getCache().getNumberOfMisses());
+        mDiskPlayerStore.close();
+    }
+
+    @Test
+    public void poolOfAllPlayersDoesNotReadFromDisk() throws Exception {
+        // Given store on disk
+        // When pool of all its players is made
+        PlayerPool playerPool = PlayerPool.ofAllPlayers(mDiskPlayerStore);
+        // Then nothing is read, even for index of heights
+        assertEquals(mPlayerDirectory.size(), playerPool.size());
+        assertEquals(0, mDiskPlayerStore.getCache().getNumberOfMisses());
+        assertEquals(mPlayerDirectory.size(),
+                playerPool.getHeightIndex().getNumberOfPlayers());
+        assertEquals(0, mDiskPlayerStore.getCache().getNumberOfMisses());
+        mDiskPlayerStore.close();
+    }
+
+    @Test
+    public void heightsAndExperienceAreReadWithoutDisk() throws Exception {
+        // Given store on disk
+        // When heights and experience of all players are read
+        // Then they are the same as loaded, and nothing is read from disk
+        for (int id = 0; id < mPlayerDirectory.size(); id++) {
+            assertEquals(mPlayerDirectory.get(id).getHeightInInches(),
+                    mDiskPlayerStore.getHeightInInches(id));
+            assertEquals(mPlayerDirectory.get(id).hasPreviousExperience(),
+                    mDiskPlayerStore.hasPreviousExperience(id));
+        }
+        assertEquals(0, mDiskPlayerStore.getCache().getNumberOfMisses());
+        mDiskPlayerStore.close();
+    }
+
+    @Test
+    public void columnsForFiltersAreMadeWithoutDisk() throws Exception {
+        // Given store on disk
+        // When columns are made from it
+        PlayerColumns playerColumns = new PlayerColumns(mDiskPlayerStore);
+        // Then they have the same players, and nothing is read from disk
+        for (int id = 0; id < mPlayerDirectory.size(); id++) {
+            assertEquals(mPlayerDirectory.get(id), playerColumns.get(id));
+        }
+        assertEquals(0, mDiskPlayerStore.getCache().getNumberOfMisses());
+        mDiskPlayerStore.close();
+    }
+
+    @Test
+    public void recordLengthIsTheSameAsWrittenByDataOutputStream()
+            throws Exception {
+        // Given names with ASCII, zero character, and two and three byte
+        // characters
+        String[] names = {"", "Smith", "\u0000", "J\u00f6rg", "\u6728\u6751"};
+        for (String name : names) {
+            // When name is written with writeUTF()
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            new DataOutputStream(bytes).writeUTF(name);
+            // Then computed length is the same
+            assertEquals(bytes.size(), DiskPlayerStore.utfLength(name));
+        }
+    }
+
+    @Test
+    public void playersWithNonAsciiNamesAreReadBack() throws Exception {
+        // Given players with non ASCII names written to disk
+        PlayerDirectory playerDirectory = new PlayerDirectory(new Player[] {
+                new Player("J\u00f6rg", "M\u00fcller", 42, true),
+                new Player("\u6728", "\u6751", 40, false),
+                new Player("Joe", "Smith", 41, true)});
+        Path playersFile = newPlayersFile();
+        DiskPlayerStore.write(playerDirectory, playersFile);
+        // When they are read by id
+        try (DiskPlayerStore diskPlayerStore =
+                     DiskPlayerStore.open(playersFile, 1)) {
+            // Then each record is read from its own offset
+            for (int id = 0; id < playerDirectory.size(); id++) {
+                Player player = diskPlayerStore.get(id);
+                assertEquals(playerDirectory.get(id), player);
+                assertEquals(playerDirectory.get(id).getHeightInInches(),
+                        player.getHeightInInches());
+            }
+        }
+    }
+
+    @Test
+    public void playersInManyRunsAreMergedSortedAndOnce() throws Exception {
+        // Given players in reverse order, each twice with other height,
+        // written in runs of 3 players
+        Player[] players = mPlayerDirectory.toArray();
+        Path playersFile = newPlayersFile();
+        try (DiskPlayerStore.Writer writer =
+                     new DiskPlayerStore.Writer(playersFile, 3)) {
+            for (int id = players.length - 1; id >= 0; id--) {
+                writer.add(new Player(players[id].getFirstName(),
+                        players[id].getLastName(),
+                        players[id].getHeightInInches(),
+                        players[id].hasPreviousExperience()));
+            }
+            for (Player player : players) {
+                writer.add(new Player(player.getFirstName(),
+                        player.getLastName(), 0, false));
+            }
+            // When runs are merged
+            assertEquals(players.length, writer.finish());
+        }
+        // Then each player is once, in order of ids, with first height
+        try (DiskPlayerStore diskPlayerStore =
+                     DiskPlayerStore.open(playersFile, 1)) {
+            assertEquals(players.length, diskPlayerStore.size());
+            for (int id = 0; id < players.length; id++) {
+                assertEquals(players[id], diskPlayerStore.get(id));
+                assertEquals(players[id].getHeightInInches(),
+                        diskPlayerStore.getHeightInInches(id));
+            }
+        }
+        // And only players file is left in directory
+        try (Stream<Path> files = Files.list(playersFile.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void existingFileIsNotOverwritten() throws Exception {
+        // Given existing file
+        Path playersFile = newPlayersFile();
+        Files.write(playersFile, new byte[] {1, 2, 3});
+        // When players are written to it
+        try {
+            DiskPlayerStore.write(mPlayerDirectory, playersFile);
+            fail("Existing file should not be overwritten");
+        } catch (FileAlreadyExistsException fileAlreadyExistsException) {
+            // Then file is not changed
+            assertEquals(3, Files.size(playersFile));
+        }
+        mDiskPlayerStore.close();
+    }
+}
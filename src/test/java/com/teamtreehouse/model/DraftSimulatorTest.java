@@ -0,0 +1,137 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class DraftSimulatorTest {
+    private List<Team> mTeams;
+    private Set<Player> mPlayersPool;
+
+    @Before
+    public void setUp() throws Exception {
+        mTeams = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            mTeams.add(new Team("team" + i, "coach name"));
+        }
+        mPlayersPool = new RankedTreeSet<>();
+        // heights 30 .. 69, every fourth player is experienced
+        for (int i = 0; i < 40; i++) {
+            mPlayersPool.add(new Player("first" + i, "last" + i,
+                    30 + i, i % 4 == 0));
+        }
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    @Test
+    public void snakeDraftReversesOrderInEvenRounds() throws Exception {
+        // Given 3 teams picking tallest players in snake order
+        // When draft is run
+        DraftSimulator.Result result =
+                new DraftSimulator(DraftSimulator.DraftOrder.SNAKE)
+                        .run(mTeams, mPlayersPool, StandardPickStrategy.TALLEST);
+        // Then teams pick 0, 1, 2, then 2, 1, 0, tallest first
+        List<DraftSimulator.Pick> picks = result.getPicks();
+        assertEquals(mTeams.get(0), picks.get(0).getTeam());
+        assertEquals(69, picks.get(0).getPlayer().getHeightInInches());
+        assertEquals(mTeams.get(2), picks.get(2).getTeam());
+        assertEquals(mTeams.get(2), picks.get(3).getTeam());
+        assertEquals(2, picks.get(3).getRound());
+        assertEquals(mTeams.get(0), picks.get(5).getTeam());
+        assertEquals(66, picks.get(3).getPlayer().getHeightInInches());
+    }
+
+    @Test
+    public void draftStopsWhenTeamsAreFullAndRemovesPicksFromPool()
+            throws Exception {
+        // Given 3 teams and 40 players, more than 3 * 11
+        // When round robin draft is run
+        DraftSimulator.Result result =
+                new DraftSimulator(DraftSimulator.DraftOrder.ROUND_ROBIN)
+                        .run(mTeams, mPlayersPool, StandardPickStrategy.TALLEST);
+        // Then all teams are full, picked players are in teams only,
+        // and the rest stays in pool
+        assertEquals(3 * Team.MAX_NUMBER_OF_PLAYERS, result.getPicks().size());
+        assertEquals(Team.MAX_NUMBER_OF_PLAYERS, result.getNumberOfRounds());
+        for (Team team : mTeams) {
+            assertEquals(Team.MAX_NUMBER_OF_PLAYERS, team.size());
+        }
+        assertEquals(40 - 3 * Team.MAX_NUMBER_OF_PLAYERS, mPlayersPool.size());
+        for (DraftSimulator.Pick pick : result.getPicks()) {
+            assertTrue(pick.getTeam().contains(pick.getPlayer()));
+            assertFalse(mPlayersPool.contains(pick.getPlayer()));
+        }
+    }
+
+    @Test
+    public void playerAlreadyInTeamIsLeftForOtherTeams() throws Exception {
+        // Given first team already has tallest player of pool
+        Player tallestPlayer = new Player("first39", "last39", 69, false);
+        mTeams.get(0).addPlayer(tallestPlayer);
+        // When round robin draft is run
+        DraftSimulator.Result result =
+                new DraftSimulator(DraftSimulator.DraftOrder.ROUND_ROBIN)
+                        .run(mTeams, mPlayersPool, StandardPickStrategy.TALLEST);
+        // Then first team picks next tallest, and second team picks
+        // tallest, that stayed in pool
+        List<DraftSimulator.Pick> picks = result.getPicks();
+        assertEquals(68, picks.get(0).getPlayer().getHeightInInches());
+        assertEquals(mTeams.get(1), picks.get(1).getTeam());
+        assertEquals(tallestPlayer, picks.get(1).getPlayer());
+        assertTrue(mTeams.get(1).contains(tallestPlayer));
+        assertFalse(mPlayersPool.contains(tallestPlayer));
+    }
+
+    @Test
+    public void draftStopsWhenPoolIsEmpty() throws Exception {
+        // Given 3 teams and only 4 players
+        Set<Player> playersPool = new RankedTreeSet<>();
+        for (int i = 0; i < 4; i++) {
+            playersPool.add(new Player("first" + i, "last", 40, false));
+        }
+        // When draft is run
+        DraftSimulator.Result result =
+                new DraftSimulator(DraftSimulator.DraftOrder.SNAKE)
+                        .run(mTeams, playersPool, StandardPickStrategy.TALLEST);
+        // Then all 4 players are picked in 2 rounds, last team picks twice,
+        // and pool is empty
+        assertEquals(4, result.getPicks().size());
+        assertEquals(2, result.getNumberOfRounds());
+        assertTrue(playersPool.isEmpty());
+        assertEquals(2, mTeams.get(2).size());
+    }
+
+    @Test
+    public void teamsWithDifferentStrategiesPickDifferentPlayers()
+            throws Exception {
+        // Given team picking experienced players and team picking tallest
+        Map<Team, PickStrategy> pickStrategies = new LinkedHashMap<>();
+        pickStrategies.put(mTeams.get(0), StandardPickStrategy.EXPERIENCE_FIRST);
+        pickStrategies.put(mTeams.get(1), StandardPickStrategy.TALLEST);
+        // When draft is run
+        new DraftSimulator(DraftSimulator.DraftOrder.SNAKE)
+                .run(pickStrategies, mPlayersPool);
+        // Then first team has only experienced players, 10 of them are in
+        // pool, and second team has tallest of the rest
+        assertEquals(10, mTeams.get(0).getNumberOfExperiencedPlayers());
+        assertEquals(69, mTeams.get(1).getMaxHeight());
+        assertEquals(Team.MAX_NUMBER_OF_PLAYERS, mTeams.get(1).size());
+    }
+}
@@ -0,0 +1,150 @@
+package com.teamtreehouse.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class FixtureSchedulerTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2026, 9, 5);
+
+    private static List<Team> createTeams(int numberOfTeams) {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < numberOfTeams; i++) {
+            teams.add(new Team("team" + i, "coach name"));
+        }
+        return teams;
+    }
+
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    @Test
+    public void inSingleRoundEachPairOfTeamsPlaysOnce() throws Exception {
+        // Given 10 teams
+        List<Team> teams = createTeams(10);
+        // When single round-robin is scheduled
+        FixtureScheduler.Schedule schedule = new FixtureScheduler(false, 2)
+                .schedule(teams, FIRST_DATE, 7, Collections.emptySet());
+        // Then there are 9 rounds, every pair plays once, and no team plays
+        // twice in a round
+        assertEquals(9, schedule.getNumberOfRounds());
+        assertEquals(45, schedule.getNumberOfFixtures());
+        Set<String> pairs = new HashSet<>();
+        for (int round = 0; round < schedule.getNumberOfRounds(); round++) {
+            Set<Team> teamsOfRound = new HashSet<>();
+            for (FixtureScheduler.Fixture fixture :
+                    schedule.getFixturesOfRound(round)) {
+                assertTrue(teamsOfRound.add(fixture.getHomeTeam()));
+                assertTrue(teamsOfRound.add(fixture.getAwayTeam()));
+                String first = fixture.getHomeTeam().getName();
+                String second = fixture.getAwayTeam().getName();
+                assertTrue(pairs.add(first.compareTo(second) < 0
+                        ? first + "-" + second : second + "-" + first));
+            }
+        }
+        assertTrue(schedule.isFeasible());
+    }
+
+    @Test
+    public void inDoubleRoundEachTeamHostsEachOtherTeamOnce() throws Exception {
+        // Given 8 teams
+        List<Team> teams = createTeams(8);
+        // When double round-robin with at most 2 away games in a row is
+        // scheduled
+        FixtureScheduler.Schedule schedule = new FixtureScheduler(true, 2)
+                .schedule(teams, FIRST_DATE, 7, Collections.emptySet());
+        // Then every ordered pair plays once, and limit is kept
+        assertEquals(14, schedule.getNumberOfRounds());
+        Set<String> orderedPairs = new HashSet<>();
+        for (FixtureScheduler.Fixture fixture : schedule.getFixtures()) {
+            assertTrue(orderedPairs.add(fixture.getHomeTeam().getName() + "-" +
+                    fixture.getAwayTeam().getName()));
+        }
+        assertEquals(8 * 7, orderedPairs.size());
+        assertTrue(schedule.isFeasible());
+        assertTrue(schedule.getMaxConsecutiveAwayGames() <= 2);
+    }
+
+    @Test
+    public void withOddNumberOfTeamsEachTeamHasOneByePerRound()
+            throws Exception {
+        // Given 7 teams
+        List<Team> teams = createTeams(7);
+        // When single round-robin is scheduled
+        FixtureScheduler.Schedule schedule = new FixtureScheduler(false, 2)
+                .schedule(teams, FIRST_DATE, 7, Collections.emptySet());
+        // Then there are 7 rounds of 3 games, and each team has one bye
+        assertEquals(7, schedule.getNumberOfRounds());
+        assertEquals(3, schedule.getNumberOfFixturesPerRound());
+        Map<Team, Integer> byes = new HashMap<>();
+        for (int round = 0; round < schedule.getNumberOfRounds(); round++) {
+            Team team = schedule.getTeamWithBye(round);
+            assertNotNull(team);
+            byes.merge(team, 1, Integer::sum);
+            for (FixtureScheduler.Fixture fixture :
+                    schedule.getFixturesOfRound(round)) {
+                assertNotEquals(team, fixture.getHomeTeam());
+                assertNotEquals(team, fixture.getAwayTeam());
+            }
+        }
+        assertEquals(7, byes.size());
+    }
+
+    @Test
+    public void blockedDatesAreSkipped() throws Exception {
+        // Given 4 teams and second week blocked
+        List<Team> teams = createTeams(4);
+        Set<LocalDate> blockedDates = new HashSet<>();
+        blockedDates.add(FIRST_DATE.plusDays(7));
+        // When single round-robin is scheduled weekly
+        FixtureScheduler.Schedule schedule = new FixtureScheduler(false, 2)
+                .schedule(teams, FIRST_DATE, 7, blockedDates);
+        // Then second round is played in third week
+        assertEquals(FIRST_DATE, schedule.getDateOfRound(0));
+        assertEquals(FIRST_DATE.plusDays(14), schedule.getDateOfRound(1));
+        assertEquals(FIRST_DATE.plusDays(21), schedule.getDateOfRound(2));
+    }
+
+    @Test
+    public void scheduleIsSameForSameTeams() throws Exception {
+        // Given 20 teams
+        List<Team> teams = createTeams(20);
+        // When schedule is built twice
+        FixtureScheduler fixtureScheduler = new FixtureScheduler(true, 2);
+        FixtureScheduler.Schedule firstSchedule = fixtureScheduler
+                .schedule(teams, FIRST_DATE, 7, Collections.emptySet());
+        FixtureScheduler.Schedule secondSchedule = fixtureScheduler
+                .schedule(teams, FIRST_DATE, 7, Collections.emptySet());
+        // Then fixtures are the same
+        for (int i = 0; i < firstSchedule.getNumberOfFixtures(); i++) {
+            assertEquals(firstSchedule.getFixtures().get(i).toString(),
+                    secondSchedule.getFixtures().get(i).toString());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroConsecutiveAwayGamesAreNotAllowed() throws Exception {
+        // Given no away games allowed
+        // When scheduler is created
+        new FixtureScheduler(true, 0);
+        // Then IllegalArgumentException is thrown
+    }
+}
@@ -0,0 +1,253 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class HeightIndexTest {
+    private PlayerPool mPlayerPool;
+
+    @Before
+    public void setUp() throws Exception {
+        mPlayerPool = PlayerRepository.builtIn().newAvailablePlayersSet();
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    // counts players in range by scanning, to check index against
+    private static int[] scan(Iterable<Player> players,
+                              int minHeight, int maxHeight) {
+        int[] counts = new int[2];
+        for (Player player : players) {
+            int height = player.getHeightInInches();
+            if (height >= minHeight && height <= maxHeight) {
+                counts[0]++;
+                if (player.hasPreviousExperience()) {
+                    counts[1]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static void assertSameCountsAsScan(Iterable<Player> players,
+                                               HeightIndex heightIndex) {
+        for (int minHeight = 0; minHeight < 60; minHeight += 3) {
+            for (int maxHeight = minHeight; maxHeight < 60; maxHeight += 2) {
+                int[] counts = scan(players, minHeight, maxHeight);
+                assertEquals(counts[0], heightIndex
+                        .countPlayersWithHeightBetween(minHeight, maxHeight));
+                assertEquals(counts[1], heightIndex
+                        .countExperiencedPlayersWithHeightBetween(
+                                minHeight, maxHeight));
+            }
+        }
+    }
+
+    @Test
+    public void indexOfNewPoolHasSameCountsAsScanningPlayers()
+            throws Exception {
+        // Given pool with all built-in players
+        // When players in ranges of heights are counted with index
+        // Then counts are the same as scanning players
+        assertEquals(mPlayerPool.size(),
+                mPlayerPool.getHeightIndex().getNumberOfPlayers());
+        assertSameCountsAsScan(mPlayerPool, mPlayerPool.getHeightIndex());
+    }
+
+    @Test
+    public void heightOfRankIsHeightInSortedHeights() throws Exception {
+        // Given pool with all built-in players and tall player
+        mPlayerPool.add(new Player("Tall", "Player", 300, false));
+        List<Integer> heights = new ArrayList<>();
+        for (Player player : mPlayerPool) {
+            heights.add(player.getHeightInInches());
+        }
+        heights.sort(null);
+        // When height of each rank is taken from index
+        HeightIndex heightIndex = mPlayerPool.getHeightIndex();
+        // Then it is height at that place of sorted heights
+        for (int rank = 1; rank <= heights.size(); rank++) {
+            assertEquals((int) heights.get(rank - 1),
+                    heightIndex.getHeightOfRank(rank));
+        }
+        assertEquals(300, heightIndex.getMaxHeight());
+        assertEquals(-1, heightIndex.getHeightOfRank(0));
+        assertEquals(-1, heightIndex.getHeightOfRank(heights.size() + 1));
+    }
+
+    @Test
+    public void summariesOfIndexAreSameAsRecomputedFromHeights()
+            throws Exception {
+        // Given index and list of same heights
+        HeightIndex heightIndex = new HeightIndex();
+        List<Integer> heights = new ArrayList<>();
+        Random random = new Random(7);
+        // When random heights are added and removed
+        for (int i = 0; i < 2000; i++) {
+            if (heights.isEmpty() || random.nextInt(3) > 0) {
+                int height = 30 + random.nextInt(50);
+                heights.add(height);
+                heightIndex.add(height, random.nextBoolean());
+            } else {
+                int height = heights.remove(random.nextInt(heights.size()));
+                if (heightIndex.countPlayersWithHeight(height, true) > 0) {
+                    heightIndex.remove(height, true);
+                } else {
+                    heightIndex.remove(height, false);
+                }
+            }
+            // Then map, min, max, mean and variance are the same as
+            // recomputed ones
+            if (heights.isEmpty()) {
+                assertEquals(-1, heightIndex.getMinHeight());
+                assertTrue(heightIndex.asMap().isEmpty());
+                continue;
+            }
+            TreeMap<Integer, Integer> expectedMap = new TreeMap<>();
+            double sum = 0;
+            for (int height : heights) {
+                expectedMap.merge(height, 1, Integer::sum);
+                sum += height;
+            }
+            double mean = sum / heights.size();
+            double sumOfSquaredDeviations = 0;
+            for (int height : heights) {
+                sumOfSquaredDeviations += (height - mean) * (height - mean);
+            }
+            RunningStatistics statistics = heightIndex.getHeightStatistics();
+            assertEquals(expectedMap, heightIndex.asMap());
+            assertEquals(expectedMap.firstKey().intValue(),
+                    heightIndex.getMinHeight());
+            assertEquals(expectedMap.lastKey().intValue(),
+                    heightIndex.getMaxHeight());
+            assertEquals(heights.size(), statistics.getCount());
+            assertEquals(mean, statistics.getMean(), 1e-6);
+            assertEquals(sumOfSquaredDeviations / heights.size(),
+                    statistics.getVariance(), 1e-6);
+        }
+    }
+
+    @Test
+    public void movingPlayersBetweenPoolAndTeamKeepsBothIndexesInSync()
+            throws Exception {
+        // Given pool and team
+        Team team = new Team("team","coach name");
+        Random random = new Random(5);
+        // When random players are moved to team and back, like in
+        // TeamChangePrompter
+        for (int i = 0; i < 200; i++) {
+            if (team.size() < Team.MAX_NUMBER_OF_PLAYERS
+                    && random.nextBoolean()) {
+                Player player =
+                        mPlayerPool.get(random.nextInt(mPlayerPool.size()));
+                team.addPlayer(player);
+                mPlayerPool.remove(player);
+            } else if (team.size() > 0) {
+                Player player = team.getPlayer(random.nextInt(team.size()));
+                team.remove(player);
+                mPlayerPool.add(player);
+            }
+        }
+        // Then both indexes have same counts as scanning
+        assertSameCountsAsScan(mPlayerPool, mPlayerPool.getHeightIndex());
+        assertSameCountsAsScan(team.getPlayersSet(), team.getHeightIndex());
+    }
+
+    @Test
+    public void removingWithIteratorUpdatesIndex() throws Exception {
+        // Given pool with all built-in players
+        // When experienced players are removed with iterator
+        Iterator<Player> iterator = mPlayerPool.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().hasPreviousExperience()) {
+                iterator.remove();
+            }
+        }
+        // Then index has no experienced players
+        HeightIndex heightIndex = mPlayerPool.getHeightIndex();
+        assertEquals(0, heightIndex.getNumberOfExperiencedPlayers());
+        assertEquals(mPlayerPool.size(), heightIndex.countPlayersUpToHeight(
+                heightIndex.getHeightBound()));
+    }
+
+    @Test
+    public void indexGrowsForTallPlayers() throws Exception {
+        // Given pool with player much taller than others
+        List<Player> players = new ArrayList<>();
+        players.add(new Player("John","Doe",1000,true));
+        PlayerPool playerPool = new PlayerPool(new RankedTreeSet<>(players));
+        // When another tall player is added
+        playerPool.add(new Player("Jane","Doe",2000,false));
+        // Then both are counted in right ranges
+        HeightIndex heightIndex = playerPool.getHeightIndex();
+        assertEquals(2, heightIndex.countPlayersWithHeightBetween(1000, 2000));
+        assertEquals(1, heightIndex.countPlayersWithHeightBetween(1001, 5000));
+        assertEquals(1, heightIndex
+                .countExperiencedPlayersWithHeightBetween(0, 1500));
+        assertEquals(0, heightIndex.countPlayersWithHeightBetween(5, 4));
+    }
+
+    @Test
+    public void indexUsedBeforeChangesIsKeptInSync() throws Exception {
+        // Given pool, which index is already used
+        HeightIndex heightIndex = mPlayerPool.getHeightIndex();
+        // When players are removed, some with iterator, and one is added back
+        Player player = mPlayerPool.get(0);
+        mPlayerPool.remove(player);
+        Iterator<Player> iterator = mPlayerPool.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getHeightInInches() > 44) {
+                iterator.remove();
+            }
+        }
+        mPlayerPool.add(player);
+        // Then the same index has the same counts as scan
+        assertSame(heightIndex, mPlayerPool.getHeightIndex());
+        assertEquals(mPlayerPool.size(), heightIndex.getNumberOfPlayers());
+        assertSameCountsAsScan(mPlayerPool, heightIndex);
+    }
+
+    @Test
+    public void rowsWithSameNamesAreCountedOnce() throws Exception {
+        // Given store with two rows of "Joe Smith" and one other player
+        PlayerDirectory playerDirectory = new PlayerDirectory(new Player[] {
+                new Player("Joe", "Smith", 42, true),
+                new Player("Joe", "Smith", 40, false),
+                new Player("Jane", "Doe", 41, true)});
+        // When pool is made of all players of store
+        PlayerPool playerPool = PlayerPool.ofAllPlayers(playerDirectory);
+        // Then index counts players of pool, also after removal
+        assertEquals(playerPool.size(),
+                playerPool.getHeightIndex().getNumberOfPlayers());
+        playerPool.remove(new Player("Jane", "Doe", 41, true));
+        assertEquals(playerPool.size(),
+                playerPool.getHeightIndex().getNumberOfPlayers());
+        assertSameCountsAsScan(playerPool, playerPool.getHeightIndex());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void playerTallerThanMaxHeightIsRejected() throws Exception {
+        // Given pool of built-in players
+        // When player taller than max height is added
+        // Then IllegalArgumentException is thrown
+        mPlayerPool.add(new Player("John", "Doe",
+                Player.MAX_HEIGHT_IN_INCHES + 1, true));
+    }
+}
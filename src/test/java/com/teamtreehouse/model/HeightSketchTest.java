@@ -0,0 +1,145 @@
+package com.teamtreehouse.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HeightSketchTest {
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    // nearest rank percentile of sorted heights
+    private static int exactPercentile(int[] sortedHeights, double fraction) {
+        int rank = Math.max(1,
+                (int) Math.ceil(fraction * sortedHeights.length));
+        return sortedHeights[rank - 1];
+    }
+
+    @Test
+    public void percentilesOfRealHeightsAreExact() throws Exception {
+        // Given sketch of built-in players
+        Player[] players = Players.load();
+        HeightSketch heightSketch = new HeightSketch();
+        int[] heights = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            heights[i] = players[i].getHeightInInches();
+            heightSketch.add(heights[i]);
+        }
+        Arrays.sort(heights);
+        // When percentiles are taken
+        // Then they are the same as exact ones
+        assertEquals(0, heightSketch.getMaxError());
+        for (double fraction : new double[] {0, 0.1, 0.5, 0.9, 1}) {
+            assertEquals(exactPercentile(heights, fraction),
+                    heightSketch.getPercentile(fraction));
+        }
+    }
+
+    @Test
+    public void percentilesOfWideHeightsAreWithinMaxError() throws Exception {
+        // Given sketch of heights much wider than number of buckets
+        Random random = new Random(3);
+        int[] heights = new int[10000];
+        HeightSketch heightSketch = new HeightSketch();
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = random.nextInt(5000);
+            heightSketch.add(heights[i]);
+        }
+        Arrays.sort(heights);
+        // When percentiles are taken
+        // Then they are not farther from exact ones than max error
+        int maxError = heightSketch.getMaxError();
+        assertTrue(maxError > 0);
+        assertTrue(maxError < 5000 / 32);
+        for (double fraction : new double[] {0.1, 0.5, 0.9}) {
+            assertEquals(exactPercentile(heights, fraction),
+                    heightSketch.getPercentile(fraction), maxError);
+        }
+    }
+
+    @Test
+    public void mergedSketchesOfTeamsAreSameAsSketchOfAllPlayers()
+            throws Exception {
+        // Given sketches of three groups of heights, one of them wide
+        HeightSketch allHeightsSketch = new HeightSketch();
+        HeightSketch[] teamSketches = new HeightSketch[3];
+        Random random = new Random(9);
+        for (int team = 0; team < teamSketches.length; team++) {
+            teamSketches[team] = new HeightSketch();
+            for (int i = 0; i < 100; i++) {
+                int height = random.nextInt(team == 1 ? 1000 : 60);
+                teamSketches[team].add(height);
+                allHeightsSketch.add(height);
+            }
+        }
+        // When they are merged
+        HeightSketch leagueSketch = new HeightSketch();
+        for (HeightSketch teamSketch : teamSketches) {
+            leagueSketch.merge(teamSketch);
+        }
+        // Then percentiles are the same as of sketch of all heights
+        assertEquals(300, leagueSketch.getNumberOfPlayers());
+        assertEquals(allHeightsSketch.getMaxError(), leagueSketch.getMaxError());
+        for (double fraction : new double[] {0.1, 0.5, 0.9}) {
+            assertEquals(allHeightsSketch.getPercentile(fraction),
+                    leagueSketch.getPercentile(fraction));
+        }
+    }
+
+    @Test
+    public void sketchOfTeamIsUpdatedWhenPlayerIsRemoved() throws Exception {
+        // Given team with players 40, 45 and 50 inches high
+        Team team = new Team("team","coach name");
+        Player tallPlayer = new Player("C","Doe",50,false);
+        team.addPlayer(new Player("A","Doe",40,true));
+        team.addPlayer(new Player("B","Doe",45,false));
+        team.addPlayer(tallPlayer);
+        // When tallest player is removed
+        team.remove(tallPlayer);
+        // Then percentiles are of two players left
+        HeightSketch heightSketch = team.getHeightSketch();
+        assertEquals(2, heightSketch.getNumberOfPlayers());
+        assertEquals(40, heightSketch.getPercentile(0.5));
+        assertEquals(45, heightSketch.getPercentile(0.9));
+    }
+
+    @Test
+    public void sketchOfTeamIsExactAgainWhenTallPlayerIsRemoved()
+            throws Exception {
+        // Given team with players 40 and 45 inches high, and one player,
+        // that is too tall for buckets one inch wide
+        Team team = new Team("team","coach name");
+        Player tallPlayer = new Player("C","Doe",1000,false);
+        team.addPlayer(new Player("A","Doe",40,true));
+        team.addPlayer(new Player("B","Doe",45,false));
+        team.addPlayer(tallPlayer);
+        assertTrue(team.getHeightSketch().getMaxError() > 0);
+        // When tall player is removed
+        team.remove(tallPlayer);
+        // Then sketch has buckets one inch wide, and percentiles are exact
+        HeightSketch heightSketch = team.getHeightSketch();
+        assertEquals(0, heightSketch.getMaxError());
+        assertEquals(40, heightSketch.getPercentile(0.5));
+        assertEquals(45, heightSketch.getPercentile(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void removingHeightNotInSketchThrowsException() throws Exception {
+        // Given empty sketch
+        // When height is removed
+        // Then IllegalStateException is thrown
+        new HeightSketch().remove(42);
+    }
+}
@@ -0,0 +1,98 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LeagueReportTest {
+    private List<Team> mTeams;
+
+    @Before
+    public void setUp() throws Exception {
+        // many more teams than LeagueReport.SEQUENTIAL_THRESHOLD
+        mTeams = new ArrayList<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 10 * LeagueReport.SEQUENTIAL_THRESHOLD; i++) {
+            Team team = new Team("team" + i, "coach name");
+            for (int j = 0; j < random.nextInt(Team.MAX_NUMBER_OF_PLAYERS + 1); j++) {
+                team.addPlayer(new Player("first" + j, "last" + i,
+                        35 + random.nextInt(15), random.nextBoolean()));
+            }
+            mTeams.add(team);
+        }
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    @Test
+    public void parallelReportIsSameAsSequentialOne() throws Exception {
+        // Given league with many teams
+        // When report is computed sequentially and with four threads
+        LeagueReport sequentialReport = LeagueReport.compute(mTeams, 1);
+        LeagueReport parallelReport = LeagueReport.compute(mTeams, 4);
+        // Then distributions of teams, their order and totals are the same
+        assertEquals(mTeams.size(),
+                parallelReport.getTeamDistributions().size());
+        for (int i = 0; i < mTeams.size(); i++) {
+            LeagueReport.TeamDistribution sequentialDistribution =
+                    sequentialReport.getTeamDistributions().get(i);
+            LeagueReport.TeamDistribution parallelDistribution =
+                    parallelReport.getTeamDistributions().get(i);
+            assertSame(mTeams.get(i), parallelDistribution.getTeam());
+            assertEquals(sequentialDistribution.getHeights(),
+                    parallelDistribution.getHeights());
+            assertEquals(sequentialDistribution.getExperience(),
+                    parallelDistribution.getExperience());
+        }
+        assertEquals(sequentialReport.getLeagueHeights(),
+                parallelReport.getLeagueHeights());
+        assertEquals(sequentialReport.getLeagueExperience(),
+                parallelReport.getLeagueExperience());
+    }
+
+    @Test
+    public void leagueTotalsAreSumsOfTeams() throws Exception {
+        // Given league with many teams
+        int numberOfPlayers = 0;
+        int numberOfExperiencedPlayers = 0;
+        for (Team team : mTeams) {
+            numberOfPlayers += team.size();
+            numberOfExperiencedPlayers += team.getNumberOfExperiencedPlayers();
+        }
+        // When report is computed in parallel
+        LeagueReport leagueReport = LeagueReport.compute(mTeams, 4);
+        // Then league totals have all players
+        int numberOfPlayersInHeights = 0;
+        for (int count : leagueReport.getLeagueHeights().values()) {
+            numberOfPlayersInHeights += count;
+        }
+        assertEquals(numberOfPlayers, numberOfPlayersInHeights);
+        assertEquals(Integer.valueOf(numberOfExperiencedPlayers),
+                leagueReport.getLeagueExperience().get("Experienced"));
+        assertEquals(Integer.valueOf(
+                numberOfPlayers - numberOfExperiencedPlayers),
+                leagueReport.getLeagueExperience().get("Beginner"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelismLessThanOneThrowsException() throws Exception {
+        // Given league
+        // When report is computed with parallelism 0
+        // Then IllegalArgumentException is thrown
+        LeagueReport.compute(mTeams, 0);
+    }
+}
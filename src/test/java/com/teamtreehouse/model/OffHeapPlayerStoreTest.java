@@ -0,0 +1,108 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OffHeapPlayerStoreTest {
+    private PlayerDirectory mPlayerDirectory;
+    private OffHeapPlayerStore mOffHeapPlayerStore;
+
+    @Before
+    public void setUp() throws Exception {
+        mPlayerDirectory = Players.loadDirectory();
+        // players are added in not sorted order of Players.load()
+        OffHeapPlayerStore.Builder builder = new OffHeapPlayerStore.Builder();
+        for (Player player : Players.load()) {
+            builder.add(player);
+        }
+        mOffHeapPlayerStore = builder.build();
+    }
+
+    @Test
+    public void storedPlayersAreSortedLikeDirectory() throws Exception {
+        // Given store built from not sorted players
+        // When players are taken by id
+        // Then they are the same as in sorted directory
+        assertEquals(mPlayerDirectory.size(), mOffHeapPlayerStore.size());
+        for (int id = 0; id < mPlayerDirectory.size(); id++) {
+            assertEquals(mPlayerDirectory.get(id), mOffHeapPlayerStore.get(id));
+            assertEquals(id, mOffHeapPlayerStore.indexOf(mPlayerDirectory.get(id)));
+        }
+    }
+
+    @Test
+    public void playersWithSameNamesAreStoredOnce() throws Exception {
+        // Given two players with same names
+        OffHeapPlayerStore offHeapPlayerStore = new OffHeapPlayerStore.Builder()
+                .add(new Player("John","Doe",1,true))
+                .add(new Player("John","Doe",2,false))
+                .build();
+        // When store is built
+        // Then only first player is stored
+        assertEquals(1, offHeapPlayerStore.size());
+        assertEquals(1, offHeapPlayerStore.get(0).getHeightInInches());
+    }
+
+    @Test
+    public void offHeapSetBehavesLikeRankedTreeSet() throws Exception {
+        // Given full sets of players on heap and out of heap
+        IndexedSet<Player> rankedTreeSet = mPlayerDirectory.newPlayersSet();
+        IndexedSet<Player> offHeapSet = mOffHeapPlayerStore.newPlayersSet();
+        Random random = new Random(42);
+        // When same random players are added and removed
+        for (int i = 0; i < 1000; i++) {
+            Player player =
+                    mPlayerDirectory.get(random.nextInt(mPlayerDirectory.size()));
+            if (random.nextBoolean()) {
+                assertEquals(rankedTreeSet.add(player), offHeapSet.add(player));
+            } else {
+                assertEquals(rankedTreeSet.remove(player),
+                        offHeapSet.remove(player));
+            }
+        }
+        // Then sets have same players at same positions
+        assertEquals(new ArrayList<>(rankedTreeSet), new ArrayList<>(offHeapSet));
+        for (int index = 0; index < rankedTreeSet.size(); index++) {
+            Player player = rankedTreeSet.get(index);
+            assertEquals(player, offHeapSet.get(index));
+            assertEquals(index, offHeapSet.rankOf(player));
+        }
+    }
+
+    @Test
+    public void removingWithIteratorKeepsRanksRight() throws Exception {
+        // Given full set out of heap
+        IndexedSet<Player> offHeapSet = mOffHeapPlayerStore.newPlayersSet();
+        // When every second player is removed with iterator
+        Iterator<Player> iterator = offHeapSet.iterator();
+        int index = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            if (index % 2 == 0) {
+                iterator.remove();
+            }
+            index++;
+        }
+        // Then players with odd ids are left
+        assertEquals(mOffHeapPlayerStore.size() / 2, offHeapSet.size());
+        for (int rank = 0; rank < offHeapSet.size(); rank++) {
+            assertEquals(2 * rank + 1, offHeapSet.get(rank).getId());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addingPlayerNotFromStoreThrowsException() throws Exception {
+        // Given empty set out of heap
+        OffHeapPlayerSet offHeapSet =
+                new OffHeapPlayerSet(mOffHeapPlayerStore, false);
+        // When player not from store is added
+        // Then exception is thrown
+        offHeapSet.add(new Player("John","Doe",1,true));
+    }
+}
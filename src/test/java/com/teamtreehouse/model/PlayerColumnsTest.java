@@ -0,0 +1,67 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.*;
+
+public class PlayerColumnsTest {
+    private PlayerDirectory mPlayerDirectory;
+    private PlayerColumns mPlayerColumns;
+
+    @Before
+    public void setUp() throws Exception {
+        mPlayerDirectory = Players.loadDirectory();
+        mPlayerColumns = new PlayerColumns(mPlayerDirectory);
+    }
+
+    @Test
+    public void playerViewsAreEqualToLoadedPlayers() throws Exception {
+        // Given columns of built-in database
+        // When each player is taken from columns
+        // Then it is equal to loaded player, with the same id
+        for (int id = 0; id < mPlayerDirectory.size(); id++) {
+            Player player = mPlayerColumns.get(id);
+            assertEquals(mPlayerDirectory.get(id), player);
+            assertEquals(id, player.getId());
+        }
+    }
+
+    @Test
+    public void repeatedNamesAreStoredOnce() throws Exception {
+        // Given built-in database, with two "Joe", two "Ben", two "Smith"
+        // When names are encoded
+        // Then there are less names in dictionary than first and last names
+        assertTrue(mPlayerColumns.getNames().size()
+                < 2 * mPlayerDirectory.size());
+        int smithCode = mPlayerColumns.getNames().codeOf("Smith");
+        int numberOfSmiths = 0;
+        for (int id = 0; id < mPlayerColumns.size(); id++) {
+            if (mPlayerColumns.getLastNameCode(id) == smithCode) {
+                numberOfSmiths++;
+            }
+        }
+        assertEquals(2, numberOfSmiths);
+    }
+
+    @Test
+    public void teamDistributionsOverColumnsAreSameAsInTeam()
+            throws Exception {
+        // Given team with first 11 loaded players
+        Team team = new Team("team","coach name");
+        for (int id = 0; id < Team.MAX_NUMBER_OF_PLAYERS; id++) {
+            team.addPlayer(mPlayerDirectory.get(id));
+        }
+        // When distributions are computed over columns
+        BitSet teamPlayerIds = team.getPlayerIds();
+        // Then they are the same as computed by team
+        assertEquals(team.getMapOfNumberOfPlayersWithSpecificHeight(),
+                mPlayerColumns.getMapOfNumberOfPlayersWithSpecificHeight(
+                        teamPlayerIds));
+        assertEquals(team.getMapOfPlayersWithDifferentExperience(),
+                mPlayerColumns.getMapOfPlayersWithDifferentExperience(
+                        teamPlayerIds));
+    }
+}
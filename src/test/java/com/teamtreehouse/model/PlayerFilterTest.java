@@ -0,0 +1,172 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+public class PlayerFilterTest {
+    private PlayerDirectory mPlayerDirectory;
+    private PlayerColumns mPlayerColumns;
+    private PlayerPool mPlayerPool;
+
+    @Before
+    public void setUp() throws Exception {
+        mPlayerDirectory = Players.loadDirectory();
+        mPlayerColumns = new PlayerColumns(mPlayerDirectory);
+        mPlayerPool = PlayerPool.ofAllPlayers(mPlayerDirectory);
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    // players of pool, that match, found with full scan
+    private List<Player> scan(Predicate<Player> predicate) {
+        List<Player> players = new ArrayList<>();
+        for (Player player : mPlayerPool) {
+            if (predicate.test(player)) {
+                players.add(player);
+            }
+        }
+        return players;
+    }
+
+    @Test
+    public void filterOverColumnsAndOverPlayersMatchesTheScan() throws Exception {
+        // Given filter with height, experience and last name prefix
+        PlayerFilter playerFilter = PlayerFilter.parse(
+                "height >= 42 and experienced and lastName startsWith \"S\"");
+        // When players of pool are selected with and without columns
+        List<Player> expectedPlayers = scan(player ->
+                player.getHeightInInches() >= 42
+                        && player.hasPreviousExperience()
+                        && player.getLastName().startsWith("S"));
+        // Then both are the same as found with scan, in order of pool
+        assertFalse(expectedPlayers.isEmpty());
+        assertEquals(expectedPlayers, playerFilter.select(
+                mPlayerPool, mPlayerColumns, Integer.MAX_VALUE));
+        assertEquals(expectedPlayers, playerFilter.select(
+                mPlayerPool, null, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void orNotAndParenthesesHaveUsualPrecedence() throws Exception {
+        // Given filter with 'or', 'not' and parentheses
+        PlayerFilter playerFilter = PlayerFilter.parse(
+                "NOT beginner AND (height < 40 or height = 45) " +
+                        "or firstName = \"Jill\"");
+        // When players are selected
+        List<Player> expectedPlayers = scan(player ->
+                player.hasPreviousExperience()
+                        && (player.getHeightInInches() < 40
+                        || player.getHeightInInches() == 45)
+                        || player.getFirstName().equals("Jill"));
+        // Then 'and' binds stronger than 'or', keywords ignore case
+        assertEquals(expectedPlayers, playerFilter.select(
+                mPlayerPool, mPlayerColumns, Integer.MAX_VALUE));
+        assertEquals(expectedPlayers, playerFilter.select(
+                mPlayerPool, null, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void heightOfGreatestIntDoesNotOverflow() throws Exception {
+        // Given comparisons with the greatest int
+        PlayerFilter greaterThanMax = PlayerFilter.parse(
+                "height > " + Integer.MAX_VALUE);
+        PlayerFilter lessThanMax = PlayerFilter.parse(
+                "height < " + Integer.MAX_VALUE);
+        // When players are selected
+        // Then nobody is taller, and everybody is shorter
+        assertTrue(greaterThanMax.select(
+                mPlayerPool, mPlayerColumns, Integer.MAX_VALUE).isEmpty());
+        assertTrue(greaterThanMax.select(
+                mPlayerPool, null, Integer.MAX_VALUE).isEmpty());
+        assertEquals(mPlayerPool.size(), lessThanMax.select(
+                mPlayerPool, mPlayerColumns, Integer.MAX_VALUE).size());
+        assertEquals(mPlayerPool.size(), lessThanMax.select(
+                mPlayerPool, null, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    public void selectStopsAtLimitWithFirstMatches() throws Exception {
+        // Given filter, that matches many players
+        PlayerFilter playerFilter = PlayerFilter.parse("height != 0");
+        // When at most 3 of them are selected
+        List<Player> players =
+                playerFilter.select(mPlayerPool, mPlayerColumns, 3);
+        // Then first 3 players of pool are selected
+        assertEquals(scan(player -> true).subList(0, 3), players);
+    }
+
+    @Test
+    public void playersWithoutIdAreTestedByFields() throws Exception {
+        // Given players without ids, not in columns
+        List<Player> players = new ArrayList<>();
+        players.add(new Player("Ann", "Smith", 50, true));
+        players.add(new Player("Bob", "Stone", 30, true));
+        // When they are filtered with columns
+        List<Player> selectedPlayers = PlayerFilter
+                .parse("height > 40 and lastName startsWith \"St\" " +
+                        "or firstName = \"Ann\"")
+                .select(players, mPlayerColumns, 10);
+        // Then their own fields are tested
+        assertEquals(1, selectedPlayers.size());
+        assertEquals("Ann", selectedPlayers.get(0).getFirstName());
+    }
+
+    @Test
+    public void poolOutOfHeapIsFilteredByIds() throws Exception {
+        // Given pool out of heap, with some players taken
+        OffHeapPlayerStore.Builder builder = new OffHeapPlayerStore.Builder();
+        for (Player player : Players.load()) {
+            builder.add(player);
+        }
+        OffHeapPlayerStore playerStore = builder.build();
+        PlayerPool playerPool = PlayerPool.ofAllPlayers(playerStore);
+        playerPool.remove(playerStore.get(0));
+        PlayerColumns playerColumns = new PlayerColumns(playerStore);
+        // When players are selected
+        PlayerFilter playerFilter = PlayerFilter.parse("beginner");
+        List<Player> expectedPlayers = new ArrayList<>();
+        for (Player player : playerPool) {
+            if (!player.hasPreviousExperience()) {
+                expectedPlayers.add(player);
+            }
+        }
+        // Then only players in pool are selected
+        assertEquals(expectedPlayers, playerFilter.select(
+                playerPool, playerColumns, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void invalidFilterIsRejectedWithPosition() throws Exception {
+        // Given invalid filters
+        String[] expressions = {"height >= tall", "experienced and",
+                "lastName startsWith S", "(beginner", "weight > 3",
+                "beginner beginner", "height >> 3", "firstName = \"Jo"};
+        for (String expression : expressions) {
+            // When they are parsed
+            try {
+                PlayerFilter.parse(expression);
+                fail("Filter should be rejected: " + expression);
+            } catch (IllegalArgumentException illegalArgumentException) {
+                // Then error tells position
+                assertTrue(illegalArgumentException.getMessage(),
+                        illegalArgumentException.getMessage()
+                                .contains("position"));
+            }
+        }
+    }
+}
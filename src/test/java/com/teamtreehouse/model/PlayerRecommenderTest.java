@@ -0,0 +1,134 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PlayerRecommenderTest {
+    private PlayerPool mPlayerPool;
+    private Team mTeam;
+
+    @Before
+    public void setUp() throws Exception {
+        mPlayerPool = PlayerRepository.builtIn().newAvailablePlayersSet();
+        mTeam = new Team("team","coach name");
+        // three tall experienced players in team
+        for (int i = 0; i < 3; i++) {
+            Player tallestPlayer = null;
+            for (Player player : mPlayerPool) {
+                if (player.hasPreviousExperience() && (tallestPlayer == null
+                        || player.getHeightInInches()
+                        > tallestPlayer.getHeightInInches())) {
+                    tallestPlayer = player;
+                }
+            }
+            mTeam.addPlayer(tallestPlayer);
+            mPlayerPool.remove(tallestPlayer);
+        }
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    // score from PlayerRecommender, computed by adding player to copy of
+    // team and scanning pool
+    private double bruteForceScore(Player player) {
+        double heightSum = 0;
+        double heightSquaresSum = 0;
+        int numberOfExperiencedPlayers = 0;
+        for (Player poolPlayer : mPlayerPool) {
+            heightSum += poolPlayer.getHeightInInches();
+            heightSquaresSum += poolPlayer.getHeightInInches()
+                    * poolPlayer.getHeightInInches();
+            if (poolPlayer.hasPreviousExperience()) {
+                numberOfExperiencedPlayers++;
+            }
+        }
+        double meanHeight = heightSum / mPlayerPool.size();
+        double heightDeviation = Math.sqrt(
+                heightSquaresSum / mPlayerPool.size() - meanHeight * meanHeight);
+        double experienceRatio =
+                (double) numberOfExperiencedPlayers / mPlayerPool.size();
+        double experienceDeviation =
+                Math.sqrt(experienceRatio * (1 - experienceRatio));
+        Team team = new Team("copy","coach name");
+        for (Player teamPlayer : mTeam.getPlayersSet()) {
+            team.addPlayer(teamPlayer);
+        }
+        team.addPlayer(player);
+        return Math.abs(team.getHeightStatistics().getMean() - meanHeight)
+                / heightDeviation
+                + Math.abs(team.getExperienceRatio() - experienceRatio)
+                / experienceDeviation;
+    }
+
+    @Test
+    public void recommendationsAreBestPlayersByBruteForce() throws Exception {
+        // Given team of tall experienced players
+        // When five players are recommended
+        List<PlayerRecommender.Recommendation> recommendations =
+                new PlayerRecommender(mTeam, mPlayerPool).recommend(5);
+        // Then they are five best players of sorted pool, best first
+        List<Player> players = new ArrayList<>(mPlayerPool);
+        players.sort((first, second) -> {
+            int comparison = Double.compare(
+                    bruteForceScore(first), bruteForceScore(second));
+            return comparison != 0 ? comparison : first.compareTo(second);
+        });
+        assertEquals(5, recommendations.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(players.get(i), recommendations.get(i).getPlayer());
+            assertEquals(bruteForceScore(players.get(i)),
+                    recommendations.get(i).getScore(), 1e-9);
+        }
+        // and they are not experienced, to balance team
+        assertFalse(recommendations.get(0).getPlayer().hasPreviousExperience());
+    }
+
+    @Test
+    public void poolOutOfHeapGivesSameRecommendations() throws Exception {
+        // Given same pool kept out of heap
+        OffHeapPlayerStore.Builder builder = new OffHeapPlayerStore.Builder();
+        for (Player player : mPlayerPool) {
+            builder.add(player);
+        }
+        PlayerPool offHeapPool = PlayerPool.ofAllPlayers(builder.build());
+        // When recommendations are made for both pools
+        List<PlayerRecommender.Recommendation> recommendations =
+                new PlayerRecommender(mTeam, mPlayerPool).recommend(7);
+        List<PlayerRecommender.Recommendation> offHeapRecommendations =
+                new PlayerRecommender(mTeam, offHeapPool).recommend(7);
+        // Then same players are recommended
+        assertEquals(recommendations.size(), offHeapRecommendations.size());
+        for (int i = 0; i < recommendations.size(); i++) {
+            assertEquals(recommendations.get(i).getPlayer(),
+                    offHeapRecommendations.get(i).getPlayer());
+        }
+    }
+
+    @Test
+    public void noPlayersAreRecommendedForFullTeam() throws Exception {
+        // Given full team
+        while (mTeam.size() < Team.MAX_NUMBER_OF_PLAYERS) {
+            Player player = mPlayerPool.get(0);
+            mTeam.addPlayer(player);
+            mPlayerPool.remove(player);
+        }
+        // When players are recommended
+        // Then list is empty
+        assertTrue(new PlayerRecommender(mTeam, mPlayerPool)
+                .recommend(3).isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package com.teamtreehouse.model;
+
+import org.junit.Test;
+
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class PlayerRepositoryTest {
+
+    @Test
+    public void builtInDatabaseIsLoadedOnlyOnce() throws Exception {
+        // Given built-in repository
+        // When it is asked twice
+        // Then the same object with the same snapshot is returned
+        assertSame(PlayerRepository.builtIn(), PlayerRepository.builtIn());
+        assertSame(PlayerRepository.builtIn().getSnapshot(),
+                PlayerRepository.builtIn().getSnapshot());
+    }
+
+    @Test
+    public void availablePlayersSetsAreIndependentButSharePlayers()
+            throws Exception {
+        // Given two sets of available players from one repository
+        PlayerRepository playerRepository = PlayerRepository.builtIn();
+        IndexedSet<Player> firstSet =
+                playerRepository.newAvailablePlayersSet();
+        IndexedSet<Player> secondSet =
+                playerRepository.newAvailablePlayersSet();
+        // When player is removed from first set
+        Player player = firstSet.get(0);
+        firstSet.remove(player);
+        // Then second set still has the same player object
+        assertSame(player, secondSet.get(0));
+        assertEquals(playerRepository.size(), secondSet.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotCanNotBeChanged() throws Exception {
+        // Given snapshot of built-in repository
+        // When player is removed from it
+        // Then exception is thrown
+        PlayerRepository.builtIn().getSnapshot().asList().remove(0);
+    }
+
+    @Test
+    public void closingRepositoryClosesFileOfStoreOnDisk() throws Exception {
+        // Given repository with players on disk
+        Path registrationsFile = Files.createTempFile("registrations", ".csv");
+        registrationsFile.toFile().deleteOnExit();
+        Files.write(registrationsFile, ("Joe,Smith,42,true\n" +
+                "Jill,Tanner,36,yes\n").getBytes(StandardCharsets.UTF_8));
+        PlayerRepository playerRepository =
+                PlayerRepository.loadOnDisk(registrationsFile, 1);
+        // When repository is closed
+        playerRepository.close();
+        // Then players can't be read from file anymore
+        try {
+            playerRepository.getPlayerStore().get(0);
+            fail("File of closed store should not be read");
+        } catch (UncheckedIOException uncheckedIOException) {
+            assertTrue(uncheckedIOException.getCause()
+                    instanceof ClosedChannelException);
+        }
+        // And temporary file is deleted, only CSV file is left
+        try (Stream<Path> files =
+                     Files.list(registrationsFile.getParent())) {
+            assertFalse(files.anyMatch(file -> file.getFileName().toString()
+                    .startsWith(registrationsFile.getFileName() + ".")));
+        }
+    }
+
+    @Test
+    public void playersOnDiskAreWrittenToGivenNewFile() throws Exception {
+        // Given registrations and path of players file in new directory
+        Path registrationsFile = Files.createTempFile("registrations", ".csv");
+        registrationsFile.toFile().deleteOnExit();
+        Files.write(registrationsFile, ("Joe,Smith,42,true\n" +
+                "Jill,Tanner,36,yes\n" +
+                "Joe,Smith,40,false\n").getBytes(StandardCharsets.UTF_8));
+        Path directory = Files.createTempDirectory("league");
+        directory.toFile().deleteOnExit();
+        Path playersFile = directory.resolve("league.players");
+        playersFile.toFile().deleteOnExit();
+        // When players are loaded on disk
+        try (PlayerRepository playerRepository = PlayerRepository.loadOnDisk(
+                registrationsFile, playersFile, 1)) {
+            // Then they are sorted and once in store, file is kept
+            assertEquals(2, playerRepository.size());
+            assertEquals(42, playerRepository.getPlayerStore()
+                    .get(0).getHeightInInches());
+        }
+        assertTrue(Files.exists(playersFile));
+        // And existing file is not overwritten
+        try {
+            PlayerRepository.loadOnDisk(registrationsFile, playersFile, 1);
+            fail("Existing file should not be overwritten");
+        } catch (FileAlreadyExistsException fileAlreadyExistsException) {
+            assertTrue(Files.exists(playersFile));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+public class PlayerSearchIndexTest {
+    private PlayerPool mPlayerPool;
+
+    @Before
+    public void setUp() throws Exception {
+        mPlayerPool = new PlayerPool(new RankedTreeSet<>(Players.loadDirectory()
+                .newPlayersSet()));
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    // players of pool, that match, found with full scan
+    private List<Player> scan(Predicate<Player> predicate) {
+        List<Player> players = new ArrayList<>();
+        for (Player player : mPlayerPool) {
+            if (predicate.test(player)) {
+                players.add(player);
+            }
+        }
+        return players;
+    }
+
+    @Test
+    public void lastNamePrefixMatchesAreRangeOfPool() throws Exception {
+        // Given built-in players
+        // When players with last name starting with 'S' are found
+        PlayerSearchIndex.Range players =
+                mPlayerPool.getSearchIndex().findByLastNamePrefix("S");
+        // Then they are the same as found with scan, at their positions in
+        // pool
+        assertEquals(scan(player -> player.getLastName().startsWith("S")),
+                players);
+        for (int i = 0; i < players.size(); i++) {
+            assertEquals(players.getPosition(0) + i,
+                    mPlayerPool.rankOf(players.get(i)));
+        }
+        assertTrue(mPlayerPool.getSearchIndex()
+                .findByLastNamePrefix("Smith").size() > 1);
+        assertEquals(0, mPlayerPool.getSearchIndex()
+                .findByLastNamePrefix("Zz").size());
+    }
+
+    @Test
+    public void firstNameHeightAndExperienceMatchTheScan() throws Exception {
+        // Given built-in players
+        PlayerSearchIndex searchIndex = mPlayerPool.getSearchIndex();
+        // When players are found by first name, height and experience
+        // Then same players are found with scan
+        assertEquals(scan(player -> player.getFirstName().startsWith("J")).size(),
+                searchIndex.findByFirstNamePrefix("J").size());
+        assertEquals(scan(player -> player.getHeightInInches() >= 40
+                        && player.getHeightInInches() <= 42).size(),
+                searchIndex.findByHeight(40, 42).size());
+        for (Player player : searchIndex.findByHeight(40, 42)) {
+            assertTrue(player.getHeightInInches() >= 40);
+            assertTrue(player.getHeightInInches() <= 42);
+        }
+        assertEquals(scan(Player::hasPreviousExperience),
+                new ArrayList<>(searchIndex.findByExperience(true)));
+        assertEquals(mPlayerPool.size(),
+                searchIndex.findByExperience(true).size() +
+                        searchIndex.findByExperience(false).size());
+    }
+
+    @Test
+    public void matchesComeWithTheirPositionsInPool() throws Exception {
+        // Given search index of pool, with one player removed after it
+        // was used
+        PlayerSearchIndex searchIndex = mPlayerPool.getSearchIndex();
+        searchIndex.findByExperience(true);
+        mPlayerPool.remove(mPlayerPool.get(0));
+        // When players are found by first name, height and experience
+        List<PlayerSearchIndex.Range> ranges = new ArrayList<>();
+        ranges.add(searchIndex.findByFirstNamePrefix("J"));
+        ranges.add(searchIndex.findByHeight(40, 44));
+        ranges.add(searchIndex.findByExperience(true));
+        ranges.add(searchIndex.findByExperience(false));
+        // Then position of each match is its rank in pool
+        for (PlayerSearchIndex.Range range : ranges) {
+            assertFalse(range.isEmpty());
+            for (int i = 0; i < range.size(); i++) {
+                assertEquals(mPlayerPool.rankOf(range.get(i)),
+                        range.getPosition(i));
+            }
+        }
+    }
+
+    @Test
+    public void heightRangeUpToMaxIntegerHasAllTallPlayers() throws Exception {
+        // Given search index of pool
+        PlayerSearchIndex searchIndex = mPlayerPool.getSearchIndex();
+        // When players are found without upper bound of height
+        // Then all of them are found, and none with range of any size
+        assertEquals(mPlayerPool.size(), searchIndex
+                .findByHeight(Integer.MIN_VALUE, Integer.MAX_VALUE).size());
+        assertEquals(scan(player -> player.getHeightInInches() >= 45).size(),
+                searchIndex.findByHeight(45, Integer.MAX_VALUE).size());
+        assertEquals(0, searchIndex
+                .findByHeight(Integer.MAX_VALUE, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    public void indexesStayConsistentThroughAddAndRemove() throws Exception {
+        // Given indexes, that are already built
+        PlayerSearchIndex searchIndex = mPlayerPool.getSearchIndex();
+        int numberOfTallPlayers = searchIndex.findByHeight(45, 50).size();
+        Player tallPlayer = searchIndex.findByHeight(45, 50).get(0);
+        // When tall player is removed, with other object, equal by names,
+        // and new tall player is added
+        mPlayerPool.remove(new Player(tallPlayer.getFirstName(),
+                tallPlayer.getLastName(), 0, false));
+        mPlayerPool.add(new Player("Zed", "Zulu", 48, true));
+        // Then both changes are in all indexes
+        assertEquals(numberOfTallPlayers, searchIndex.findByHeight(45, 50).size());
+        assertFalse(searchIndex.findByHeight(45, 50).contains(tallPlayer));
+        assertEquals(1, searchIndex.findByFirstNamePrefix("Zed").size());
+        assertEquals(1, searchIndex.findByLastNamePrefix("Zu").size());
+        assertEquals(scan(Player::hasPreviousExperience),
+                new ArrayList<>(searchIndex.findByExperience(true)));
+    }
+
+    @Test
+    public void teamIndexFollowsRoster() throws Exception {
+        // Given team with two players
+        Team team = new Team("team", "coach name");
+        Player player = mPlayerPool.get(0);
+        team.addPlayer(player);
+        team.addPlayer(mPlayerPool.get(1));
+        // When one of them is removed
+        team.remove(player);
+        // Then only other one is found
+        assertEquals(1, team.getSearchIndex().findByExperience(
+                mPlayerPool.get(1).hasPreviousExperience()).size());
+        assertEquals(0, team.getSearchIndex().findByLastNamePrefix(
+                player.getLastName()).size());
+    }
+
+    @Test
+    public void offHeapPoolFindsSameLastNamesAsPoolOnHeap() throws Exception {
+        // Given pool out of heap with built-in players
+        OffHeapPlayerStore.Builder builder = new OffHeapPlayerStore.Builder();
+        for (Player player : Players.load()) {
+            builder.add(player);
+        }
+        PlayerPool offHeapPool = PlayerPool.ofAllPlayers(builder.build());
+        // When players with last name starting with 'S' are found
+        // Then they are the same as on heap
+        assertEquals(mPlayerPool.getSearchIndex().findByLastNamePrefix("S"),
+                offHeapPool.getSearchIndex().findByLastNamePrefix("S"));
+        assertEquals(mPlayerPool.getSearchIndex().findByHeight(40, 42).size(),
+                offHeapPool.getSearchIndex().findByHeight(40, 42).size());
+    }
+
+    @Test
+    public void offHeapPoolFindsSamePlayersByScanOfIds() throws Exception {
+        // Given pool out of heap with built-in players, one of them taken
+        OffHeapPlayerStore.Builder builder = new OffHeapPlayerStore.Builder();
+        for (Player player : Players.load()) {
+            builder.add(player);
+        }
+        PlayerPool offHeapPool = PlayerPool.ofAllPlayers(builder.build());
+        offHeapPool.remove(mPlayerPool.get(0));
+        mPlayerPool.remove(mPlayerPool.get(0));
+        PlayerSearchIndex searchIndex = offHeapPool.getSearchIndex();
+        // When players are found by first name, height and experience
+        List<PlayerSearchIndex.Range> ranges = new ArrayList<>();
+        ranges.add(searchIndex.findByFirstNamePrefix("J"));
+        ranges.add(searchIndex.findByHeight(40, 44));
+        ranges.add(searchIndex.findByExperience(true));
+        List<PlayerSearchIndex.Range> onHeapRanges = new ArrayList<>();
+        onHeapRanges.add(mPlayerPool.getSearchIndex().findByFirstNamePrefix("J"));
+        onHeapRanges.add(mPlayerPool.getSearchIndex().findByHeight(40, 44));
+        onHeapRanges.add(mPlayerPool.getSearchIndex().findByExperience(true));
+        // Then the same players are found as on heap, in order of pool,
+        // with their positions in pool
+        for (int r = 0; r < ranges.size(); r++) {
+            PlayerSearchIndex.Range range = ranges.get(r);
+            assertEquals(new HashSet<>(onHeapRanges.get(r)),
+                    new HashSet<>(range));
+            for (int i = 0; i < range.size(); i++) {
+                assertEquals(offHeapPool.rankOf(range.get(i)),
+                        range.getPosition(i));
+                if (i > 0) {
+                    assertTrue(range.getPosition(i - 1) < range.getPosition(i));
+                }
+            }
+        }
+    }
+}
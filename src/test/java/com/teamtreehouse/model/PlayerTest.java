@@ -33,4 +33,70 @@ public class PlayerTest {
         assertEquals(-2, abrahamDoe.compareTo(CraigDoe));
     }
 
+    @Test
+    public void shorterLastNameIsSortedBeforeLongerOneWithSameStart()
+            throws Exception {
+        Player johnSmith = new Player("John","Smith",1,true);
+        Player aaronSmithson = new Player("Aaron","Smithson",1,true);
+        assertTrue(johnSmith.compareTo(aaronSmithson) < 0);
+        assertTrue(aaronSmithson.compareTo(johnSmith) > 0);
+    }
+
+    @Test
+    public void playersWithSameNamesButDifferentHeightAreNotEqual()
+            throws Exception {
+        Player johnDoe = new Player("John","Doe",1,true);
+        Player tallJohnDoe = new Player("John","Doe",2,true);
+        assertFalse(johnDoe.equals(tallJohnDoe));
+        assertEquals(0, johnDoe.compareTo(tallJohnDoe));
+    }
+
+    @Test
+    public void loadedPlayersGetIdsInSortedOrder() throws Exception {
+        PlayerDirectory playerDirectory = Players.loadDirectory();
+        for (int id = 0; id < playerDirectory.size(); id++) {
+            Player player = playerDirectory.get(id);
+            assertEquals(id, player.getId());
+            assertTrue(playerDirectory.contains(player));
+            if (id > 0) {
+                assertTrue(playerDirectory.get(id - 1).compareTo(player) < 0);
+            }
+        }
+    }
+
+    @Test
+    public void playersComparedByIdsKeepOrderOfNames() throws Exception {
+        // Given directory with two players of the same names
+        Player[] players = {
+                new Player("John", "Smith", 42, true),
+                new Player("John", "Doe", 1, true),
+                new Player("Aaron", "Smithson", 40, false),
+                new Player("John", "Doe", 2, true)
+        };
+        PlayerDirectory playerDirectory = new PlayerDirectory(players);
+        // When loaded players are compared by ids, and with new players
+        // by names
+        // Then signs are the same as for comparison of names only
+        for (Player player : players) {
+            Player playerWithoutId = new Player(player.getFirstName(),
+                    player.getLastName(), player.getHeightInInches(),
+                    player.hasPreviousExperience());
+            for (Player otherPlayer : players) {
+                int expectedSign = Integer.signum(player.getSortKey()
+                        .compareTo(otherPlayer.getSortKey()));
+                assertEquals(expectedSign,
+                        Integer.signum(player.compareTo(otherPlayer)));
+                assertEquals(expectedSign, Integer.signum(
+                        playerWithoutId.compareTo(otherPlayer)));
+            }
+        }
+        assertEquals(0, playerDirectory.get(0).compareTo(playerDirectory.get(1)));
+    }
+
+    @Test
+    public void newPlayerHasNoId() throws Exception {
+        Player johnDoe = new Player("John","Doe",1,true);
+        assertEquals(Player.NO_ID, johnDoe.getId());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PlayersFileLoaderTest {
+    private Path mRegistrationsFile;
+
+    @Before
+    public void setUp() throws Exception {
+        mRegistrationsFile = Files.createTempFile("registrations", ".csv");
+        mRegistrationsFile.toFile().deleteOnExit();
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    // writes all players from built-in database to file, in CSV format
+    private Player[] writeBuiltInDatabaseToFile() throws Exception {
+        Player[] players = Players.load();
+        StringBuilder csv = new StringBuilder(
+                "firstName,lastName,heightInInches,previousExperience\n");
+        for (Player player : players) {
+            csv.append(player.getFirstName()).append(',')
+                    .append(player.getLastName()).append(',')
+                    .append(player.getHeightInInches()).append(',')
+                    .append(player.hasPreviousExperience()).append('\n');
+        }
+        Files.write(mRegistrationsFile,
+                csv.toString().getBytes(StandardCharsets.UTF_8));
+        return players;
+    }
+
+    @Test
+    public void playersAreLoadedInFileOrderWithSmallChunks() throws Exception {
+        // Given file with built-in database and header
+        Player[] players = writeBuiltInDatabaseToFile();
+        // When it is loaded with chunks much smaller than file
+        Player[] loadedPlayers =
+                new PlayersFileLoader(50).load(mRegistrationsFile);
+        // Then same players are loaded in the same order
+        assertEquals(players.length, loadedPlayers.length);
+        for (int i = 0; i < players.length; i++) {
+            assertEquals(players[i], loadedPlayers[i]);
+        }
+    }
+
+    @Test
+    public void malformedLinesAreSkippedAndCounted() throws Exception {
+        // Given file with windows line endings, spaces, and two bad lines
+        Files.write(mRegistrationsFile, ("Joe, Smith ,42,true\r\n" +
+                "Jill,Tanner,tall,yes\r\n" +
+                "\r\n" +
+                "Bill,Bon,43\r\n" +
+                "Eva,Gordon,45,NO").getBytes(StandardCharsets.UTF_8));
+        // When file is loaded
+        List<Player> loadedPlayers = new ArrayList<>();
+        PlayersFileLoader.Report report = new PlayersFileLoader()
+                .load(mRegistrationsFile, loadedPlayers::add);
+        // Then two players are loaded and two rows are malformed
+        assertEquals(2, report.getNumberOfRows());
+        assertEquals(2, report.getNumberOfMalformedRows());
+        assertEquals(new Player("Joe","Smith",42,true), loadedPlayers.get(0));
+        assertEquals(new Player("Eva","Gordon",45,false), loadedPlayers.get(1));
+    }
+
+    @Test
+    public void tooTallPlayersAreSkippedAsMalformed() throws Exception {
+        // Given file with player, that is taller than max height
+        Files.write(mRegistrationsFile, ("Joe,Smith,42,true\n" +
+                "Jill,Tanner,420000000,yes\n" +
+                "Bill,Bon," + Player.MAX_HEIGHT_IN_INCHES + ",no\n")
+                .getBytes(StandardCharsets.UTF_8));
+        // When file is loaded to repository
+        PlayerRepository playerRepository =
+                PlayerRepository.load(mRegistrationsFile);
+        // Then too tall row is malformed, and heights of pool are counted
+        assertEquals(1, playerRepository.getLoadReport()
+                .getNumberOfMalformedRows());
+        assertEquals(2, playerRepository.newAvailablePlayersSet()
+                .getHeightIndex().getNumberOfPlayers());
+    }
+
+    @Test
+    public void sameNamesShareOneStringObject() throws Exception {
+        // Given file with two players named "Joe"
+        Files.write(mRegistrationsFile, ("Joe,Smith,42,1\n" +
+                "Joe,Kavalier,39,0\n").getBytes(StandardCharsets.UTF_8));
+        // When file is loaded
+        Player[] loadedPlayers = new PlayersFileLoader().load(mRegistrationsFile);
+        // Then both first names are the same object
+        assertSame(loadedPlayers[0].getFirstName(),
+                loadedPlayers[1].getFirstName());
+    }
+}
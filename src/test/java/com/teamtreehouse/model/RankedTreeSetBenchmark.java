@@ -0,0 +1,77 @@
+package com.teamtreehouse.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+// Startup benchmark: filling set of available players one by one, like
+// before, against RankedTreeSet bulk load. Is not a test, run main() with
+// optional number of players as first argument
+public class RankedTreeSetBenchmark {
+    private static final int DEFAULT_NUMBER_OF_PLAYERS = 1000000;
+    private static final int NUMBER_OF_RUNS = 5;
+
+    // random players, with repeated first names, like in real registrations
+    private static List<Player> generatePlayers(int numberOfPlayers) {
+        Random random = new Random(42);
+        String[] firstNames = {"Joe", "Ben", "Jill", "Eva", "Matt", "Kimmy"};
+        List<Player> players = new ArrayList<>(numberOfPlayers);
+        for (int i = 0; i < numberOfPlayers; i++) {
+            players.add(new Player(
+                    firstNames[random.nextInt(firstNames.length)],
+                    "Smith" + random.nextInt(numberOfPlayers),
+                    35 + random.nextInt(13),
+                    random.nextBoolean()));
+        }
+        return players;
+    }
+
+    private static long timeIncrementalTreeSet(List<Player> players) {
+        long start = System.nanoTime();
+        TreeSet<Player> playersSet = new TreeSet<>();
+        for (Player player : players) {
+            playersSet.add(player);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long timeIncrementalRankedTreeSet(List<Player> players) {
+        long start = System.nanoTime();
+        RankedTreeSet<Player> playersSet = new RankedTreeSet<>();
+        for (Player player : players) {
+            playersSet.add(player);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long timeBulkLoad(List<Player> players) {
+        long start = System.nanoTime();
+        new RankedTreeSet<>(players);
+        return System.nanoTime() - start;
+    }
+
+    public static void main(String[] args) {
+        int numberOfPlayers = args.length > 0
+                ? Integer.parseInt(args[0]) : DEFAULT_NUMBER_OF_PLAYERS;
+        List<Player> unsortedPlayers = generatePlayers(numberOfPlayers);
+        List<Player> sortedPlayers = new ArrayList<>(unsortedPlayers);
+        Collections.sort(sortedPlayers);
+        System.out.printf("%d players, best of %d runs, ms%n",
+                numberOfPlayers, NUMBER_OF_RUNS);
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE,
+                Long.MAX_VALUE};
+        for (int run = 0; run < NUMBER_OF_RUNS; run++) {
+            best[0] = Math.min(best[0], timeIncrementalTreeSet(unsortedPlayers));
+            best[1] = Math.min(best[1],
+                    timeIncrementalRankedTreeSet(unsortedPlayers));
+            best[2] = Math.min(best[2], timeBulkLoad(unsortedPlayers));
+            best[3] = Math.min(best[3], timeBulkLoad(sortedPlayers));
+        }
+        System.out.printf("TreeSet, one by one:            %8.1f%n", best[0] / 1e6);
+        System.out.printf("RankedTreeSet, one by one:      %8.1f%n", best[1] / 1e6);
+        System.out.printf("RankedTreeSet, bulk unsorted:   %8.1f%n", best[2] / 1e6);
+        System.out.printf("RankedTreeSet, bulk pre-sorted: %8.1f%n", best[3] / 1e6);
+    }
+}
@@ -0,0 +1,187 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class RankedTreeSetTest {
+    private RankedTreeSet<Player> mPlayersSet;
+
+    @Before
+    public void setUp() throws Exception {
+        mPlayersSet = new RankedTreeSet<>();
+        for (Player player : Players.load()) {
+            mPlayersSet.add(player);
+        }
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    @Test
+    public void getAtIndexReturnsSamePlayerAsTreeSetConvertedToList()
+            throws Exception {
+        // Given TreeSet with same players as mPlayersSet
+        List<Player> playerList =
+                new ArrayList<>(new TreeSet<>(Arrays.asList(Players.load())));
+        // When players are taken by index
+        // Then they should be the same as in sorted list
+        assertEquals(playerList.size(), mPlayersSet.size());
+        for (int index = 0; index < playerList.size(); index++) {
+            assertEquals(playerList.get(index), mPlayersSet.get(index));
+        }
+    }
+
+    @Test
+    public void rankOfPlayerIsInverseOfGet() throws Exception {
+        // Given set of players from database
+        // When rank of each player is taken
+        // Then get(rank) should return the same player
+        for (int index = 0; index < mPlayersSet.size(); index++) {
+            Player player = mPlayersSet.get(index);
+            assertEquals(index, mPlayersSet.rankOf(player));
+        }
+    }
+
+    @Test
+    public void countLessThanIsPositionWherePlayerWouldBe() throws Exception {
+        // Given set of players from database, and player that is not there
+        Player johnDoe = new Player("John","Doe",1,true);
+        // When number of players less than each player is taken
+        // Then it is rank for players in set, and number of players with
+        // names before 'Doe' for John Doe
+        for (int index = 0; index < mPlayersSet.size(); index++) {
+            assertEquals(index, mPlayersSet.countLessThan(mPlayersSet.get(index)));
+        }
+        int numberOfPlayersBeforeDoe = 0;
+        for (Player player : mPlayersSet) {
+            if (player.compareTo(johnDoe) < 0) {
+                numberOfPlayersBeforeDoe++;
+            }
+        }
+        assertEquals(numberOfPlayersBeforeDoe, mPlayersSet.countLessThan(johnDoe));
+    }
+
+    @Test
+    public void rankOfPlayerNotInSetIsMinusOne() throws Exception {
+        // Given player that is not in database
+        Player johnDoe = new Player("John","Doe",1,true);
+        // When rank is asked
+        // Then -1 should be returned
+        assertEquals(-1, mPlayersSet.rankOf(johnDoe));
+    }
+
+    @Test
+    public void addingSamePlayerTwiceReturnsFalse() throws Exception {
+        // Given player already in set
+        Player player = mPlayersSet.get(0);
+        // When it is added again
+        // Then false is returned and size is not changed
+        int sizeBefore = mPlayersSet.size();
+        assertFalse(mPlayersSet.add(player));
+        assertEquals(sizeBefore, mPlayersSet.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void gettingPlayerOutOfRangeThrowsException() throws Exception {
+        // Given set of players
+        // When index equal to size is asked
+        // Then IndexOutOfBoundsException is thrown
+        mPlayersSet.get(mPlayersSet.size());
+    }
+
+    @Test
+    public void randomAddsAndRemovesKeepSameOrderAsTreeSet()
+            throws Exception {
+        // Given RankedTreeSet and TreeSet of Integers
+        RankedTreeSet<Integer> rankedTreeSet = new RankedTreeSet<>();
+        TreeSet<Integer> treeSet = new TreeSet<>();
+        Random random = new Random(42);
+        // When same random adds and removes are done in both
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertEquals(treeSet.add(value), rankedTreeSet.add(value));
+            } else {
+                assertEquals(treeSet.remove(value),
+                        rankedTreeSet.remove(value));
+            }
+        }
+        // Then iteration order and ranks should be the same
+        assertEquals(new ArrayList<>(treeSet),
+                new ArrayList<>(rankedTreeSet));
+        int index = 0;
+        for (Integer value : treeSet) {
+            assertEquals(value, rankedTreeSet.get(index));
+            assertEquals(index, rankedTreeSet.rankOf(value));
+            index++;
+        }
+    }
+
+    @Test
+    public void removingWithIteratorRemovesOnlyReturnedElements()
+            throws Exception {
+        // Given set of numbers from 0 to 99
+        RankedTreeSet<Integer> rankedTreeSet = new RankedTreeSet<>();
+        for (int i = 0; i < 100; i++) {
+            rankedTreeSet.add(i);
+        }
+        // When even numbers are removed with iterator
+        Iterator<Integer> iterator = rankedTreeSet.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        // Then only odd numbers are left, in order
+        assertEquals(50, rankedTreeSet.size());
+        for (int index = 0; index < 50; index++) {
+            assertEquals(Integer.valueOf(2 * index + 1),
+                    rankedTreeSet.get(index));
+        }
+    }
+
+    @Test
+    public void bulkLoadOfUnsortedInputWithDuplicatesIsSameAsTreeSet()
+            throws Exception {
+        // Given big unsorted list of numbers with duplicates
+        List<Integer> numbers = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 3 * RankedTreeSet.PARALLEL_SORT_THRESHOLD; i++) {
+            numbers.add(random.nextInt(RankedTreeSet.PARALLEL_SORT_THRESHOLD));
+        }
+        // When they are bulk loaded
+        RankedTreeSet<Integer> rankedTreeSet = new RankedTreeSet<>(numbers);
+        // Then set is the same as TreeSet, and can be changed afterwards
+        TreeSet<Integer> treeSet = new TreeSet<>(numbers);
+        assertEquals(new ArrayList<>(treeSet), new ArrayList<>(rankedTreeSet));
+        assertEquals(treeSet.first(), rankedTreeSet.get(0));
+        assertTrue(rankedTreeSet.remove(treeSet.first()));
+        assertTrue(rankedTreeSet.add(-1));
+        assertEquals(Integer.valueOf(-1), rankedTreeSet.get(0));
+    }
+
+    @Test
+    public void bulkLoadKeepsFirstOfPlayersWithSameName() throws Exception {
+        // Given two players with same names, but different height
+        Player johnDoe = new Player("John","Doe",1,true);
+        Player tallJohnDoe = new Player("John","Doe",2,true);
+        // When they are bulk loaded
+        RankedTreeSet<Player> rankedTreeSet =
+                new RankedTreeSet<>(Arrays.asList(johnDoe, tallJohnDoe));
+        // Then only first one is in set, like with add()
+        assertEquals(1, rankedTreeSet.size());
+        assertSame(johnDoe, rankedTreeSet.get(0));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ReportCacheTest {
+    private ReportCache mReportCache;
+    private Team mTeam;
+    private AtomicInteger mNumberOfComputations;
+
+    @Before
+    public void setUp() throws Exception {
+        mReportCache = new ReportCache();
+        mTeam = new Team("Sharks","John Doe");
+        mNumberOfComputations = new AtomicInteger();
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    private String report(Team team) {
+        return mReportCache.get("show", team, team.getVersion(), () -> {
+            mNumberOfComputations.incrementAndGet();
+            return team + " " + team.size();
+        });
+    }
+
+    @Test
+    public void reportIsComputedAgainOnlyAfterRosterChanges()
+            throws Exception {
+        // Given report of team computed once
+        report(mTeam);
+        // When report is asked again, then player is added and report is
+        // asked once more
+        report(mTeam);
+        mTeam.addPlayer(new Player("John","Doe",42,true));
+        String report = report(mTeam);
+        // Then report is computed twice, second time with new player
+        assertEquals(2, mNumberOfComputations.get());
+        assertTrue(report.endsWith(" 1"));
+        assertEquals(1, mReportCache.getNumberOfHits());
+        assertEquals(2, mReportCache.getNumberOfMisses());
+    }
+
+    @Test
+    public void failedAddDoesNotChangeVersionOfTeam() throws Exception {
+        // Given team with one player
+        Player player = new Player("John","Doe",42,true);
+        mTeam.addPlayer(player);
+        long version = mTeam.getVersion();
+        // When same player is added again, and other player is removed
+        mTeam.addPlayer(player);
+        mTeam.remove(new Player("Jane","Doe",42,true));
+        // Then version is the same
+        assertEquals(version, mTeam.getVersion());
+    }
+
+    @Test
+    public void newTeamWithNameOfRemovedTeamDoesNotGetItsReport()
+            throws Exception {
+        // Given report of team
+        report(mTeam);
+        // When new team with the same name is created
+        Team newTeam = new Team("Sharks","Jane Doe");
+        newTeam.addPlayer(new Player("John","Doe",42,true));
+        // Then report is computed for new team
+        assertTrue(report(newTeam).contains("Jane Doe"));
+        assertEquals(2, mNumberOfComputations.get());
+    }
+
+    @Test
+    public void leagueVersionChangesWithTeamsAndRosters() throws Exception {
+        // Given registry with one team
+        TeamRegistry teamRegistry = new TeamRegistry();
+        teamRegistry.add(mTeam);
+        long firstVersion = teamRegistry.getLeagueVersion();
+        // When player is added to team
+        mTeam.addPlayer(new Player("John","Doe",42,true));
+        long secondVersion = teamRegistry.getLeagueVersion();
+        // and then team is removed
+        teamRegistry.remove(mTeam);
+        long thirdVersion = teamRegistry.getLeagueVersion();
+        // Then each time league has new version
+        assertTrue(secondVersion > firstVersion);
+        assertTrue(thirdVersion > secondVersion);
+    }
+
+    @Test
+    public void invalidatedTeamHasNoCachedReports() throws Exception {
+        // Given reports of two teams
+        Team otherTeam = new Team("Dragons","Jane Doe");
+        report(mTeam);
+        report(otherTeam);
+        // When first team is invalidated
+        mReportCache.invalidate(mTeam);
+        // Then only report of other team is left
+        assertEquals(1, mReportCache.size());
+        report(otherTeam);
+        assertEquals(1, mReportCache.getNumberOfHits());
+    }
+
+    @Test
+    public void distributionsOfUnchangedTeamsAreTakenFromCache()
+            throws Exception {
+        // Given league report of two teams computed with cache
+        Team otherTeam = new Team("Dragons","Jane Doe");
+        mTeam.addPlayer(new Player("John","Doe",42,true));
+        TeamRegistry teamRegistry = new TeamRegistry();
+        teamRegistry.add(mTeam);
+        teamRegistry.add(otherTeam);
+        LeagueReport.compute(teamRegistry, 1, mReportCache);
+        // When player is added to one team, and report is computed again
+        otherTeam.addPlayer(new Player("Jane","Doe",40,false));
+        LeagueReport leagueReport =
+                LeagueReport.compute(teamRegistry, 1, mReportCache);
+        // Then only changed team is computed again, totals are right
+        assertEquals(1, mReportCache.getNumberOfHits());
+        assertEquals(3, mReportCache.getNumberOfMisses());
+        assertEquals(Integer.valueOf(1),
+                leagueReport.getLeagueExperience().get("Beginner"));
+    }
+}
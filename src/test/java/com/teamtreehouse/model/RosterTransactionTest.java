@@ -0,0 +1,167 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class RosterTransactionTest {
+    private PlayerPool mPlayerPool;
+    private TeamRegistry mTeamRegistry;
+    private Team mSharks;
+    private Team mTigers;
+
+    @Before
+    public void setUp() throws Exception {
+        mPlayerPool = PlayerPool.ofAllPlayers(Players.loadDirectory());
+        mTeamRegistry = new TeamRegistry();
+        mSharks = new Team("Sharks", "John Doe");
+        mTigers = new Team("Tigers", "Jane Doe");
+        mTeamRegistry.add(mSharks);
+        mTeamRegistry.add(mTigers);
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    // moves first players of pool to team, until it is full
+    private void fill(Team team) {
+        RosterTransaction rosterTransaction = new RosterTransaction(mPlayerPool);
+        for (int i = 0; i < Team.MAX_NUMBER_OF_PLAYERS; i++) {
+            rosterTransaction.moveToTeam(mPlayerPool.get(i), team);
+        }
+        rosterTransaction.commit();
+    }
+
+    @Test
+    public void playerMovesFromPoolToTeamAndBack() throws Exception {
+        // Given first player of pool
+        Player player = mPlayerPool.get(0);
+        int poolSize = mPlayerPool.size();
+        // When player is moved to team
+        new RosterTransaction(mPlayerPool).moveToTeam(player, mSharks).commit();
+        // Then player is on team and not in pool
+        assertTrue(mSharks.contains(player));
+        assertFalse(mPlayerPool.contains(player));
+        assertSame(mSharks, mTeamRegistry.getTeamOf(player));
+        // When player is moved back to pool
+        new RosterTransaction(mPlayerPool).moveToPool(player, mSharks).commit();
+        // Then player is in pool again
+        assertEquals(0, mSharks.size());
+        assertEquals(poolSize, mPlayerPool.size());
+        assertNull(mTeamRegistry.getTeamOf(player));
+    }
+
+    @Test
+    public void addingToFullTeamChangesNothing() throws Exception {
+        // Given full team
+        fill(mSharks);
+        Player player = mPlayerPool.get(0);
+        int poolSize = mPlayerPool.size();
+        // When player is moved to it
+        try {
+            new RosterTransaction(mPlayerPool).moveToTeam(player, mSharks)
+                    .commit();
+            fail("Player should not be added to full team");
+        } catch (IllegalStateException illegalStateException) {
+            // Then player is still in pool
+            assertTrue(illegalStateException.getMessage().contains("full"));
+        }
+        assertTrue(mPlayerPool.contains(player));
+        assertEquals(poolSize, mPlayerPool.size());
+        assertEquals(Team.MAX_NUMBER_OF_PLAYERS, mSharks.size());
+    }
+
+    @Test
+    public void fullTeamsSwapPlayersInOneTrade() throws Exception {
+        // Given two full teams
+        fill(mSharks);
+        fill(mTigers);
+        Player shark = mSharks.getPlayer(0);
+        Player tiger = mTigers.getPlayer(0);
+        // When players are traded
+        new RosterTransaction(mPlayerPool).trade(
+                mSharks, Collections.singletonList(shark),
+                mTigers, Collections.singletonList(tiger)).commit();
+        // Then they swapped teams, both teams are still full
+        assertSame(mTigers, mTeamRegistry.getTeamOf(shark));
+        assertSame(mSharks, mTeamRegistry.getTeamOf(tiger));
+        assertEquals(Team.MAX_NUMBER_OF_PLAYERS, mSharks.size());
+        assertEquals(Team.MAX_NUMBER_OF_PLAYERS, mTigers.size());
+    }
+
+    @Test
+    public void failedTradeIsRolledBack() throws Exception {
+        // Given full team and team with two players
+        fill(mSharks);
+        RosterTransaction filling = new RosterTransaction(mPlayerPool);
+        filling.moveToTeam(mPlayerPool.get(0), mTigers);
+        filling.moveToTeam(mPlayerPool.get(1), mTigers);
+        filling.commit();
+        Player firstTiger = mTigers.getPlayer(0);
+        Player secondTiger = mTigers.getPlayer(1);
+        Player shark = mSharks.getPlayer(0);
+        long sharksVersion = mSharks.getVersion();
+        // When two players go to full team, and only one comes back
+        try {
+            new RosterTransaction(mPlayerPool).trade(
+                    mTigers, Arrays.asList(firstTiger, secondTiger),
+                    mSharks, Collections.singletonList(shark)).commit();
+            fail("Full team should not get two players for one");
+        } catch (IllegalStateException illegalStateException) {
+            // Then nobody moved
+            assertTrue(illegalStateException.getMessage().contains("full"));
+        }
+        assertSame(mTigers, mTeamRegistry.getTeamOf(firstTiger));
+        assertSame(mTigers, mTeamRegistry.getTeamOf(secondTiger));
+        assertSame(mSharks, mTeamRegistry.getTeamOf(shark));
+        assertEquals(2, mTigers.size());
+        assertEquals(Team.MAX_NUMBER_OF_PLAYERS, mSharks.size());
+        assertTrue(mSharks.getVersion() > sharksVersion);
+    }
+
+    @Test
+    public void playerNotInPoolIsNotMoved() throws Exception {
+        // Given player on team
+        Player player = mPlayerPool.get(0);
+        new RosterTransaction(mPlayerPool).moveToTeam(player, mSharks).commit();
+        Player otherPlayer = mPlayerPool.get(0);
+        // When both this and other player are moved from pool to other team
+        try {
+            new RosterTransaction(mPlayerPool)
+                    .moveToTeam(otherPlayer, mTigers)
+                    .moveToTeam(player, mTigers)
+                    .commit();
+            fail("Player on team is not in pool");
+        } catch (IllegalStateException illegalStateException) {
+            // Then other player stays in pool too
+            assertTrue(illegalStateException.getMessage()
+                    .contains("not in database"));
+        }
+        assertTrue(mPlayerPool.contains(otherPlayer));
+        assertEquals(0, mTigers.size());
+        assertSame(mSharks, mTeamRegistry.getTeamOf(player));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void playerCanBeMovedOnceInTransaction() throws Exception {
+        // Given transaction with player moved to team
+        Player player = mPlayerPool.get(0);
+        RosterTransaction rosterTransaction =
+                new RosterTransaction(mPlayerPool).moveToTeam(player, mSharks);
+        // When the same player is moved again
+        // Then IllegalArgumentException is thrown
+        rosterTransaction.moveToTeam(player, mTigers);
+    }
+}
@@ -0,0 +1,135 @@
+package com.teamtreehouse.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RunningStatisticsTest {
+    private static final double DELTA = 1e-9;
+
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    private static double mean(List<Integer> values) {
+        double sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum / values.size();
+    }
+
+    private static double variance(List<Integer> values) {
+        double mean = mean(values);
+        double sum = 0;
+        for (int value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return sum / values.size();
+    }
+
+    @Test
+    public void randomAddsAndRemovesGiveSameStatisticsAsRecomputing()
+            throws Exception {
+        // Given running statistics and list of same values
+        RunningStatistics statistics = new RunningStatistics();
+        List<Integer> values = new ArrayList<>();
+        Random random = new Random(11);
+        // When random heights are added and removed
+        for (int i = 0; i < 2000; i++) {
+            if (values.isEmpty() || random.nextInt(3) > 0) {
+                int value = 30 + random.nextInt(50);
+                values.add(value);
+                statistics.add(value);
+            } else {
+                int value = values.remove(random.nextInt(values.size()));
+                statistics.remove(value);
+            }
+            // Then mean and variance are the same as recomputed ones
+            assertEquals(values.size(), statistics.getCount());
+            assertEquals(mean(values), statistics.getMean(), 1e-6);
+            assertEquals(variance(values), statistics.getVariance(), 1e-6);
+        }
+    }
+
+    @Test
+    public void combinedStatisticsAreSameAsStatisticsOfAllValues()
+            throws Exception {
+        // Given statistics of two groups of values
+        RunningStatistics first = new RunningStatistics();
+        RunningStatistics second = new RunningStatistics();
+        for (int value : Arrays.asList(40, 42, 44)) {
+            first.add(value);
+        }
+        for (int value : Arrays.asList(35, 50)) {
+            second.add(value);
+        }
+        // When they are combined
+        RunningStatistics combined = first.combine(second);
+        // Then they are the same as of all values, groups are not changed
+        List<Integer> allValues = Arrays.asList(40, 42, 44, 35, 50);
+        assertEquals(5, combined.getCount());
+        assertEquals(mean(allValues), combined.getMean(), DELTA);
+        assertEquals(variance(allValues), combined.getVariance(), DELTA);
+        assertEquals(3, first.getCount());
+        assertEquals(2, second.getCount());
+    }
+
+    @Test
+    public void removingLastValueGivesEmptyStatistics() throws Exception {
+        // Given statistics with one value
+        RunningStatistics statistics = new RunningStatistics();
+        statistics.add(42);
+        // When value is removed
+        statistics.remove(42);
+        // Then statistics are empty
+        assertEquals(0, statistics.getCount());
+        assertEquals(0, statistics.getMean(), DELTA);
+        assertEquals(0, statistics.getVariance(), DELTA);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void removingFromEmptyStatisticsThrowsException() throws Exception {
+        // Given empty statistics
+        // When value is removed
+        // Then IllegalStateException is thrown
+        new RunningStatistics().remove(42);
+    }
+
+    @Test
+    public void fairnessReportRanksMostDeviatingTeamFirst() throws Exception {
+        // Given balanced team, and team of tall experienced players
+        Team balancedTeam = new Team("Balanced","John Doe");
+        balancedTeam.addPlayer(new Player("A","Doe",40,true));
+        balancedTeam.addPlayer(new Player("B","Doe",44,false));
+        Team tallTeam = new Team("Tall","Jane Doe");
+        tallTeam.addPlayer(new Player("C","Doe",50,true));
+        tallTeam.addPlayer(new Player("D","Doe",48,true));
+        Team otherTeam = new Team("Other","Alex Doe");
+        otherTeam.addPlayer(new Player("E","Doe",42,false));
+        otherTeam.addPlayer(new Player("F","Doe",40,false));
+        // When fairness report is made
+        FairnessReport fairnessReport = new FairnessReport(
+                Arrays.asList(balancedTeam, tallTeam, otherTeam));
+        // Then tall team is the first, balanced team is the last
+        assertEquals(6, fairnessReport.getLeagueHeightStatistics().getCount());
+        assertEquals(0.5, fairnessReport.getLeagueExperienceRatio(), DELTA);
+        List<FairnessReport.Entry> entries = fairnessReport.getEntries();
+        assertEquals(tallTeam, entries.get(0).getTeam());
+        assertTrue(entries.get(0).getHeightDeviation() > 0);
+        assertEquals(balancedTeam, entries.get(2).getTeam());
+    }
+}
@@ -0,0 +1,221 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StandingsTest {
+    private Standings mStandings;
+    private Team mSharks;
+    private Team mDragons;
+    private Team mTigers;
+    private Team mLions;
+
+    @Before
+    public void setUp() throws Exception {
+        mStandings = new Standings();
+        mSharks = new Team("Sharks", "coach name");
+        mDragons = new Team("Dragons", "coach name");
+        mTigers = new Team("Tigers", "coach name");
+        mLions = new Team("Lions", "coach name");
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    @Test
+    public void winDrawAndLossGiveThreeOneAndZeroPoints() throws Exception {
+        // Given win of sharks and draw with dragons
+        mStandings.add(new MatchResult(mSharks, mTigers, 2, 0));
+        mStandings.add(new MatchResult(mDragons, mSharks, 1, 1));
+        // When rows are taken
+        Standings.Row sharksRow = mStandings.getRow(mSharks);
+        Standings.Row tigersRow = mStandings.getRow(mTigers);
+        // Then sharks have 4 points and +2, tigers lost
+        assertEquals(4, sharksRow.getPoints());
+        assertEquals(2, sharksRow.getNumberOfGames());
+        assertEquals(2, sharksRow.getGoalDifference());
+        assertEquals(0, tigersRow.getPoints());
+        assertEquals(1, tigersRow.getNumberOfLosses());
+        assertEquals(1, mStandings.rankOf(mSharks));
+        assertEquals(3, mStandings.rankOf(mTigers));
+    }
+
+    @Test
+    public void groupOfTeamsWithSamePointsIsOrderedByHeadToHead()
+            throws Exception {
+        // Given dragons, tigers and lions with 3 points each: dragons have
+        // best goal difference, but tigers beat lions
+        mStandings.add(new MatchResult(mDragons, mSharks, 9, 0));
+        mStandings.add(new MatchResult(mTigers, mLions, 1, 0));
+        mStandings.add(new MatchResult(mLions, mSharks, 1, 0));
+        // When table is taken
+        List<Standings.Row> top = mStandings.getTop(4);
+        // Then tigers are first by head-to-head points, dragons and lions
+        // have no points among them, and dragons have better head-to-head
+        // goal difference
+        assertEquals(mTigers, top.get(0).getTeam());
+        assertEquals(mDragons, top.get(1).getTeam());
+        assertEquals(mLions, top.get(2).getTeam());
+        assertEquals(mSharks, top.get(3).getTeam());
+        assertEquals(1, mStandings.rankOf(mTigers));
+        assertEquals(3, mStandings.rankOf(mLions));
+    }
+
+    @Test
+    public void headToHeadWinnerIsAboveTeamWithBetterGoalDifference()
+            throws Exception {
+        // Given tigers beat sharks, sharks beat lions 5:0 and tigers lost
+        // to dragons 0:1, tigers and sharks have 3 points each
+        mStandings.add(new MatchResult(mTigers, mSharks, 1, 0));
+        mStandings.add(new MatchResult(mSharks, mLions, 5, 0));
+        mStandings.add(new MatchResult(mDragons, mTigers, 1, 0));
+        // When ranks are taken
+        // Then tigers are above sharks, though sharks have better goal
+        // difference
+        assertEquals(3, mStandings.getRow(mTigers).getPoints());
+        assertEquals(3, mStandings.getRow(mSharks).getPoints());
+        assertTrue(mStandings.rankOf(mTigers) < mStandings.rankOf(mSharks));
+    }
+
+    @Test
+    public void tiedGroupIsSortedAgainAfterResultChangesIt()
+            throws Exception {
+        // Given four teams without games, table taken, then tigers beat
+        // sharks, sharks beat lions, lions beat tigers, all 1:0
+        mStandings.addTeam(mDragons);
+        mStandings.addTeam(mLions);
+        mStandings.addTeam(mSharks);
+        mStandings.addTeam(mTigers);
+        assertEquals(1, mStandings.rankOf(mDragons));
+        mStandings.add(new MatchResult(mTigers, mSharks, 1, 0));
+        mStandings.add(new MatchResult(mSharks, mLions, 1, 0));
+        mStandings.add(new MatchResult(mLions, mTigers, 1, 0));
+        assertEquals(mLions, mStandings.getTop(1).get(0).getTeam());
+        assertEquals(4, mStandings.rankOf(mDragons));
+        // When dragons beat lions 2:0 and table is taken
+        mStandings.add(new MatchResult(mDragons, mLions, 2, 0));
+        List<Standings.Row> top = mStandings.getTop(4);
+        // Then dragons are first by head-to-head goal difference, sharks
+        // and tigers are tied and ordered by name, lions are last
+        assertEquals(mDragons, top.get(0).getTeam());
+        assertEquals(mSharks, top.get(1).getTeam());
+        assertEquals(mTigers, top.get(2).getTeam());
+        assertEquals(mLions, top.get(3).getTeam());
+        assertEquals(4, mStandings.rankOf(mLions));
+        assertEquals(1, mStandings.rankOf(mDragons));
+    }
+
+    @Test
+    public void topReturnsAtMostGivenNumberOfRows() throws Exception {
+        // Given 4 teams, one game
+        mStandings.addTeam(mLions);
+        mStandings.addTeam(mDragons);
+        mStandings.add(new MatchResult(mSharks, mTigers, 0, 3));
+        // When top 2 is taken
+        List<Standings.Row> top = mStandings.getTop(2);
+        // Then it has winner first, and then team without games and
+        // best name
+        assertEquals(2, top.size());
+        assertEquals(mTigers, top.get(0).getTeam());
+        assertEquals(mDragons, top.get(1).getTeam());
+        assertEquals(4, mStandings.getTop(10).size());
+    }
+
+    @Test
+    public void removedTeamIsNotInTable() throws Exception {
+        // Given game of sharks and tigers
+        mStandings.add(new MatchResult(mSharks, mTigers, 2, 1));
+        // When sharks are removed
+        assertTrue(mStandings.removeTeam(mSharks));
+        // Then only tigers are left
+        assertEquals(-1, mStandings.rankOf(mSharks));
+        assertEquals(1, mStandings.size());
+        assertEquals(1, mStandings.rankOf(mTigers));
+    }
+
+    @Test
+    public void feedAppliesAllPublishedResults() throws Exception {
+        // Given feed with small queue
+        ResultsFeed resultsFeed = new ResultsFeed(mStandings, 2);
+        // When 100 results are published and feed is closed
+        for (int i = 0; i < 100; i++) {
+            resultsFeed.publish(new MatchResult(mSharks, mTigers, 1, 0));
+        }
+        resultsFeed.close();
+        // Then all of them are in standings
+        assertEquals(100, resultsFeed.getNumberOfResults());
+        assertEquals(300, mStandings.getRow(mSharks).getPoints());
+        assertEquals(100, mStandings.getNumberOfResults());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closedFeedDoesNotTakeResults() throws Exception {
+        // Given closed feed
+        ResultsFeed resultsFeed = new ResultsFeed(mStandings);
+        resultsFeed.close();
+        // When result is published
+        resultsFeed.publish(new MatchResult(mSharks, mTigers, 1, 0));
+        // Then IllegalStateException is thrown
+    }
+
+    @Test
+    public void interruptedCloseKeepsInterruptFlag() throws Exception {
+        // Given feed and interrupted thread
+        ResultsFeed resultsFeed = new ResultsFeed(mStandings);
+        resultsFeed.publish(new MatchResult(mSharks, mTigers, 1, 0));
+        Thread.currentThread().interrupt();
+        // When feed is closed
+        try {
+            resultsFeed.close();
+            fail("Interrupted close should fail");
+        } catch (IllegalStateException illegalStateException) {
+            // Then thread is still interrupted
+            assertTrue(Thread.interrupted());
+        }
+        // And consumer thread is stopped, so next close does not wait
+        resultsFeed.close();
+        assertTrue(resultsFeed.getNumberOfResults() <= 1);
+    }
+
+    @Test
+    public void resultsAreLoadedFromFileAndBadRowsAreRejected()
+            throws Exception {
+        // Given registry with two teams, and file with header, two results
+        // and rows with unknown team, team playing itself and bad goals
+        TeamRegistry teamRegistry = new TeamRegistry();
+        teamRegistry.add(mSharks);
+        teamRegistry.add(mTigers);
+        Path resultsFile = Files.createTempFile("results", ".csv");
+        resultsFile.toFile().deleteOnExit();
+        Files.write(resultsFile, ("home,away,homeGoals,awayGoals\n" +
+                "Sharks,Tigers,2,1\n" +
+                "Tigers, Sharks, 0, 0\n" +
+                "Lions,Sharks,1,0\n" +
+                "Sharks,Sharks,1,0\n" +
+                "Sharks,Tigers,-1,0\n")
+                .getBytes(StandardCharsets.UTF_8));
+        // When file is loaded
+        MatchResultsFileLoader.Report report = new MatchResultsFileLoader()
+                .load(resultsFile, teamRegistry, mStandings::add);
+        // Then two results are in standings, and three rows are rejected
+        assertEquals(2, report.getNumberOfResults());
+        assertEquals(3, report.getNumberOfRejectedRows());
+        assertEquals(4, mStandings.getRow(mSharks).getPoints());
+        assertEquals(1, mStandings.getRow(mTigers).getPoints());
+    }
+}
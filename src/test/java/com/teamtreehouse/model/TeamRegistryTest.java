@@ -0,0 +1,135 @@
+package com.teamtreehouse.model;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+public class TeamRegistryTest {
+    private TeamRegistry mTeamRegistry;
+
+    @Before
+    public void setUp() throws Exception {
+        mTeamRegistry = new TeamRegistry();
+        mTeamRegistry.add(new Team("Sharks","John Doe"));
+        mTeamRegistry.add(new Team("Dragons","Jane Doe"));
+        mTeamRegistry.add(new Team("Tigers","Alex Doe"));
+    }
+    // adding some decoration before each test
+    @Rule
+    public TestRule watcher = new TestWatcher() {
+        protected void starting(Description description) {
+            System.out.printf("%n -------- Starting test: %s %n",description.getMethodName());
+        }
+    };
+
+    @Test
+    public void teamsArePickedByIdInAlphabeticalOrder() throws Exception {
+        // Given registry with three teams
+        // When teams are taken by index
+        // Then they should be sorted by name
+        assertEquals("Dragons", mTeamRegistry.get(0).getName());
+        assertEquals("Sharks", mTeamRegistry.get(1).getName());
+        assertEquals("Tigers", mTeamRegistry.get(2).getName());
+    }
+
+    @Test
+    public void addingTeamWithTakenNameReturnsFalse() throws Exception {
+        // Given registry with "Sharks" team
+        // When other team with the same name is added
+        // Then false is returned and registry size is not changed
+        assertFalse(mTeamRegistry.add(new Team("Sharks","Other Coach")));
+        assertEquals(3, mTeamRegistry.size());
+    }
+
+    @Test
+    public void removedTeamCanNotBeFoundByNameOrId() throws Exception {
+        // Given registry with three teams
+        Team sharks = mTeamRegistry.getByName("Sharks");
+        // When "Sharks" are removed
+        assertTrue(mTeamRegistry.remove(sharks));
+        // Then name is free, and "Tigers" are second
+        assertFalse(mTeamRegistry.containsName("Sharks"));
+        assertEquals(-1, mTeamRegistry.rankOf(sharks));
+        assertEquals("Tigers", mTeamRegistry.get(1).getName());
+    }
+
+    @Test
+    public void removingTeamWithIteratorAlsoFreesName() throws Exception {
+        // Given registry with three teams
+        // When first team is removed with iterator
+        Iterator<Team> iterator = mTeamRegistry.iterator();
+        iterator.next();
+        iterator.remove();
+        // Then "Dragons" name is free
+        assertFalse(mTeamRegistry.containsName("Dragons"));
+        assertEquals(2, mTeamRegistry.size());
+    }
+
+    @Test
+    public void ownerTeamOfPlayerFollowsAddAndRemove() throws Exception {
+        // Given player on "Sharks"
+        Team sharks = mTeamRegistry.getByName("Sharks");
+        Player player = new Player("Joe", "Smith", 42, true);
+        assertTrue(sharks.addPlayer(player));
+        // When owner of player is looked up
+        // Then it is "Sharks", also by names only
+        assertSame(sharks, mTeamRegistry.getTeamOf(player));
+        assertSame(sharks, mTeamRegistry.getTeamOf("Joe", "Smith"));
+        assertEquals(1, mTeamRegistry.getNumberOfPlayers());
+        // When player is removed from team
+        assertTrue(sharks.remove(player));
+        // Then player is on no team
+        assertNull(mTeamRegistry.getTeamOf("Joe", "Smith"));
+    }
+
+    @Test
+    public void playerOnOtherTeamIsNotAdded() throws Exception {
+        // Given player on "Sharks"
+        Player player = new Player("Joe", "Smith", 42, true);
+        mTeamRegistry.getByName("Sharks").addPlayer(player);
+        // When the same player is added to "Tigers"
+        Team tigers = mTeamRegistry.getByName("Tigers");
+        // Then player is rejected, and stays on "Sharks"
+        assertFalse(tigers.addPlayer(new Player("Joe", "Smith", 42, true)));
+        assertEquals(0, tigers.size());
+        assertEquals("Sharks",
+                mTeamRegistry.getTeamOf(player).getName());
+    }
+
+    @Test
+    public void removedTeamReleasesItsPlayers() throws Exception {
+        // Given player on "Sharks"
+        Team sharks = mTeamRegistry.getByName("Sharks");
+        Player player = new Player("Joe", "Smith", 42, true);
+        sharks.addPlayer(player);
+        // When "Sharks" are removed
+        mTeamRegistry.remove(sharks);
+        // Then player is on no team and can join "Tigers", and changes of
+        // removed team are not tracked
+        assertNull(mTeamRegistry.getTeamOf(player));
+        assertNull(sharks.getRegistry());
+        sharks.remove(player);
+        assertTrue(mTeamRegistry.getByName("Tigers").addPlayer(player));
+        assertEquals("Tigers",
+                mTeamRegistry.getTeamOf(player).getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void teamWithPlayerOfOtherTeamIsNotRegistered() throws Exception {
+        // Given player on "Sharks", and new team with the same player
+        mTeamRegistry.getByName("Sharks")
+                .addPlayer(new Player("Joe", "Smith", 42, true));
+        Team lions = new Team("Lions", "Jack Doe");
+        lions.addPlayer(new Player("Joe", "Smith", 42, true));
+        // When new team is added
+        // Then IllegalArgumentException is thrown
+        mTeamRegistry.add(lions);
+    }
+}
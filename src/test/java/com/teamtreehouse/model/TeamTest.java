@@ -8,6 +8,7 @@ import org.junit.rules.TestWatcher;
 import org.junit.runner.Description;
 
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -175,4 +176,116 @@ public class TeamTest {
         rightMapWithTwoEntries.put("Experienced", 1);
         assertEquals(rightMapWithTwoEntries,generatedExperienceMap);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void hashCodeOfTeamDoesNotChangeWhenPlayerIsAdded()
+            throws Exception {
+        // Given team with name "team" and its hash code
+        int hashCodeOfEmptyTeam = mTeam.hashCode();
+        // When player is added
+        mTeam.addPlayer(mJohnDoePlayer);
+        // Then hash code should stay the same
+        assertEquals(hashCodeOfEmptyTeam, mTeam.hashCode());
+    }
+
+    @Test
+    public void teamsWithSameNameInDifferentCaseAreDifferent()
+            throws Exception {
+        // Given team "team" and team "TEAM"
+        Team upperCaseTeam = new Team("TEAM","coach name");
+        // When they are compared
+        // Then they are different, case of name matters
+        assertNotEquals(mTeam, upperCaseTeam);
+        assertTrue(upperCaseTeam.compareTo(mTeam) < 0);
+    }
+
+    @Test
+    public void sameTeamsWithDifferentPlayersDifferOnlyInDeepComparison()
+            throws Exception {
+        // Given two teams with same name and coach, one with player
+        Team sameTeamAsmTeam = new Team("team","coach name");
+        assertTrue(mTeam.hasSameCoachAndPlayersAs(sameTeamAsmTeam));
+        mTeam.addPlayer(mJohnDoePlayer);
+        // When they are compared
+        // Then they are equal, but not by deep comparison
+        assertEquals(mTeam, sameTeamAsmTeam);
+        assertFalse(mTeam.hasSameCoachAndPlayersAs(sameTeamAsmTeam));
+    }
+
+    @Test
+    public void removingPlayerUpdatesHeightAndExperienceMaps() throws Exception {
+        // Given team with two experienced players of same height
+        Player janeDoe = new Player("Jane","Doe",1,true);
+        mTeam.addPlayer(mJohnDoePlayer);
+        mTeam.addPlayer(janeDoe);
+        Map<Integer,Integer> heightMap =
+                mTeam.getMapOfNumberOfPlayersWithSpecificHeight();
+        Map<String,Integer> experienceMap =
+                mTeam.getMapOfPlayersWithDifferentExperience();
+        // When player equal to John Doe, but with other height and
+        // experience is removed
+        assertTrue(mTeam.remove(new Player("John","Doe",2,false)));
+        // Then maps, taken before, show stats of player left in team
+        assertEquals(Integer.valueOf(1), heightMap.get(1));
+        assertEquals(1, heightMap.size());
+        assertEquals(Integer.valueOf(1), experienceMap.get("Experienced"));
+        assertEquals(Integer.valueOf(0), experienceMap.get("Beginner"));
+    }
+
+    @Test
+    public void heightMapIsSortedByHeight() throws Exception {
+        // Given team with players added in random height order
+        Player[] players = Players.load();
+        TreeMap<Integer,Integer> expectedMap = new TreeMap<>();
+        for (int i = 0; i < Team.MAX_NUMBER_OF_PLAYERS; i++) {
+            mTeam.addPlayer(players[i]);
+            expectedMap.merge(players[i].getHeightInInches(), 1, Integer::sum);
+        }
+        // When height map is taken
+        // Then it should be the same as recomputed TreeMap, in same order
+        assertEquals(expectedMap,
+                mTeam.getMapOfNumberOfPlayersWithSpecificHeight());
+        assertEquals(new ArrayList<>(expectedMap.keySet()),
+                new ArrayList<>(mTeam
+                        .getMapOfNumberOfPlayersWithSpecificHeight().keySet()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void playersSetOfTeamIsReadOnly() throws Exception {
+        // Given team
+        // When player is added right to players set
+        // Then UnsupportedOperationException is thrown, stats can't go wrong
+        mTeam.getPlayersSet().add(mJohnDoePlayer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addingPlayerWithNegativeHeightThrowsException()
+            throws Exception {
+        // Given player with negative height
+        Player player = new Player("John","Doe",-1,true);
+        // When player is added to team
+        // Then IllegalArgumentException is thrown
+        mTeam.addPlayer(player);
+    }
+
+    @Test
+    public void minAndMaxHeightAreUpdatedWhenPlayersAreRemoved()
+            throws Exception {
+        // Given team with players 40, 45 and 50 inches high
+        Player shortPlayer = new Player("A","Doe",40,true);
+        Player tallPlayer = new Player("C","Doe",50,false);
+        mTeam.addPlayer(shortPlayer);
+        mTeam.addPlayer(new Player("B","Doe",45,false));
+        mTeam.addPlayer(tallPlayer);
+        assertEquals(40, mTeam.getMinHeight());
+        assertEquals(50, mTeam.getMaxHeight());
+        // When shortest and tallest players are removed
+        mTeam.remove(shortPlayer);
+        mTeam.remove(tallPlayer);
+        // Then min and max are height of player left
+        assertEquals(45, mTeam.getMinHeight());
+        assertEquals(45, mTeam.getMaxHeight());
+        assertEquals(45, mTeam.getHeightStatistics().getMean(), 1e-9);
+        assertEquals(0, mTeam.getExperienceRatio(), 1e-9);
+    }
+}